@@ -0,0 +1,15 @@
+package com.upgrad.quora.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * A Configuration class that launches the reactive read API of the Quora Application from Java main method.
+ * It serves the read endpoints of quora-api on a non-blocking web layer and database driver.
+ */
+@SpringBootApplication
+public class QuoraReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(QuoraReactiveApplication.class, args);
+    }
+}
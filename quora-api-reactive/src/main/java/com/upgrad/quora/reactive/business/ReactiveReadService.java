@@ -0,0 +1,101 @@
+package com.upgrad.quora.reactive.business;
+
+import com.github.jasync.sql.db.RowData;
+import com.upgrad.quora.reactive.dao.ReactiveQuoraDao;
+import com.upgrad.quora.service.business.ReadRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * This class applies the rules of the read endpoints of the service module to the rows loaded by the reactive DAO.
+ * The rules are checked in the same order as in the business services, so both APIs return the same errors.
+ */
+@Service
+public class ReactiveReadService {
+    @Autowired
+    private ReactiveQuoraDao reactiveQuoraDao;
+
+    /**
+     * This method retrieves all the questions after checking the access token
+     * @param accessToken access token of the user
+     * @return questions, or an AuthorizationFailedException error
+     */
+    public Flux<RowData> getAllQuestions(final String accessToken) {
+        return authorize(accessToken).thenMany(reactiveQuoraDao.findAllQuestions());
+    }
+
+    /**
+     * This method retrieves the questions of a user after checking the user and the access token
+     * @param userUuid uuid of the user
+     * @param accessToken access token of the caller
+     * @return questions, or an UserNotFoundException or AuthorizationFailedException error
+     */
+    public Mono<List<RowData>> getAllQuestionsByUser(final String userUuid, final String accessToken) {
+        return whenEmpty(reactiveQuoraDao.findUser(userUuid), () -> ReadRules.checkUserFound(false))
+                .then(authorize(accessToken))
+                .then(reactiveQuoraDao.findQuestionsByUser(userUuid).collectList())
+                .flatMap(questions -> check(() -> ReadRules.checkUserHasQuestions(questions.size())).then(Mono.just(questions)));
+    }
+
+    /**
+     * This method retrieves the answers to a question after checking the access token and the question
+     * @param accessToken access token of the user
+     * @param questionUuid uuid of the question
+     * @return answers, or an AuthorizationFailedException or InvalidQuestionException error
+     */
+    public Flux<RowData> getAllAnswersToQuestion(final String accessToken, final String questionUuid) {
+        return authorize(accessToken)
+                .then(whenEmpty(reactiveQuoraDao.findQuestionId(questionUuid), () -> ReadRules.checkQuestionFound(false)))
+                .flatMapMany(reactiveQuoraDao::findAnswers);
+    }
+
+    /**
+     * This method retrieves the profile of a user after checking the access token
+     * @param userUuid uuid of the user
+     * @param accessToken access token of the caller
+     * @return profile, or an AuthorizationFailedException or UserNotFoundException error
+     */
+    public Mono<RowData> getUserProfile(final String userUuid, final String accessToken) {
+        return authorize(accessToken)
+                .then(whenEmpty(reactiveQuoraDao.findUser(userUuid), () -> ReadRules.checkUserFound(false)));
+    }
+
+    private Mono<Void> authorize(final String accessToken) {
+        return reactiveQuoraDao.findSignedOut(accessToken)
+                .map(signedOut -> signedOut ? SessionState.SIGNED_OUT : SessionState.SIGNED_IN)
+                .defaultIfEmpty(SessionState.NONE)
+                .flatMap(state -> check(() -> ReadRules.checkSignedIn(state != SessionState.NONE, state == SessionState.SIGNED_OUT)));
+    }
+
+    /**
+     * This method applies a rule when the row it needs was not found
+     * @param row row loaded by the DAO
+     * @param rule rule failing for a missing row
+     * @return the row, or the error of the rule if there is no row
+     */
+    private static <T> Mono<T> whenEmpty(final Mono<T> row, final Rule rule) {
+        return row.switchIfEmpty(Mono.defer(() -> check(rule).then(Mono.<T>empty())));
+    }
+
+    private static Mono<Void> check(final Rule rule) {
+        try {
+            rule.apply();
+            return Mono.empty();
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+
+    private enum SessionState {
+        NONE, SIGNED_IN, SIGNED_OUT
+    }
+
+    @FunctionalInterface
+    private interface Rule {
+        void apply() throws Exception;
+    }
+}
@@ -0,0 +1,36 @@
+package com.upgrad.quora.reactive.config;
+
+import com.github.jasync.sql.db.ConnectionPoolConfigurationBuilder;
+import com.github.jasync.sql.db.pool.ConnectionPool;
+import com.github.jasync.sql.db.postgresql.PostgreSQLConnection;
+import com.github.jasync.sql.db.postgresql.PostgreSQLConnectionBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This Configuration creates the pool of non-blocking PostgreSQL connections. The connections are multiplexed by the
+ * event loop, so the pool is sized for the database and not for the number of concurrent requests.
+ */
+@Configuration
+public class ReactiveDatabaseConfiguration {
+
+    @Bean(destroyMethod = "disconnect")
+    public ConnectionPool<PostgreSQLConnection> connectionPool(
+            @Value("${quora.reactive.db.host:localhost}") String host,
+            @Value("${quora.reactive.db.port:5432}") int port,
+            @Value("${quora.reactive.db.database:quora}") String database,
+            @Value("${quora.reactive.db.username:postgres}") String username,
+            @Value("${quora.reactive.db.password:password}") String password,
+            @Value("${quora.reactive.db.max-connections:20}") int maxConnections) {
+
+        ConnectionPoolConfigurationBuilder configuration = new ConnectionPoolConfigurationBuilder();
+        configuration.setHost(host);
+        configuration.setPort(port);
+        configuration.setDatabase(database);
+        configuration.setUsername(username);
+        configuration.setPassword(password);
+        configuration.setMaxActiveConnections(maxConnections);
+        return PostgreSQLConnectionBuilder.createConnectionPool(configuration.build());
+    }
+}
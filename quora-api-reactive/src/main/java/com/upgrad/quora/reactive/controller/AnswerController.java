@@ -0,0 +1,40 @@
+package com.upgrad.quora.reactive.controller;
+
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.reactive.business.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * This Controller class is for the answer read endpoints of the reactive API
+ */
+@RestController
+@RequestMapping("/api")
+public class AnswerController {
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    /**
+     * This method retrieves all the answers by questionId
+     * @param authorizationToken user authorization token
+     * @param questionId question id
+     * @return ResponseEntity with appropriate response code, or an AuthorizationFailedException or
+     * InvalidQuestionException error
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<List<AnswerDetailsResponse>>> getAllAnswersToQuestion(@RequestHeader("authorization") final String authorizationToken,
+                                                                                     @PathVariable("questionId") final String questionId) {
+        return reactiveReadService.getAllAnswersToQuestion(authorizationToken, questionId)
+                .map(answer -> new AnswerDetailsResponse().id(answer.getString("uuid"))
+                        .answerContent(answer.getString("ans")).questionContent(answer.getString("content")))
+                .collectList()
+                .map(answers -> new ResponseEntity<List<AnswerDetailsResponse>>(answers, HttpStatus.OK));
+    }
+}
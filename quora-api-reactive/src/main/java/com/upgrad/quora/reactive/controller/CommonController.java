@@ -0,0 +1,45 @@
+package com.upgrad.quora.reactive.controller;
+
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.reactive.business.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * This class implements the controller for the end point userProfile - "/userprofile/{userId}" of the reactive API
+ */
+@RestController
+@RequestMapping("/api")
+public class CommonController {
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    /**
+     * The "/userprofile/{userId}" endpoint is used to get the details of any user in the Quora Application.
+     * @param userUuid uuid of the user
+     * @param authorization authorization code of the user
+     * @return appropriate response entity, or an AuthorizationFailedException or UserNotFoundException error
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<UserDetailsResponse>> getUserById(@PathVariable("userId") final String userUuid, @RequestHeader("authorization") final String authorization) {
+        return reactiveReadService.getUserProfile(userUuid, authorization).map(user -> {
+            UserDetailsResponse userDetailsResponse = new UserDetailsResponse();
+
+            userDetailsResponse.setFirstName(user.getString("firstname"));
+            userDetailsResponse.setLastName(user.getString("lastname"));
+            userDetailsResponse.setUserName(user.getString("username"));
+            userDetailsResponse.setEmailAddress(user.getString("email"));
+            userDetailsResponse.setCountry(user.getString("country"));
+            userDetailsResponse.setAboutMe(user.getString("aboutme"));
+            userDetailsResponse.setContactNumber(user.getString("contactnumber"));
+            userDetailsResponse.setDob(user.getString("dob"));
+
+            return new ResponseEntity<UserDetailsResponse>(userDetailsResponse, HttpStatus.OK);
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.upgrad.quora.reactive.controller;
+
+import com.github.jasync.sql.db.RowData;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.reactive.business.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This Controller class is for the question read endpoints of the reactive API
+ */
+@RestController
+@RequestMapping("/api")
+public class QuestionController {
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    //Method to view all question based on the request from the API and uses RequestMethod.GET
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<List<QuestionDetailsResponse>>> getAllQuestions(@RequestHeader("authorization") final String authorization) {
+        return reactiveReadService.getAllQuestions(authorization).collectList().map(QuestionController::getListResponseEntity);
+    }
+
+    //Method to Get question based on the request from the API for specific userid and uses RequestMethod.GET
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all/{userId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<List<QuestionDetailsResponse>>> getAllQuestionsByUser(@RequestHeader("authorization") final String authorization, @PathVariable("userId") final String userId) {
+        return reactiveReadService.getAllQuestionsByUser(userId, authorization).map(QuestionController::getListResponseEntity);
+    }
+
+    // Method maps the question rows to the response
+    private static ResponseEntity<List<QuestionDetailsResponse>> getListResponseEntity(final List<RowData> questions) {
+        List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<>(questions.size());
+        for (RowData question : questions) {
+            questionDetailsResponses.add(new QuestionDetailsResponse().id(question.getString("uuid")).content(question.getString("content")));
+        }
+        return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponses, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,101 @@
+package com.upgrad.quora.reactive.dao;
+
+import com.github.jasync.sql.db.QueryResult;
+import com.github.jasync.sql.db.RowData;
+import com.github.jasync.sql.db.pool.ConnectionPool;
+import com.github.jasync.sql.db.postgresql.PostgreSQLConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class implements the read queries of the reactive API with the non-blocking driver. The queries mirror the
+ * named queries of the service module, including the exclusion of the users pending deletion.
+ */
+@Repository
+public class ReactiveQuoraDao {
+    private static final String SESSION_BY_TOKEN = "select ua.logout_at from user_auth ua join users u on u.id = ua.user_id "
+            + "where ua.access_token = ? and u.deleted_at is null";
+
+    private static final String USER_BY_UUID = "select uuid, firstname, lastname, username, email, country, aboutme, dob, contactnumber "
+            + "from users where uuid = ? and deleted_at is null";
+
+    private static final String QUESTION_ID_BY_UUID = "select q.id from question q join users u on u.id = q.user_id "
+            + "where q.uuid = ? and u.deleted_at is null";
+
+    private static final String ALL_QUESTIONS = "select q.uuid, q.content from question q join users u on u.id = q.user_id "
+            + "where u.deleted_at is null";
+
+    private static final String QUESTIONS_BY_USER = "select q.uuid, q.content from question q join users u on u.id = q.user_id "
+            + "where u.uuid = ?";
+
+    private static final String ANSWERS_BY_QUESTION = "select a.uuid, a.ans, q.content from answer a join question q on q.id = a.question_id "
+            + "join users u on u.id = a.user_id where a.question_id = ? and u.deleted_at is null";
+
+    @Autowired
+    private ConnectionPool<PostgreSQLConnection> connectionPool;
+
+    /**
+     * This method finds whether the session of an access token is signed out
+     * @param accessToken access token of the session
+     * @return true if the session is signed out, empty if there is no session for the access token
+     */
+    public Mono<Boolean> findSignedOut(final String accessToken) {
+        return query(SESSION_BY_TOKEN, accessToken).next().map(row -> row.get("logout_at") != null);
+    }
+
+    /**
+     * This method retrieves the profile of a user
+     * @param userUuid uuid of the user
+     * @return profile columns of the user, empty if the user does not exist
+     */
+    public Mono<RowData> findUser(final String userUuid) {
+        return query(USER_BY_UUID, userUuid).next();
+    }
+
+    /**
+     * This method retrieves the id of a question
+     * @param questionUuid uuid of the question
+     * @return id of the question, empty if the question does not exist
+     */
+    public Mono<Long> findQuestionId(final String questionUuid) {
+        return query(QUESTION_ID_BY_UUID, questionUuid).next().map(row -> ((Number) row.get("id")).longValue());
+    }
+
+    /**
+     * This method retrieves all the questions
+     * @return uuid and content of the questions
+     */
+    public Flux<RowData> findAllQuestions() {
+        return query(ALL_QUESTIONS);
+    }
+
+    /**
+     * This method retrieves the questions of a user
+     * @param userUuid uuid of the user
+     * @return uuid and content of the questions
+     */
+    public Flux<RowData> findQuestionsByUser(final String userUuid) {
+        return query(QUESTIONS_BY_USER, userUuid);
+    }
+
+    /**
+     * This method retrieves the answers to a question
+     * @param questionId id of the question
+     * @return uuid and content of the answers with the content of the question
+     */
+    public Flux<RowData> findAnswers(final long questionId) {
+        return query(ANSWERS_BY_QUESTION, questionId);
+    }
+
+    private Flux<RowData> query(final String sql, final Object... parameters) {
+        final List<Object> values = parameters.length == 0 ? Collections.emptyList() : Arrays.asList(parameters);
+        return Mono.defer(() -> Mono.fromFuture(connectionPool.sendPreparedStatement(sql, values)))
+                .flatMapIterable(QueryResult::getRows);
+    }
+}
@@ -0,0 +1,44 @@
+package com.upgrad.quora.reactive.controller;
+
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+
+public class QuestionControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+
+    //This test case passes when you try to get the detail of all the questions and the JWT token entered exists in the database and the user corresponding to that JWT token is signed in.
+    @Test
+    public void getAllQuestions() throws Exception {
+        webTestClient.get().uri("/api/question/all").header("authorization", "database_accesstoken1").exchange()
+                .expectStatus().isOk();
+    }
+
+    //This test case passes when you try to get the detail of all the questions but the JWT token entered does not exist in the database.
+    @Test
+    public void getAllQuestionsWithNonExistingAccessToken() throws Exception {
+        webTestClient.get().uri("/api/question/all").header("authorization", "non_existing_access_token").exchange()
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("code").isEqualTo("ATHR-001");
+    }
+
+    //This test case passes when you try to get the questions of a user which does not exist in the database.
+    @Test
+    public void getAllQuestionsForNonExistingUser() throws Exception {
+        webTestClient.get().uri("/api/question/all/non_existing_user_uuid").header("authorization", "database_accesstoken1").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("code").isEqualTo("USR-001");
+    }
+}
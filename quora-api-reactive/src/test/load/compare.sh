@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Comparative load test of the read endpoints of quora-api (servlet) and quora-api-reactive with wrk
+# (https://github.com/wg/wrk). Start both applications on the same hardware against the same database, with the same
+# limits (CPU, heap, database connections: spring.datasource/quora.bulkhead pool sizes for quora-api and
+# quora.reactive.db.max-connections for quora-api-reactive), then run this script from a separate load machine.
+# The report is written as a Markdown table of throughput and latency per endpoint, concurrency and module.
+#
+# Usage: compare.sh <access token> [servlet base url] [reactive base url] [duration]
+
+set -euo pipefail
+
+TOKEN=${1:?access token of a signed in user}
+SERVLET_URL=${2:-http://localhost:8080/api}
+REACTIVE_URL=${3:-http://localhost:8081/api}
+DURATION=${4:-60s}
+REPORT=${REPORT:-load-report.md}
+
+{
+    echo "| endpoint | connections | module | requests/s | p50 | p99 | non-2xx |"
+    echo "|---|---|---|---|---|---|---|"
+} > "${REPORT}"
+
+for path in /question/all /userprofile/database_uuid1 /answer/all/database_question_uuid; do
+    for connections in 50 200 1000; do
+        for module in servlet reactive; do
+            base=${SERVLET_URL}
+            [ "${module}" = reactive ] && base=${REACTIVE_URL}
+            out=$(wrk --latency -t4 -c"${connections}" -d"${DURATION}" -H "authorization: ${TOKEN}" "${base}${path}")
+            rps=$(echo "${out}" | awk '/Requests\/sec/ {print $2}')
+            p50=$(echo "${out}" | awk '$1 == "50%" {print $2}')
+            p99=$(echo "${out}" | awk '$1 == "99%" {print $2}')
+            errors=$(echo "${out}" | awk '/Non-2xx/ {print $5}')
+            echo "| ${path} | ${connections} | ${module} | ${rps} | ${p50} | ${p99} | ${errors:-0} |" >> "${REPORT}"
+        done
+    done
+done
+
+echo "Report written to ${REPORT}"
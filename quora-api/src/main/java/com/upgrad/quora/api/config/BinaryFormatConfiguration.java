@@ -0,0 +1,44 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * This Configuration registers the binary formats the listing endpoints can answer in besides JSON. A client selects
+ * one with the Accept header; the body is the same swagger model serialized by Jackson in Smile or CBOR, so the
+ * clients decode it with the models they use for JSON. The mappers are configured like the JSON mapper of the application;
+ * the builder of the application is shared with that mapper, so its factory is never changed. The binary formats carry
+ * no charset, unlike the default content type of the Jackson converters.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2SmileHttpMessageConverter converter = new MappingJackson2SmileHttpMessageConverter(mapper(builder, new SmileFactory()));
+        converter.setDefaultCharset(null);
+        return converter;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2CborHttpMessageConverter converter = new MappingJackson2CborHttpMessageConverter(mapper(builder, new CBORFactory()));
+        converter.setDefaultCharset(null);
+        return converter;
+    }
+
+    private static ObjectMapper mapper(final Jackson2ObjectMapperBuilder builder, final JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        builder.configure(mapper);
+        return mapper;
+    }
+}
@@ -0,0 +1,98 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.filter.AimdLimit;
+import com.upgrad.quora.api.filter.CachedResponse;
+import com.upgrad.quora.api.filter.ConcurrencyLimitFilter;
+import com.upgrad.quora.api.filter.IdempotencyFilter;
+import com.upgrad.quora.api.filter.ResponseCacheFilter;
+import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.cache.CacheRegistry;
+import com.upgrad.quora.service.cache.LocalCache;
+import com.upgrad.quora.service.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.servlet.DispatcherType;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This Configuration registers the servlet filters which run in front of the controllers.
+ */
+@Configuration
+public class FilterConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "quora.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${quora.concurrency-limit.initial-limit:50}") int initialLimit,
+            @Value("${quora.concurrency-limit.min-limit:5}") int minLimit,
+            @Value("${quora.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${quora.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${quora.concurrency-limit.latency-threshold-ms:500}") long latencyThresholdMs,
+            @Value("${quora.concurrency-limit.low-priority-share:0.6}") double lowPriorityShare,
+            @Value("${quora.concurrency-limit.low-priority-paths:/question/all,/question/all/**,/answer/all/**,/v2/answer/all/**,/question/suggest,/question/tagged,/question/trending,/question/*/related,/userprofile/*/activity,/contributors/top}") String[] lowPriorityPaths,
+            @Value("${quora.concurrency-limit.excluded-paths:/actuator/**}") String[] excludedPaths,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+
+        AimdLimit limit = new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs));
+        List<String> lowPriority = Arrays.asList(lowPriorityPaths);
+        List<String> excluded = Arrays.asList(excludedPaths);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limit, lowPriorityShare, lowPriority, excluded, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/*");
+        // the limiter runs first so that a shed request costs as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "quora.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            @Value("${quora.idempotency.paths:/question/create,/question/*/answer/create,/user/signup}") String[] paths,
+            IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
+
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, Arrays.asList(paths), objectMapper));
+        registration.addUrlPatterns("/*");
+        // a replayed response is served after the limiter but before the bulkheads and the controllers
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "quora.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            @Value("${quora.response-cache.max-body-bytes:1048576}") int maxBodyBytes,
+            @Value("${quora.response-cache.min-gzip-bytes:1024}") int minGzipBytes,
+            CacheRegistry cacheRegistry, UserBusinessService userBusinessService, MeterRegistry meterRegistry) {
+
+        LocalCache<String, CachedResponse> questions = cacheRegistry.register(CacheNames.QUESTION_RESPONSES);
+        Map<String, LocalCache<String, CachedResponse>> routes = new LinkedHashMap<>();
+        routes.put("/question/all", questions);
+        routes.put("/question/all/*", questions);
+        LocalCache<String, CachedResponse> answers = cacheRegistry.register(CacheNames.ANSWER_RESPONSES);
+        routes.put("/answer/all/*", answers);
+        routes.put("/v2/answer/all/*", answers);
+        routes.put("/userprofile/*", cacheRegistry.register(CacheNames.PROFILE_RESPONSES));
+
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(routes, userBusinessService, maxBodyBytes, minGzipBytes, meterRegistry));
+        registration.addUrlPatterns("/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        // a hit is served after the limiter, without reaching the bulkheads and the database executor
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This Configuration attaches a property filter to the generated models of the responses which support the "fields"
+ * query parameter. The filter serializes every property unless the response of a request replaces it.
+ */
+@Configuration
+public class SparseFieldsetConfiguration {
+    public static final String FILTER_ID = "fields";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(QuestionDetailsResponse.class, FieldsFilterMixin.class)
+                .mixIn(AnswerDetailsResponse.class, FieldsFilterMixin.class)
+                .mixIn(UserDetailsResponse.class, FieldsFilterMixin.class)
+                .filters(new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FILTER_ID)
+    private abstract static class FieldsFilterMixin {
+    }
+}
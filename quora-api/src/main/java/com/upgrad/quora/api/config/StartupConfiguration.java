@@ -0,0 +1,65 @@
+package com.upgrad.quora.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * This Configuration holds the startup optimizations enabled by the "fast-startup" profile. The beans of the packages
+ * listed in "quora.startup.lazy-packages" are created when they are first used instead of at startup, and with
+ * "quora.startup.exit-when-ready" the application stops as soon as it has started, for the training run which records
+ * the classes of the class data sharing archive.
+ */
+@Configuration
+public class StartupConfiguration {
+    private static final Logger LOG = LoggerFactory.getLogger(StartupConfiguration.class);
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyPackagesPostProcessor(final Environment environment) {
+        final String[] packages = environment.getProperty("quora.startup.lazy-packages", String[].class, new String[0]);
+        return beanFactory -> markLazy(beanFactory, packages);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "quora.startup.exit-when-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> {
+            LOG.info("Started for a training run, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+
+    private static void markLazy(final ConfigurableListableBeanFactory beanFactory, final String[] packages) {
+        if (packages.length == 0) {
+            return;
+        }
+        int marked = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            String className = definition.getBeanClassName();
+            if (className != null && definition.isSingleton() && !definition.isLazyInit() && inPackages(className, packages)) {
+                definition.setLazyInit(true);
+                marked++;
+            }
+        }
+        LOG.info("Marked {} beans for lazy initialization", marked);
+    }
+
+    private static boolean inPackages(final String className, final String[] packages) {
+        for (String name : packages) {
+            if (className.startsWith(name.trim() + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
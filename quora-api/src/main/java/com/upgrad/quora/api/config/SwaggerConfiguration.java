@@ -1,6 +1,7 @@
 package com.upgrad.quora.api.config;
 
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.PathSelectors;
@@ -10,9 +11,11 @@ import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 /**
- * This Configuration integrates Swagger2 into the existing Spring Boot project.
+ * This Configuration integrates Swagger2 into the existing Spring Boot project. It can be switched off with
+ * "quora.swagger.enabled", since the documentation is generated while the application starts.
  */
 @Configuration
+@ConditionalOnProperty(name = "quora.swagger.enabled", havingValue = "true", matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfiguration {
 
@@ -0,0 +1,42 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.api.warmup.WarmupHealthIndicator;
+import com.upgrad.quora.api.warmup.WarmupReport;
+import com.upgrad.quora.api.warmup.WarmupRunner;
+import com.upgrad.quora.service.warmup.WarmupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * This Configuration registers the warmup which runs after the application has started. The "warmup" health
+ * indicator reports the node out of service until the warmup is complete.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quora.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfiguration {
+
+    @Bean
+    public WarmupReport warmupReport() {
+        return new WarmupReport();
+    }
+
+    @Bean
+    public WarmupHealthIndicator warmupHealthIndicator(final WarmupReport warmupReport) {
+        return new WarmupHealthIndicator(warmupReport);
+    }
+
+    @Bean
+    public WarmupRunner warmupRunner(final WarmupService warmupService, final WarmupReport warmupReport,
+                                     @Value("${quora.warmup.connections-per-pool:2}") int connectionsPerPool,
+                                     @Value("${quora.warmup.requests:/question/all,/question/all?fields=id}") String[] requests,
+                                     @Value("${quora.warmup.iterations:200}") int iterations,
+                                     @Value("${quora.warmup.max-duration-ms:30000}") long maxDurationMs,
+                                     @Value("${quora.warmup.access-token:}") String accessToken) {
+        return new WarmupRunner(warmupService, warmupReport, connectionsPerPool, Arrays.asList(requests), iterations,
+                maxDurationMs, accessToken);
+    }
+}
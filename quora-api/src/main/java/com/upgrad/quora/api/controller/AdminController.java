@@ -1,14 +1,42 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.model.AdminStatisticsResponse;
+import com.upgrad.quora.api.model.ContributorDetails;
+import com.upgrad.quora.api.model.ProfilingDumpResponse;
+import com.upgrad.quora.api.model.ProfilingRecordingResponse;
 import com.upgrad.quora.api.model.UserDeleteResponse;
+import com.upgrad.quora.api.model.UserDeletionJobResponse;
+import com.upgrad.quora.api.model.UserImportFailureDetails;
+import com.upgrad.quora.api.model.UserImportResponse;
 import com.upgrad.quora.service.business.AdminBusinessService;
+import com.upgrad.quora.service.bulkhead.Bulkhead;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.JobNotFoundException;
+import com.upgrad.quora.service.exception.ProfilingException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.job.UserDeletionJob;
+import com.upgrad.quora.service.profiling.RecordingDump;
+import com.upgrad.quora.service.profiling.RecordingStatus;
+import com.upgrad.quora.service.provisioning.UserImportFailure;
+import com.upgrad.quora.service.provisioning.UserImportFormat;
+import com.upgrad.quora.service.provisioning.UserImportResult;
+import com.upgrad.quora.service.stats.ContributorStatistics;
+import com.upgrad.quora.service.stats.StatisticsSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
 /**
  * Admin Controller Class
  */
@@ -19,19 +47,180 @@ public class AdminController {
     private AdminBusinessService adminBusinessService;
 
     /**
-     * This method handles the request to delete a user
+     * This method handles the request to delete a user. The user is hidden immediately and purged in the background,
+     * so the response carries the id of the deletion job whose progress can be followed on "/admin/jobs/{jobId}"
      * @param userId user id of the user
      * @param accessToken access token of the user
      * @return ResponseEntity with appropriate message
      * @throws AuthorizationFailedException
      * @throws UserNotFoundException
      */
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.DELETE, path = "user/{userId}")
     public ResponseEntity<UserDeleteResponse> deleteUser(@PathVariable("userId") String userId, @RequestHeader("authorization")
             String accessToken) throws AuthorizationFailedException, UserNotFoundException {
 
-        String deletedUserId = adminBusinessService.deleteUser(accessToken, userId);
-        UserDeleteResponse userDeleteResponse = new UserDeleteResponse().id(deletedUserId).status("USER SUCCESSFULLY DELETED");
-        return new ResponseEntity<UserDeleteResponse>(userDeleteResponse, HttpStatus.OK);
+        UserDeletionJob deletionJob = adminBusinessService.deleteUser(accessToken, userId);
+        UserDeleteResponse userDeleteResponse = new UserDeleteResponse().id(deletionJob.getUserUuid()).jobId(deletionJob.getId()).status("USER DELETION IN PROGRESS");
+        return new ResponseEntity<UserDeleteResponse>(userDeleteResponse, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * This method handles the request to check the progress of a user deletion job
+     * @param jobId id of the deletion job
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the progress of the job
+     * @throws AuthorizationFailedException
+     * @throws JobNotFoundException
+     */
+    @Bulkhead(BulkheadNames.READ)
+    @RequestMapping(method = RequestMethod.GET, path = "jobs/{jobId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<UserDeletionJobResponse> getUserDeletionJob(@PathVariable("jobId") String jobId, @RequestHeader("authorization")
+            String accessToken) throws AuthorizationFailedException, JobNotFoundException {
+
+        UserDeletionJob deletionJob = adminBusinessService.getUserDeletionJob(accessToken, jobId);
+        UserDeletionJobResponse jobResponse = new UserDeletionJobResponse().id(deletionJob.getId())
+                .userId(deletionJob.getUserUuid())
+                .status(deletionJob.getStatus().name())
+                .answersDeleted(deletionJob.getAnswersDeleted())
+                .questionsDeleted(deletionJob.getQuestionsDeleted())
+                .sessionsDeleted(deletionJob.getSessionsDeleted())
+                .createdAt(toOffsetDateTime(deletionJob.getCreatedAt()))
+                .startedAt(toOffsetDateTime(deletionJob.getStartedAt()))
+                .finishedAt(toOffsetDateTime(deletionJob.getFinishedAt()))
+                .failureReason(deletionJob.getFailureReason());
+        return new ResponseEntity<UserDeletionJobResponse>(jobResponse, HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to see the application statistics. The statistics are served from in-memory
+     * counters, so this endpoint never runs aggregate queries on the database
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the statistics
+     * @throws AuthorizationFailedException
+     */
+    @Bulkhead(BulkheadNames.READ)
+    @RequestMapping(method = RequestMethod.GET, path = "stats", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<AdminStatisticsResponse> getStatistics(@RequestHeader("authorization") String accessToken) throws AuthorizationFailedException {
+
+        StatisticsSnapshot statistics = adminBusinessService.getStatistics(accessToken);
+        AdminStatisticsResponse statisticsResponse = new AdminStatisticsResponse().users(statistics.getUsers())
+                .activeSessions(statistics.getActiveSessions())
+                .questions(statistics.getQuestions())
+                .answers(statistics.getAnswers())
+                .reconciledAt(toOffsetDateTime(statistics.getReconciledAt()));
+        for (ContributorStatistics contributor : statistics.getTopContributors()) {
+            statisticsResponse.addTopContributorsItem(new ContributorDetails().id(contributor.getUserUuid())
+                    .questions(contributor.getQuestions()).answers(contributor.getAnswers()));
+        }
+        return new ResponseEntity<AdminStatisticsResponse>(statisticsResponse, HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to create users in bulk. The body is read as a stream, either as CSV with a header
+     * row or as one JSON object per line
+     * @param contentType content type of the body
+     * @param body rows of the users to be imported
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the number of imported users and the rows which failed
+     * @throws AuthorizationFailedException
+     * @throws IOException
+     */
+    @Bulkhead(BulkheadNames.WRITE)
+    @RequestMapping(method = RequestMethod.POST, path = "users/import", consumes = {"text/csv", "application/x-ndjson"},
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<UserImportResponse> importUsers(@RequestHeader("Content-Type") String contentType, InputStream body,
+            @RequestHeader("authorization") String accessToken) throws AuthorizationFailedException, IOException {
+
+        UserImportResult importResult = adminBusinessService.importUsers(accessToken, body, UserImportFormat.fromContentType(contentType));
+        UserImportResponse userImportResponse = new UserImportResponse().received(importResult.getReceived()).imported(importResult.getImported());
+        for (UserImportFailure failure : importResult.getFailures()) {
+            userImportResponse.addFailuresItem(new UserImportFailureDetails().row(failure.getRow()).userName(failure.getUserName())
+                    .code(failure.getCode()).message(failure.getMessage()));
+        }
+        return new ResponseEntity<UserImportResponse>(userImportResponse, HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to see the status of the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the status of the recording
+     * @throws AuthorizationFailedException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "profiling/recording", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ProfilingRecordingResponse> getRecording(@RequestHeader("authorization") String accessToken) throws AuthorizationFailedException {
+
+        RecordingStatus recordingStatus = adminBusinessService.getRecordingStatus(accessToken);
+        return new ResponseEntity<ProfilingRecordingResponse>(toRecordingResponse(recordingStatus), HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to start the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the status of the recording
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "profiling/recording", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ProfilingRecordingResponse> startRecording(@RequestHeader("authorization") String accessToken) throws AuthorizationFailedException, ProfilingException {
+
+        RecordingStatus recordingStatus = adminBusinessService.startRecording(accessToken);
+        return new ResponseEntity<ProfilingRecordingResponse>(toRecordingResponse(recordingStatus), HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to stop the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the status of the recording
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     */
+    @RequestMapping(method = RequestMethod.DELETE, path = "profiling/recording", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ProfilingRecordingResponse> stopRecording(@RequestHeader("authorization") String accessToken) throws AuthorizationFailedException, ProfilingException {
+
+        RecordingStatus recordingStatus = adminBusinessService.stopRecording(accessToken);
+        return new ResponseEntity<ProfilingRecordingResponse>(toRecordingResponse(recordingStatus), HttpStatus.OK);
+    }
+
+    /**
+     * This method handles the request to dump a time window of the continuous Flight Recorder recording to a file
+     * @param from start of the window, the start of the recording if not given
+     * @param to end of the window, now if not given
+     * @param accessToken access token of the user
+     * @return ResponseEntity with the path and the size of the dumped file
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     * @throws IOException
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "profiling/dumps", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ProfilingDumpResponse> dumpRecording(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestHeader("authorization") String accessToken) throws AuthorizationFailedException, ProfilingException, IOException {
+
+        RecordingDump recordingDump = adminBusinessService.dumpRecording(accessToken,
+                from == null ? null : from.toInstant(), to == null ? null : to.toInstant());
+        ProfilingDumpResponse profilingDumpResponse = new ProfilingDumpResponse().path(recordingDump.getPath())
+                .sizeBytes(recordingDump.getSize())
+                .from(toOffsetDateTime(recordingDump.getFrom()))
+                .to(toOffsetDateTime(recordingDump.getTo()));
+        return new ResponseEntity<ProfilingDumpResponse>(profilingDumpResponse, HttpStatus.OK);
+    }
+
+    private static ProfilingRecordingResponse toRecordingResponse(RecordingStatus recordingStatus) {
+        return new ProfilingRecordingResponse().running(recordingStatus.isRunning())
+                .name(recordingStatus.getName())
+                .startTime(toOffsetDateTime(recordingStatus.getStartTime()))
+                .maxAgeSeconds(recordingStatus.getMaxAge() == null ? null : recordingStatus.getMaxAge().getSeconds())
+                .maxSizeBytes(recordingStatus.isRunning() ? Long.valueOf(recordingStatus.getMaxSize()) : null)
+                .dumpDirectory(recordingStatus.getDumpDirectory());
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static OffsetDateTime toOffsetDateTime(ZonedDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toOffsetDateTime();
     }
 }
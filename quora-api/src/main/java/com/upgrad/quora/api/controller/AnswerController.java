@@ -1,22 +1,38 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.upgrad.quora.api.config.BinaryFormatConfiguration;
 import com.upgrad.quora.api.model.*;
+import com.upgrad.quora.service.async.AsyncDbExecutor;
 import com.upgrad.quora.service.business.AnswerBusinessService;
 import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.bulkhead.Bulkhead;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
+import com.upgrad.quora.service.common.DateRange;
+import com.upgrad.quora.service.common.FieldSelection;
 import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AnswerNotFoundException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidDateRangeException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This Controller class is for the answer related endpoints
@@ -24,6 +40,17 @@ import java.util.List;
 @RestController
 @RequestMapping("/")
 public class AnswerController {
+    /**
+     * Fields of the answer listing which can be requested with the fields parameter, by the attribute of the answer
+     * they are read from
+     */
+    private static final Map<String, String> LISTING_FIELDS = new LinkedHashMap<>();
+
+    static {
+        LISTING_FIELDS.put("id", "uuid");
+        LISTING_FIELDS.put("questionContent", "question.content");
+        LISTING_FIELDS.put("answerContent", "answer");
+    }
 
     @Autowired
     private AnswerBusinessService answerBusinessService;
@@ -31,6 +58,9 @@ public class AnswerController {
     @Autowired
     private QuestionBusinessService questionBusinessService;
 
+    @Autowired
+    private AsyncDbExecutor asyncDbExecutor;
+
     private static String ANSWER_CREATED = "ANSWER CREATED";
     private static String ANSWER_EDITED = "ANSWER EDITED";
     private static String ANSWER_DELETED = "ANSWER DELETED";
@@ -43,6 +73,7 @@ public class AnswerController {
      * @return
      * @throws AuthorizationFailedException
      */
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.POST, path = "/question/{questionId}/answer/create",
             consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
@@ -64,6 +95,7 @@ public class AnswerController {
      * @throws InvalidQuestionException
      */
 
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.PUT, path = "/answer/edit/{answerId}",
             consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
@@ -85,6 +117,7 @@ public class AnswerController {
      * @throws AuthorizationFailedException
      * @throws InvalidQuestionException
      */
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.DELETE, path = "/answer/delete/{answerId}",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<AnswerDeleteResponse> deleteAnswer(@RequestHeader("authorization") final String authorizationToken,
@@ -97,28 +130,78 @@ public class AnswerController {
     }
 
     /**
-     * This method retrieves all the answers by questionId
+     * This method retrieves all the answers by questionId. The answers are read on the database executor, which
+     * completes the returned future with the response, or with AuthorizationFailedException or
+     * InvalidQuestionException
      * @param authorizationToken user authorization token
      * @param questionId question id
-     * @return ResponseEntity with appropriate response code
-     * @throws AuthorizationFailedException
-     * @throws UserNotFoundException
+     * @param fields comma separated fields of the response, only their columns are read; all the fields when null
+     * @param from start of the range of dates of the answers, included; unbounded when null
+     * @param to end of the range of dates of the answers, excluded; unbounded when null
+     * @return future ResponseEntity with appropriate response code
+     * @throws InvalidFieldException if a requested field does not exist
+     * @throws InvalidDateRangeException if the start of the range is not before its end
      */
-
+    @SparseFieldset
     @RequestMapping(method = RequestMethod.GET, path = "answer/all/{questionId}",
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+            produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_VALUE})
+
+    public CompletableFuture<ResponseEntity<List<AnswerDetailsResponse>>> getAllAnswersToQuestion (@RequestHeader("authorization") final String authorizationToken,
+                                                                                @PathVariable("questionId") final String questionId,
+                                                                                @RequestParam(value = "fields", required = false) final String fields,
+                                                                                @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime from,
+                                                                                @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime to) throws InvalidFieldException, InvalidDateRangeException {
+        final FieldSelection selection = FieldSelection.parse(fields, LISTING_FIELDS);
+        final DateRange range = DateRange.of(from, to);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            List<AnswerDetailsResponse> answerDetailsResponseList = new ArrayList<AnswerDetailsResponse>();
+            List<AnswerEntity> answerEntityList = answerBusinessService.getAllAnswersToQuestion(authorizationToken, questionId,
+                    selection.isAll() ? null : selection.getAttributes(), range);
+            if (answerEntityList != null && !answerEntityList.isEmpty()) {
+                for (AnswerEntity answerEntity : answerEntityList) {
+                    answerDetailsResponseList.add(new AnswerDetailsResponse().id(answerEntity.getUuid())
+                            .answerContent(answerEntity.getAnswer())
+                            .questionContent(answerEntity.getQuestion() == null ? null : answerEntity.getQuestion().getContent()));
+                }
+            }
+            return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponseList, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * This method retrieves all the answers by questionId in the v2 shape, which carries the question once and lists
+     * every author once, the answers referring to their author by position. The answers are read on the database
+     * executor, which completes the returned future with the response, or with AuthorizationFailedException or
+     * InvalidQuestionException
+     * @param authorizationToken user authorization token
+     * @param questionId question id
+     * @return future ResponseEntity with appropriate response code
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/v2/answer/all/{questionId}",
+            produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<AnswerThreadResponse>> getAnswerThread(@RequestHeader("authorization") final String authorizationToken,
+                                                                                   @PathVariable("questionId") final String questionId) {
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            List<AnswerEntity> answerEntityList = answerBusinessService.getAnswerThread(authorizationToken, questionId);
+            QuestionEntity questionEntity = questionBusinessService.getQuestionById(questionId);
 
-    public ResponseEntity<List<AnswerDetailsResponse>> getAllAnswersToQuestion (@RequestHeader("authorization") final String authorizationToken,
-                                                                                @PathVariable("questionId") final String questionId) throws AuthorizationFailedException,
-            InvalidQuestionException {
-        List<AnswerDetailsResponse> answerDetailsResponseList = new ArrayList<AnswerDetailsResponse>();
-        List<AnswerEntity> answerEntityList = answerBusinessService.getAllAnswersToQuestion(authorizationToken, questionId);
-        if (answerEntityList != null && !answerEntityList.isEmpty()) {
+            AnswerThreadResponse answerThreadResponse = new AnswerThreadResponse()
+                    .question(new AnswerThreadQuestion().id(questionEntity.getUuid()).content(questionEntity.getContent()))
+                    .answers(new ArrayList<AnswerThreadEntry>(answerEntityList.size()))
+                    .authors(new ArrayList<AnswerThreadAuthor>());
+            Map<String, Integer> authorPositions = new HashMap<String, Integer>();
             for (AnswerEntity answerEntity : answerEntityList) {
-                answerDetailsResponseList.add(new AnswerDetailsResponse().id(answerEntity.getUuid())
-                        .answerContent(answerEntity.getAnswer()).questionContent(answerEntity.getQuestion().getContent()));
+                UserEntity author = answerEntity.getUser();
+                Integer position = authorPositions.get(author.getUuid());
+                if (position == null) {
+                    position = authorPositions.size();
+                    authorPositions.put(author.getUuid(), position);
+                    answerThreadResponse.addAuthorsItem(new AnswerThreadAuthor().id(author.getUuid()).userName(author.getUserName()));
+                }
+                answerThreadResponse.addAnswersItem(new AnswerThreadEntry().id(answerEntity.getUuid())
+                        .content(answerEntity.getAnswer()).author(position));
             }
-        }
-        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponseList, HttpStatus.OK);
+            return new ResponseEntity<AnswerThreadResponse>(answerThreadResponse, HttpStatus.OK);
+        });
     }
 }
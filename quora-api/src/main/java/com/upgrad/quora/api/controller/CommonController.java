@@ -1,50 +1,163 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.model.TopContributor;
+import com.upgrad.quora.api.model.TopContributorList;
+import com.upgrad.quora.api.model.TopContributorsResponse;
+import com.upgrad.quora.api.model.UserActivityItem;
+import com.upgrad.quora.api.model.UserActivityResponse;
 import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.service.activity.ActivityCursor;
+import com.upgrad.quora.service.activity.ActivityItem;
+import com.upgrad.quora.service.activity.ActivityPage;
+import com.upgrad.quora.service.async.AsyncDbExecutor;
+import com.upgrad.quora.service.business.ActivityBusinessService;
 import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
+import com.upgrad.quora.service.common.FieldSelection;
 import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
-import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
+import com.upgrad.quora.service.stats.Contribution;
+import com.upgrad.quora.service.stats.ContributorRanking;
+import com.upgrad.quora.service.stats.RankedContributor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
- * This class implements the controller for the end points userProfile - "/userprofile/{userId}"
+ * This class implements the controller for the end points userProfile - "/userprofile/{userId}", userActivity -
+ * "/userprofile/{userId}/activity" and topContributors - "/contributors/top"
  */
 @RestController
 @RequestMapping("/")
 public class CommonController {
+    /**
+     * Fields of the user profile which can be requested with the fields parameter, by the attribute of the user they
+     * are read from
+     */
+    private static final Map<String, String> PROFILE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        PROFILE_FIELDS.put("first_name", "firstName");
+        PROFILE_FIELDS.put("last_name", "lastName");
+        PROFILE_FIELDS.put("user_name", "userName");
+        PROFILE_FIELDS.put("email_address", "email");
+        PROFILE_FIELDS.put("country", "country");
+        PROFILE_FIELDS.put("aboutMe", "aboutMe");
+        PROFILE_FIELDS.put("dob", "dob");
+        PROFILE_FIELDS.put("contact_number", "contactNumber");
+    }
 
     @Autowired
     private UserBusinessService userBusinessService;
 
+    @Autowired
+    private ActivityBusinessService activityBusinessService;
+
+    @Autowired
+    private AsyncDbExecutor asyncDbExecutor;
+
     /**
      * The "/userprofile/{userId}" endpoint is used to get the details of any user in the Quora Application.
      * This endpoint can be accessed by any user in the application.
      * @param userUuid uuid of the user
+     * The profile is read on the database executor, which completes the returned future with the response, or with
+     * UserNotFoundException or AuthorizationFailedException.
      * @param authorization authorization code of the user
-     * @return appropriate response entity
-     * @throws UserNotFoundException
-     * @throws AuthorizationFailedException
+     * @param fields comma separated fields of the response, only their columns are read; all the fields when null
+     * @return future appropriate response entity
+     * @throws InvalidFieldException if a requested field does not exist
      */
+    @SparseFieldset
     @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}")
-    public ResponseEntity<UserDetailsResponse> getUserById(@PathVariable("userId") final String userUuid, @RequestHeader("authorization") final String authorization) throws UserNotFoundException, AuthorizationFailedException {
+    public CompletableFuture<ResponseEntity<UserDetailsResponse>> getUserById(@PathVariable("userId") final String userUuid, @RequestHeader("authorization") final String authorization,
+                                                                              @RequestParam(value = "fields", required = false) final String fields) throws InvalidFieldException {
+        final FieldSelection selection = FieldSelection.parse(fields, PROFILE_FIELDS);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            UserEntity userById = selection.isAll() ? userBusinessService.getUserProfile(userUuid, authorization)
+                    : userBusinessService.getUserProfile(userUuid, authorization, selection.getAttributes());
 
-        UserEntity userById = userBusinessService.getUserProfile(userUuid, authorization);
+            UserDetailsResponse userDetailsResponse = new UserDetailsResponse();
 
-        UserDetailsResponse userDetailsResponse = new UserDetailsResponse();
+            userDetailsResponse.setFirstName(userById.getFirstName());
+            userDetailsResponse.setLastName(userById.getLastName());
+            userDetailsResponse.setUserName(userById.getUserName());
+            userDetailsResponse.setEmailAddress(userById.getEmail());
+            userDetailsResponse.setCountry(userById.getCountry());
+            userDetailsResponse.setAboutMe(userById.getAboutMe());
+            userDetailsResponse.setContactNumber(userById.getContactNumber());
+            userDetailsResponse.setDob(userById.getDob());
 
-        userDetailsResponse.setFirstName(userById.getFirstName());
-        userDetailsResponse.setLastName(userById.getLastName());
-        userDetailsResponse.setUserName(userById.getUserName());
-        userDetailsResponse.setEmailAddress(userById.getEmail());
-        userDetailsResponse.setCountry(userById.getCountry());
-        userDetailsResponse.setAboutMe(userById.getAboutMe());
-        userDetailsResponse.setContactNumber(userById.getContactNumber());
-        userDetailsResponse.setDob(userById.getDob());
+            return new ResponseEntity<UserDetailsResponse>(userDetailsResponse, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * The "/userprofile/{userId}/activity" endpoint is used to get the questions and answers posted by any user in the
+     * Quora Application, newest first, one page at a time. This endpoint can be accessed by any user in the application.
+     * The page is read on the database executor, which completes the returned future with the response, or with
+     * UserNotFoundException or AuthorizationFailedException.
+     * @param userUuid uuid of the user
+     * @param authorization authorization code of the user
+     * @param cursor next_cursor of the previous page, null for the first page
+     * @param limit maximum number of items of the page
+     * @return future appropriate response entity
+     * @throws InvalidCursorException if the cursor was not returned with a previous page
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}/activity")
+    public CompletableFuture<ResponseEntity<UserActivityResponse>> getUserActivity(@PathVariable("userId") final String userUuid, @RequestHeader("authorization") final String authorization,
+                                                                                   @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                                   @RequestParam(value = "limit", defaultValue = "20") final int limit) throws InvalidCursorException {
+        final ActivityCursor after = ActivityCursor.parse(cursor);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            ActivityPage page = activityBusinessService.getActivity(userUuid, after, limit, authorization);
+
+            UserActivityResponse userActivityResponse = new UserActivityResponse().nextCursor(page.getNextCursor());
+            for (ActivityItem item : page.getItems()) {
+                userActivityResponse.addItemsItem(new UserActivityItem().type(item.getType().name()).id(item.getUuid()).content(item.getContent())
+                        .date(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(item.getDate())).questionId(item.getQuestionUuid()));
+            }
+
+            return new ResponseEntity<UserActivityResponse>(userActivityResponse, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * The "/contributors/top" endpoint is used to get the users who posted the most questions and the most answers in
+     * the Quora Application. This endpoint can be accessed by any user in the application. The rankings are read from
+     * memory on the request thread, and their counts are estimates which exceed the exact ones by at most max_overcount
+     * with a high probability.
+     * @param authorization authorization code of the user
+     * @param limit maximum number of users of every ranking
+     * @return appropriate response entity
+     * @throws AuthorizationFailedException if the user is not signed in
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/contributors/top", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<TopContributorsResponse> getTopContributors(@RequestHeader("authorization") final String authorization,
+                                                                      @RequestParam(value = "limit", defaultValue = "10") final int limit) throws AuthorizationFailedException {
+        Map<Contribution, ContributorRanking> topContributors = userBusinessService.getTopContributors(limit, authorization);
+
+        TopContributorsResponse topContributorsResponse = new TopContributorsResponse()
+                .askers(toTopContributorList(topContributors.get(Contribution.QUESTIONS)))
+                .answerers(toTopContributorList(topContributors.get(Contribution.ANSWERS)));
+
+        return new ResponseEntity<TopContributorsResponse>(topContributorsResponse, HttpStatus.OK);
+    }
 
-        return new ResponseEntity<UserDetailsResponse>(userDetailsResponse, HttpStatus.OK) ;
+    private static TopContributorList toTopContributorList(final ContributorRanking ranking) {
+        TopContributorList topContributorList = new TopContributorList().contributors(new ArrayList<>()).maxOvercount(ranking.getMaxOvercount());
+        for (RankedContributor contributor : ranking.getContributors()) {
+            topContributorList.addContributorsItem(new TopContributor().id(contributor.getUserUuid()).count(contributor.getCount()));
+        }
+        return topContributorList;
     }
 }
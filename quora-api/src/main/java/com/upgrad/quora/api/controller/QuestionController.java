@@ -1,16 +1,34 @@
 package com.upgrad.quora.api.controller;
 
+import com.upgrad.quora.api.config.BinaryFormatConfiguration;
 import com.upgrad.quora.api.model.*;
+import com.upgrad.quora.service.async.AsyncDbExecutor;
 import com.upgrad.quora.service.business.QuestionBusinessService;
 import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.bulkhead.Bulkhead;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
+import com.upgrad.quora.service.common.DateRange;
+import com.upgrad.quora.service.common.FieldSelection;
 import com.upgrad.quora.service.dao.QuestionDao;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.DuplicateQuestionException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidDateRangeException;
+import com.upgrad.quora.service.exception.InvalidFieldException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
-import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.exception.InvalidTagException;
+import com.upgrad.quora.service.exception.InvalidTrendingWindowException;
+import com.upgrad.quora.service.search.SimilarQuestion;
+import com.upgrad.quora.service.tags.TagCursor;
+import com.upgrad.quora.service.tags.TagFilter;
+import com.upgrad.quora.service.tags.TaggedQuestionPage;
+import com.upgrad.quora.service.trending.TrendingQuestion;
+import com.upgrad.quora.service.trending.TrendingWindow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,13 +36,23 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/")
 public class QuestionController
 {
+    //Fields of the question listing which can be requested with the fields parameter, by the attribute of the question they are read from
+    private static final Map<String, String> LISTING_FIELDS = new LinkedHashMap<>();
+
+    static {
+        LISTING_FIELDS.put("id", "uuid");
+        LISTING_FIELDS.put("content", "content");
+    }
 
     @Autowired
     private QuestionBusinessService questionBusinessService;
@@ -35,9 +63,13 @@ public class QuestionController
     @Autowired
     private QuestionDao questionDao;
 
-    //Method to create questions in the application and uses RequestMethod.POST
+    @Autowired
+    private AsyncDbExecutor asyncDbExecutor;
+
+    //Method to create questions with their tags in the application and uses RequestMethod.POST, the response lists the existing questions which are likely duplicates
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.POST, path = "/question/create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<QuestionResponse> createQuestion(final QuestionRequest questionRequest, @RequestHeader("authorization") final String authorization) throws AuthorizationFailedException {
+    public ResponseEntity<QuestionResponse> createQuestion(final QuestionRequest questionRequest, @RequestHeader("authorization") final String authorization) throws AuthorizationFailedException, DuplicateQuestionException, InvalidTagException {
 
         UserAuthEntity user = userBusinessService.getUserByToken(authorization);
         final QuestionEntity questionEntity = new QuestionEntity();
@@ -46,20 +78,91 @@ public class QuestionController
         questionEntity.setContent(questionRequest.getContent());
         questionEntity.setDate(ZonedDateTime.now());
         questionEntity.setUserId(user.getUserId());
+        if (questionRequest.getTags() != null) {
+            questionEntity.getTags().addAll(questionRequest.getTags());
+        }
         final QuestionEntity createdQuestionEntity = questionBusinessService.create(questionEntity);
         QuestionResponse questionResponse = new QuestionResponse().id(createdQuestionEntity.getUuid()).status("QUESTION CREATED");
+        for (SimilarQuestion duplicate : questionBusinessService.getLikelyDuplicates(createdQuestionEntity)) {
+            questionResponse.addDuplicatesItem(new SimilarQuestionResponse().id(duplicate.getUuid()).content(duplicate.getContent()).similarity(duplicate.getSimilarity()));
+        }
         return new ResponseEntity<QuestionResponse>(questionResponse, HttpStatus.CREATED);
     }
 
-    //Method to view all question based on the request from the API and uses RequestMethod.GET
-    @RequestMapping(method = RequestMethod.GET, path = "/question/all", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<List<QuestionDetailsResponse>> getAllQuestions(@RequestHeader("authorization") final String authorization) throws AuthorizationFailedException  {
-        UserAuthEntity user = userBusinessService.getUserByToken(authorization);
+    //Method to view all question based on the request from the API and uses RequestMethod.GET, the questions are read on the database executor.
+    //The fields parameter trims the response to the given fields, and only their columns are read. The from and to parameters restrict the questions to a range of dates
+    @SparseFieldset
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all",
+            produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<QuestionDetailsResponse>>> getAllQuestions(@RequestHeader("authorization") final String authorization,
+                                                                                            @RequestParam(value = "fields", required = false) final String fields,
+                                                                                            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime from,
+                                                                                            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime to) throws InvalidFieldException, InvalidDateRangeException {
+        final FieldSelection selection = FieldSelection.parse(fields, LISTING_FIELDS);
+        final DateRange range = DateRange.of(from, to);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            List<QuestionEntity> questionEntities = selection.isAll() ? questionBusinessService.getAllQuestions(authorization, range)
+                    : questionBusinessService.getAllQuestions(authorization, selection.getAttributes(), range);
+            return getListResponseEntity(questionEntities);
+        });
+    }
+    //Method to suggest questions while the user types, based on the request from the API and uses RequestMethod.GET. The suggestions are read from memory on the request thread
+    @RequestMapping(method = RequestMethod.GET, path = "/question/suggest", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> suggestQuestions(@RequestHeader("authorization") final String authorization,
+                                                                          @RequestParam("prefix") final String prefix,
+                                                                          @RequestParam(value = "limit", defaultValue = "10") final int limit) throws AuthorizationFailedException {
+        return getListResponseEntity(questionBusinessService.suggestQuestions(prefix, limit, authorization));
+    }
 
-        List<QuestionEntity> questionEntities= questionBusinessService.getAllQuestions(authorization);
-        return getListResponseEntity(questionEntities);
+    //Method to view a page of the questions matching a combination of tags, newest first, based on the request from the API and uses RequestMethod.GET.
+    //The filter is evaluated in memory and the questions of the page are read on the database executor
+    @RequestMapping(method = RequestMethod.GET, path = "/question/tagged", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public CompletableFuture<ResponseEntity<TaggedQuestionsResponse>> getTaggedQuestions(@RequestHeader("authorization") final String authorization,
+                                                                                         @RequestParam("tags") final String tags,
+                                                                                         @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                                         @RequestParam(value = "limit", defaultValue = "20") final int limit) throws InvalidTagException, InvalidCursorException {
+        final TagFilter filter = TagFilter.parse(tags);
+        final TagCursor after = TagCursor.parse(cursor);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            TaggedQuestionPage page = questionBusinessService.getTaggedQuestions(filter, after, limit, authorization);
+
+            TaggedQuestionsResponse taggedQuestionsResponse = new TaggedQuestionsResponse().questions(new ArrayList<>()).nextCursor(page.getNextCursor());
+            for (QuestionEntity question : page.getQuestions()) {
+                taggedQuestionsResponse.addQuestionsItem(new TaggedQuestionDetails().id(question.getUuid()).content(question.getContent())
+                        .tags(new ArrayList<>(question.getTags())));
+            }
+            return new ResponseEntity<TaggedQuestionsResponse>(taggedQuestionsResponse, HttpStatus.OK);
+        });
     }
+
+    //Method to view the questions which received the most answers in the last hour or day, based on the request from the API and uses RequestMethod.GET. The questions are read from memory on the request thread
+    @RequestMapping(method = RequestMethod.GET, path = "/question/trending", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<TrendingQuestionResponse>> getTrendingQuestions(@RequestHeader("authorization") final String authorization,
+                                                                               @RequestParam(value = "window", defaultValue = "hour") final String window,
+                                                                               @RequestParam(value = "limit", defaultValue = "10") final int limit) throws AuthorizationFailedException, InvalidTrendingWindowException {
+        List<TrendingQuestionResponse> trending = new ArrayList<>();
+        for (TrendingQuestion question : questionBusinessService.getTrendingQuestions(TrendingWindow.parse(window), limit, authorization)) {
+            trending.add(new TrendingQuestionResponse().id(question.getUuid()).content(question.getContent()).answers(question.getAnswers()));
+        }
+        return new ResponseEntity<List<TrendingQuestionResponse>>(trending, HttpStatus.OK);
+    }
+
+    //Method to view the questions related to a question based on the request from the API and uses RequestMethod.GET, the question is read on the database executor
+    @RequestMapping(method = RequestMethod.GET, path = "/question/{questionId}/related", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public CompletableFuture<ResponseEntity<List<SimilarQuestionResponse>>> getRelatedQuestions(@RequestHeader("authorization") final String authorization,
+                                                                                                @PathVariable("questionId") final String questionId,
+                                                                                                @RequestParam(value = "limit", defaultValue = "10") final int limit) {
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            List<SimilarQuestionResponse> related = new ArrayList<>();
+            for (SimilarQuestion question : questionBusinessService.getRelatedQuestions(questionId, limit, authorization)) {
+                related.add(new SimilarQuestionResponse().id(question.getUuid()).content(question.getContent()).similarity(question.getSimilarity()));
+            }
+            return new ResponseEntity<List<SimilarQuestionResponse>>(related, HttpStatus.OK);
+        });
+    }
+
     //Method to Delete question based on the request from the API and uses RequestMethod.DELETE
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.DELETE, path = "/question/delete/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<QuestionDeleteResponse> deleteQuestion(@RequestHeader("authorization") final String authorization,@PathVariable("questionId") final String questionId) throws AuthorizationFailedException, InvalidQuestionException   {
 
@@ -69,27 +172,33 @@ public class QuestionController
         return new ResponseEntity<QuestionDeleteResponse>(response, HttpStatus.OK);
     }
 
-    //Method to Edit question based on the request from the API and uses RequestMethod.PUT
+    //Method to Edit question based on the request from the API and uses RequestMethod.PUT, the tags of the question are replaced when they are given
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.PUT, path = "/question/edit/{questionId}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<QuestionEditResponse> editQuestionContent(@RequestHeader("authorization") final String authorization, @PathVariable("questionId") final String questionId,final QuestionEditRequest questionEditRequest) throws AuthorizationFailedException, InvalidQuestionException {
+    public ResponseEntity<QuestionEditResponse> editQuestionContent(@RequestHeader("authorization") final String authorization, @PathVariable("questionId") final String questionId,final QuestionEditRequest questionEditRequest) throws AuthorizationFailedException, InvalidQuestionException, InvalidTagException {
 
-        questionBusinessService.editQuestion(questionId, questionEditRequest.getContent(), authorization);
+        questionBusinessService.editQuestion(questionId, questionEditRequest.getContent(), questionEditRequest.getTags(), authorization);
         QuestionEditResponse response = new QuestionEditResponse().id(questionId).status("QUESTION EDITED");
 
         return new ResponseEntity<QuestionEditResponse>(response, HttpStatus.OK);
     }
 
-    //Method to Get question based on the request from the API for specific userid and uses RequestMethod.GET
-    @RequestMapping(method = RequestMethod.GET, path = "/question/all/{userId}")
-    public ResponseEntity<List<QuestionDetailsResponse>> getAllQuestionsByUser(@RequestHeader("authorization") final String authorization, @PathVariable("userId") final String userId ) throws AuthorizationFailedException, UserNotFoundException {
-
-        UserEntity userEntity = userBusinessService.getUserById(userId);
-        userBusinessService.getUserByToken(authorization);
-
-        List<QuestionEntity> allQuestions = questionBusinessService.getAllQuestionsByUser(userEntity, authorization);
-
-        return getListResponseEntity(allQuestions);
-
+    //Method to Get question based on the request from the API for specific userid and uses RequestMethod.GET, the questions are read on the database executor.
+    //The from and to parameters restrict the questions to a range of dates
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all/{userId}",
+            produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, BinaryFormatConfiguration.APPLICATION_SMILE_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<QuestionDetailsResponse>>> getAllQuestionsByUser(@RequestHeader("authorization") final String authorization, @PathVariable("userId") final String userId,
+                                                                                                  @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime from,
+                                                                                                  @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final ZonedDateTime to) throws InvalidDateRangeException {
+        final DateRange range = DateRange.of(from, to);
+        return asyncDbExecutor.submit(BulkheadNames.READ, () -> {
+            UserEntity userEntity = userBusinessService.getUserById(userId);
+            userBusinessService.getUserByToken(authorization);
+
+            List<QuestionEntity> allQuestions = questionBusinessService.getAllQuestionsByUser(userEntity, range, authorization);
+
+            return getListResponseEntity(allQuestions);
+        });
     }
 
     // Method reads the list of questionentity through loop.
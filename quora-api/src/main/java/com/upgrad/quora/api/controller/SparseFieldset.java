@@ -0,0 +1,18 @@
+package com.upgrad.quora.api.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation marks the endpoints whose response is trimmed to the fields named by the "fields" query parameter.
+ * The endpoint validates the parameter and reads only the requested fields, {@link SparseFieldsetAdvice} leaves the
+ * other fields out of the serialized response.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SparseFieldset {
+}
@@ -0,0 +1,46 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.upgrad.quora.api.config.SparseFieldsetConfiguration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This advice serializes the response of an endpoint annotated with {@link SparseFieldset} with only the fields named
+ * by the "fields" query parameter.
+ */
+@ControllerAdvice
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(final MethodParameter returnType, final Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(final MappingJacksonValue bodyContainer, final MediaType contentType,
+                                           final MethodParameter returnType, final ServerHttpRequest request,
+                                           final ServerHttpResponse response) {
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter("fields");
+        if (fields == null || fields.trim().isEmpty()) {
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        for (String name : fields.split(",")) {
+            names.add(name.trim());
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(SparseFieldsetConfiguration.FILTER_ID,
+                SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+    }
+}
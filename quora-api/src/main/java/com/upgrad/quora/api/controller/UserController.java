@@ -5,6 +5,8 @@ import com.upgrad.quora.api.model.SignoutResponse;
 import com.upgrad.quora.api.model.SignupUserRequest;
 import com.upgrad.quora.api.model.SignupUserResponse;
 import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.bulkhead.Bulkhead;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
 import com.upgrad.quora.service.exception.AuthenticationFailedException;
@@ -46,6 +48,7 @@ public class UserController {
      * @return ResponseEntity with HTTP Status Code
      * @throws SignUpRestrictedException
      */
+    @Bulkhead(BulkheadNames.AUTH)
     @RequestMapping(method = RequestMethod.POST, path = "signup", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<SignupUserResponse> signup(final SignupUserRequest signupUserRequest) throws SignUpRestrictedException {
         final UserEntity userEntity = new UserEntity();
@@ -89,6 +92,7 @@ public class UserController {
      * @return signin response with appropriate message
      * @throws AuthenticationFailedException
      */
+    @Bulkhead(BulkheadNames.AUTH)
     @RequestMapping(method = RequestMethod.POST, path = "signin", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<SigninResponse> signin(@RequestHeader("authorization") final String authorization) throws AuthenticationFailedException {
         byte[] decoded = Base64.getDecoder().decode(authorization.split(" ")[1]);
@@ -119,6 +123,7 @@ public class UserController {
      * @return appropriate message based on the state of the user
      * @throws SignOutRestrictedException
      */
+    @Bulkhead(BulkheadNames.WRITE)
     @RequestMapping(method = RequestMethod.POST, path = "signout")
     public ResponseEntity<SignoutResponse> signout(@RequestHeader("authorization") final String accessToken) throws SignOutRestrictedException {
 
@@ -0,0 +1,43 @@
+package com.upgrad.quora.api.filter;
+
+/**
+ * This class computes a concurrency limit with additive increase and multiplicative decrease. A request that completes
+ * within the latency threshold while the limit is in use raises the limit by one, a request slower than the threshold
+ * or failed by the server multiplies it by the backoff ratio.
+ */
+public class AimdLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+
+    public AimdLimit(final int initialLimit, final int minLimit, final int maxLimit, final double backoffRatio,
+                     final long latencyThresholdNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * This method updates the limit with a completed request
+     * @param latencyNanos latency of the request
+     * @param inflight number of requests in flight when the request started
+     * @param dropped true if the request failed because of the server
+     */
+    public synchronized void onSample(final long latencyNanos, final int inflight, final boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inflight * 2 >= limit) {
+            // the limit only grows while it is actually being used
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
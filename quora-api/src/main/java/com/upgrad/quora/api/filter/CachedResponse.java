@@ -0,0 +1,29 @@
+package com.upgrad.quora.api.filter;
+
+/**
+ * This class holds a serialized response of a read endpoint, with its gzip compressed variant when compressing the body
+ * makes it smaller.
+ */
+public class CachedResponse {
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    public CachedResponse(final String contentType, final byte[] body, final byte[] gzipBody) {
+        this.contentType = contentType;
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+}
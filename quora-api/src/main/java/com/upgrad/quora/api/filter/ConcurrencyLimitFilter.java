@@ -0,0 +1,191 @@
+package com.upgrad.quora.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This filter bounds the number of requests processed concurrently with an adaptive limit, so that when the database
+ * slows down the excess requests are rejected at once instead of piling up on the request threads.
+ * Low priority requests are admitted only while the requests in flight stay below a share of the limit, which keeps
+ * the rest of the limit for the high priority requests.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AimdLimit limit;
+    private final double lowPriorityShare;
+    private final List<String> lowPriorityPaths;
+    private final List<String> excludedPaths;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> rejections = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(final AimdLimit limit, final double lowPriorityShare, final List<String> lowPriorityPaths,
+                                  final List<String> excludedPaths, final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.lowPriorityShare = lowPriorityShare;
+        this.lowPriorityPaths = lowPriorityPaths;
+        this.excludedPaths = excludedPaths;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("quora.concurrency.limit", limit, AimdLimit::getLimit)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("quora.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently processed").register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejections.put(priority, Counter.builder("quora.concurrency.rejected")
+                    .description("Requests shed by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : excludedPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = priorityOf(request);
+        int admitted = tryAcquire(priority);
+        if (admitted < 0) {
+            rejections.get(priority).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // the request stays in flight until the asynchronous processing completes on another thread
+                request.getAsyncContext().addListener(new ReleaseListener(start, admitted, response));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                release(start, admitted, response);
+            }
+        }
+    }
+
+    private void release(final long start, final int admitted, final HttpServletResponse response) {
+        inflight.decrementAndGet();
+        limit.onSample(System.nanoTime() - start, admitted, response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    /**
+     * This method admits the request if the requests in flight are below the limit of its priority
+     * @param priority priority of the request
+     * @return number of requests in flight including this one, or -1 if the request is rejected
+     */
+    private int tryAcquire(final RequestPriority priority) {
+        int currentLimit = limit.getLimit();
+        int priorityLimit = priority == RequestPriority.LOW ? Math.max(1, (int) (currentLimit * lowPriorityShare)) : currentLimit;
+        while (true) {
+            int current = inflight.get();
+            if (current >= priorityLimit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private RequestPriority priorityOf(final HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            String path = urlPathHelper.getPathWithinApplication(request);
+            for (String pattern : lowPriorityPaths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return RequestPriority.LOW;
+                }
+            }
+        }
+        return RequestPriority.HIGH;
+    }
+
+    /**
+     * This listener releases an asynchronous request once, when it completes, fails or times out
+     */
+    private final class ReleaseListener implements AsyncListener {
+        private final long start;
+        private final int admitted;
+        private final HttpServletResponse response;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseListener(final long start, final int admitted, final HttpServletResponse response) {
+            this.start = start;
+            this.admitted = admitted;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                release(start, admitted, response);
+            }
+        }
+    }
+
+    private void reject(final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse().code("LIM-001").message("The service is overloaded, please try again later"));
+    }
+}
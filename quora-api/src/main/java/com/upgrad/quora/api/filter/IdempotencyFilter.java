@@ -0,0 +1,167 @@
+package com.upgrad.quora.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.idempotency.IdempotencyClaim;
+import com.upgrad.quora.service.idempotency.IdempotencyStore;
+import com.upgrad.quora.service.idempotency.IdempotentResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This filter makes the create endpoints safe to retry. A request sent with an Idempotency-Key header is executed once
+ * per key; a retry of the request gets the response of the first execution, and a retry sent while the first execution
+ * is running waits for it. Responses with a 5xx status are not remembered, so the request can be retried.
+ * The key is scoped to the endpoint and the access token of the caller, and reusing it for a request with different
+ * parameters is rejected.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final List<String> paths;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public IdempotencyFilter(final IdempotencyStore idempotencyStore, final List<String> paths, final ObjectMapper objectMapper) {
+        this.idempotencyStore = idempotencyStore;
+        this.paths = paths;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST, "IDM-003", "Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String key = sha256(request.getMethod(), urlPathHelper.getPathWithinApplication(request), authorization == null ? "" : authorization, idempotencyKey);
+        IdempotencyClaim claim = idempotencyStore.claim(key, fingerprint(request));
+        switch (claim.getState()) {
+            case COMPLETED:
+                replay(response, claim.getResponse());
+                return;
+            case MISMATCH:
+                error(response, HttpStatus.UNPROCESSABLE_ENTITY, "IDM-002", "Idempotency-Key has already been used for a different request");
+                return;
+            case IN_PROGRESS:
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                error(response, HttpStatus.CONFLICT, "IDM-001", "A request with this Idempotency-Key is still in progress");
+                return;
+            default:
+                break;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyStore.complete(key, new IdempotentResponse(responseWrapper.getStatus(), responseWrapper.getContentType(),
+                        responseWrapper.getHeader(HttpHeaders.LOCATION), responseWrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.abandon(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(final HttpServletResponse response, final IdempotentResponse idempotentResponse) throws IOException {
+        response.setStatus(idempotentResponse.getStatus());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        if (idempotentResponse.getContentType() != null) {
+            response.setContentType(idempotentResponse.getContentType());
+        }
+        if (idempotentResponse.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, idempotentResponse.getLocation());
+        }
+        byte[] body = idempotentResponse.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void error(final HttpServletResponse response, final HttpStatus status, final String code, final String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse().code(code).message(message));
+    }
+
+    /**
+     * This method fingerprints the parameters of the request, which carry the content of the create endpoints
+     * @param request request
+     * @return hash of the sorted parameters
+     */
+    private static String fingerprint(final HttpServletRequest request) {
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                builder.append(parameter.getKey()).append('=').append(value).append('\n');
+            }
+        }
+        return sha256(builder.toString());
+    }
+
+    private static String sha256(final String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
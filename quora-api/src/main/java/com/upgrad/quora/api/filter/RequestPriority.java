@@ -0,0 +1,11 @@
+package com.upgrad.quora.api.filter;
+
+/**
+ * This enum lists the priorities of the requests. Under overload the low priority requests are shed first.
+ */
+public enum RequestPriority {
+    /** listings, which are expensive and can be retried */
+    LOW,
+    /** authentication and writes, and any other request */
+    HIGH
+}
@@ -0,0 +1,237 @@
+package com.upgrad.quora.api.filter;
+
+import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.cache.LocalCache;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This filter serves the read endpoints from a cache of their serialized responses. A hit is written to the socket
+ * as stored bytes, gzip compressed in advance for the clients which accept it, without reaching the controllers, the
+ * database executor or the JSON serializer. The access token of the caller is still validated on every hit.
+ * The cached responses are keyed by the path, the query and the Accept header of the request and are invalidated when the business
+ * services create, edit or delete the data they carry; a response read while such a change commits is not stored.
+ * A request with "Cache-Control: no-cache", such as those replayed by the warmup, always reaches the endpoint and its
+ * response replaces the cached one.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final String PENDING_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".PENDING";
+
+    private static final String GZIP = "gzip";
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final Map<String, LocalCache<String, CachedResponse>> routes;
+    private final UserBusinessService userBusinessService;
+    private final int maxBodyBytes;
+    private final int minGzipBytes;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * @param routes caches of the responses by path pattern
+     * @param userBusinessService validates the access token on a hit
+     * @param maxBodyBytes largest body which is cached
+     * @param minGzipBytes smallest body for which a gzip compressed variant is stored
+     * @param meterRegistry registry of the hit and miss counters
+     */
+    public ResponseCacheFilter(final Map<String, LocalCache<String, CachedResponse>> routes, final UserBusinessService userBusinessService,
+                               final int maxBodyBytes, final int minGzipBytes, final MeterRegistry meterRegistry) {
+        this.routes = new LinkedHashMap<>(routes);
+        this.userBusinessService = userBusinessService;
+        this.maxBodyBytes = maxBodyBytes;
+        this.minGzipBytes = minGzipBytes;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // the read endpoints complete on the database executor, their response is stored on the async dispatch
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        if (isAsyncDispatch(request)) {
+            return request.getAttribute(PENDING_ATTRIBUTE) == null;
+        }
+        return !HttpMethod.GET.matches(request.getMethod()) || cacheOf(URL_PATH_HELPER.getPathWithinApplication(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request)) {
+            LocalCache<String, CachedResponse> cache = cacheOf(URL_PATH_HELPER.getPathWithinApplication(request));
+            String key = key(request);
+            CachedResponse cached = isNoCache(request) ? null : cache.getIfPresent(key);
+            if (cached != null && isSignedIn(request)) {
+                hits.increment();
+                write(request, response, cached);
+                return;
+            }
+            misses.increment();
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            // the generation is read before the endpoint loads the data, so a response overtaken by a change is dropped
+            request.setAttribute(PENDING_ATTRIBUTE, new Pending(cache, key, cache.getGeneration(), wrapper));
+            responseToUse = wrapper;
+        } else if (WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            // the async dispatch gets the response the request was started with, or the bare one in some containers
+            responseToUse = ((Pending) request.getAttribute(PENDING_ATTRIBUTE)).wrapper;
+        }
+
+        filterChain.doFilter(request, responseToUse);
+
+        if (!isAsyncStarted(request)) {
+            ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+            if (wrapper != null) {
+                store(request, wrapper);
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void store(final HttpServletRequest request, final ContentCachingResponseWrapper wrapper) throws IOException {
+        Pending pending = (Pending) request.getAttribute(PENDING_ATTRIBUTE);
+        request.removeAttribute(PENDING_ATTRIBUTE);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (pending == null || wrapper.getStatus() != HttpStatus.OK.value() || body.length > maxBodyBytes) {
+            return;
+        }
+        pending.cache.putIfUnchanged(pending.key, new CachedResponse(wrapper.getContentType(), body, gzip(body)), pending.generation);
+    }
+
+    private void write(final HttpServletRequest request, final HttpServletResponse response, final CachedResponse cached) throws IOException {
+        byte[] body = cached.getBody();
+        if (cached.getGzipBody() != null && acceptsGzip(request)) {
+            body = cached.getGzipBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (cached.getContentType() != null) {
+            response.setContentType(cached.getContentType());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * This method validates the access token of the request, so that a hit is only served to a signed in user. A
+     * request which fails the validation is passed to the endpoint, which responds with the error.
+     * @param request request
+     * @return true if the access token belongs to a signed in user
+     */
+    private boolean isSignedIn(final HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return false;
+        }
+        try {
+            userBusinessService.getUserByToken(authorization);
+            return true;
+        } catch (AuthorizationFailedException e) {
+            return false;
+        }
+    }
+
+    private LocalCache<String, CachedResponse> cacheOf(final String path) {
+        for (Map.Entry<String, LocalCache<String, CachedResponse>> route : routes.entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method returns the key of the response, which includes the Accept header since the listings are
+     * negotiated between JSON and the binary formats
+     * @param request request
+     * @return key of the response
+     */
+    private static String key(final HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(URL_PATH_HELPER.getPathWithinApplication(request));
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null ? key.toString() : key.append('\n').append(accept).toString();
+    }
+
+    private byte[] gzip(final byte[] body) throws IOException {
+        if (body.length < minGzipBytes) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size() < body.length ? out.toByteArray() : null;
+    }
+
+    private static boolean isNoCache(final HttpServletRequest request) {
+        String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static Counter counter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("quora.response-cache.requests")
+                .description("Requests to the cached read endpoints by outcome; hits are served without the controllers")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Pending {
+        private final LocalCache<String, CachedResponse> cache;
+        private final String key;
+        private final long generation;
+        private final ContentCachingResponseWrapper wrapper;
+
+        private Pending(final LocalCache<String, CachedResponse> cache, final String key, final long generation,
+                        final ContentCachingResponseWrapper wrapper) {
+            this.cache = cache;
+            this.key = key;
+            this.generation = generation;
+            this.wrapper = wrapper;
+        }
+    }
+}
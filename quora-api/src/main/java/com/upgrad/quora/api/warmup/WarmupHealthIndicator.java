@@ -0,0 +1,31 @@
+package com.upgrad.quora.api.warmup;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.Map;
+
+/**
+ * This health indicator keeps the node out of service until its warmup is complete, so that the load balancer only
+ * routes traffic to it once the connections, the queries, the caches and the request paths have been warmed up. The
+ * report of the warmup is shown in the details of the indicator.
+ */
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+    private final WarmupReport report;
+
+    public WarmupHealthIndicator(final WarmupReport report) {
+        this.report = report;
+    }
+
+    @Override
+    protected void doHealthCheck(final Health.Builder builder) {
+        if (report.isComplete()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        for (Map.Entry<String, Object> detail : report.getDetails().entrySet()) {
+            builder.withDetail(detail.getKey(), detail.getValue());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.upgrad.quora.api.warmup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class holds the progress of the warmup of the node: the time spent in every phase, what each phase did and the
+ * latency of the replayed requests in the first and the last round.
+ */
+public class WarmupReport {
+    private final Map<String, Object> details = new LinkedHashMap<>();
+
+    private volatile boolean complete;
+
+    /**
+     * This method records a detail of the warmup, e.g. the duration of a phase
+     * @param name name of the detail
+     * @param value value of the detail
+     */
+    public synchronized void put(final String name, final Object value) {
+        details.put(name, value);
+    }
+
+    /**
+     * @return copy of the details recorded so far
+     */
+    public synchronized Map<String, Object> getDetails() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(details));
+    }
+
+    /**
+     * This method marks the warmup as complete, after which the node reports itself ready
+     */
+    public void complete() {
+        complete = true;
+    }
+
+    /**
+     * @return true once all the phases of the warmup have run
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
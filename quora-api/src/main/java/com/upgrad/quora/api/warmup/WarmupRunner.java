@@ -0,0 +1,164 @@
+package com.upgrad.quora.api.warmup;
+
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.warmup.WarmupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This listener warms up the node once the application has started and before it reports itself ready. The phases run
+ * in order on a thread of their own: the connections of the pools are opened, every select named query is run once,
+ * the question and profile caches are filled from the hot keys saved by the last node to stop, and a request mix is
+ * replayed through the controllers so that the JIT compiles the request paths. The mix is made of the configured
+ * synthetic requests and of the cached responses of the last node. The time spent in every phase and the latency of
+ * the replayed requests in the first and the last round are recorded in the report.
+ */
+public class WarmupRunner implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String[] RESPONSE_CACHES = {CacheNames.QUESTION_RESPONSES, CacheNames.ANSWER_RESPONSES, CacheNames.PROFILE_RESPONSES};
+
+    private final WarmupService warmupService;
+    private final WarmupReport report;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final int connectionsPerPool;
+    private final List<String> requests;
+    private final int iterations;
+    private final long maxDurationMs;
+    private final String accessToken;
+
+    /**
+     * @param warmupService warms up the service layer
+     * @param report report of the warmup
+     * @param connectionsPerPool connections opened in each pool
+     * @param requests synthetic requests replayed, as paths below the context path
+     * @param iterations rounds of the request mix
+     * @param maxDurationMs time after which no further round is started
+     * @param accessToken access token sent with the replayed requests, no request is replayed without it
+     */
+    public WarmupRunner(final WarmupService warmupService, final WarmupReport report, final int connectionsPerPool,
+                        final List<String> requests, final int iterations, final long maxDurationMs, final String accessToken) {
+        this.warmupService = warmupService;
+        this.report = report;
+        this.connectionsPerPool = connectionsPerPool;
+        this.requests = requests;
+        this.iterations = iterations;
+        this.maxDurationMs = maxDurationMs;
+        this.accessToken = accessToken;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        String contextPath = event.getApplicationContext() instanceof WebApplicationContext
+                ? ((WebApplicationContext) event.getApplicationContext()).getServletContext().getContextPath() : "";
+        Thread thread = new Thread(() -> run(port == null ? null : "http://localhost:" + port + contextPath), "quora-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(final String baseUrl) {
+        long start = System.nanoTime();
+        try {
+            phase("connections", () -> warmupService.openConnections(connectionsPerPool));
+            phase("named-queries", warmupService::executeNamedQueries);
+            phase("caches", warmupService::prefillCaches);
+            phase("requests", () -> replay(baseUrl));
+        } catch (Exception e) {
+            LOG.warn("Warmup stopped early", e);
+            report.put("error", e.getMessage());
+        } finally {
+            report.put("total-ms", elapsedMs(start));
+            report.complete();
+            LOG.info("Warmup complete: {}", report.getDetails());
+        }
+    }
+
+    private void phase(final String name, final Callable<Integer> phase) throws Exception {
+        long start = System.nanoTime();
+        int count = phase.call();
+        report.put(name, count);
+        report.put(name + "-ms", elapsedMs(start));
+    }
+
+    /**
+     * This method replays the request mix through the controllers and records the mean latency of the first and
+     * the last round. The requests ask for no cached response, so they reach the controllers and fill the response cache.
+     * @param baseUrl url of the application, null if it does not listen on a port
+     * @return number of requests sent
+     */
+    private int replay(final String baseUrl) {
+        if (baseUrl == null || accessToken.isEmpty()) {
+            LOG.info("No request is replayed, the application has no port or no warmup access token is configured");
+            return 0;
+        }
+        List<HttpEntity<Void>> entities = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        for (String path : requestMix()) {
+            int newline = path.indexOf('\n');
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.AUTHORIZATION, accessToken);
+            headers.setCacheControl("no-cache");
+            if (newline >= 0) {
+                headers.set(HttpHeaders.ACCEPT, path.substring(newline + 1));
+            }
+            paths.add(newline >= 0 ? path.substring(0, newline) : path);
+            entities.add(new HttpEntity<>(headers));
+        }
+        if (paths.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        int sent = 0;
+        int failed = 0;
+        for (int round = 0; round < iterations && (round == 0 || System.nanoTime() < deadline); round++) {
+            long roundNanos = 0;
+            for (int i = 0; i < paths.size(); i++) {
+                long requestStart = System.nanoTime();
+                try {
+                    restTemplate.exchange(baseUrl + paths.get(i), HttpMethod.GET, entities.get(i), byte[].class);
+                } catch (RestClientException e) {
+                    failed++;
+                }
+                roundNanos += System.nanoTime() - requestStart;
+                sent++;
+            }
+            double meanMs = roundNanos / 1e6 / paths.size();
+            if (round == 0) {
+                report.put("first-round-mean-latency-ms", meanMs);
+            }
+            report.put("last-round-mean-latency-ms", meanMs);
+            report.put("rounds", round + 1);
+        }
+        report.put("failed-requests", failed);
+        return sent;
+    }
+
+    private Set<String> requestMix() {
+        Set<String> mix = new LinkedHashSet<>(requests);
+        for (String cacheName : RESPONSE_CACHES) {
+            mix.addAll(warmupService.getHotKeys(cacheName));
+        }
+        return mix;
+    }
+
+    private static long elapsedMs(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Builds the application class data sharing (AppCDS) archive of quora-api, called by the fast-startup Maven profile.
+#
+# A training run starts the application with the fast-startup profile and exits as soon as it is ready, recording the
+# classes it loaded; the JVM then dumps those classes, parsed and verified, into an archive which later starts map
+# instead of loading from the jars. CDS only archives classes from jar files, so the application runs from the plain
+# jar and the copied dependencies, and the class path of the runs must start with the class path of the dump.
+#
+# Usage: build-cds-archive.sh <application jar> <startup directory holding lib/>
+
+set -euo pipefail
+
+JAR=${1:?application jar}
+STARTUP_DIR=${2:?startup directory}
+MAIN_CLASS=com.upgrad.quora.api.QuoraApiApplication
+
+cp "${JAR}" "${STARTUP_DIR}/quora-api.jar"
+CLASS_PATH="${STARTUP_DIR}/quora-api.jar"
+for lib in $(ls "${STARTUP_DIR}"/lib/*.jar | sort); do
+    CLASS_PATH="${CLASS_PATH}:${lib}"
+done
+echo "${CLASS_PATH}" > "${STARTUP_DIR}/classpath.txt"
+
+echo "== Training run"
+java -Xshare:off -XX:DumpLoadedClassList="${STARTUP_DIR}/classes.lst" -cp "${CLASS_PATH}" "${MAIN_CLASS}" \
+    --spring.profiles.active=fast-startup --quora.startup.exit-when-ready=true
+
+echo "== Dumping $(wc -l < "${STARTUP_DIR}/classes.lst") classes"
+java -Xshare:dump -XX:SharedClassListFile="${STARTUP_DIR}/classes.lst" \
+    -XX:SharedArchiveFile="${STARTUP_DIR}/quora-api.jsa" -cp "${CLASS_PATH}"
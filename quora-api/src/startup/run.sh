@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Starts quora-api with the fast-startup profile and the class data sharing archive built by
+# "mvn -Pfast-startup package". Extra arguments are passed to the application, e.g. --server.port=8090.
+#
+# Usage: run.sh [startup directory] [application arguments...]
+
+set -euo pipefail
+
+STARTUP_DIR=${1:-$(dirname "$0")/../../target/startup}
+shift || true
+
+exec java -Xshare:auto -XX:SharedArchiveFile="${STARTUP_DIR}/quora-api.jsa" -cp "$(cat "${STARTUP_DIR}/classpath.txt")" \
+    com.upgrad.quora.api.QuoraApiApplication --spring.profiles.active=fast-startup "$@"
@@ -0,0 +1,134 @@
+package com.upgrad.quora.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.AnswerThreadAuthor;
+import com.upgrad.quora.api.model.AnswerThreadEntry;
+import com.upgrad.quora.api.model.AnswerThreadQuestion;
+import com.upgrad.quora.api.model.AnswerThreadResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * This class compares JSON, Smile and CBOR on the bodies of the listing endpoints: the size of the payload and the
+ * time to encode and decode it with Jackson. The answers are measured in the v1 shape, which repeats the question in
+ * every answer, and in the v2 shape, which carries it once. It is not a test; run it with
+ * <pre>
+ * mvn -pl quora-api test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.upgrad.quora.api.benchmark.PayloadFormatBenchmark -Dexec.args="1000 2000"
+ * </pre>
+ * where the arguments are the number of items of a listing and the number of measured iterations. The answers of
+ * a listing are written by a tenth as many authors.
+ */
+public class PayloadFormatBenchmark {
+    private static final int WARMUP_ITERATIONS = 2000;
+
+    public static void main(final String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        QuestionDetailsResponse[] questions = questions(items);
+        AnswerDetailsResponse[] answers = answers(items);
+        AnswerThreadResponse answerThread = answerThread(items);
+
+        System.out.printf("%-11s %-7s %12s %14s %14s%n", "listing", "format", "bytes", "encode us/op", "decode us/op");
+        for (String format : new String[]{"json", "smile", "cbor"}) {
+            ObjectMapper mapper = mapper(format);
+            measure("questions", format, mapper, questions, QuestionDetailsResponse[].class, iterations);
+            measure("answers", format, mapper, answers, AnswerDetailsResponse[].class, iterations);
+            measure("answers-v2", format, mapper, answerThread, AnswerThreadResponse.class, iterations);
+        }
+    }
+
+    private static <T> void measure(final String listing, final String format, final ObjectMapper mapper, final T value,
+                                    final Class<T> type, final int iterations) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(value);
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+            sink += mapper.readValue(body, type).hashCode();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.readValue(body, type).hashCode();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        System.out.printf("%-11s %-7s %12d %14.1f %14.1f%s%n", listing, format, body.length,
+                encodeNanos / 1000.0 / iterations, decodeNanos / 1000.0 / iterations, sink == 42 ? " " : "");
+    }
+
+    private static ObjectMapper mapper(final String format) {
+        switch (format) {
+            case "smile":
+                return new ObjectMapper(new SmileFactory());
+            case "cbor":
+                return new ObjectMapper(new CBORFactory());
+            default:
+                return new ObjectMapper(new JsonFactory());
+        }
+    }
+
+    private static QuestionDetailsResponse[] questions(final int items) {
+        Random random = new Random(1);
+        List<QuestionDetailsResponse> questions = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            questions.add(new QuestionDetailsResponse().id(UUID.randomUUID().toString()).content(text(random, 80)));
+        }
+        return questions.toArray(new QuestionDetailsResponse[0]);
+    }
+
+    private static AnswerDetailsResponse[] answers(final int items) {
+        Random random = new Random(2);
+        String questionContent = text(random, 80);
+        List<AnswerDetailsResponse> answers = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            answers.add(new AnswerDetailsResponse().id(UUID.randomUUID().toString())
+                    .questionContent(questionContent).answerContent(text(random, 200)));
+        }
+        return answers.toArray(new AnswerDetailsResponse[0]);
+    }
+
+    private static AnswerThreadResponse answerThread(final int items) {
+        Random random = new Random(2);
+        AnswerThreadResponse answerThread = new AnswerThreadResponse()
+                .question(new AnswerThreadQuestion().id(UUID.randomUUID().toString()).content(text(random, 80)))
+                .answers(new ArrayList<>(items))
+                .authors(new ArrayList<>());
+        int authors = Math.max(1, items / 10);
+        for (int i = 0; i < authors; i++) {
+            answerThread.addAuthorsItem(new AnswerThreadAuthor().id(UUID.randomUUID().toString()).userName(text(random, 12)));
+        }
+        for (int i = 0; i < items; i++) {
+            answerThread.addAnswersItem(new AnswerThreadEntry().id(UUID.randomUUID().toString())
+                    .content(text(random, 200)).author(random.nextInt(authors)));
+        }
+        return answerThread;
+    }
+
+    private static String text(final Random random, final int length) {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            int word = 2 + random.nextInt(8);
+            for (int i = 0; i < word; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            text.append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -1,16 +1,22 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.upgrad.quora.service.stats.QuoraStatistics;
+import com.upgrad.quora.service.stats.StatisticsSnapshot;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import static org.junit.Assert.assertEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -22,6 +28,15 @@ public class AdminControllerTest {
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private QuoraStatistics quoraStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
 
     //This test case passes when you try to delete the user but the JWT token entered does not exist in the database.
     @Test
@@ -48,5 +63,102 @@ public class AdminControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("USR-001"));
     }
 
+    //This test case passes when you try to get the progress of a user deletion job but the role of the user corresponding to the JWT token entered is nonadmin.
+    @Test
+    public void getDeletionJobWithnonadminAsRole() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/admin/jobs/non_existing_job_id").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-003"));
+    }
+
+    //This test case passes when you try to get the progress of a user deletion job which does not exist.
+    @Test
+    public void getNonExistingDeletionJob() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/admin/jobs/non_existing_job_id").header("authorization", "database_accesstoken"))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("JOB-001"));
+    }
+
+    //This test case passes when you try to get the statistics and the role of the user corresponding to the JWT token entered is admin.
+    @Test
+    public void getStatistics() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/admin/stats").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk());
+    }
+
+    //This test case passes when the reconciled statistics leave out a deleted user, the questions of that user and the answers posted by that user or to those questions. The deletion is rolled back.
+    @Test
+    public void reconcileStatisticsWithDeletedUser() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                quoraStatistics.reconcile();
+                StatisticsSnapshot before = quoraStatistics.snapshot();
+                long questions = jdbcTemplate.queryForObject("select count(*) from question where user_id = 1026", Long.class);
+                long answers = jdbcTemplate.queryForObject("select count(*) from answer a where a.user_id = 1026"
+                        + " or a.question_id in (select q.id from question q where q.user_id = 1026)", Long.class);
+
+                jdbcTemplate.update("update users set deleted_at = now() where uuid = 'database_uuid1'");
+                quoraStatistics.reconcile();
+                StatisticsSnapshot after = quoraStatistics.snapshot();
+                assertEquals(before.getUsers() - 1, after.getUsers());
+                assertEquals(before.getQuestions() - questions, after.getQuestions());
+                assertEquals(before.getAnswers() - answers, after.getAnswers());
+                return null;
+            });
+        } finally {
+            quoraStatistics.reconcile();
+        }
+    }
+
+    //This test case passes when you try to get the statistics but the role of the user corresponding to the JWT token entered is nonadmin.
+    @Test
+    public void getStatisticsWithnonadminAsRole() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/admin/stats").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-003"));
+    }
+
+    //This test case passes when you try to import users but the role of the user corresponding to the JWT token entered is nonadmin.
+    @Test
+    public void importUsersWithnonadminAsRole() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/admin/users/import").contentType("text/csv")
+                .content("first_name,last_name,user_name,email_address,password\na,a,import_username,import_email,a\n")
+                .header("authorization", "database_accesstoken1"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-003"));
+    }
+
+    //This test case passes when you try to import users whose username already exists in the database or whose mandatory fields are missing.
+    @Test
+    public void importUsersWithInvalidRows() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/admin/users/import").contentType("application/x-ndjson")
+                .content("{\"first_name\":\"a\",\"last_name\":\"a\",\"user_name\":\"database_username\",\"email_address\":\"import_email\",\"password\":\"a\"}\n"
+                        + "{\"first_name\":\"a\",\"last_name\":\"a\",\"user_name\":\"import_username\",\"email_address\":\"import_email\"}\n")
+                .header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("received").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("imported").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("failures[0].code").value("SGR-001"))
+                .andExpect(MockMvcResultMatchers.jsonPath("failures[1].code").value("IMP-001"));
+    }
+
+    //This test case passes when you try to start a Flight Recorder recording but the role of the user corresponding to the JWT token entered is nonadmin.
+    @Test
+    public void startRecordingWithnonadminAsRole() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/admin/profiling/recording").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-003"));
+    }
+
+    //This test case passes when you try to dump a Flight Recorder window but no recording is in progress.
+    @Test
+    public void dumpWithoutRecording() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/admin/profiling/dumps").header("authorization", "database_accesstoken"))
+                .andExpect(status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("PRF-003"));
+    }
+
 
 }
@@ -9,6 +9,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -115,7 +118,7 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question but the JWT token entered does not exist in the database.
     @Test
     public void getAllAnswersToQuestionWithNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "non_existing_access_token"))
+        performAsync(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -123,7 +126,7 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
     @Test
     public void getAllAnswersToQuestionWithSignedOutUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken3"))
+        performAsync(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken3"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
@@ -131,10 +134,66 @@ public class AnswerControllerTest {
     //This test case passes when you try to get all the answers posted for a specific question which does not exist in the database.
     @Test
     public void getAllAnswersToNonExistingQuestion() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken"))
+        performAsync(MockMvcRequestBuilders.get("/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken"))
                 .andExpect(status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
     }
 
+    //This test case passes when you get all the answers to a question with an Accept header asking for CBOR.
+    @Test
+    public void getAllAnswersToQuestionAsCbor() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", "database_accesstoken1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/cbor"));
+    }
+
+    //This test case passes when you get the answers to a question posted in a range of dates, which are read from the partitions of its months only.
+    @Test
+    public void getAllAnswersToQuestionInDateRange() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/answer/all/database_question_uuid?from=2018-09-01T00:00:00Z&to=2018-10-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_answer_uuid')]").exists());
+    }
+
+    //This test case passes when you get the answers to a question posted in a range of dates which starts after the answer of the database was posted, and the list is empty.
+    @Test
+    public void getAllAnswersToQuestionInDateRangeAfterAnswer() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/answer/all/database_question_uuid?from=2019-01-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isEmpty());
+    }
+
+    //This test case passes when you try to get the answers to a question posted up to a date which is not an ISO date-time.
+    @Test
+    public void getAllAnswersToQuestionWithMalformedDate() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid?to=2019-13-45").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("GEN-002"));
+    }
+
+    //This test case passes when you get the v2 listing of the answers to a question and the question is carried once with the lists of answers and authors.
+    @Test
+    public void getAnswerThread() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/v2/answer/all/database_question_uuid").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("question.id").value("database_question_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("answers").isArray())
+                .andExpect(MockMvcResultMatchers.jsonPath("authors").isArray());
+    }
+
+    //This test case passes when you get the v2 listing of the answers to a question which does not exist in the database.
+    @Test
+    public void getAnswerThreadOfNonExistingQuestion() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/v2/answer/all/non_existing_question_uuid").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
+    }
 
+    //Performs a request to an asynchronous endpoint and dispatches its result once the database executor has completed it, unless the response was served from the response cache.
+    private ResultActions performAsync(final MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mvc.perform(MockMvcRequestBuilders.asyncDispatch(result)) : actions;
+    }
 }
@@ -1,6 +1,6 @@
 package com.upgrad.quora.api.controller;
 
-
+import com.jayway.jsonpath.JsonPath;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +8,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -24,14 +27,14 @@ public class CommonControllerTest {
     //This test case passes when you try to get the details of the existing user and the JWT token entered exists in the database and the user corresponding to that JWT token is signed in.
     @Test
     public void details() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+        performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
                 .andExpect(status().isOk());
     }
 
     //This test case passes when you try to get the details of the existing user but the JWT token entered does not exist in the database.
     @Test
     public void detailsUsingNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "non_existing_access_token"))
+        performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -39,8 +42,79 @@ public class CommonControllerTest {
     //This test case passes when you try to get the details of the user which does not exist in the database.
     @Test
     public void detailsOfNonExistingUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/userprofile/non_existing_user").header("authorization", "database_accesstoken"))
+        performAsync(MockMvcRequestBuilders.get("/userprofile/non_existing_user").header("authorization", "database_accesstoken"))
                 .andExpect(status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("USR-001"));
     }
+
+    //This test case passes when you get the details of the existing user with the fields parameter and only the requested fields are returned.
+    @Test
+    public void detailsWithFields() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1?fields=first_name,user_name").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("user_name").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("email_address").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("contact_number").doesNotExist());
+    }
+
+    //This test case passes when you get the details of the existing user with a field which does not exist in the fields parameter.
+    @Test
+    public void detailsWithNonExistingField() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1?fields=first_name,password").header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("FLD-001"));
+    }
+
+    //This test case passes when you page through the activity of the existing user one item at a time with the cursor of the previous page, and the question comes before the answer posted at the same time.
+    @Test
+    public void activityPagedByCursor() throws Exception {
+        String firstPage = performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1/activity?limit=1").header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("items[0].type").value("QUESTION"))
+                .andExpect(MockMvcResultMatchers.jsonPath("items[0].id").value("database_question_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("next_cursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.next_cursor");
+
+        performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1/activity?limit=1").param("cursor", cursor).header("authorization", "database_accesstoken"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("items[0].type").value("ANSWER"))
+                .andExpect(MockMvcResultMatchers.jsonPath("items[0].id").value("database_answer_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("items[0].question_id").value("database_question_uuid"))
+                .andExpect(MockMvcResultMatchers.jsonPath("next_cursor").isEmpty());
+    }
+
+    //This test case passes when you get the activity of the existing user with a cursor which was not returned with a page.
+    @Test
+    public void activityWithInvalidCursor() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1/activity?cursor=not_a_cursor").header("authorization", "database_accesstoken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("CUR-001"));
+    }
+
+    //This test case passes when you get the top contributors with the JWT token of a signed in user; both rankings are returned with the error bound of their counts and include the user who posted the question and the answer of the database.
+    @Test
+    public void topContributors() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/contributors/top?limit=5").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("askers.contributors[?(@.id == 'database_uuid1')]").isNotEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("askers.max_overcount").isNumber())
+                .andExpect(MockMvcResultMatchers.jsonPath("answerers.contributors[?(@.id == 'database_uuid1')]").isNotEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("answerers.max_overcount").isNumber());
+    }
+
+    //This test case passes when you get the top contributors with the JWT token of a user who signed out.
+    @Test
+    public void topContributorsWithSignedOutUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/contributors/top").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //Performs a request to an asynchronous endpoint and dispatches its result once the database executor has completed it, unless the response was served from the response cache.
+    private ResultActions performAsync(final MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mvc.perform(MockMvcRequestBuilders.asyncDispatch(result)) : actions;
+    }
 }
@@ -1,6 +1,11 @@
 package com.upgrad.quora.api.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.trending.TrendingQuestions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +14,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertNotNull;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -23,6 +38,9 @@ public class QuestionControllerTest {
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private TrendingQuestions trendingQuestions;
+
 
     //This test case passes when you try to create the question but the JWT token entered does not exist in the database.
     @Test
@@ -40,17 +58,50 @@ public class QuestionControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
 
+    //This test case passes when you retry the creation of a question with the same Idempotency-Key and the response of the first request is replayed.
+    @Test
+    public void createQuestionRetriedWithSameIdempotencyKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        mvc.perform(MockMvcRequestBuilders.post("/question/create?content=my_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken3").header("Idempotency-Key", idempotencyKey))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+        mvc.perform(MockMvcRequestBuilders.post("/question/create?content=my_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken3").header("Idempotency-Key", idempotencyKey))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.header().string("Idempotent-Replayed", "true"))
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you create a question which is a near duplicate of an existing question and the existing question is listed in the response. The question is rolled back.
+    @Test
+    @Transactional
+    public void createQuestionListsLikelyDuplicates() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/question/create?content=Database question content?").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken1"))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("duplicates[0].id").value("database_question_uuid"));
+    }
+
+    //This test case passes when you try to create a different question with an Idempotency-Key which has already been used.
+    @Test
+    public void createQuestionWithReusedIdempotencyKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        mvc.perform(MockMvcRequestBuilders.post("/question/create?content=my_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken3").header("Idempotency-Key", idempotencyKey))
+                .andExpect(status().isForbidden());
+        mvc.perform(MockMvcRequestBuilders.post("/question/create?content=my_other_question").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE).header("authorization", "database_accesstoken3").header("Idempotency-Key", idempotencyKey))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("IDM-002"));
+    }
+
     //This test case passes when you try to get the detail of all the questions and the JWT token entered exists in the database and the user corresponding to that JWT token is signed in.
     @Test
     public void getAllQuestions() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
                 .andExpect(status().isOk());
     }
 
     //This test case passes when you try to get the detail of all the questions but the JWT token entered does not exist in the database.
     @Test
     public void getAllQuestionsWithNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token"))
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -58,11 +109,135 @@ public class QuestionControllerTest {
     //This test case passes when you try to get the detail of all the questions and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
     @Test
     public void getAllQuestionsWithSignedOutUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3"))
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
 
+    //This test case passes when you get the detail of the questions posted in a range of dates, which are read from the partitions of its months only.
+    @Test
+    public void getAllQuestionsInDateRange() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/all?from=2018-09-01T00:00:00Z&to=2018-10-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')]").exists());
+    }
+
+    //This test case passes when you get the detail of the questions posted in a range of dates which starts after the question of the database was posted, and it is left out.
+    @Test
+    public void getAllQuestionsInDateRangeAfterQuestion() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/all?from=2019-01-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')]").isEmpty());
+    }
+
+    //This test case passes when you try to get the detail of the questions posted from a date which is not an ISO date-time.
+    @Test
+    public void getAllQuestionsWithMalformedDate() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/all?from=yesterday").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("GEN-002"));
+    }
+
+    //This test case passes when you try to get the detail of the questions posted in a range of dates which ends before it starts.
+    @Test
+    public void getAllQuestionsWithInvertedDateRange() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/all?from=2018-10-01T00:00:00Z&to=2018-09-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("DATE-001"));
+    }
+
+    //This test case passes when you type the beginning of a word of an existing question, in another case and with punctuation, and the question is suggested.
+    @Test
+    public void suggestQuestions() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/suggest?prefix=QUESTION_Cont").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')].content").value("database_question_content"));
+    }
+
+    //This test case passes when you try to get suggestions but the user corresponding to the JWT token entered is signed out of the application.
+    @Test
+    public void suggestQuestionsWithSignedOutUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/suggest?prefix=database").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you get the questions trending in the last day, which are read from memory.
+    @Test
+    public void getTrendingQuestions() throws Exception {
+        // the answer of the fixture is older than a day, so one is counted as it would be when committed
+        countAnswerNow(Integer.MAX_VALUE);
+        try {
+            mvc.perform(MockMvcRequestBuilders.get("/question/trending?window=day&limit=5").header("authorization", "database_accesstoken1"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')].content").value("database_question_content"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')].answers").value(1));
+        } finally {
+            // the trending questions are shared by the tests, so the answer is uncounted again
+            trendingQuestions.onAnswerEvent(AnswerEvent.purged(Integer.MAX_VALUE, "database_uuid1", null));
+            trendingQuestions.refresh();
+        }
+    }
+
+    //This test case passes when an answer purged with its author, whose event carries only its id, is no longer counted for the trending questions.
+    @Test
+    public void getTrendingQuestionsAfterAnswerPurged() throws Exception {
+        countAnswerNow(Integer.MAX_VALUE - 1);
+        trendingQuestions.onAnswerEvent(AnswerEvent.purged(Integer.MAX_VALUE - 1, "database_uuid1", null));
+        trendingQuestions.refresh();
+        mvc.perform(MockMvcRequestBuilders.get("/question/trending?window=day&limit=5").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')]").isEmpty());
+    }
+
+    //This test case passes when you get the trending questions with a limit below one, which is raised to one instead of failing.
+    @Test
+    public void getTrendingQuestionsWithNegativeLimit() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/trending?window=day&limit=-1").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray());
+    }
+
+    //This test case passes when you try to get the questions trending in a window which does not exist.
+    @Test
+    public void getTrendingQuestionsWithNonExistingWindow() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/trending?window=week").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("TRD-001"));
+    }
+
+    //This test case passes when you get the questions related to an existing question, which is not related to itself.
+    @Test
+    public void getRelatedQuestions() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/database_question_uuid/related?limit=5").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.id == 'database_question_uuid')]").isEmpty());
+    }
+
+    //This test case passes when you try to get the questions related to a question which does not exist in the database.
+    @Test
+    public void getRelatedQuestionsForNonExistingQuestion() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/non_existing_question_uuid/related").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("QUES-001"));
+    }
+
+    //This test case passes when you get the questions carrying a tag and not carrying another one, which are matched in memory.
+    @Test
+    public void getTaggedQuestions() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/tagged?tags=database-tag|missing-tag,!other-missing-tag&limit=5").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("questions[?(@.id == 'database_question_uuid')]").exists());
+    }
+
+    //This test case passes when you try to get the questions matching a tag filter which has an empty term.
+    @Test
+    public void getTaggedQuestionsWithMalformedFilter() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/tagged?tags=database-tag,,missing-tag").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("TAG-003"));
+    }
+
     //This test case passes when you try to edit the question but the JWT token entered does not exist in the database.
     @Test
     public void editQuestionWithNonExistingAccessToken() throws Exception {
@@ -131,7 +306,7 @@ public class QuestionControllerTest {
     //This test case passes when you try to get all the questions posted by a specific user but the JWT token entered does not exist in the database.
     @Test
     public void getAllQuestionsByUserWithNonExistingAccessToken() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all/database_uuid1").header("authorization", "non_existing_access_token"))
+        performAsync(MockMvcRequestBuilders.get("/question/all/database_uuid1").header("authorization", "non_existing_access_token"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-001"));
     }
@@ -139,18 +314,110 @@ public class QuestionControllerTest {
     //This test case passes when you try to get all the questions posted by a specific user and the JWT token entered exists in the database but the user corresponding to that JWT token is signed out.
     @Test
     public void getAllQuestionsByUserWithSignedOutUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all/database_uuid1").header("authorization", "database_accesstoken3"))
+        performAsync(MockMvcRequestBuilders.get("/question/all/database_uuid1").header("authorization", "database_accesstoken3"))
                 .andExpect(status().isForbidden())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
     }
 
+    //This test case passes when you get the detail of the questions posted by a user in a range of dates which starts after the question of the database was posted; the user exists and the list is empty.
+    @Test
+    public void getAllQuestionsByUserInDateRangeAfterQuestion() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/all/database_uuid1?from=2019-01-01T00:00:00Z").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isEmpty());
+    }
+
     //This test case passes when you try to get all the questions posted by a specific user which does not exist in the database.
     @Test
     public void getAllQuestionsForNonExistingUser() throws Exception {
-        mvc.perform(MockMvcRequestBuilders.get("/question/all/non_existing_user_uuid").header("authorization", "database_accesstoken1"))
+        performAsync(MockMvcRequestBuilders.get("/question/all/non_existing_user_uuid").header("authorization", "database_accesstoken1"))
                 .andExpect(status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("code").value("USR-001"));
     }
 
+    //This test case passes when you get the detail of all the questions twice and the second response is served from the response cache with the same body.
+    @Test
+    public void getAllQuestionsServedFromResponseCache() throws Exception {
+        String body = performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken2"))
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(body));
+    }
 
+    //This test case passes when you get the detail of all the questions from the response cache but the user corresponding to the JWT token entered is signed out of the application.
+    @Test
+    public void getAllQuestionsFromResponseCacheWithSignedOutUser() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk());
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken3"))
+                .andExpect(status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value("ATHR-002"));
+    }
+
+    //This test case passes when you get the detail of all the questions with Cache-Control no-cache, as the warmup does, and the request reaches the endpoint although the response is cached.
+    @Test
+    public void getAllQuestionsBypassingResponseCache() throws Exception {
+        performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1"))
+                .andExpect(status().isOk());
+        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("Cache-Control", "no-cache"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+    }
+
+    //This test case passes when you get the detail of all the questions with an Accept header asking for Smile and the response decodes into the swagger models.
+    @Test
+    public void getAllQuestionsAsSmile() throws Exception {
+        byte[] body = performAsync(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertNotNull(new ObjectMapper(new SmileFactory()).readValue(body, QuestionDetailsResponse[].class));
+    }
+
+    //This test case passes when the listings held in flight use up the share of the concurrency limit left to the low priority requests, so that one more listing is shed while a request of high priority is still served.
+    @Test
+    public void getAllQuestionsShedByConcurrencyLimit() throws Exception {
+        List<MvcResult> held = new ArrayList<>();
+        try {
+            // the listings bypass the response cache, so they stay in flight until their asynchronous processing completes
+            MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("Cache-Control", "no-cache")).andReturn();
+            while (result.getRequest().isAsyncStarted() && held.size() < 200) {
+                held.add(result);
+                result = mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("Cache-Control", "no-cache")).andReturn();
+            }
+            mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", "database_accesstoken1").header("Cache-Control", "no-cache"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("code").value("LIM-001"));
+            // the other read-only listings share the low priority
+            mvc.perform(MockMvcRequestBuilders.get("/question/trending").header("authorization", "database_accesstoken1"))
+                    .andExpect(status().isServiceUnavailable());
+            mvc.perform(MockMvcRequestBuilders.get("/question/database_question_uuid/related").header("authorization", "database_accesstoken1"))
+                    .andExpect(status().isServiceUnavailable());
+            performAsync(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", "database_accesstoken"))
+                    .andExpect(status().isOk());
+        } finally {
+            for (MvcResult result : held) {
+                result.getAsyncResult();
+                result.getRequest().getAsyncContext().complete();
+            }
+        }
+    }
+
+    //Performs a request to an asynchronous endpoint and dispatches its result once the database executor has completed it, unless the response was served from the response cache.
+    private ResultActions performAsync(final MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mvc.perform(MockMvcRequestBuilders.asyncDispatch(result)) : actions;
+    }
+
+    //Counts an answer to the question of the fixture posted now, as it is counted when committed, and refreshes the trending questions.
+    private void countAnswerNow(final int answerId) {
+        trendingQuestions.onAnswerEvent(new AnswerEvent(AnswerEvent.Type.CREATED, answerId, UUID.randomUUID().toString(), "my_answer",
+                1024, "database_question_uuid", "database_question_content", "database_uuid1", "database_uuid1", ZonedDateTime.now()));
+        trendingQuestions.refresh();
+    }
 }
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Load test of the asynchronous read endpoints with wrk (https://github.com/wg/wrk).
+#
+# Run it once against the application started with --quora.async.enabled=false and once with the default
+# --quora.async.enabled=true, with the same Tomcat thread count (e.g. --server.tomcat.max-threads=50), and compare
+# the throughput, the latency percentiles and the number of non-2xx responses of the two runs.
+# The gain shows once the connections exceed the Tomcat threads: without the asynchronous mode the extra requests
+# queue for a request thread, with it they queue for the database executor while the request threads stay free.
+#
+# Usage: read-endpoints.sh <access token> [base url] [connections] [duration]
+
+set -euo pipefail
+
+TOKEN=${1:?access token of a signed in user}
+BASE_URL=${2:-http://localhost:8080/api}
+CONNECTIONS=${3:-200}
+DURATION=${4:-60s}
+
+for path in /question/all /userprofile/database_uuid1; do
+    echo "== GET ${path} with ${CONNECTIONS} connections for ${DURATION}"
+    wrk --latency -t4 -c"${CONNECTIONS}" -d"${DURATION}" -H "authorization: ${TOKEN}" "${BASE_URL}${path}"
+done
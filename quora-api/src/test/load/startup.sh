@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Startup benchmark of quora-api: time from the launch of the JVM to the first successful request.
+#
+# Build with "mvn -Pfast-startup package" first. Every run starts the application in one of two modes, waits for
+# GET /actuator/health and then for a first GET /question/all, and records both times in milliseconds:
+#   default  - the plain class path with the default profile
+#   fast     - src/startup/run.sh, the class data sharing archive and the fast-startup profile
+# The first request time includes the controllers, which the fast-startup profile creates on first use.
+#
+# Usage: startup.sh <access token> [runs] [port]
+
+set -euo pipefail
+
+TOKEN=${1:?access token of a signed in user}
+RUNS=${2:-5}
+PORT=${3:-8090}
+BASE_DIR=$(cd "$(dirname "$0")/../../.." && pwd)
+STARTUP_DIR=${BASE_DIR}/target/startup
+BASE_URL=http://localhost:${PORT}/api
+
+now_ms() {
+    date +%s%3N
+}
+
+wait_for() {
+    until curl -sf -o /dev/null -H "authorization: ${TOKEN}" "$1"; do
+        sleep 0.05
+    done
+}
+
+run() {
+    local mode=$1 start pid health first
+    start=$(now_ms)
+    if [ "${mode}" = fast ]; then
+        "${BASE_DIR}/src/startup/run.sh" "${STARTUP_DIR}" --server.port="${PORT}" > /dev/null 2>&1 &
+    else
+        java -cp "$(cat "${STARTUP_DIR}/classpath.txt")" com.upgrad.quora.api.QuoraApiApplication \
+            --server.port="${PORT}" > /dev/null 2>&1 &
+    fi
+    pid=$!
+    wait_for "${BASE_URL}/actuator/health"
+    health=$(( $(now_ms) - start ))
+    wait_for "${BASE_URL}/question/all"
+    first=$(( $(now_ms) - start ))
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+    printf "%-8s %10d %16d\n" "${mode}" "${health}" "${first}"
+}
+
+printf "%-8s %10s %16s\n" mode "ready ms" "first request ms"
+for i in $(seq "${RUNS}"); do
+    run default
+    run fast
+done
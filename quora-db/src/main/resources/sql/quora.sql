@@ -1,7 +1,7 @@
 
 --USERS table is created to store the details of all the users
 DROP TABLE IF EXISTS USERS CASCADE;
-CREATE TABLE IF NOT EXISTS USERS(id SERIAL, uuid VARCHAR(200) NOT NULL ,firstName VARCHAR(30) NOT NULL , lastName VARCHAR(30) NOT NULL ,userName VARCHAR(30) UNIQUE NOT NULL,  email VARCHAR(50) UNIQUE NOT NULL ,password VARCHAR(255) NOT NULL, salt VARCHAR(200) NOT NULL ,country VARCHAR(30) ,aboutMe VARCHAR(50),dob VARCHAR(30), role VARCHAR(30),contactNumber VARCHAR(30), PRIMARY KEY (id));
+CREATE TABLE IF NOT EXISTS USERS(id SERIAL, uuid VARCHAR(200) NOT NULL ,firstName VARCHAR(30) NOT NULL , lastName VARCHAR(30) NOT NULL ,userName VARCHAR(30) UNIQUE NOT NULL,  email VARCHAR(50) UNIQUE NOT NULL ,password VARCHAR(255) NOT NULL, salt VARCHAR(200) NOT NULL ,country VARCHAR(30) ,aboutMe VARCHAR(50),dob VARCHAR(30), role VARCHAR(30),contactNumber VARCHAR(30), deleted_at TIMESTAMP NULL, PRIMARY KEY (id));
 INSERT INTO users(
 	id, uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)
 	VALUES (1024,'rdtrdtdyt','Abhi','Mahajan','abhi','a@gmail.com','507FF5FED1CAC746','8Xt6jxoCI3MWsVaKY/1ySAp2qzlb2Z7P89+vDrb1o6U=', 'India' ,'I am @ UpGrad' ,'22-10-1995' , 'admin' , '1222333333' );
@@ -20,11 +20,79 @@ CREATE TABLE IF NOT EXISTS USER_AUTH(
 
 ALTER TABLE USER_AUTH ADD CONSTRAINT FK_USER_AUTH_USER_ID FOREIGN KEY(USER_ID) REFERENCES USERS(ID) ON DELETE CASCADE ;
 
---QUESTION table is created to store the questions related information posted by any user in the Application
+--QUESTION table is created to store the questions related information posted by any user in the Application.
+--The table is partitioned by month of the date of the questions, so that the queries on recent questions only read the partitions of the recent months and the old partitions can be moved to cheaper storage.
+--The partitions of the current and the next months are created by the application, the questions dated before the first of them are kept in the default partition
 DROP TABLE IF EXISTS QUESTION CASCADE;
-CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS QUESTION(id SERIAL,uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, PRIMARY KEY(id, date), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE) PARTITION BY RANGE (date);
+CREATE TABLE IF NOT EXISTS QUESTION_DEFAULT PARTITION OF QUESTION DEFAULT;
 
+--QUESTION_TAG table stores the tags of the questions, which are filtered in memory by the tag index and only read from this table at startup and for the questions of a page
+DROP TABLE IF EXISTS QUESTION_TAG CASCADE;
+CREATE TABLE IF NOT EXISTS QUESTION_TAG(question_id INTEGER NOT NULL, tag VARCHAR(30) NOT NULL, PRIMARY KEY(question_id, tag));
 
---ANSWER table is created to store the answers related information in reply to any question posted in the Application
+
+--ANSWER table is created to store the answers related information in reply to any question posted in the Application, partitioned by month of the date of the answers like the QUESTION table
 DROP TABLE IF EXISTS ANSWER CASCADE;
-CREATE TABLE IF NOT EXISTS ANSWER(id SERIAL,uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL,date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL , PRIMARY KEY(id), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE, FOREIGN KEY (question_id) REFERENCES QUESTION(id) ON DELETE CASCADE);
+CREATE TABLE IF NOT EXISTS ANSWER(id SERIAL,uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL,date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL , PRIMARY KEY(id, date), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE) PARTITION BY RANGE (date);
+CREATE TABLE IF NOT EXISTS ANSWER_DEFAULT PARTITION OF ANSWER DEFAULT;
+
+--The answers and the tags of a question cannot have a foreign key to the partitioned QUESTION table, whose key includes the date, so triggers check that their question exists, locking it like a foreign key, and delete them with their question.
+--A question moved to another partition by a change of its date is deleted and inserted again, its answers and tags are kept
+CREATE OR REPLACE FUNCTION CHECK_QUESTION_EXISTS() RETURNS TRIGGER AS '
+BEGIN
+    PERFORM 1 FROM question WHERE id = NEW.question_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION ''Question % does not exist'', NEW.question_id USING ERRCODE = ''foreign_key_violation'';
+    END IF;
+    RETURN NEW;
+END;
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION DELETE_QUESTION_DEPENDENTS() RETURNS TRIGGER AS '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM question WHERE id = OLD.id) THEN
+        DELETE FROM answer WHERE question_id = OLD.id;
+        DELETE FROM question_tag WHERE question_id = OLD.id;
+    END IF;
+    RETURN OLD;
+END;
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER TRG_ANSWER_QUESTION_EXISTS AFTER INSERT OR UPDATE OF question_id ON ANSWER FOR EACH ROW EXECUTE PROCEDURE CHECK_QUESTION_EXISTS();
+CREATE TRIGGER TRG_QUESTION_TAG_QUESTION_EXISTS AFTER INSERT OR UPDATE OF question_id ON QUESTION_TAG FOR EACH ROW EXECUTE PROCEDURE CHECK_QUESTION_EXISTS();
+CREATE TRIGGER TRG_QUESTION_DELETE_DEPENDENTS AFTER DELETE ON QUESTION FOR EACH ROW EXECUTE PROCEDURE DELETE_QUESTION_DEPENDENTS();
+
+--Indexes on the owning user of every dependent row so that the chunked user deletion job can select each batch without scanning the tables.
+--The questions and answers of a user are also ordered by date and id, so that every page of the activity of a user is read from the index where the previous page ended
+CREATE INDEX IF NOT EXISTS IDX_USER_AUTH_USER_ID ON USER_AUTH(USER_ID);
+CREATE INDEX IF NOT EXISTS IDX_QUESTION_USER_ID_DATE ON QUESTION(user_id, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_ANSWER_USER_ID_DATE ON ANSWER(user_id, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IDX_ANSWER_QUESTION_ID ON ANSWER(question_id);
+--Index on the date of the answers so that the answers of the last day are counted for the trending questions at startup without scanning the partition of the current month
+CREATE INDEX IF NOT EXISTS IDX_ANSWER_DATE ON ANSWER(date);
+
+--IDEMPOTENCY_RECORD table stores the Idempotency-Keys of the create requests and the responses of their first execution, so that a retry reaching any node is answered with the original response
+DROP TABLE IF EXISTS IDEMPOTENCY_RECORD CASCADE;
+CREATE TABLE IF NOT EXISTS IDEMPOTENCY_RECORD(
+	IDEMPOTENCY_KEY VARCHAR(64) PRIMARY KEY,
+	FINGERPRINT VARCHAR(64) NOT NULL,
+	STATUS INTEGER NULL,
+	CONTENT_TYPE VARCHAR(100) NULL,
+	LOCATION VARCHAR(500) NULL,
+	BODY BYTEA NULL,
+	CREATED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	EXPIRES_AT TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS IDX_IDEMPOTENCY_RECORD_EXPIRES_AT ON IDEMPOTENCY_RECORD(EXPIRES_AT);
+
+--CONTRIBUTOR_SKETCH table stores the count-min sketches of the questions and answers posted by the users, to which every node adds its counts, so that the top contributors survive restarts
+DROP TABLE IF EXISTS CONTRIBUTOR_SKETCH CASCADE;
+CREATE TABLE IF NOT EXISTS CONTRIBUTOR_SKETCH(
+	NAME VARCHAR(50) PRIMARY KEY,
+	DEPTH INTEGER NOT NULL,
+	WIDTH INTEGER NOT NULL,
+	CELLS BYTEA NOT NULL,
+	CANDIDATES TEXT NOT NULL,
+	UPDATED_AT TIMESTAMP NOT NULL
+);
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service.activity;
+
+import com.upgrad.quora.service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * This class is the position of the last item of a page of activity, handed to the client as an opaque string. The
+ * next page holds the items which come after it in the order of {@link ActivityItem#NEWEST_FIRST}, so that every
+ * source is read from where the previous page ended instead of skipping the items of the previous pages.
+ */
+public final class ActivityCursor {
+    private final Instant date;
+    private final ActivityItem.Type type;
+    private final int id;
+
+    private ActivityCursor(final Instant date, final ActivityItem.Type type, final int id) {
+        this.date = date;
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * @param item last item of a page
+     * @return the position after the item
+     */
+    public static ActivityCursor after(final ActivityItem item) {
+        return new ActivityCursor(item.getDate().toInstant(), item.getType(), item.getId());
+    }
+
+    /**
+     * This method parses a cursor returned with a previous page
+     * @param cursor the cursor, null or blank for the first page
+     * @return the position, null for the first page
+     * @throws InvalidCursorException if the cursor was not returned with a page
+     */
+    public static ActivityCursor parse(final String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new ActivityCursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1])),
+                    ActivityItem.Type.valueOf(parts[2]), Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("CUR-001", "The cursor is invalid, use the next_cursor of the previous page");
+        }
+    }
+
+    /**
+     * @return the cursor as handed to the client
+     */
+    public String format() {
+        String value = date.getEpochSecond() + ":" + date.getNano() + ":" + type.name() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return date of the last item read
+     */
+    public ZonedDateTime getDate() {
+        return ZonedDateTime.ofInstant(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * This method returns the id below which the items of a kind posted at the date of the cursor come after it. Items
+     * of the kind of the cursor follow it when their id is lower, the items of an earlier kind were all read before it
+     * and the items of a later kind all follow it.
+     * @param itemType kind of the items of a source
+     * @return exclusive upper bound of the ids at the date of the cursor
+     */
+    public int idBoundFor(final ActivityItem.Type itemType) {
+        int order = itemType.compareTo(type);
+        return order == 0 ? id : order < 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,77 @@
+package com.upgrad.quora.service.activity;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+
+/**
+ * This class holds a question or an answer posted by a user, as an entry of the activity of the user
+ */
+public final class ActivityItem {
+    /**
+     * Order of the activity: newest first, a question before an answer posted at the same time, then the highest id
+     */
+    public static final Comparator<ActivityItem> NEWEST_FIRST = Comparator.comparing((ActivityItem item) -> item.date.toInstant()).reversed()
+            .thenComparing(item -> item.type)
+            .thenComparing(Comparator.comparingInt((ActivityItem item) -> item.id).reversed());
+
+    /**
+     * Kinds of activity, in their order for items posted at the same time
+     */
+    public enum Type {
+        QUESTION, ANSWER
+    }
+
+    private final Type type;
+    private final int id;
+    private final String uuid;
+    private final String content;
+    private final ZonedDateTime date;
+    private final String questionUuid;
+
+    private ActivityItem(final Type type, final int id, final String uuid, final String content, final ZonedDateTime date, final String questionUuid) {
+        this.type = type;
+        this.id = id;
+        this.uuid = uuid;
+        this.content = content;
+        this.date = date;
+        this.questionUuid = questionUuid;
+    }
+
+    public static ActivityItem of(final QuestionEntity question) {
+        return new ActivityItem(Type.QUESTION, question.getId(), question.getUuid(), question.getContent(), question.getDate(), question.getUuid());
+    }
+
+    public static ActivityItem of(final AnswerEntity answer) {
+        return new ActivityItem(Type.ANSWER, answer.getId(), answer.getUuid(), answer.getAnswer(), answer.getDate(), answer.getQuestion().getUuid());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    /**
+     * @return uuid of the question, or of the question answered
+     */
+    public String getQuestionUuid() {
+        return questionUuid;
+    }
+}
@@ -0,0 +1,30 @@
+package com.upgrad.quora.service.activity;
+
+import java.util.List;
+
+/**
+ * This class holds a page of the activity of a user with the cursor of the next page
+ */
+public final class ActivityPage {
+    private final List<ActivityItem> items;
+    private final String nextCursor;
+
+    public ActivityPage(final List<ActivityItem> items, final String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return items of the page, newest first
+     */
+    public List<ActivityItem> getItems() {
+        return items;
+    }
+
+    /**
+     * @return cursor of the next page, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
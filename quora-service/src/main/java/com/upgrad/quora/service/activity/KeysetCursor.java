@@ -0,0 +1,52 @@
+package com.upgrad.quora.service.activity;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * This class iterates over a sorted source read in batches, every batch starting after the last item of the previous
+ * one. A batch is read only when the previous one was consumed, and no batch follows a batch shorter than the batch size.
+ */
+public final class KeysetCursor<T> implements Iterator<T> {
+    private final int batchSize;
+    private final Function<T, List<T>> batchAfter;
+
+    private List<T> batch;
+    private int position;
+    private T last;
+    private boolean exhausted;
+
+    /**
+     * @param batchSize maximum number of items read at once
+     * @param batchAfter reads up to batchSize items following the given item, or the first ones when it is null
+     */
+    public KeysetCursor(final int batchSize, final Function<T, List<T>> batchAfter) {
+        this.batchSize = batchSize;
+        this.batchAfter = batchAfter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (batch != null && position < batch.size()) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        batch = batchAfter.apply(last);
+        position = 0;
+        exhausted = batch.size() < batchSize;
+        return !batch.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        last = batch.get(position++);
+        return last;
+    }
+}
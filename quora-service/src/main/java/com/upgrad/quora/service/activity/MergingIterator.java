@@ -0,0 +1,58 @@
+package com.upgrad.quora.service.activity;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * This class merges sources which are each sorted in the same order into one sorted iteration. It holds the next item
+ * of every source in a heap and advances a source only when its item is taken, so that it reads no more of a source
+ * than the merged items taken require.
+ */
+public final class MergingIterator<T> implements Iterator<T> {
+    private final PriorityQueue<Head<T>> heads;
+
+    /**
+     * @param order order of every source and of the merge
+     * @param sources sorted sources
+     */
+    public MergingIterator(final Comparator<? super T> order, final List<? extends Iterator<T>> sources) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.item, b.item));
+        for (Iterator<T> source : sources) {
+            advance(source);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        advance(head.source);
+        return head.item;
+    }
+
+    private void advance(final Iterator<T> source) {
+        if (source.hasNext()) {
+            heads.add(new Head<>(source.next(), source));
+        }
+    }
+
+    private static final class Head<T> {
+        private final T item;
+        private final Iterator<T> source;
+
+        private Head(final T item, final Iterator<T> source) {
+            this.item = item;
+            this.source = source;
+        }
+    }
+}
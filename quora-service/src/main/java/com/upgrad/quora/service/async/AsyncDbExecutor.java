@@ -0,0 +1,211 @@
+package com.upgrad.quora.service.async;
+
+import com.upgrad.quora.service.bulkhead.BulkheadContext;
+import com.upgrad.quora.service.bulkhead.BulkheadDataSourceConfiguration;
+import com.upgrad.quora.service.bulkhead.BulkheadLimiter;
+import com.upgrad.quora.service.bulkhead.BulkheadNames;
+import com.upgrad.quora.service.bulkhead.BulkheadRegistry;
+import com.upgrad.quora.service.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class runs the database work of the asynchronous endpoints off the request threads, which are released while
+ * the database is queried. A task runs inside its bulkhead and with its own persistence context bound to the worker
+ * thread for the duration of the task, as the request thread has with open-session-in-view, so the entities it loads
+ * can be mapped to the response inside the task.
+ * The workers are virtual threads when the runtime supports them, their concurrency being bounded by the bulkheads.
+ * Otherwise they are a fixed pool sized to the connection pools of the bulkheads, since a worker holds at most one
+ * connection.
+ */
+@Component
+public class AsyncDbExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncDbExecutor.class);
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${quora.async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quora.async.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${quora.async.threads:0}")
+    private int threads;
+
+    @Value("${quora.async.max-pending:1000}")
+    private int maxPending;
+
+    private ExecutorService executor;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            executor = virtualThreads ? newVirtualThreadExecutor() : null;
+            if (executor == null) {
+                int size = threads > 0 ? threads : connections();
+                executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new WorkerThreadFactory());
+                LOG.info("Asynchronous database work runs on {} platform threads", size);
+            } else {
+                LOG.info("Asynchronous database work runs on virtual threads");
+            }
+        }
+
+        Gauge.builder("quora.async.pending", pending, AtomicInteger::get)
+                .description("Asynchronous tasks submitted and not completed yet").register(meterRegistry);
+        Gauge.builder("quora.async.active", active, AtomicInteger::get)
+                .description("Asynchronous tasks running on a worker").register(meterRegistry);
+        rejected = Counter.builder("quora.async.rejected")
+                .description("Asynchronous tasks rejected because too many were pending").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * This method runs the task on a worker inside the named bulkhead. The returned future completes with the result
+     * of the task, or with the exception it threw. When the asynchronous mode is disabled the task runs on the calling
+     * thread and the returned future is already complete.
+     * @param bulkhead name of the bulkhead the task runs in
+     * @param task database work of the request, including the mapping of the entities to the response
+     * @return future result of the task
+     */
+    public <T> CompletableFuture<T> submit(final String bulkhead, final Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (executor == null) {
+            run(bulkhead, task, future);
+            return future;
+        }
+
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            future.completeExceptionally(new BulkheadFullException("BHD-001", "The service is busy, please try again later"));
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    run(bulkhead, task, future);
+                } finally {
+                    active.decrementAndGet();
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.increment();
+            future.completeExceptionally(new BulkheadFullException("BHD-001", "The service is busy, please try again later"));
+        }
+        return future;
+    }
+
+    private <T> void run(final String bulkhead, final Callable<T> task, final CompletableFuture<T> future) {
+        try {
+            future.complete(call(bulkhead, task));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private <T> T call(final String bulkhead, final Callable<T> task) throws Exception {
+        BulkheadLimiter limiter = BulkheadContext.current() == null ? bulkheadRegistry.enter(bulkhead) : null;
+        try {
+            if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+                return task.call();
+            }
+            TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                    new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+            try {
+                return task.call();
+            } finally {
+                EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+            }
+        } finally {
+            if (limiter != null) {
+                bulkheadRegistry.exit(limiter);
+            }
+        }
+    }
+
+    private int connections() {
+        int connections = 0;
+        for (String name : BulkheadNames.ALL) {
+            connections += BulkheadDataSourceConfiguration.poolSize(environment, name);
+        }
+        return connections;
+    }
+
+    /**
+     * This method creates an executor starting a virtual thread per task. It is looked up reflectively since the
+     * application is compiled for runtimes without virtual threads.
+     * @return the executor, or null if the runtime has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "quora-db-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
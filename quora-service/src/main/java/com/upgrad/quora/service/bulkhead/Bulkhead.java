@@ -0,0 +1,23 @@
+package com.upgrad.quora.service.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation runs a controller or business service method inside the named bulkhead. The bulkhead bounds the
+ * number of concurrent calls and the database connections they can use, and rejects the call with a
+ * BulkheadFullException when it is saturated. A call made from inside another bulkhead stays in the outer one.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * @return name of the bulkhead, see {@link BulkheadNames}
+     */
+    String value();
+}
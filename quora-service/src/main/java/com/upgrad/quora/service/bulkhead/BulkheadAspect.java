@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.bulkhead;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * This aspect runs the methods annotated with {@link Bulkhead} inside their bulkhead. It runs before the transaction
+ * is opened so that the transaction takes its connection from the pool of the bulkhead.
+ * The calls keep running on the calling thread, because the persistence context and the transaction are bound to it;
+ * the bulkhead bounds how many threads can be inside it at the same time instead. The asynchronous endpoints enter
+ * their bulkhead on the worker thread through the AsyncDbExecutor.
+ * The annotation is read from the method instead of being bound by the pointcut: the aspect runs ahead of the
+ * interceptor exposing the invocation, which the binding of advice arguments needs.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Around("@annotation(com.upgrad.quora.service.bulkhead.Bulkhead)")
+    public Object around(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (BulkheadContext.current() != null) {
+            return joinPoint.proceed();
+        }
+
+        Bulkhead bulkhead = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(Bulkhead.class);
+        BulkheadLimiter limiter = bulkheadRegistry.enter(bulkhead.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bulkheadRegistry.exit(limiter);
+        }
+    }
+}
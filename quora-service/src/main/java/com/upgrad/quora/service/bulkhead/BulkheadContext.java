@@ -0,0 +1,26 @@
+package com.upgrad.quora.service.bulkhead;
+
+/**
+ * This class holds the bulkhead the current thread is running in, which selects the connection pool of the thread
+ */
+public final class BulkheadContext {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+    }
+
+    /**
+     * @return name of the bulkhead of the current thread, null outside of any bulkhead
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void enter(final String name) {
+        CURRENT.set(name);
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+}
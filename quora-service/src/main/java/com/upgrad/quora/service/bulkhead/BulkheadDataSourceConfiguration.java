@@ -0,0 +1,57 @@
+package com.upgrad.quora.service.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This configuration replaces the single connection pool with one pool per bulkhead, plus a default pool for the work
+ * done outside of any bulkhead. Each pool is sized with "quora.bulkhead.[name].pool-size", which defaults to the
+ * number of concurrent calls of the bulkhead since a request holds its connection until it completes.
+ */
+@Configuration
+public class BulkheadDataSourceConfiguration {
+
+    @Bean
+    @Primary
+    public BulkheadRoutingDataSource dataSource(final DataSourceProperties properties, final Environment environment,
+                                                final MeterRegistry meterRegistry) {
+        HikariDataSource defaultPool = pool(properties, meterRegistry, "quora-default",
+                environment.getProperty("quora.bulkhead.default.pool-size", Integer.class, 5));
+
+        Map<String, HikariDataSource> pools = new HashMap<>();
+        for (String name : BulkheadNames.ALL) {
+            pools.put(name, pool(properties, meterRegistry, "quora-" + name, poolSize(environment, name)));
+        }
+        return new BulkheadRoutingDataSource(defaultPool, pools);
+    }
+
+    /**
+     * This method returns the size of the connection pool of the named bulkhead
+     * @param environment environment holding the configuration
+     * @param name name of the bulkhead
+     * @return maximum number of connections of the pool
+     */
+    public static int poolSize(final Environment environment, final String name) {
+        return environment.getProperty("quora.bulkhead." + name + ".pool-size", Integer.class,
+                BulkheadRegistry.maxConcurrent(environment, name));
+    }
+
+    private static HikariDataSource pool(final DataSourceProperties properties, final MeterRegistry meterRegistry,
+                                         final String poolName, final int poolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(poolName);
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(Math.min(poolSize, 2));
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
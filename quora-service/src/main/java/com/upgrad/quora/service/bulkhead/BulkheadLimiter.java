@@ -0,0 +1,64 @@
+package com.upgrad.quora.service.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class bounds the concurrent calls of one bulkhead. A call waits at most maxWaitMs for a permit and at most
+ * maxWaiting calls wait at the same time, any other call is rejected at once.
+ */
+public class BulkheadLimiter {
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    BulkheadLimiter(final String name, final int maxConcurrent, final int maxWaiting, final long maxWaitMs) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (maxWaitMs <= 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,26 @@
+package com.upgrad.quora.service.bulkhead;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class lists the names of the bulkheads. Every bulkhead is configured with "quora.bulkhead.[name].max-concurrent",
+ * "quora.bulkhead.[name].max-waiting", "quora.bulkhead.[name].max-wait-ms" and "quora.bulkhead.[name].pool-size".
+ */
+public final class BulkheadNames {
+    /** signup and signin, which spend most of their time hashing passwords */
+    public static final String AUTH = "auth";
+
+    /** requests changing data */
+    public static final String WRITE = "write";
+
+    /** requests only reading data */
+    public static final String READ = "read";
+
+    /** names of every bulkhead */
+    public static final List<String> ALL = Collections.unmodifiableList(Arrays.asList(AUTH, WRITE, READ));
+
+    private BulkheadNames() {
+    }
+}
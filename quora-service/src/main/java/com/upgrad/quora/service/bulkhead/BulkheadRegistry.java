@@ -0,0 +1,100 @@
+package com.upgrad.quora.service.bulkhead;
+
+import com.upgrad.quora.service.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class holds the limiters of the bulkheads and publishes their utilization as metrics
+ */
+@Component
+public class BulkheadRegistry {
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, BulkheadLimiter> limiters = new HashMap<>();
+
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String name : BulkheadNames.ALL) {
+            int maxConcurrent = maxConcurrent(environment, name);
+            BulkheadLimiter limiter = new BulkheadLimiter(name, maxConcurrent,
+                    environment.getProperty("quora.bulkhead." + name + ".max-waiting", Integer.class, maxConcurrent),
+                    environment.getProperty("quora.bulkhead." + name + ".max-wait-ms", Long.class, 100L));
+            limiters.put(name, limiter);
+
+            Gauge.builder("quora.bulkhead.active", limiter, BulkheadLimiter::getActive)
+                    .description("Calls running in the bulkhead").tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("quora.bulkhead.waiting", limiter, BulkheadLimiter::getWaiting)
+                    .description("Calls waiting to enter the bulkhead").tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("quora.bulkhead.utilization", limiter, l -> (double) l.getActive() / l.getMaxConcurrent())
+                    .description("Share of the bulkhead capacity in use").tag("bulkhead", name).register(meterRegistry);
+            rejections.put(name, Counter.builder("quora.bulkhead.rejected")
+                    .description("Calls rejected because the bulkhead was saturated").tag("bulkhead", name).register(meterRegistry));
+        }
+    }
+
+    /**
+     * This method returns the limiter of the named bulkhead
+     * @param name name of the bulkhead
+     * @return the limiter
+     * @throws IllegalArgumentException if no such bulkhead is configured
+     */
+    public BulkheadLimiter get(final String name) {
+        BulkheadLimiter limiter = limiters.get(name);
+        if (limiter == null) {
+            throw new IllegalArgumentException("Unknown bulkhead " + name);
+        }
+        return limiter;
+    }
+
+    /**
+     * This method enters the current thread into the named bulkhead, waiting up to the maximum wait of the bulkhead
+     * for a free slot. The thread must leave the bulkhead with {@link #exit(BulkheadLimiter)}.
+     * @param name name of the bulkhead
+     * @return the limiter of the bulkhead
+     * @throws BulkheadFullException if no slot became free in time
+     */
+    public BulkheadLimiter enter(final String name) {
+        BulkheadLimiter limiter = get(name);
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejections.get(name).increment();
+            throw new BulkheadFullException("BHD-001", "The service is busy, please try again later");
+        }
+        BulkheadContext.enter(name);
+        return limiter;
+    }
+
+    /**
+     * This method makes the current thread leave the bulkhead it entered
+     * @param limiter the limiter returned by {@link #enter(String)}
+     */
+    public void exit(final BulkheadLimiter limiter) {
+        BulkheadContext.exit();
+        limiter.release();
+    }
+
+    static int maxConcurrent(final Environment environment, final String name) {
+        return environment.getProperty("quora.bulkhead." + name + ".max-concurrent", Integer.class, 10);
+    }
+}
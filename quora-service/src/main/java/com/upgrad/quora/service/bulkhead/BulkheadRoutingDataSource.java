@@ -0,0 +1,70 @@
+package com.upgrad.quora.service.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This DataSource hands out the connections of the pool of the bulkhead the current thread is running in. Threads
+ * outside of any bulkhead, such as the background jobs, use the default pool.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private final HikariDataSource defaultPool;
+    private final Map<String, HikariDataSource> pools;
+
+    public BulkheadRoutingDataSource(final HikariDataSource defaultPool, final Map<String, HikariDataSource> pools) {
+        this.defaultPool = defaultPool;
+        this.pools = pools;
+        setDefaultTargetDataSource(defaultPool);
+        setTargetDataSources(new HashMap<Object, Object>(pools));
+        setLenientFallback(true);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current();
+    }
+
+    /**
+     * This method opens connections of every pool before the first requests need them. The connections are held
+     * together so that each pool has to open new ones, and are then returned to their pool as idle connections.
+     * @param perPool connections to open in each pool, capped at the size of the pool
+     * @return number of connections opened
+     * @throws SQLException if a connection cannot be opened
+     */
+    public int preOpen(final int perPool) throws SQLException {
+        List<HikariDataSource> all = new ArrayList<>(pools.values());
+        all.add(defaultPool);
+        int opened = 0;
+        for (HikariDataSource pool : all) {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.min(perPool, pool.getMaximumPoolSize()); i++) {
+                    connections.add(pool.getConnection());
+                }
+                opened += connections.size();
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+        return opened;
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource pool : pools.values()) {
+            pool.close();
+        }
+        defaultPool.close();
+    }
+}
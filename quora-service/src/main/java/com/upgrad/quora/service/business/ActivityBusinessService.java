@@ -0,0 +1,79 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.activity.ActivityCursor;
+import com.upgrad.quora.service.activity.ActivityItem;
+import com.upgrad.quora.service.activity.ActivityPage;
+import com.upgrad.quora.service.activity.KeysetCursor;
+import com.upgrad.quora.service.activity.MergingIterator;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+@Service
+public class ActivityBusinessService {
+    @Autowired
+    private UserBusinessService userBusinessService;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Value("${quora.activity.max-page-size:100}")
+    private int maxPageSize;
+
+    //Method to view a page of the questions and answers of a user, newest first, after the cursor of the previous page.
+    //The questions and the answers are each read from where the previous page ended and merged by date, so that a page reads at most one item more than its size from each of them
+    public ActivityPage getActivity(final String userUuid, final ActivityCursor cursor, final int limit, final String authorization) throws AuthorizationFailedException, UserNotFoundException {
+        userBusinessService.getUserByToken(authorization);
+        UserEntity user = userBusinessService.getUserById(userUuid);
+
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // the item following the page tells whether there is a next page
+        int batchSize = pageSize + 1;
+        List<Iterator<ActivityItem>> sources = Arrays.asList(
+                new KeysetCursor<ActivityItem>(batchSize, last -> questions(user, last == null ? cursor : ActivityCursor.after(last), batchSize)),
+                new KeysetCursor<ActivityItem>(batchSize, last -> answers(user, last == null ? cursor : ActivityCursor.after(last), batchSize)));
+        MergingIterator<ActivityItem> activity = new MergingIterator<>(ActivityItem.NEWEST_FIRST, sources);
+
+        List<ActivityItem> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && activity.hasNext()) {
+            items.add(activity.next());
+        }
+        String nextCursor = activity.hasNext() ? ActivityCursor.after(items.get(items.size() - 1)).format() : null;
+        return new ActivityPage(items, nextCursor);
+    }
+
+    private List<ActivityItem> questions(final UserEntity user, final ActivityCursor after, final int limit) {
+        List<QuestionEntity> questions = after == null ? questionDao.getQuestionsByUser(user, null, 0, limit)
+                : questionDao.getQuestionsByUser(user, after.getDate(), after.idBoundFor(ActivityItem.Type.QUESTION), limit);
+        List<ActivityItem> items = new ArrayList<>(questions.size());
+        for (QuestionEntity question : questions) {
+            items.add(ActivityItem.of(question));
+        }
+        return items;
+    }
+
+    private List<ActivityItem> answers(final UserEntity user, final ActivityCursor after, final int limit) {
+        List<AnswerEntity> answers = after == null ? answerDao.getAnswersByUser(user, null, 0, limit)
+                : answerDao.getAnswersByUser(user, after.getDate(), after.idBoundFor(ActivityItem.Type.ANSWER), limit);
+        List<ActivityItem> items = new ArrayList<>(answers.size());
+        for (AnswerEntity answer : answers) {
+            items.add(ActivityItem.of(answer));
+        }
+        return items;
+    }
+}
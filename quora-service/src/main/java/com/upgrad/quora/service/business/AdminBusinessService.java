@@ -4,12 +4,31 @@ package com.upgrad.quora.service.business;
 import com.upgrad.quora.service.dao.AdminDao;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.SessionEvent;
+import com.upgrad.quora.service.event.UserEvent;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.JobNotFoundException;
+import com.upgrad.quora.service.exception.ProfilingException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.job.UserDeletionJob;
+import com.upgrad.quora.service.job.UserDeletionJobExecutor;
+import com.upgrad.quora.service.profiling.FlightRecorderService;
+import com.upgrad.quora.service.profiling.RecordingDump;
+import com.upgrad.quora.service.profiling.RecordingStatus;
+import com.upgrad.quora.service.provisioning.UserImportFormat;
+import com.upgrad.quora.service.provisioning.UserImportResult;
+import com.upgrad.quora.service.provisioning.UserImporter;
+import com.upgrad.quora.service.stats.QuoraStatistics;
+import com.upgrad.quora.service.stats.StatisticsSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 
 /**
  * This class implements the business service for the Admin User
@@ -22,6 +41,21 @@ public class AdminBusinessService {
     @Autowired
     private AdminDao adminDao;
 
+    @Autowired
+    private UserDeletionJobExecutor userDeletionJobExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuoraStatistics quoraStatistics;
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
     /**
      * This method checks if the User is an Admin User or Not
      * @param accessToken access token of the user
@@ -38,21 +72,128 @@ public class AdminBusinessService {
     }
 
     /**
-     * This method allows only an Admin User to delete a User
+     * This method allows only an Admin User to delete a User. The User is hidden from all the reads immediately and the
+     * rows owned by the User are purged in the background by a deletion job. The active sessions of the User end with
+     * the deletion, so they are published as signed out
      * @param accessToken access token of the user
      * @param userId userid of the user
-     * @return
+     * @return the deletion job purging the User
      * @throws AuthorizationFailedException
      * @throws UserNotFoundException
      */
     @Transactional
-    public String deleteUser(String accessToken, String userId) throws AuthorizationFailedException, UserNotFoundException {
+    public UserDeletionJob deleteUser(String accessToken, String userId) throws AuthorizationFailedException, UserNotFoundException {
 
         UserEntity userById = userBusinessService.getUserById(userId);
-        if(this.confirmAdmin(accessToken)) {
-            adminDao.deleteUserByUuid(userId);
+        this.confirmAdmin(accessToken);
+        ZonedDateTime now = ZonedDateTime.now();
+        for (UserAuthEntity session : adminDao.getActiveSessions(userById, now)) {
+            eventPublisher.publishEvent(new SessionEvent(SessionEvent.Type.SIGNED_OUT, userById.getUuid(), session.getAccessToken()));
         }
+        adminDao.markUserDeleted(userById.getUuid(), now);
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.DELETED, userById.getUuid()));
+
+        return userDeletionJobExecutor.schedule(userById);
+    }
+
+    /**
+     * This method allows only an Admin User to check the progress of a User deletion job
+     * @param accessToken access token of the user
+     * @param jobId id of the deletion job
+     * @return the deletion job
+     * @throws AuthorizationFailedException
+     * @throws JobNotFoundException
+     */
+    public UserDeletionJob getUserDeletionJob(String accessToken, String jobId) throws AuthorizationFailedException, JobNotFoundException {
+        this.confirmAdmin(accessToken);
+
+        UserDeletionJob job = userDeletionJobExecutor.getJob(jobId);
+        if(job == null) {
+            throw new JobNotFoundException("JOB-001", "Job with entered id does not exist");
+        }
+
+        return job;
+    }
+
+    /**
+     * This method allows only an Admin User to see the application statistics
+     * @param accessToken access token of the user
+     * @return statistics served from the in-memory counters
+     * @throws AuthorizationFailedException
+     */
+    public StatisticsSnapshot getStatistics(String accessToken) throws AuthorizationFailedException {
+        this.confirmAdmin(accessToken);
+
+        return quoraStatistics.snapshot();
+    }
+
+    /**
+     * This method allows only an Admin User to import Users in bulk. Every row is validated like a signup and the rows
+     * which cannot be imported are reported without aborting the import
+     * @param accessToken access token of the user
+     * @param inputStream rows of the Users to be imported
+     * @param format format of the rows
+     * @return number of rows received and imported and the rows which failed
+     * @throws AuthorizationFailedException
+     * @throws IOException if the rows cannot be read
+     */
+    public UserImportResult importUsers(String accessToken, InputStream inputStream, UserImportFormat format) throws AuthorizationFailedException, IOException {
+        this.confirmAdmin(accessToken);
+
+        return userImporter.importUsers(inputStream, format);
+    }
+
+    /**
+     * This method allows only an Admin User to see the status of the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return status of the recording
+     * @throws AuthorizationFailedException
+     */
+    public RecordingStatus getRecordingStatus(String accessToken) throws AuthorizationFailedException {
+        this.confirmAdmin(accessToken);
+
+        return flightRecorderService.status();
+    }
+
+    /**
+     * This method allows only an Admin User to start the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return status of the recording
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     */
+    public RecordingStatus startRecording(String accessToken) throws AuthorizationFailedException, ProfilingException {
+        this.confirmAdmin(accessToken);
+
+        return flightRecorderService.start();
+    }
+
+    /**
+     * This method allows only an Admin User to stop the continuous Flight Recorder recording
+     * @param accessToken access token of the user
+     * @return status of the recording
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     */
+    public RecordingStatus stopRecording(String accessToken) throws AuthorizationFailedException, ProfilingException {
+        this.confirmAdmin(accessToken);
+
+        return flightRecorderService.stop();
+    }
+
+    /**
+     * This method allows only an Admin User to dump a window of the continuous Flight Recorder recording to a file
+     * @param accessToken access token of the user
+     * @param from start of the window, null for the start of the recording
+     * @param to end of the window, null for now
+     * @return path and size of the dumped file
+     * @throws AuthorizationFailedException
+     * @throws ProfilingException
+     * @throws IOException if the file cannot be written
+     */
+    public RecordingDump dumpRecording(String accessToken, Instant from, Instant to) throws AuthorizationFailedException, ProfilingException, IOException {
+        this.confirmAdmin(accessToken);
 
-        return userId;
+        return flightRecorderService.dump(from, to);
     }
 }
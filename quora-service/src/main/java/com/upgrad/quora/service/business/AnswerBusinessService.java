@@ -1,14 +1,17 @@
 package com.upgrad.quora.service.business;
 
+import com.upgrad.quora.service.common.DateRange;
 import com.upgrad.quora.service.dao.AnswerDao;
 import com.upgrad.quora.service.entity.AnswerEntity;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.AnswerEvent;
 import com.upgrad.quora.service.exception.AnswerNotFoundException;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +32,8 @@ public class AnswerBusinessService {
     private UserBusinessService userBusinessService;
     @Autowired
     private AnswerDao answerDao;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * This method creates answer for a question
@@ -53,6 +58,7 @@ public class AnswerBusinessService {
                     answerEntity.setUuid(UUID.randomUUID().toString());
                     answerEntity.setUser(userAuthTokenEntity.getUserId());
                     answerEntity = answerDao.createAnswer(answerEntity);
+                    eventPublisher.publishEvent(AnswerEvent.of(AnswerEvent.Type.CREATED, answerEntity));
                 } else {
                     throw new InvalidQuestionException("QUES-001", "The question entered is invalid");
                 }
@@ -83,7 +89,9 @@ public class AnswerBusinessService {
                 if (answerEntity != null) {
                     if (isUserAnswerOwner(userAuthTokenEntity.getUserId(), answerEntity.getUser())) {
                         answerEntity.setAnswer(answerContent);
-                        return answerDao.updateAnswer(answerEntity);
+                        AnswerEntity updatedAnswer = answerDao.updateAnswer(answerEntity);
+                        eventPublisher.publishEvent(AnswerEvent.of(AnswerEvent.Type.UPDATED, updatedAnswer));
+                        return updatedAnswer;
                     } else {
                         throw new AuthorizationFailedException("ATHR-003", "Only the answer owner can edit the answer");
                     }
@@ -108,14 +116,48 @@ public class AnswerBusinessService {
      * @throws InvalidQuestionException
      */
     public List<AnswerEntity> getAllAnswersToQuestion(final String authorizationToken, String questionId) throws AuthorizationFailedException, InvalidQuestionException {
+        return getAllAnswersToQuestion(authorizationToken, questionId, null, DateRange.UNBOUNDED);
+    }
+
+    /**
+     * This method gets the given attributes of the answers to a question posted in a range of dates
+     * @param authorizationToken user authorization token
+     * @param questionId question id
+     * @param attributes attributes of the answers to be read, null for the whole answers
+     * @param range range of dates of the answers, unbounded for all of them
+     * @return list of answers
+     * @throws AuthorizationFailedException
+     * @throws InvalidQuestionException
+     */
+    public List<AnswerEntity> getAllAnswersToQuestion(final String authorizationToken, String questionId, final List<String> attributes, final DateRange range) throws AuthorizationFailedException, InvalidQuestionException {
+        QuestionEntity questionEntity = getAnsweredQuestion(authorizationToken, questionId);
+        //Even if the question is valid and there are no answers to the question we are deliberately
+        //not responding with a message that there are no answers as it is not mentioned in requirements
+        return attributes == null ? answerDao.getAllAnswersToQuestion(questionEntity.getId(), range)
+                : answerDao.getAllAnswersToQuestion(questionEntity.getId(), attributes, range);
+    }
+
+    /**
+     * This method gets all the answers to a question with their authors, oldest first. The answers do not carry
+     * their question, which is read once with {@link QuestionBusinessService#getQuestionById(String)}
+     * @param authorizationToken user authorization token
+     * @param questionId question id
+     * @return list of answers
+     * @throws AuthorizationFailedException
+     * @throws InvalidQuestionException
+     */
+    public List<AnswerEntity> getAnswerThread(final String authorizationToken, final String questionId) throws AuthorizationFailedException, InvalidQuestionException {
+        QuestionEntity questionEntity = getAnsweredQuestion(authorizationToken, questionId);
+        return answerDao.getAnswerThread(questionEntity.getId());
+    }
+
+    private QuestionEntity getAnsweredQuestion(final String authorizationToken, final String questionId) throws AuthorizationFailedException, InvalidQuestionException {
         UserAuthEntity userAuthTokenEntity = userBusinessService.getUserByToken(authorizationToken);
         if (userAuthTokenEntity != null) {
             if (userBusinessService.isUserSignedIn(userAuthTokenEntity)) {
                 QuestionEntity questionEntity = questionBusinessService.getQuestionById(questionId);
                 if (questionEntity != null) {
-                    //Even if the question is valid and there are no answers to the question we are deliberately
-                    //not responding with a message that there are no answers as it is not mentioned in requirements
-                    return answerDao.getAllAnswersToQuestion(questionEntity.getId());
+                    return questionEntity;
                 } else {
                     throw new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist");
                 }
@@ -143,7 +185,9 @@ public class AnswerBusinessService {
                 if (answerEntity != null) {
                     if (isUserAnswerOwner(userAuthTokenEntity.getUserId(), answerEntity.getUser())
                             || userBusinessService.isUserAdmin(userAuthTokenEntity.getUserId())) {
+                        AnswerEvent deletedEvent = AnswerEvent.of(AnswerEvent.Type.DELETED, answerEntity);
                         answerDao.deleteAnswer(answerEntity);
+                        eventPublisher.publishEvent(deletedEvent);
                     } else {
                         throw new AuthorizationFailedException("ATHR-003", "Only the answer owner or admin can delete the answer");
                     }
@@ -1,17 +1,37 @@
 package com.upgrad.quora.service.business;
 
+import com.upgrad.quora.service.common.DateRange;
 import com.upgrad.quora.service.dao.QuestionDao;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.QuestionEvent;
 import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.DuplicateQuestionException;
 import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.InvalidTagException;
 import com.upgrad.quora.service.exception.UserNotFoundException;
+import com.upgrad.quora.service.search.DuplicateQuestionIndex;
+import com.upgrad.quora.service.search.QuestionSuggestIndex;
+import com.upgrad.quora.service.search.RelatedQuestionIndex;
+import com.upgrad.quora.service.search.SimilarQuestion;
+import com.upgrad.quora.service.tags.TagCursor;
+import com.upgrad.quora.service.tags.TagFilter;
+import com.upgrad.quora.service.tags.TagIndex;
+import com.upgrad.quora.service.tags.TaggedQuestionPage;
+import com.upgrad.quora.service.tags.Tags;
+import com.upgrad.quora.service.trending.TrendingQuestion;
+import com.upgrad.quora.service.trending.TrendingQuestions;
+import com.upgrad.quora.service.trending.TrendingWindow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class QuestionBusinessService {
@@ -21,13 +41,59 @@ public class QuestionBusinessService {
     @Autowired
     private UserBusinessService userBusinessService;
 
-    //Method to create the question
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuestionSuggestIndex questionSuggestIndex;
+
+    @Autowired
+    private DuplicateQuestionIndex duplicateQuestionIndex;
+
+    @Autowired
+    private RelatedQuestionIndex relatedQuestionIndex;
+
+    @Autowired
+    private TrendingQuestions trendingQuestions;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Value("${quora.duplicates.reject:false}")
+    private boolean rejectDuplicates;
+
+    @Value("${quora.duplicates.reject-threshold:0.9}")
+    private double rejectThreshold;
+
+    @Value("${quora.tags.max-per-question:5}")
+    private int maxTagsPerQuestion;
+
+    @Value("${quora.tags.max-page-size:100}")
+    private int maxTaggedPageSize;
+
+    //Method to create the question with its tags, rejecting a near duplicate of an existing question when "quora.duplicates.reject" is set
     @Transactional
-    public QuestionEntity create(QuestionEntity questionEntity)  {
+    public QuestionEntity create(QuestionEntity questionEntity) throws DuplicateQuestionException, InvalidTagException {
+        questionEntity.setTags(Tags.normalize(questionEntity.getTags(), maxTagsPerQuestion));
+        if (rejectDuplicates) {
+            for (SimilarQuestion duplicate : duplicateQuestionIndex.findSimilar(questionEntity.getContent(), null)) {
+                if (duplicate.getSimilarity() >= rejectThreshold) {
+                    throw new DuplicateQuestionException("QUES-002", "The question is a duplicate of the question with uuid " + duplicate.getUuid());
+                }
+            }
+        }
         QuestionEntity createQuestion = questionDao.createQuestion(questionEntity);
+        if (createQuestion != null) {
+            eventPublisher.publishEvent(QuestionEvent.of(QuestionEvent.Type.CREATED, createQuestion));
+        }
         return createQuestion;
     }
 
+    //Method to find the existing questions which are likely duplicates of the question, read from the in-memory index
+    public List<SimilarQuestion> getLikelyDuplicates(final QuestionEntity question) {
+        return duplicateQuestionIndex.findSimilar(question.getContent(), question.getId());
+    }
+
     //Method to delete the question associated based on UUID and throw necessary exceptions
     @Transactional
     public void deleteQuestion(final String uuid,final String authorization) throws AuthorizationFailedException, InvalidQuestionException  {
@@ -36,23 +102,30 @@ public class QuestionBusinessService {
         UserEntity questionUserId=question.getUserId();
         UserEntity authUserID=user.getUserId();
         String authUserRole=user.getUserId().getRole();
-        if(questionUserId==authUserID || authUserRole.equals("admin") ) {
+        if(questionUserId.getUuid().equals(authUserID.getUuid()) || authUserRole.equals("admin") ) {
             questionDao.deleteQuestion(uuid);
+            eventPublisher.publishEvent(QuestionEvent.of(QuestionEvent.Type.DELETED, question));
         } else {
             throw new AuthorizationFailedException("ATHR-003", "Only the question owner or admin can delete the question");
         }
     }
 
-    //Method to edit the question associated based on UUID and throw necessary exceptions
+    //Method to edit the question associated based on UUID and throw necessary exceptions, the tags are replaced unless they are null
     @Transactional
-    public String editQuestion(final String uuid, final String questionContent,final String authorization) throws AuthorizationFailedException, InvalidQuestionException {
+    public String editQuestion(final String uuid, final String questionContent, final List<String> tags, final String authorization) throws AuthorizationFailedException, InvalidQuestionException, InvalidTagException {
 
+        Set<String> questionTags = tags == null ? null : Tags.normalize(tags, maxTagsPerQuestion);
         UserAuthEntity user = userBusinessService.getUserByToken(authorization);
         QuestionEntity question = getQuestionById(uuid);
         UserEntity questionUserId=question.getUserId();
         UserEntity authUserID=user.getUserId();
-        if(questionUserId==authUserID) {
+        if(questionUserId.getUuid().equals(authUserID.getUuid())) {
             questionDao.editQuestion(uuid, questionContent);
+            if (questionTags != null) {
+                questionDao.editQuestionTags(question.getId(), questionTags);
+            }
+            eventPublisher.publishEvent(new QuestionEvent(QuestionEvent.Type.UPDATED, question.getId(), uuid, questionContent,
+                    questionUserId.getUuid(), question.getDate(), questionTags));
             return uuid;
         }
         else {
@@ -63,28 +136,65 @@ public class QuestionBusinessService {
     //Method to view Question based on UUID and throw necessary exceptions
     public QuestionEntity getQuestionById(String id) throws InvalidQuestionException {
         QuestionEntity question = questionDao.getQuestionById(id);
-        if(question == null) {
-            throw new InvalidQuestionException("QUES-001", "Entered question uuid does not exist");
-        }
+        ReadRules.checkQuestionFound(question != null);
         return question;
     }
 
-    //Method to view all questions and throw necessary exceptions
-    public List<QuestionEntity> getAllQuestions(final String authorization) throws AuthorizationFailedException {
+    //Method to view all questions, or those posted in the range of dates, and throw necessary exceptions
+    public List<QuestionEntity> getAllQuestions(final String authorization, final DateRange range) throws AuthorizationFailedException {
         UserAuthEntity user = userBusinessService.getUserByToken(authorization);
-        return questionDao.getAllQuestions();
+        return questionDao.getAllQuestions(range);
     }
 
-    //Method to view all questions associated to a user and throw necessary exceptions
-    public List<QuestionEntity> getAllQuestionsByUser(final UserEntity userId, final String authorization)  throws AuthorizationFailedException, UserNotFoundException {
-        UserAuthEntity user = userBusinessService.getUserByToken(authorization);
-        List<QuestionEntity> questionsList = questionDao.getAllQuestionsByUser(userId);
-        if (questionsList.size()>0) {
-            return questionsList;
+    //Method to view the given attributes of all questions posted in the range of dates and throw necessary exceptions
+    public List<QuestionEntity> getAllQuestions(final String authorization, final List<String> attributes, final DateRange range) throws AuthorizationFailedException {
+        userBusinessService.getUserByToken(authorization);
+        return questionDao.getAllQuestions(attributes, range);
+    }
+
+    //Method to suggest the newest questions whose content or one of its words begins with the prefix, read from the in-memory index
+    public List<QuestionEntity> suggestQuestions(final String prefix, final int limit, final String authorization) throws AuthorizationFailedException {
+        userBusinessService.getUserByToken(authorization);
+        return questionSuggestIndex.suggest(prefix, limit);
+    }
+
+    //Method to view the questions whose content and answers are the most similar to those of the question, read from the in-memory index
+    public List<SimilarQuestion> getRelatedQuestions(final String uuid, final int limit, final String authorization) throws AuthorizationFailedException, InvalidQuestionException {
+        userBusinessService.getUserByToken(authorization);
+        QuestionEntity question = getQuestionById(uuid);
+        return relatedQuestionIndex.findRelated(question.getId(), limit);
+    }
+
+    //Method to view the questions which received the most answers in the window, read from the snapshot of the trending questions
+    public List<TrendingQuestion> getTrendingQuestions(final TrendingWindow window, final int limit, final String authorization) throws AuthorizationFailedException {
+        userBusinessService.getUserByToken(authorization);
+        return trendingQuestions.getTrending(window, limit);
+    }
+
+    //Method to view a page of the questions matching the tag filter, newest first, after the cursor of the previous page.
+    //The filter is evaluated on the in-memory tag index and only the questions of the page are read from the database
+    public TaggedQuestionPage getTaggedQuestions(final TagFilter filter, final TagCursor cursor, final int limit, final String authorization) throws AuthorizationFailedException {
+        userBusinessService.getUserByToken(authorization);
+        int pageSize = Math.max(1, Math.min(limit, maxTaggedPageSize));
+        // the question following the page tells whether there is a next page
+        int[] ids = tagIndex.find(filter, cursor == null ? Integer.MAX_VALUE : cursor.getId(), pageSize + 1);
+        List<Integer> pageIds = new ArrayList<>(pageSize);
+        for (int i = 0; i < ids.length && i < pageSize; i++) {
+            pageIds.add(ids[i]);
         }
-        else {
-            throw new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
+        String nextCursor = ids.length > pageSize ? TagCursor.after(pageIds.get(pageSize - 1)).format() : null;
+        return new TaggedQuestionPage(questionDao.getQuestionsWithTags(pageIds), nextCursor);
+    }
+
+    //Method to view all questions associated to a user, or those posted in the range of dates, and throw necessary exceptions.
+    //A range without questions of the user is not an error
+    public List<QuestionEntity> getAllQuestionsByUser(final UserEntity userId, final DateRange range, final String authorization)  throws AuthorizationFailedException, UserNotFoundException {
+        UserAuthEntity user = userBusinessService.getUserByToken(authorization);
+        List<QuestionEntity> questionsList = questionDao.getAllQuestionsByUser(userId, range);
+        if (range.isUnbounded()) {
+            ReadRules.checkUserHasQuestions(questionsList.size());
         }
+        return questionsList;
 
     }
 
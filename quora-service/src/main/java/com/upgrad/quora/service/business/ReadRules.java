@@ -0,0 +1,63 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+
+/**
+ * This class holds the rules of the read endpoints independently of how the data is loaded, so that the business
+ * services and the reactive API apply the same checks with the same error codes and messages.
+ */
+public final class ReadRules {
+
+    private ReadRules() {
+    }
+
+    /**
+     * This method checks that the session of an access token exists and is not signed out
+     * @param sessionFound true if a session exists for the access token
+     * @param signedOut true if the session has a logout time
+     * @throws AuthorizationFailedException ATHR-001 if there is no session, ATHR-002 if it is signed out
+     */
+    public static void checkSignedIn(final boolean sessionFound, final boolean signedOut) throws AuthorizationFailedException {
+        if (!sessionFound) {
+            throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
+        }
+        if (signedOut) {
+            throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get user details");
+        }
+    }
+
+    /**
+     * This method checks that the user requested exists
+     * @param userFound true if the user exists
+     * @throws UserNotFoundException USR-001 if the user does not exist
+     */
+    public static void checkUserFound(final boolean userFound) throws UserNotFoundException {
+        if (!userFound) {
+            throw new UserNotFoundException("USR-001", "User with entered uuid does not exist");
+        }
+    }
+
+    /**
+     * This method checks that the user whose questions are requested has posted questions
+     * @param questionCount number of questions of the user
+     * @throws UserNotFoundException USR-001 if the user has no questions
+     */
+    public static void checkUserHasQuestions(final int questionCount) throws UserNotFoundException {
+        if (questionCount == 0) {
+            throw new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
+        }
+    }
+
+    /**
+     * This method checks that the question requested exists
+     * @param questionFound true if the question exists
+     * @throws InvalidQuestionException QUES-001 if the question does not exist
+     */
+    public static void checkQuestionFound(final boolean questionFound) throws InvalidQuestionException {
+        if (!questionFound) {
+            throw new InvalidQuestionException("QUES-001", "Entered question uuid does not exist");
+        }
+    }
+}
@@ -3,12 +3,21 @@ package com.upgrad.quora.service.business;
 import com.upgrad.quora.service.dao.UserDao;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.SessionEvent;
+import com.upgrad.quora.service.event.UserEvent;
 import com.upgrad.quora.service.exception.*;
+import com.upgrad.quora.service.stats.Contribution;
+import com.upgrad.quora.service.stats.ContributorRanking;
+import com.upgrad.quora.service.stats.ContributorRankings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -22,6 +31,12 @@ public class UserBusinessService {
     @Autowired
     private PasswordCryptographyProvider cryptographyProvider;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContributorRankings contributorRankings;
+
     /**
      * This method checks if the username or the email already exist in the database then throw appropriate exception or else
      * create the new user with the provided details
@@ -44,6 +59,9 @@ public class UserBusinessService {
         userEntity.setPassword(encryptedText[1]);
 
         UserEntity signupUser = userDao.createUser(userEntity);
+        if(signupUser != null) {
+            eventPublisher.publishEvent(new UserEvent(UserEvent.Type.CREATED, signupUser.getUuid()));
+        }
 
         return signupUser;
     }
@@ -60,7 +78,7 @@ public class UserBusinessService {
     public UserAuthEntity signin(final String username, final String password) throws AuthenticationFailedException {
         UserEntity userEntity = userDao.getUserByUserName(username);
 
-        if(userEntity == null) {
+        if(userEntity == null || userEntity.getDeletedAt() != null) {
             throw new AuthenticationFailedException("ATH-001", "This username does not exist");
         }
 
@@ -79,6 +97,7 @@ public class UserBusinessService {
             userAuthEntity.setLoginAt(now);
 
             userDao.createAuth(userAuthEntity);
+            eventPublisher.publishEvent(new SessionEvent(SessionEvent.Type.SIGNED_IN, userEntity.getUuid(), userAuthEntity.getAccessToken()));
 
             return userAuthEntity;
         } else {
@@ -103,6 +122,9 @@ public class UserBusinessService {
         }
 
         userDao.updateUserLogoutByToken(accessToken, currentTime);
+        if(userAuthEntity.getLogoutAt() == null) {
+            eventPublisher.publishEvent(new SessionEvent(SessionEvent.Type.SIGNED_OUT, userAuthEntity.getUserId().getUuid(), accessToken));
+        }
 
         return userAuthEntity.getUserId().getUuid();
     }
@@ -123,6 +145,39 @@ public class UserBusinessService {
         return userById;
     }
 
+    /**
+     * This method returns the given attributes of the user based on the UUID and Access Token
+     * @param userUuid UUID of the User
+     * @param accessToken Access Token of the User
+     * @param attributes attributes of the user to be read, e.g. "firstName"
+     * @return User Details
+     * @throws AuthorizationFailedException
+     * @throws UserNotFoundException
+     */
+    public UserEntity getUserProfile(final String userUuid, final String accessToken, final List<String> attributes) throws AuthorizationFailedException, UserNotFoundException {
+        getUserByToken(accessToken);
+        UserEntity userById = userDao.getUserProfile(userUuid, attributes);
+        ReadRules.checkUserFound(userById != null);
+        return userById;
+    }
+
+    /**
+     * This method returns the users who posted the most questions and the most answers, read from the in-memory
+     * sketches of the contributions
+     * @param limit maximum number of users of every ranking
+     * @param accessToken Access Token of the User
+     * @return top contributors by contribution
+     * @throws AuthorizationFailedException
+     */
+    public Map<Contribution, ContributorRanking> getTopContributors(final int limit, final String accessToken) throws AuthorizationFailedException {
+        getUserByToken(accessToken);
+        Map<Contribution, ContributorRanking> topContributors = new EnumMap<>(Contribution.class);
+        for (Contribution contribution : Contribution.values()) {
+            topContributors.put(contribution, contributorRankings.getRanking(contribution, limit));
+        }
+        return topContributors;
+    }
+
     /**
      * This method get the user details based on the access token
      * @param accessToken access token of the user
@@ -132,13 +187,7 @@ public class UserBusinessService {
     public UserAuthEntity getUserByToken(final String accessToken) throws AuthorizationFailedException {
         UserAuthEntity userAuthByToken = userDao.getUserAuthByToken(accessToken);
 
-        if(userAuthByToken == null) {
-            throw new AuthorizationFailedException("ATHR-001", "User has not signed in");
-        }
-
-        if(userAuthByToken.getLogoutAt() != null) {
-            throw new AuthorizationFailedException("ATHR-002", "User is signed out.Sign in first to get user details");
-        }
+        ReadRules.checkSignedIn(userAuthByToken != null, userAuthByToken != null && userAuthByToken.getLogoutAt() != null);
 
         return userAuthByToken;
     }
@@ -152,9 +201,7 @@ public class UserBusinessService {
     public UserEntity getUserById(final String userUuid) throws UserNotFoundException {
         UserEntity userEntity = userDao.getUserById(userUuid);
 
-        if(userEntity == null) {
-            throw new UserNotFoundException("USR-001", "User with entered uuid does not exist");
-        }
+        ReadRules.checkUserFound(userEntity != null);
 
         return userEntity;
     }
@@ -0,0 +1,99 @@
+package com.upgrad.quora.service.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * This class propagates the invalidations of the in-process caches to every node. A change is published with
+ * pg_notify on the connection of the current transaction, so PostgreSQL delivers it to the other nodes only when the
+ * transaction commits and drops it when the transaction rolls back. The caches of this node are invalidated once the
+ * transaction commits.
+ */
+@Component
+public class CacheInvalidationBus {
+    static final String NODE_ID = UUID.randomUUID().toString();
+
+    private static final char ALL_KEYS = 'A';
+    private static final char ONE_KEY = 'K';
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quora.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quora.cache.invalidation.channel:quora_cache_invalidation}")
+    private String channel;
+
+    String getChannel() {
+        return channel;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method invalidates the key of the named cache on every node
+     * @param cache name of the cache
+     * @param key key to be invalidated
+     */
+    public void invalidate(final String cache, final String key) {
+        publish(cache + "|" + ONE_KEY + key);
+        afterCommit(() -> cacheRegistry.invalidate(cache, key));
+    }
+
+    /**
+     * This method invalidates all the keys of the named cache on every node
+     * @param cache name of the cache
+     */
+    public void invalidateAll(final String cache) {
+        publish(cache + "|" + ALL_KEYS);
+        afterCommit(() -> cacheRegistry.invalidateAll(cache));
+    }
+
+    /**
+     * This method applies a notification received from a node. The notifications of this node were already applied
+     * when its transaction committed.
+     * @param payload payload of the notification
+     */
+    void apply(final String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length < 3 || parts[0].equals(NODE_ID) || parts[2].isEmpty()) {
+            return;
+        }
+        if (parts[2].charAt(0) == ALL_KEYS) {
+            cacheRegistry.invalidateAll(parts[1]);
+        } else {
+            cacheRegistry.invalidate(parts[1], parts[2].substring(1));
+        }
+    }
+
+    private void publish(final String message) {
+        if (enabled) {
+            jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, NODE_ID + "|" + message);
+        }
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.upgrad.quora.service.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * This class listens on a dedicated connection for the cache invalidations published by the nodes and applies them
+ * to the caches of this node. Notifications sent while the connection is down are lost, so the caches are bypassed
+ * until the connection is re-established and are then flushed completely.
+ */
+@Component
+public class CacheInvalidationListener {
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${quora.cache.invalidation.poll-interval-ms:5000}")
+    private int pollIntervalMs;
+
+    @Value("${quora.cache.invalidation.max-reconnect-delay-ms:30000}")
+    private long maxReconnectDelayMs;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    @PostConstruct
+    public void init() {
+        if (!cacheInvalidationBus.isEnabled()) {
+            return;
+        }
+        // no invalidations can be received until the first connection is established
+        cacheRegistry.flushAll(false);
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        long reconnectDelayMs = 100;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + cacheInvalidationBus.getChannel());
+                }
+                cacheRegistry.flushAll(true);
+                reconnectDelayMs = 100;
+                LOG.info("Listening for cache invalidations on channel {}", cacheInvalidationBus.getChannel());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollIntervalMs);
+                    if (notifications == null || notifications.length == 0) {
+                        // a round trip detects a connection which was dropped without the socket being closed
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        cacheInvalidationBus.apply(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                cacheRegistry.flushAll(false);
+                if (!running) {
+                    return;
+                }
+                LOG.warn("Cache invalidation listener disconnected, caches are bypassed until it reconnects", e);
+            }
+            try {
+                Thread.sleep(reconnectDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            reconnectDelayMs = Math.min(reconnectDelayMs * 2, maxReconnectDelayMs);
+        }
+    }
+}
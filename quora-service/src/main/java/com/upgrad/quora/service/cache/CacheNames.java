@@ -0,0 +1,28 @@
+package com.upgrad.quora.service.cache;
+
+/**
+ * This class lists the names of the in-process caches. The names are part of the invalidation notifications exchanged
+ * between the nodes.
+ */
+public final class CacheNames {
+    /** user_auth rows by access token */
+    public static final String TOKENS = "tokens";
+
+    /** users by uuid */
+    public static final String PROFILES = "profiles";
+
+    /** questions by uuid */
+    public static final String QUESTIONS = "questions";
+
+    /** serialized responses of the question listings */
+    public static final String QUESTION_RESPONSES = "question-responses";
+
+    /** serialized responses of the answer listings */
+    public static final String ANSWER_RESPONSES = "answer-responses";
+
+    /** serialized responses of the user profiles */
+    public static final String PROFILE_RESPONSES = "profile-responses";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class holds the in-process caches of the node. The time to live and the size of a cache are configured with
+ * "quora.cache.[name].ttl-seconds" and "quora.cache.[name].max-size".
+ */
+@Component
+public class CacheRegistry {
+    @Autowired
+    private Environment environment;
+
+    private final Map<String, LocalCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean coherent = new AtomicBoolean(true);
+
+    /**
+     * This method creates the cache with the given name, or returns it if it already exists
+     * @param name name of the cache
+     * @return the cache
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> LocalCache<K, V> register(final String name) {
+        return (LocalCache<K, V>) caches.computeIfAbsent(name, key -> new LocalCache<>(key,
+                TimeUnit.SECONDS.toNanos(environment.getProperty("quora.cache." + key + ".ttl-seconds", Long.class, 300L)),
+                environment.getProperty("quora.cache." + key + ".max-size", Integer.class, 10000),
+                coherent));
+    }
+
+    /**
+     * This method returns the named cache if it exists on this node
+     * @param name name of the cache
+     * @return the cache, or null
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> LocalCache<K, V> getCache(final String name) {
+        return (LocalCache<K, V>) caches.get(name);
+    }
+
+    /**
+     * This method removes the key from the named cache, if the cache exists on this node
+     * @param name name of the cache
+     * @param key key to be removed
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidate(final String name, final Object key) {
+        LocalCache<Object, ?> cache = (LocalCache<Object, ?>) caches.get(name);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * This method removes all the keys from the named cache, if the cache exists on this node
+     * @param name name of the cache
+     */
+    public void invalidateAll(final String name) {
+        LocalCache<?, ?> cache = caches.get(name);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * This method empties every cache and sets whether the caches may be used. While the node cannot receive the
+     * invalidations of the other nodes, the caches are bypassed.
+     * @param coherent true if the caches may be used
+     */
+    public void flushAll(final boolean coherent) {
+        this.coherent.set(false);
+        for (LocalCache<?, ?> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+        this.coherent.set(coherent);
+    }
+}
@@ -0,0 +1,171 @@
+package com.upgrad.quora.service.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * This class is a bounded in-process cache whose entries expire after a fixed time. Every invalidation bumps the
+ * generation of the cache, and a value loaded while an invalidation happened is not kept, so that a load racing with
+ * a change can never put the old value back into the cache.
+ * The cached values are shared between threads and must be treated as read-only.
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class LocalCache<K, V> {
+    private final String name;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final AtomicBoolean coherent;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    LocalCache(final String name, final long ttlNanos, final int maxSize, final AtomicBoolean coherent) {
+        this.name = name;
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+        this.coherent = coherent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * This method returns the keys currently cached
+     * @return copy of the keys
+     */
+    public Set<K> keys() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    /**
+     * This method returns the cached value of the key, loading it on a miss. Null values are not cached. While the
+     * caches of this node may have missed invalidations, the cache is bypassed.
+     * @param key key of the value
+     * @param loader loads the value on a miss
+     * @return the cached or loaded value
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        if (!coherent.get()) {
+            return loader.apply(key);
+        }
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (now - entry.loadedAt < ttlNanos) {
+                return entry.value;
+            }
+            entries.remove(key, entry);
+        }
+
+        long loadGeneration = generation.get();
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, new Entry<>(value, now), loadGeneration);
+        }
+        return value;
+    }
+
+    /**
+     * This method returns the cached value of the key without loading it, for the callers which load the value
+     * themselves and cache it with {@link #putIfUnchanged(Object, Object, long)}
+     * @param key key of the value
+     * @return the cached value, or null on a miss or while the cache is bypassed
+     */
+    public V getIfPresent(final K key) {
+        if (!coherent.get()) {
+            return null;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * This method returns the generation of the cache, the version of the data it holds. It is read before loading a
+     * value which is then cached with {@link #putIfUnchanged(Object, Object, long)}.
+     * @return current generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * This method caches a value loaded by the caller, unless the cache was invalidated since the value was loaded
+     * @param key key of the value
+     * @param value loaded value
+     * @param loadGeneration generation of the cache read before loading the value
+     */
+    public void putIfUnchanged(final K key, final V value, final long loadGeneration) {
+        if (value != null && coherent.get()) {
+            put(key, new Entry<>(value, System.nanoTime()), loadGeneration);
+        }
+    }
+
+    /**
+     * This method removes the key from the cache
+     * @param key key to be removed
+     */
+    public void invalidate(final K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * This method removes all the keys from the cache
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void put(final K key, final Entry<V> entry, final long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(entry.loadedAt);
+        }
+        entries.put(key, entry);
+        // an invalidation may have happened between the check above and the put
+        if (generation.get() != loadGeneration) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private void evict(final long now) {
+        entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(final V value, final long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
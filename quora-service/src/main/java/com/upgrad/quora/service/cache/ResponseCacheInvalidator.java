@@ -0,0 +1,49 @@
+package com.upgrad.quora.service.cache;
+
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class invalidates the caches of serialized responses when the business services create, edit or delete the
+ * data they hold. The listeners run inside the transaction of the change, so the invalidation reaches the other nodes
+ * only if the change commits.
+ */
+@Component
+public class ResponseCacheInvalidator {
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @EventListener
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getQuestionUuid() == null) {
+            // purged by a user deletion job, the deletion of the user has invalidated the responses already
+            return;
+        }
+        cacheInvalidationBus.invalidateAll(CacheNames.QUESTION_RESPONSES);
+        if (event.getType() != QuestionEvent.Type.CREATED) {
+            // the answer listings carry the content of their question and are removed with it
+            cacheInvalidationBus.invalidateAll(CacheNames.ANSWER_RESPONSES);
+        }
+    }
+
+    @EventListener
+    public void onAnswerEvent(final AnswerEvent event) {
+        if (event.getAnswerUuid() == null) {
+            return;
+        }
+        cacheInvalidationBus.invalidateAll(CacheNames.ANSWER_RESPONSES);
+    }
+
+    @EventListener
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED) {
+            cacheInvalidationBus.invalidateAll(CacheNames.QUESTION_RESPONSES);
+            cacheInvalidationBus.invalidateAll(CacheNames.ANSWER_RESPONSES);
+            cacheInvalidationBus.invalidateAll(CacheNames.PROFILE_RESPONSES);
+        }
+    }
+}
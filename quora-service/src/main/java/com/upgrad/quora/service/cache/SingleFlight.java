@@ -0,0 +1,157 @@
+package com.upgrad.quora.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * This class lets concurrent identical reads share one database call. The first caller of a key runs the query and
+ * the callers arriving while it is in flight wait for its result, or its exception, instead of issuing the same query.
+ * A caller which waited longer than the timeout of the group runs the query itself.
+ * Callers inside a read-write transaction always run their own query, since they may need to see their own uncommitted
+ * changes. The shared results are read-only.
+ */
+@Component
+public class SingleFlight {
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("quora.singleflight.inflight", inFlight, Map::size);
+    }
+
+    /**
+     * This method returns the result of the loader, sharing it with the concurrent callers of the same key
+     * @param group name of the query, e.g. "question", used for the metrics and the timeout
+     * @param key key of the query
+     * @param loader runs the query
+     * @return the result of the query
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(final String group, final Object key, final Supplier<V> loader) {
+        Group flightGroup = group(group);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            flightGroup.bypassed.increment();
+            return loader.get();
+        }
+
+        FlightKey flightKey = new FlightKey(group, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing == null) {
+            flightGroup.executed.increment();
+            try {
+                V value = loader.get();
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        try {
+            V value = (V) existing.get(flightGroup.timeoutMs, TimeUnit.MILLISECONDS);
+            flightGroup.coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            flightGroup.timedOut.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flightGroup.timedOut.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            flightGroup.coalesced.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Group group(final String name) {
+        return groups.computeIfAbsent(name, key -> new Group(key,
+                environment.getProperty("quora.single-flight." + key + ".timeout-ms", Long.class,
+                        environment.getProperty("quora.single-flight.timeout-ms", Long.class, 1000L))));
+    }
+
+    private final class Group {
+        private final long timeoutMs;
+        private final Counter executed;
+        private final Counter coalesced;
+        private final Counter timedOut;
+        private final Counter bypassed;
+
+        private Group(final String name, final long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+            this.executed = counter(name, "executed");
+            this.coalesced = counter(name, "coalesced");
+            this.timedOut = counter(name, "timeout");
+            this.bypassed = counter(name, "bypassed");
+        }
+
+        private Counter counter(final String name, final String result) {
+            return Counter.builder("quora.singleflight.calls")
+                    .description("Reads through the single-flight layer by outcome; coalesced calls issued no query")
+                    .tag("group", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class FlightKey {
+        private final String group;
+        private final Object key;
+
+        private FlightKey(final String group, final Object key) {
+            this.group = group;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return group.equals(other.group) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * group.hashCode() + Objects.hashCode(key);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.upgrad.quora.service.common;
+
+import com.upgrad.quora.service.exception.InvalidDateRangeException;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * This class holds the range of dates requested with the "from" and "to" query parameters of a listing. The questions
+ * and answers tables are partitioned by month of their date, so a listing restricted to a range only reads the
+ * partitions of the months it covers.
+ */
+public final class DateRange {
+    public static final DateRange UNBOUNDED = new DateRange(null, null);
+
+    private final ZonedDateTime from;
+    private final ZonedDateTime to;
+
+    private DateRange(final ZonedDateTime from, final ZonedDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * This method returns the range between two dates
+     * @param from start of the range, included; unbounded when null
+     * @param to end of the range, excluded; unbounded when null
+     * @return the range
+     * @throws InvalidDateRangeException DATE-001 if the start is not before the end
+     */
+    public static DateRange of(final ZonedDateTime from, final ZonedDateTime to) throws InvalidDateRangeException {
+        if (from == null && to == null) {
+            return UNBOUNDED;
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidDateRangeException("DATE-001", "The start of the date range must be before its end");
+        }
+        return new DateRange(from, to);
+    }
+
+    /**
+     * @return true if neither the start nor the end of the range is given
+     */
+    public boolean isUnbounded() {
+        return from == null && to == null;
+    }
+
+    /**
+     * @return start of the range, included, or null
+     */
+    public ZonedDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * @return end of the range, excluded, or null
+     */
+    public ZonedDateTime getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof DateRange)) {
+            return false;
+        }
+        DateRange range = (DateRange) other;
+        return Objects.equals(from, range.from) && Objects.equals(to, range.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to);
+    }
+}
@@ -0,0 +1,77 @@
+package com.upgrad.quora.service.common;
+
+import com.upgrad.quora.service.exception.InvalidFieldException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds the fields of a response requested with the "fields" query parameter. Every field of the response
+ * maps to the attribute of the entity it is read from, so that the DAO selects only the columns of the requested fields.
+ */
+public final class FieldSelection {
+    private static final FieldSelection ALL = new FieldSelection(Collections.emptyMap());
+
+    private final Map<String, String> fields;
+
+    private FieldSelection(final Map<String, String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * This method parses the "fields" query parameter
+     * @param fields comma separated names of the requested fields, null or blank for all of them
+     * @param available attribute of the entity by the name of every field of the response
+     * @return the requested fields
+     * @throws InvalidFieldException if a requested field does not exist in the response
+     */
+    public static FieldSelection parse(final String fields, final Map<String, String> available) throws InvalidFieldException {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            String attribute = available.get(field);
+            if (attribute == null) {
+                throw new InvalidFieldException("FLD-001", "The field '" + field + "' does not exist, the fields are " + String.join(", ", available.keySet()));
+            }
+            selected.put(field, attribute);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableMap(selected));
+    }
+
+    /**
+     * @return true if all the fields of the response are requested
+     */
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * @return names of the requested fields in the response
+     */
+    public Set<String> getNames() {
+        return fields.keySet();
+    }
+
+    /**
+     * @return attributes of the entity the requested fields are read from, without duplicates
+     */
+    public List<String> getAttributes() {
+        List<String> attributes = new ArrayList<>(fields.size());
+        for (String attribute : fields.values()) {
+            if (!attributes.contains(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
+    }
+}
@@ -10,7 +10,14 @@ public enum GenericErrorCode implements ErrorCode {
      * <b>Cause:</b> This error could have occurred due to undetermined runtime errors.<br>
      * <b>Action: None</b><br>
      */
-    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator");
+    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator"),
+
+    /**
+     * Error message: <b>A request parameter does not have the expected format</b><br>
+     * <b>Cause:</b> A parameter could not be converted to its type, e.g. a date which is not an ISO date-time.<br>
+     * <b>Action: Correct the parameter</b><br>
+     */
+    GEN_002("GEN-002", "A request parameter does not have the expected format");
 
     private static final Map<String, GenericErrorCode> LOOKUP = new HashMap<String, GenericErrorCode>();
 
@@ -1,9 +1,17 @@
 package com.upgrad.quora.service.dao;
 
+import com.upgrad.quora.service.cache.CacheInvalidationBus;
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class implements methods to access the database
@@ -13,17 +21,122 @@ public class AdminDao {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
-     * This method deletes a User from the database based on the UUID
+     * This method deletes a User from the database based on the UUID. A failure is thrown to the deletion job, which
+     * reports it and leaves the User marked as deleted so that the purge is resumed on the next start.
      * @param uuid UUID of the User
      */
     public void deleteUserByUuid(final String uuid) {
-        try {
-            entityManager.createNamedQuery("deleteUserById")
-                    .setParameter("uuid", uuid)
+        entityManager.createNamedQuery("deleteUserById")
+                .setParameter("uuid", uuid)
+                .executeUpdate();
+    }
+
+    /**
+     * This method marks a User as deleted so that the User is hidden from all the reads while the
+     * dependent rows are being purged. The caches holding the User, the sessions and the questions of the User are
+     * invalidated on every node
+     * @param uuid UUID of the User
+     * @param deletedAt time at which the deletion was requested
+     */
+    public void markUserDeleted(final String uuid, final ZonedDateTime deletedAt) {
+        entityManager.createNamedQuery("markUserDeletedById")
+                .setParameter("uuid", uuid)
+                .setParameter("deletedAt", deletedAt)
+                .executeUpdate();
+        cacheInvalidationBus.invalidate(CacheNames.PROFILES, uuid);
+        cacheInvalidationBus.invalidateAll(CacheNames.TOKENS);
+        cacheInvalidationBus.invalidateAll(CacheNames.QUESTIONS);
+    }
+
+    /**
+     * This method returns the login sessions of the User which are neither signed out nor expired
+     * @param user User
+     * @param now current time
+     * @return list of the active sessions of the User
+     */
+    public List<UserAuthEntity> getActiveSessions(final UserEntity user, final ZonedDateTime now) {
+        return entityManager.createNamedQuery("getActiveSessionsOfUser", UserAuthEntity.class)
+                .setParameter("user", user)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /**
+     * This method returns the Users which are marked as deleted but are not yet purged from the database
+     * @return list of the Users pending deletion
+     */
+    public List<UserEntity> getUsersPendingDeletion() {
+        return entityManager.createNamedQuery("getUsersPendingDeletion", UserEntity.class).getResultList();
+    }
+
+    /**
+     * This method deletes one batch of the answers posted by the User
+     * @param userId id of the User
+     * @param batchSize maximum number of rows to be deleted
+     * @return ids of the deleted answers
+     */
+    public List<Integer> deleteAnswersByUser(final int userId, final int batchSize) {
+        return deleteBatch("answerIdsByUser", "deleteAnswersByIds", userId, batchSize);
+    }
+
+    /**
+     * This method deletes one batch of the answers posted by any User to the questions of the User
+     * @param userId id of the User
+     * @param batchSize maximum number of rows to be deleted
+     * @return ids of the deleted answers
+     */
+    public List<Integer> deleteAnswersOnQuestionsOfUser(final int userId, final int batchSize) {
+        return deleteBatch("answerIdsOnQuestionsOfUser", "deleteAnswersByIds", userId, batchSize);
+    }
+
+    /**
+     * This method deletes one batch of the questions posted by the User
+     * @param userId id of the User
+     * @param batchSize maximum number of rows to be deleted
+     * @return ids of the deleted questions
+     */
+    public List<Integer> deleteQuestionsByUser(final int userId, final int batchSize) {
+        return deleteBatch("questionIdsByUser", "deleteQuestionsByIds", userId, batchSize);
+    }
+
+    /**
+     * This method deletes one batch of the login sessions of the User
+     * @param userId id of the User
+     * @param batchSize maximum number of rows to be deleted
+     * @return ids of the deleted sessions
+     */
+    public List<Integer> deleteUserAuthsByUser(final int userId, final int batchSize) {
+        return deleteBatch("userAuthIdsByUser", "deleteUserAuthsByIds", userId, batchSize);
+    }
+
+    /**
+     * This method selects the ids of at most batchSize rows owned by the User and deletes exactly those rows
+     * @param selectQuery named native query selecting the ids of one batch
+     * @param deleteQuery named native query deleting the rows with the given ids
+     * @param userId id of the User
+     * @param batchSize maximum number of rows to be deleted
+     * @return ids of the deleted rows
+     */
+    private List<Integer> deleteBatch(final String selectQuery, final String deleteQuery, final int userId, final int batchSize) {
+        List<?> rows = entityManager.createNamedQuery(selectQuery)
+                .setParameter("userId", userId)
+                .setParameter("batchSize", batchSize)
+                .getResultList();
+
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            ids.add(((Number) row).intValue());
+        }
+
+        if (!ids.isEmpty()) {
+            entityManager.createNamedQuery(deleteQuery)
+                    .setParameter("ids", ids)
                     .executeUpdate();
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
         }
+        return ids;
     }
 }
@@ -1,21 +1,37 @@
 package com.upgrad.quora.service.dao;
 
+import com.upgrad.quora.service.cache.SingleFlight;
+import com.upgrad.quora.service.common.DateRange;
 import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class implements methods to access the database
  */
 @Repository
 public class AnswerDao {
+    private static final Set<String> LISTING_ATTRIBUTES = new HashSet<>(Arrays.asList("uuid", "answer", "question.content"));
+
     @Autowired
     EntityManager entityManager;
 
+    @Autowired
+    private SingleFlight singleFlight;
+
     /**
      * This method create an answer
      * @param answerEntity answer details
@@ -44,11 +60,16 @@ public class AnswerDao {
     }
 
     /**
-     * This method get all the answers for a question
+     * This method get all the answers for a question. Concurrent calls for the same question share one query, so the
+     * question of every answer is fetched with the answers and the returned list must not be modified
      * @param id id
      * @return list of answers
      */
     public List<AnswerEntity> getAllAnswersToQuestion(int id) {
+        return singleFlight.execute("answers", id, () -> loadAllAnswersToQuestion(id));
+    }
+
+    private List<AnswerEntity> loadAllAnswersToQuestion(int id) {
         try {
             return this.entityManager.createNamedQuery("getAnswersForQuestionId", AnswerEntity.class).setParameter("uuid", id).getResultList();
         } catch (NoResultException nre) {
@@ -56,6 +77,142 @@ public class AnswerDao {
         }
     }
 
+    /**
+     * This method get the answers for a question posted in a range of dates, which are read from the partitions of
+     * the months of the range. Concurrent calls for the same question and range share one query and the returned list
+     * must not be modified
+     * @param id id of the question
+     * @param range range of dates of the answers
+     * @return list of answers
+     */
+    public List<AnswerEntity> getAllAnswersToQuestion(final int id, final DateRange range) {
+        if (range.isUnbounded()) {
+            return getAllAnswersToQuestion(id);
+        }
+        return singleFlight.execute("answers", Arrays.asList(id, range), () -> {
+            TypedQuery<AnswerEntity> query = this.entityManager.createQuery("select a from AnswerEntity a join fetch a.question where a.question.id = :id"
+                    + " and a.user.deletedAt is null" + DateRanges.where("a.date", range), AnswerEntity.class).setParameter("id", id);
+            DateRanges.bind(query, range);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * This method get all the answers for a question with their authors, oldest first, without their question.
+     * Concurrent calls for the same question share one query and the returned list must not be modified
+     * @param id id of the question
+     * @return list of answers
+     */
+    public List<AnswerEntity> getAnswerThread(final int id) {
+        return singleFlight.execute("answer-thread", id, () -> this.entityManager.createNamedQuery("getAnswerThreadForQuestionId", AnswerEntity.class)
+                .setParameter("id", id).getResultList());
+    }
+
+    /**
+     * This method get the given attributes of all the answers for a question, without loading the other columns. The
+     * returned answers are not managed and carry only those attributes; the content of the question is set on a
+     * question of its own when it is requested.
+     * @param id id of the question
+     * @param attributes attributes of the answers, out of "uuid", "answer" and "question.content"
+     * @param range range of dates of the answers
+     * @return list of answers
+     */
+    public List<AnswerEntity> getAllAnswersToQuestion(final int id, final List<String> attributes, final DateRange range) {
+        return singleFlight.execute("answers", Arrays.asList(id, attributes, range), () -> loadAllAnswersToQuestion(id, attributes, range));
+    }
+
+    private List<AnswerEntity> loadAllAnswersToQuestion(final int id, final List<String> attributes, final DateRange range) {
+        Query query = this.entityManager.createQuery(Projections.select("a", attributes, LISTING_ATTRIBUTES)
+                + " from AnswerEntity a where a.question.id = :id and a.user.deletedAt is null" + DateRanges.where("a.date", range)).setParameter("id", id);
+        DateRanges.bind(query, range);
+        List<?> results = query.getResultList();
+        List<AnswerEntity> answers = new ArrayList<>(results.size());
+        for (Object result : results) {
+            Object[] row = Projections.row(result);
+            AnswerEntity answer = new AnswerEntity();
+            for (int i = 0; i < row.length; i++) {
+                switch (attributes.get(i)) {
+                    case "uuid":
+                        answer.setUuid((String) row[i]);
+                        break;
+                    case "answer":
+                        answer.setAnswer((String) row[i]);
+                        break;
+                    default:
+                        QuestionEntity question = new QuestionEntity();
+                        question.setContent((String) row[i]);
+                        answer.setQuestion(question);
+                        break;
+                }
+            }
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    /**
+     * This method get the id, the text and the question id of all the answers, for the related questions index. The
+     * returned answers are not managed and their question carries only its id
+     * @return list of answers
+     */
+    public List<AnswerEntity> getAllAnswerTexts() {
+        List<Object[]> rows = this.entityManager.createNamedQuery("getAnswerTexts", Object[].class).getResultList();
+        List<AnswerEntity> answers = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            QuestionEntity question = new QuestionEntity();
+            question.setId((Integer) row[1]);
+            AnswerEntity answer = new AnswerEntity();
+            answer.setId((Integer) row[0]);
+            answer.setQuestion(question);
+            answer.setAnswer((String) row[2]);
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    /**
+     * This method get the question and the date of the answers posted since the given date, for the trending
+     * questions. The returned answers are not managed and carry only their id, their date and their question, with the id, uuid,
+     * content and author uuid of the question
+     * @param since earliest date of the answers
+     * @return list of answers
+     */
+    public List<AnswerEntity> getRecentAnswerActivity(final ZonedDateTime since) {
+        List<Object[]> rows = this.entityManager.createNamedQuery("getRecentAnswerActivity", Object[].class).setParameter("since", since).getResultList();
+        List<AnswerEntity> answers = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UserEntity user = new UserEntity();
+            user.setUuid((String) row[3]);
+            QuestionEntity question = new QuestionEntity();
+            question.setId((Integer) row[0]);
+            question.setUuid((String) row[1]);
+            question.setContent((String) row[2]);
+            question.setUserId(user);
+            AnswerEntity answer = new AnswerEntity();
+            answer.setQuestion(question);
+            answer.setDate((ZonedDateTime) row[4]);
+            answer.setId((Integer) row[5]);
+            answers.add(answer);
+        }
+        return answers;
+    }
+
+    /**
+     * This method get a page of the answers of a user with their question, newest first, which come after the given
+     * date and id in that order
+     * @param user author of the answers
+     * @param date date of the last answer of the previous page, null for the first page
+     * @param id id of the last answer of the previous page, ignored for the first page
+     * @param limit maximum number of answers
+     * @return list of answers
+     */
+    public List<AnswerEntity> getAnswersByUser(final UserEntity user, final ZonedDateTime date, final int id, final int limit) {
+        TypedQuery<AnswerEntity> query = date == null
+                ? this.entityManager.createNamedQuery("getAnswersByUserId", AnswerEntity.class)
+                : this.entityManager.createNamedQuery("getAnswersByUserIdBefore", AnswerEntity.class).setParameter("date", date).setParameter("id", id);
+        return query.setParameter("user", user).setMaxResults(limit).getResultList();
+    }
+
     /**
      * This method retrieves the answer
      * @param uuid uuid
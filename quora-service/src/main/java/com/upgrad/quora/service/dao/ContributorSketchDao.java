@@ -0,0 +1,96 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.ContributorSketchEntity;
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This class implements the methods to access the persisted sketches of the contributions of the Users
+ */
+@Repository
+public class ContributorSketchDao {
+    // rows fetched per round trip while streaming, the driver otherwise reads the whole result into memory
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method retrieves a sketch
+     * @param name name of the sketch
+     * @return sketch or null if it was never persisted
+     */
+    public ContributorSketchEntity getSketch(final String name) {
+        return entityManager.find(ContributorSketchEntity.class, name);
+    }
+
+    /**
+     * This method inserts an empty sketch unless one with the same name exists. The row stays locked until the end of
+     * the transaction, so a node claiming it at the same time waits for it and then finds it
+     * @param name name of the sketch
+     * @param depth number of rows of the sketch
+     * @param width number of cells of a row
+     * @param cells compressed empty cells
+     * @param updatedAt time of the claim
+     * @return true if the sketch was inserted
+     */
+    public boolean claimSketch(final String name, final int depth, final int width, final byte[] cells, final ZonedDateTime updatedAt) {
+        return entityManager.createNamedQuery("claimContributorSketch")
+                .setParameter("name", name)
+                .setParameter("depth", depth)
+                .setParameter("width", width)
+                .setParameter("cells", cells)
+                .setParameter("updatedAt", updatedAt)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * This method retrieves a sketch and locks it until the end of the transaction, so that the nodes add their counts
+     * to it one after the other
+     * @param name name of the sketch
+     * @return sketch or null if it was never persisted
+     */
+    public ContributorSketchEntity getSketchForUpdate(final String name) {
+        return entityManager.find(ContributorSketchEntity.class, name, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * This method inserts or updates a sketch
+     * @param sketch sketch
+     * @return the sketch
+     */
+    public ContributorSketchEntity saveSketch(final ContributorSketchEntity sketch) {
+        return entityManager.merge(sketch);
+    }
+
+    /**
+     * This method streams the uuids of the authors of the contributions in a single scan, without holding them in
+     * memory; it must be called in a transaction for the rows to be fetched in rounds
+     * @param userUuidsQuery named query selecting the uuid of the author of every contribution
+     * @param consumer consumer of every uuid, once per contribution
+     */
+    public void scanUserUuids(final String userUuidsQuery, final Consumer<String> consumer) {
+        Query<String> query = entityManager.createNamedQuery(userUuidsQuery, String.class).unwrap(Query.class);
+        try (Stream<String> userUuids = query.setFetchSize(FETCH_SIZE).setReadOnly(true).stream()) {
+            userUuids.forEach(consumer);
+        }
+    }
+
+    /**
+     * This method keeps the uuids of the Users which exist and are not deleted
+     * @param uuids uuids of Users
+     * @return the uuids of the existing Users among them
+     */
+    public List<String> getExistingUserUuids(final Collection<String> uuids) {
+        return entityManager.createNamedQuery("getExistingUserUuids", String.class).setParameter("uuids", uuids).getResultList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.common.DateRange;
+
+import javax.persistence.Query;
+
+/**
+ * This class restricts the queries of the listings to a range of dates. The bounds are compared with the date column
+ * itself, which is the partition key of the questions and answers tables, so that the database skips the partitions
+ * outside the range.
+ */
+final class DateRanges {
+
+    private DateRanges() {
+    }
+
+    /**
+     * This method returns the conditions of the range, to be appended to the where clause of a query
+     * @param path path of the date attribute in the query, e.g. "q.date"
+     * @param range range of dates
+     * @return conditions beginning with "and", empty for an unbounded range
+     */
+    static String where(final String path, final DateRange range) {
+        StringBuilder conditions = new StringBuilder();
+        if (range.getFrom() != null) {
+            conditions.append(" and ").append(path).append(" >= :from");
+        }
+        if (range.getTo() != null) {
+            conditions.append(" and ").append(path).append(" < :to");
+        }
+        return conditions.toString();
+    }
+
+    /**
+     * This method sets the bounds of the range on a query whose conditions were returned by {@link #where(String, DateRange)}
+     * @param query query
+     * @param range range of dates
+     */
+    static void bind(final Query query, final DateRange range) {
+        if (range.getFrom() != null) {
+            query.setParameter("from", range.getFrom());
+        }
+        if (range.getTo() != null) {
+            query.setParameter("to", range.getTo());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.IdempotencyRecordEntity;
+import com.upgrad.quora.service.idempotency.IdempotentResponse;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+
+/**
+ * This class implements the methods to access the persisted Idempotency-Keys
+ */
+@Repository
+public class IdempotencyDao {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method inserts an in progress record for the key unless a record with the same key exists
+     * @param key scoped Idempotency-Key
+     * @param fingerprint fingerprint of the request
+     * @param createdAt time of the claim
+     * @param expiresAt time after which the claim may be taken over
+     * @return true if the record was inserted
+     */
+    public boolean claim(final String key, final String fingerprint, final ZonedDateTime createdAt, final ZonedDateTime expiresAt) {
+        return entityManager.createNamedQuery("claimIdempotencyRecord")
+                .setParameter("key", key)
+                .setParameter("fingerprint", fingerprint)
+                .setParameter("createdAt", createdAt)
+                .setParameter("expiresAt", expiresAt)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * This method retrieves the record of a key
+     * @param key scoped Idempotency-Key
+     * @return record or null if it does not exist
+     */
+    public IdempotencyRecordEntity getRecord(final String key) {
+        return entityManager.find(IdempotencyRecordEntity.class, key);
+    }
+
+    /**
+     * This method stores the response of the first execution in the record of the key
+     * @param key scoped Idempotency-Key
+     * @param response response of the first execution
+     * @param expiresAt time until which the response is replayed
+     */
+    public void complete(final String key, final IdempotentResponse response, final ZonedDateTime expiresAt) {
+        entityManager.createNamedQuery("completeIdempotencyRecord")
+                .setParameter("key", key)
+                .setParameter("status", response.getStatus())
+                .setParameter("contentType", response.getContentType())
+                .setParameter("location", response.getLocation())
+                .setParameter("body", response.getBody())
+                .setParameter("expiresAt", expiresAt)
+                .executeUpdate();
+    }
+
+    /**
+     * This method deletes the record of a key which is still in progress
+     * @param key scoped Idempotency-Key
+     */
+    public void release(final String key) {
+        entityManager.createNamedQuery("releaseIdempotencyRecord").setParameter("key", key).executeUpdate();
+    }
+
+    /**
+     * This method deletes the record of a key if it has expired
+     * @param key scoped Idempotency-Key
+     * @param now current time
+     */
+    public void deleteExpired(final String key, final ZonedDateTime now) {
+        entityManager.createNamedQuery("deleteExpiredIdempotencyRecord").setParameter("key", key).setParameter("now", now).executeUpdate();
+    }
+
+    /**
+     * This method deletes every expired record
+     * @param now current time
+     * @return number of deleted records
+     */
+    public int deleteExpired(final ZonedDateTime now) {
+        return entityManager.createNamedQuery("deleteExpiredIdempotencyRecords").setParameter("now", now).executeUpdate();
+    }
+}
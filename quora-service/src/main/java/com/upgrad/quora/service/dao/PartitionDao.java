@@ -0,0 +1,70 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * This class implements the methods to create and move the monthly partitions of the tables partitioned by date. The
+ * names of the tables, partitions and tablespaces are written into the statements, so they are only given by the
+ * partition maintenance and never by a request.
+ */
+@Repository
+public class PartitionDao {
+    // key of the advisory lock taken by the nodes to change the partitions one after the other
+    private static final long PARTITION_LOCK = 7_150_050L;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method waits until no other node changes the partitions, and keeps the lock until the end of the transaction
+     */
+    public void lockPartitions() {
+        entityManager.createNativeQuery("select 1 from pg_advisory_xact_lock(:key)").setParameter("key", PARTITION_LOCK).getSingleResult();
+    }
+
+    /**
+     * This method retrieves the partitions of a table with their tablespace
+     * @param table partitioned table
+     * @return name of every partition and name of its tablespace, empty for the default tablespace
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getPartitions(final String table) {
+        return entityManager.createNativeQuery("select c.relname, coalesce(t.spcname, '') from pg_inherits i"
+                + " join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent"
+                + " left join pg_tablespace t on t.oid = c.reltablespace where p.relname = :table")
+                .setParameter("table", table).getResultList();
+    }
+
+    /**
+     * This method creates the partition of a table holding the rows dated in a range, unless it exists
+     * @param table partitioned table
+     * @param partition name of the partition
+     * @param start first day of the range
+     * @param end day following the range
+     */
+    public void createPartition(final String table, final String partition, final LocalDate start, final LocalDate end) {
+        entityManager.createNativeQuery("create table if not exists " + partition + " partition of " + table
+                + " for values from ('" + start + "') to ('" + end + "')").executeUpdate();
+    }
+
+    /**
+     * This method moves a partition and its indexes to a tablespace. The partition is locked while it is copied, which
+     * blocks the queries reading it, e.g. the listings without a range of dates.
+     * @param partition name of the partition
+     * @param tablespace name of the tablespace
+     */
+    @SuppressWarnings("unchecked")
+    public void movePartition(final String partition, final String tablespace) {
+        entityManager.createNativeQuery("alter table " + partition + " set tablespace \"" + tablespace + "\"").executeUpdate();
+        List<String> indexes = entityManager.createNativeQuery("select i.relname from pg_index x join pg_class i on i.oid = x.indexrelid"
+                + " join pg_class c on c.oid = x.indrelid where c.relname = :partition").setParameter("partition", partition).getResultList();
+        for (String index : indexes) {
+            entityManager.createNativeQuery("alter index \"" + index + "\" set tablespace \"" + tablespace + "\"").executeUpdate();
+        }
+    }
+}
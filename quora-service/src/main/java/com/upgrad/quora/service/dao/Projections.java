@@ -0,0 +1,46 @@
+package com.upgrad.quora.service.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class builds the select clause of the queries which read only some attributes of an entity
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * This method returns the select clause of the attributes. The attributes are checked against the ones the query
+     * supports, since they are written into the query.
+     * @param alias alias of the entity in the query
+     * @param attributes attributes to be selected, e.g. "content" or "question.content"
+     * @param supported attributes the query supports
+     * @return select clause
+     */
+    static String select(final String alias, final Collection<String> attributes, final Set<String> supported) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("At least one attribute must be selected");
+        }
+        List<String> paths = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            if (!supported.contains(attribute)) {
+                throw new IllegalArgumentException("Attribute " + attribute + " cannot be selected");
+            }
+            paths.add(alias + "." + attribute);
+        }
+        return "select " + String.join(", ", paths);
+    }
+
+    /**
+     * This method returns the columns of a result row; a query selecting one attribute returns the value itself
+     * @param result row of the result list
+     * @return columns of the row
+     */
+    static Object[] row(final Object result) {
+        return result instanceof Object[] ? (Object[]) result : new Object[]{result};
+    }
+}
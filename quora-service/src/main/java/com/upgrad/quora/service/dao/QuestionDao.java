@@ -1,21 +1,59 @@
 package com.upgrad.quora.service.dao;
 
+import com.upgrad.quora.service.cache.CacheInvalidationBus;
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.cache.CacheRegistry;
+import com.upgrad.quora.service.cache.LocalCache;
+import com.upgrad.quora.service.cache.SingleFlight;
+import com.upgrad.quora.service.common.DateRange;
 import com.upgrad.quora.service.entity.QuestionEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 // Class implements methods to access question table through entity manager
 
 @Repository
 public class QuestionDao {
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionDao.class);
+
+    private static final Set<String> LISTING_ATTRIBUTES = new HashSet<>(Arrays.asList("uuid", "content"));
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    private LocalCache<String, QuestionEntity> questionCache;
+
+    @PostConstruct
+    public void init() {
+        questionCache = cacheRegistry.register(CacheNames.QUESTIONS);
+    }
+
     //Method to create question and invokes persist entityManager
     public QuestionEntity createQuestion(QuestionEntity questionEntity) {
         try {
@@ -32,8 +70,9 @@ public class QuestionDao {
             entityManager.createNamedQuery("deleteQuestionById")
                     .setParameter("uuid", uuid)
                     .executeUpdate();
+            cacheInvalidationBus.invalidate(CacheNames.QUESTIONS, uuid);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            LOG.warn("Failed to delete question {}", uuid, e);
         }
     }
 
@@ -44,30 +83,131 @@ public class QuestionDao {
                     .setParameter("uuid", uuid)
                     .setParameter("content", content)
                     .executeUpdate();
+            cacheInvalidationBus.invalidate(CacheNames.QUESTIONS, uuid);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            LOG.warn("Failed to edit question {}", uuid, e);
+        }
+    }
+
+    //Method to replace the tags of the question, the rows are rewritten directly since the cached questions are not managed
+    public void editQuestionTags(final int id, final Set<String> tags) {
+        entityManager.createNamedQuery("deleteQuestionTags").setParameter("id", id).executeUpdate();
+        for (String tag : tags) {
+            entityManager.createNamedQuery("insertQuestionTag").setParameter("id", id).setParameter("tag", tag).executeUpdate();
+        }
+    }
+
+    //Method to view all questions using named query, or only those posted in the range of dates, which are read from the partitions of its months
+    public List<QuestionEntity> getAllQuestions(final DateRange range) {
+        if (range.isUnbounded()) {
+            return entityManager.createNamedQuery("getAllQuestions", QuestionEntity.class).getResultList();
+        }
+        TypedQuery<QuestionEntity> query = entityManager.createQuery("select q from QuestionEntity q where q.userId.deletedAt is null"
+                + DateRanges.where("q.date", range), QuestionEntity.class);
+        DateRanges.bind(query, range);
+        return query.getResultList();
+    }
+
+    //Method to view all questions posted in the range of dates reading only the given attributes, the returned questions are not managed and carry only those attributes
+    public List<QuestionEntity> getAllQuestions(final List<String> attributes, final DateRange range) {
+        Query query = entityManager.createQuery(Projections.select("q", attributes, LISTING_ATTRIBUTES)
+                + " from QuestionEntity q where q.userId.deletedAt is null" + DateRanges.where("q.date", range));
+        DateRanges.bind(query, range);
+        List<?> results = query.getResultList();
+        List<QuestionEntity> questions = new ArrayList<>(results.size());
+        for (Object result : results) {
+            Object[] row = Projections.row(result);
+            QuestionEntity question = new QuestionEntity();
+            for (int i = 0; i < row.length; i++) {
+                if ("uuid".equals(attributes.get(i))) {
+                    question.setUuid((String) row[i]);
+                } else {
+                    question.setContent((String) row[i]);
+                }
+            }
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    //Method to view the questions with the given ids and their tags, highest id first, leaving out the questions of deleted users
+    public List<QuestionEntity> getQuestionsWithTags(final List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
+        return entityManager.createNamedQuery("getQuestionsWithTagsByIds", QuestionEntity.class).setParameter("ids", ids).getResultList();
+    }
+
+    //Method to view the id and author UUID of all questions for the tag index
+    public List<Object[]> getAllQuestionOwners() {
+        return entityManager.createNamedQuery("getQuestionOwners", Object[].class).getResultList();
+    }
+
+    //Method to view the id of the question and the tag of every tag of all questions for the tag index
+    public List<Object[]> getAllQuestionTags() {
+        return entityManager.createNamedQuery("getQuestionTags", Object[].class).getResultList();
     }
 
-    //Method to view all questions using named query
-    public List<QuestionEntity> getAllQuestions() {
-        return entityManager.createNamedQuery("getAllQuestions", QuestionEntity.class).getResultList();
+    //Method to view the id, UUID, content and author UUID of all questions for the suggestion index, the returned questions are not managed
+    public List<QuestionEntity> getAllQuestionSuggestions() {
+        List<Object[]> rows = entityManager.createNamedQuery("getQuestionSuggestions", Object[].class).getResultList();
+        List<QuestionEntity> questions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UserEntity user = new UserEntity();
+            user.setUuid((String) row[3]);
+            QuestionEntity question = new QuestionEntity();
+            question.setId((Integer) row[0]);
+            question.setUuid((String) row[1]);
+            question.setContent((String) row[2]);
+            question.setUserId(user);
+            questions.add(question);
+        }
+        return questions;
     }
 
-    //Method to view question based on UUID using named query
+    //Method to view question based on UUID using named query, cached on this node until the question is edited or deleted on any node.
+    //Concurrent misses for the same UUID share one query. The returned question is a detached copy shared between threads and must not be modified
     public QuestionEntity getQuestionById(final String id) {
+        return questionCache.get(id, key -> singleFlight.execute("question", key, () -> loadQuestionById(key)));
+    }
+
+    private QuestionEntity loadQuestionById(final String id) {
         try {
-            return entityManager.createNamedQuery("getQuestionById", QuestionEntity.class).setParameter("uuid", id).getSingleResult();
+            return detachedCopy(entityManager.createNamedQuery("getQuestionById", QuestionEntity.class).setParameter("uuid", id).getSingleResult());
         } catch (NoResultException nre) {
             return null;
         }
     }
 
-    //Method to view all questions based on userid using named query
-    public List<QuestionEntity> getAllQuestionsByUser(final UserEntity id) {
-        List questionsList = entityManager.createNamedQuery("getAllQuestionsByUser").setParameter("user_id", id).getResultList();
-        System.out.println(questionsList.size());
-        return questionsList;
+    //The copy holds no lazy collection tied to the EntityManager of the caller which loaded it, its tags were fetched with the question
+    private static QuestionEntity detachedCopy(final QuestionEntity loaded) {
+        QuestionEntity question = new QuestionEntity();
+        question.setId(loaded.getId());
+        question.setUuid(loaded.getUuid());
+        question.setContent(loaded.getContent());
+        question.setDate(loaded.getDate());
+        question.setUserId(loaded.getUserId());
+        question.setTags(Collections.unmodifiableSet(new HashSet<>(loaded.getTags())));
+        return question;
+    }
+
+    //Method to view all questions based on userid using named query, or only those posted in the range of dates
+    public List<QuestionEntity> getAllQuestionsByUser(final UserEntity id, final DateRange range) {
+        if (range.isUnbounded()) {
+            return entityManager.createNamedQuery("getAllQuestionsByUser", QuestionEntity.class).setParameter("user_id", id).getResultList();
+        }
+        TypedQuery<QuestionEntity> query = entityManager.createQuery("select q from QuestionEntity q where q.userId = :user_id"
+                + DateRanges.where("q.date", range), QuestionEntity.class).setParameter("user_id", id);
+        DateRanges.bind(query, range);
+        return query.getResultList();
+    }
+
+    //Method to view a page of the questions of a user, newest first, which come after the given date and id in that order; the first page when the date is null
+    public List<QuestionEntity> getQuestionsByUser(final UserEntity user, final ZonedDateTime date, final int id, final int limit) {
+        TypedQuery<QuestionEntity> query = date == null
+                ? entityManager.createNamedQuery("getLatestQuestionsByUser", QuestionEntity.class)
+                : entityManager.createNamedQuery("getQuestionsByUserBefore", QuestionEntity.class).setParameter("date", date).setParameter("id", id);
+        return query.setParameter("user", user).setMaxResults(limit).getResultList();
     }
 
 }
@@ -0,0 +1,50 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+
+/**
+ * This class implements the aggregate queries used to reconcile the in-memory statistics with the database.
+ * These queries scan whole tables and must only be run by the periodic reconciliation, never on a request path.
+ */
+@Repository
+public class StatisticsDao {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method counts the Users which are not deleted
+     * @return number of users
+     */
+    public long countUsers() {
+        return entityManager.createNamedQuery("countUsers", Long.class).getSingleResult();
+    }
+
+    /**
+     * This method counts the sessions which are neither signed out nor expired
+     * @param now current time
+     * @return number of active sessions
+     */
+    public long countActiveSessions(final ZonedDateTime now) {
+        return entityManager.createNamedQuery("countActiveSessions", Long.class).setParameter("now", now).getSingleResult();
+    }
+
+    /**
+     * This method counts the questions whose author is not deleted
+     * @return number of questions
+     */
+    public long countQuestions() {
+        return entityManager.createNamedQuery("countQuestions", Long.class).getSingleResult();
+    }
+
+    /**
+     * This method counts the answers whose author and question author are not deleted
+     * @return number of answers
+     */
+    public long countAnswers() {
+        return entityManager.createNamedQuery("countAnswers", Long.class).getSingleResult();
+    }
+}
@@ -1,22 +1,51 @@
 package com.upgrad.quora.service.dao;
 
+import com.upgrad.quora.service.cache.CacheInvalidationBus;
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.cache.CacheRegistry;
+import com.upgrad.quora.service.cache.LocalCache;
 import com.upgrad.quora.service.entity.UserAuthEntity;
 import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * This class implements methods to access the database
  */
 @Repository
 public class UserDao {
+    private static final Set<String> PROFILE_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "firstName", "lastName", "userName", "email", "country", "aboutMe", "dob", "contactNumber"));
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private LocalCache<String, UserAuthEntity> tokenCache;
+
+    private LocalCache<String, UserEntity> profileCache;
+
+    @PostConstruct
+    public void init() {
+        tokenCache = cacheRegistry.register(CacheNames.TOKENS);
+        profileCache = cacheRegistry.register(CacheNames.PROFILES);
+    }
+
     /**
      * This method will insert a new user in the database
      * @param userEntity user details to be inserted in the database
@@ -83,12 +112,16 @@ public class UserDao {
     }
 
     /**
-     * This method get the user details based on the access token
+     * This method get the user details based on the access token. The result is cached on this node until the token
+     * is signed out or the user is deleted on any node
      * @param accessToken access toke of the user
      * @return null if not found or else the user details
      */
-
     public UserAuthEntity getUserAuthByToken(final String accessToken) {
+        return tokenCache.get(accessToken, this::loadUserAuthByToken);
+    }
+
+    private UserAuthEntity loadUserAuthByToken(final String accessToken) {
         try {
             UserAuthEntity authEntity = entityManager.createNamedQuery("userAuthByToken", UserAuthEntity.class)
                     .setParameter("token", accessToken)
@@ -110,14 +143,73 @@ public class UserDao {
                 .setParameter("token", accessToken)
                 .setParameter("logoutAt", logoutAt)
                 .executeUpdate();
+        cacheInvalidationBus.invalidate(CacheNames.TOKENS, accessToken);
     }
 
     /**
-     * This method retrieves user details from the database based on the UUID
+     * This method retrieves user details from the database based on the UUID. The result is cached on this node until
+     * the user is deleted on any node
      * @param uuid UUID of the User
      * @return User Details
      */
     public UserEntity getUserById(final String uuid) {
+        return profileCache.get(uuid, this::loadUserById);
+    }
+
+    /**
+     * This method retrieves the given attributes of the user based on the UUID, without loading the other columns. A
+     * user cached on this node is returned as it is, otherwise the returned user is not managed and carries only
+     * those attributes.
+     * @param uuid UUID of the User
+     * @param attributes attributes of the user, e.g. "firstName"
+     * @return User Details
+     */
+    public UserEntity getUserProfile(final String uuid, final List<String> attributes) {
+        UserEntity cached = profileCache.getIfPresent(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        List<?> results = entityManager.createQuery(Projections.select("u", attributes, PROFILE_ATTRIBUTES)
+                + " from UserEntity u where u.uuid = :uuid and u.deletedAt is null").setParameter("uuid", uuid).getResultList();
+        if (results.isEmpty()) {
+            return null;
+        }
+        Object[] row = Projections.row(results.get(0));
+        UserEntity user = new UserEntity();
+        user.setUuid(uuid);
+        for (int i = 0; i < row.length; i++) {
+            String value = (String) row[i];
+            switch (attributes.get(i)) {
+                case "firstName":
+                    user.setFirstName(value);
+                    break;
+                case "lastName":
+                    user.setLastName(value);
+                    break;
+                case "userName":
+                    user.setUserName(value);
+                    break;
+                case "email":
+                    user.setEmail(value);
+                    break;
+                case "country":
+                    user.setCountry(value);
+                    break;
+                case "aboutMe":
+                    user.setAboutMe(value);
+                    break;
+                case "dob":
+                    user.setDob(value);
+                    break;
+                default:
+                    user.setContactNumber(value);
+                    break;
+            }
+        }
+        return user;
+    }
+
+    private UserEntity loadUserById(final String uuid) {
         try {
             return entityManager.createNamedQuery("getUserByUuid", UserEntity.class).setParameter("uuid", uuid).getSingleResult();
         } catch (NoResultException nre) {
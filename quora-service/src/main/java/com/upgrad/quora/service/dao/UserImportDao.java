@@ -0,0 +1,104 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class implements the set based methods used to import Users in bulk
+ */
+@Repository
+public class UserImportDao {
+    private static final String INSERT_USER = "insert into users(uuid, firstname, lastname, username, email, password, salt, "
+            + "country, aboutme, dob, role, contactnumber) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * This method finds in one query which of the given usernames and emails are already taken
+     * @param userNames usernames that need to be checked
+     * @param emails emails that need to be checked
+     * @param takenUserNames receives the usernames already present in the database
+     * @param takenEmails receives the emails already present in the database
+     */
+    public void findTaken(final Set<String> userNames, final Set<String> emails,
+                          final Set<String> takenUserNames, final Set<String> takenEmails) {
+        if (userNames.isEmpty() && emails.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = entityManager.createNamedQuery("getUserNamesAndEmailsIn", Object[].class)
+                .setParameter("userNames", userNames.isEmpty() ? emptyParameter() : userNames)
+                .setParameter("emails", emails.isEmpty() ? emptyParameter() : emails)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            if (userNames.contains(row[0])) {
+                takenUserNames.add((String) row[0]);
+            }
+            if (emails.contains(row[1])) {
+                takenEmails.add((String) row[1]);
+            }
+        }
+    }
+
+    /**
+     * This method inserts the Users with one JDBC batch
+     * @param users Users with the hashed passwords
+     */
+    public void insertUsers(final List<UserEntity> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, users.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    /**
+     * This method inserts a single User
+     * @param user User with the hashed password
+     */
+    public void insertUser(final UserEntity user) {
+        jdbcTemplate.update(INSERT_USER, ps -> bind(ps, user));
+    }
+
+    private static void bind(final PreparedStatement ps, final UserEntity user) throws SQLException {
+        ps.setString(1, user.getUuid());
+        ps.setString(2, user.getFirstName());
+        ps.setString(3, user.getLastName());
+        ps.setString(4, user.getUserName());
+        ps.setString(5, user.getEmail());
+        ps.setString(6, user.getPassword());
+        ps.setString(7, user.getSalt());
+        ps.setString(8, user.getCountry());
+        ps.setString(9, user.getAboutMe());
+        ps.setString(10, user.getDob());
+        ps.setString(11, user.getRole());
+        ps.setString(12, user.getContactNumber());
+    }
+
+    private static Collection<String> emptyParameter() {
+        // "in ()" is not valid SQL, an empty string is never a valid username or email
+        return Collections.singletonList("");
+    }
+}
@@ -14,9 +14,20 @@ import java.time.ZonedDateTime;
 @Table(name = "answer", schema = "public")
 @NamedQueries({
         @NamedQuery(name = "getAllAnswers", query = "select q from AnswerEntity q"),
-        @NamedQuery(name = "getAnswersForQuestionId", query = "select q from AnswerEntity q where q.question.id = :uuid"),
-        @NamedQuery(name = "getAnswersByUserId", query = "select q from AnswerEntity q where q.uuid = :uuid"),
-        @NamedQuery(name = "getAnswerForAnswerId", query = "select q from AnswerEntity q where q.uuid = :uuid")
+        @NamedQuery(name = "getAnswersForQuestionId", query = "select q from AnswerEntity q join fetch q.question where q.question.id = :uuid and q.user.deletedAt is null"),
+        @NamedQuery(name = "getAnswerThreadForQuestionId", query = "select a from AnswerEntity a join fetch a.user where a.question.id = :id and a.user.deletedAt is null order by a.date, a.id"),
+        @NamedQuery(name = "getAnswersByUserId", query = "select a from AnswerEntity a join fetch a.question where a.user = :user order by a.date desc, a.id desc"),
+        @NamedQuery(name = "getAnswersByUserIdBefore", query = "select a from AnswerEntity a join fetch a.question where a.user = :user and (a.date < :date or (a.date = :date and a.id < :id)) order by a.date desc, a.id desc"),
+        @NamedQuery(name = "getAnswerForAnswerId", query = "select q from AnswerEntity q where q.uuid = :uuid and q.user.deletedAt is null"),
+        @NamedQuery(name = "getAnswerTexts", query = "select a.id, a.question.id, a.answer from AnswerEntity a where a.user.deletedAt is null"),
+        @NamedQuery(name = "getRecentAnswerActivity", query = "select a.question.id, a.question.uuid, a.question.content, a.question.userId.uuid, a.date, a.id from AnswerEntity a where a.date >= :since and a.question.userId.deletedAt is null"),
+        @NamedQuery(name = "getAnswerUserUuids", query = "select a.user.uuid from AnswerEntity a where a.user.deletedAt is null"),
+        @NamedQuery(name = "countAnswers", query = "select count(a) from AnswerEntity a where a.user.deletedAt is null and a.question.userId.deletedAt is null")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "answerIdsByUser", query = "select id from answer where user_id = :userId limit :batchSize"),
+        @NamedNativeQuery(name = "answerIdsOnQuestionsOfUser", query = "select a.id from answer a join question q on a.question_id = q.id where q.user_id = :userId limit :batchSize"),
+        @NamedNativeQuery(name = "deleteAnswersByIds", query = "delete from answer where id in (:ids)")
 })
 public class AnswerEntity implements Serializable {
     @Id
@@ -0,0 +1,95 @@
+package com.upgrad.quora.service.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A persisted count-min sketch of the contributions of the Users, with the uuids of the Users ranked highest when it
+ * was persisted. The counts of every node are added to it, so it holds the contributions counted by all the nodes.
+ */
+@Entity
+@Table(name = "contributor_sketch")
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "claimContributorSketch", query = "insert into contributor_sketch(name, depth, width, cells, candidates, updated_at) values (:name, :depth, :width, :cells, '', :updatedAt) on conflict (name) do nothing")
+})
+public class ContributorSketchEntity implements Serializable {
+
+    @Id
+    @Column(name = "NAME")
+    @Size(max = 50)
+    private String name;
+
+    @Column(name = "DEPTH")
+    @NotNull
+    private Integer depth;
+
+    @Column(name = "WIDTH")
+    @NotNull
+    private Integer width;
+
+    @Column(name = "CELLS")
+    @NotNull
+    private byte[] cells;
+
+    @Column(name = "CANDIDATES")
+    @NotNull
+    private String candidates;
+
+    @Column(name = "UPDATED_AT")
+    @NotNull
+    private ZonedDateTime updatedAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public byte[] getCells() {
+        return cells;
+    }
+
+    public void setCells(byte[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * @return uuids of the ranked Users separated by new lines
+     */
+    public String getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(String candidates) {
+        this.candidates = candidates;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
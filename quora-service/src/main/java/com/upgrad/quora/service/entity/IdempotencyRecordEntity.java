@@ -0,0 +1,121 @@
+package com.upgrad.quora.service.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A persisted Idempotency-Key. The record is in progress while its status is null and holds the response of the first
+ * execution once the status is set.
+ */
+@Entity
+@Table(name = "idempotency_record")
+@NamedQueries({
+        @NamedQuery(name = "completeIdempotencyRecord", query = "update IdempotencyRecordEntity r set r.status = :status, r.contentType = :contentType, r.location = :location, r.body = :body, r.expiresAt = :expiresAt where r.idempotencyKey = :key"),
+        @NamedQuery(name = "releaseIdempotencyRecord", query = "delete from IdempotencyRecordEntity r where r.idempotencyKey = :key and r.status is null"),
+        @NamedQuery(name = "deleteExpiredIdempotencyRecord", query = "delete from IdempotencyRecordEntity r where r.idempotencyKey = :key and r.expiresAt < :now"),
+        @NamedQuery(name = "deleteExpiredIdempotencyRecords", query = "delete from IdempotencyRecordEntity r where r.expiresAt < :now")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "claimIdempotencyRecord", query = "insert into idempotency_record(idempotency_key, fingerprint, created_at, expires_at) values (:key, :fingerprint, :createdAt, :expiresAt) on conflict (idempotency_key) do nothing")
+})
+public class IdempotencyRecordEntity implements Serializable {
+
+    @Id
+    @Column(name = "IDEMPOTENCY_KEY")
+    @Size(max = 64)
+    private String idempotencyKey;
+
+    @Column(name = "FINGERPRINT")
+    @NotNull
+    @Size(max = 64)
+    private String fingerprint;
+
+    @Column(name = "STATUS")
+    private Integer status;
+
+    @Column(name = "CONTENT_TYPE")
+    @Size(max = 100)
+    private String contentType;
+
+    @Column(name = "LOCATION")
+    @Size(max = 500)
+    private String location;
+
+    @Column(name = "BODY")
+    private byte[] body;
+
+    @Column(name = "CREATED_AT")
+    @NotNull
+    private ZonedDateTime createdAt;
+
+    @Column(name = "EXPIRES_AT")
+    @NotNull
+    private ZonedDateTime expiresAt;
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(ZonedDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -7,6 +7,8 @@ import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 //Entity class for managing question table
 
@@ -15,11 +17,25 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "question")
 @NamedQueries({
-        @NamedQuery(name = "getAllQuestions", query = "select q from QuestionEntity q"),
+        @NamedQuery(name = "getAllQuestions", query = "select q from QuestionEntity q where q.userId.deletedAt is null"),
         @NamedQuery(name = "getAllQuestionsByUser", query = "select q from QuestionEntity q where q.userId = :user_id"),
+        @NamedQuery(name = "getLatestQuestionsByUser", query = "select q from QuestionEntity q where q.userId = :user order by q.date desc, q.id desc"),
+        @NamedQuery(name = "getQuestionsByUserBefore", query = "select q from QuestionEntity q where q.userId = :user and (q.date < :date or (q.date = :date and q.id < :id)) order by q.date desc, q.id desc"),
         @NamedQuery(name = "deleteQuestionById", query = "delete QuestionEntity q where q.uuid = :uuid"),
         @NamedQuery(name = "editQuestionById", query = "update QuestionEntity q set q.content = :content where q.uuid = :uuid"),
-        @NamedQuery(name = "getQuestionById", query = "select q from QuestionEntity q where q.uuid = :uuid")
+        @NamedQuery(name = "getQuestionById", query = "select distinct q from QuestionEntity q left join fetch q.tags where q.uuid = :uuid and q.userId.deletedAt is null"),
+        @NamedQuery(name = "getQuestionSuggestions", query = "select q.id, q.uuid, q.content, q.userId.uuid from QuestionEntity q where q.userId.deletedAt is null"),
+        @NamedQuery(name = "countQuestions", query = "select count(q) from QuestionEntity q where q.userId.deletedAt is null"),
+        @NamedQuery(name = "getQuestionUserUuids", query = "select q.userId.uuid from QuestionEntity q where q.userId.deletedAt is null"),
+        @NamedQuery(name = "getQuestionOwners", query = "select q.id, q.userId.uuid from QuestionEntity q where q.userId.deletedAt is null"),
+        @NamedQuery(name = "getQuestionTags", query = "select q.id, t from QuestionEntity q join q.tags t where q.userId.deletedAt is null"),
+        @NamedQuery(name = "getQuestionsWithTagsByIds", query = "select distinct q from QuestionEntity q left join fetch q.tags where q.id in :ids and q.userId.deletedAt is null order by q.id desc")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "questionIdsByUser", query = "select id from question where user_id = :userId limit :batchSize"),
+        @NamedNativeQuery(name = "deleteQuestionsByIds", query = "delete from question where id in (:ids)"),
+        @NamedNativeQuery(name = "deleteQuestionTags", query = "delete from question_tag where question_id = :id"),
+        @NamedNativeQuery(name = "insertQuestionTag", query = "insert into question_tag(question_id, tag) values (:id, :tag)")
 })
 public class QuestionEntity {
 
@@ -47,6 +63,11 @@ public class QuestionEntity {
     @JoinColumn(name = "user_id")
     private UserEntity userId;
 
+    @ElementCollection
+    @CollectionTable(name = "question_tag", joinColumns = @JoinColumn(name = "question_id"))
+    @Column(name = "TAG")
+    private Set<String> tags = new HashSet<>();
+
 
     //Getter and Setter methods for the attributes
 
@@ -89,4 +110,13 @@ public class QuestionEntity {
     public void setUserId(UserEntity userId) {
         this.userId = userId;
     }
+
+    //The tags are loaded lazily, only the queries which fetch them return questions whose tags can be read outside a transaction
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+    }
 }
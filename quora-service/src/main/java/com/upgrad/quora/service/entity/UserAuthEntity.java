@@ -9,8 +9,14 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "user_auth")
 @NamedQueries({
-        @NamedQuery(name = "userAuthByToken", query = "select ua from UserAuthEntity ua where ua.accessToken = :token"),
-        @NamedQuery(name = "updateLogoutByToken", query = "update UserAuthEntity ua set ua.logoutAt = :logoutAt where ua.accessToken = :token")
+        @NamedQuery(name = "userAuthByToken", query = "select ua from UserAuthEntity ua where ua.accessToken = :token and ua.userId.deletedAt is null"),
+        @NamedQuery(name = "updateLogoutByToken", query = "update UserAuthEntity ua set ua.logoutAt = :logoutAt where ua.accessToken = :token"),
+        @NamedQuery(name = "countActiveSessions", query = "select count(ua) from UserAuthEntity ua where ua.logoutAt is null and ua.expiresAt > :now and ua.userId.deletedAt is null"),
+        @NamedQuery(name = "getActiveSessionsOfUser", query = "select ua from UserAuthEntity ua where ua.userId = :user and ua.logoutAt is null and ua.expiresAt > :now")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "userAuthIdsByUser", query = "select id from user_auth where user_id = :userId limit :batchSize"),
+        @NamedNativeQuery(name = "deleteUserAuthsByIds", query = "delete from user_auth where id in (:ids)")
 })
 public class UserAuthEntity implements Serializable {
 
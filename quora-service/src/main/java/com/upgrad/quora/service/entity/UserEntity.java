@@ -4,6 +4,7 @@ import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 /**
  * This is the Entity class for the User
@@ -12,9 +13,14 @@ import java.io.Serializable;
 @Table(name = "users")
 @NamedQueries({
         @NamedQuery(name = "getUserByUserName", query = "select u from UserEntity u where u.userName = :userName"),
-        @NamedQuery(name = "getUserByUuid", query = "select u from UserEntity u where u.uuid = :uuid"),
+        @NamedQuery(name = "getUserByUuid", query = "select u from UserEntity u where u.uuid = :uuid and u.deletedAt is null"),
         @NamedQuery(name = "getUserByEmail", query = "select u from UserEntity u where u.email = :email"),
-        @NamedQuery(name = "deleteUserById", query = "delete UserEntity u where u.uuid = :uuid")
+        @NamedQuery(name = "deleteUserById", query = "delete UserEntity u where u.uuid = :uuid"),
+        @NamedQuery(name = "markUserDeletedById", query = "update UserEntity u set u.deletedAt = :deletedAt where u.uuid = :uuid"),
+        @NamedQuery(name = "getUsersPendingDeletion", query = "select u from UserEntity u where u.deletedAt is not null"),
+        @NamedQuery(name = "getUserNamesAndEmailsIn", query = "select u.userName, u.email from UserEntity u where u.userName in :userNames or u.email in :emails"),
+        @NamedQuery(name = "countUsers", query = "select count(u) from UserEntity u where u.deletedAt is null"),
+        @NamedQuery(name = "getExistingUserUuids", query = "select u.uuid from UserEntity u where u.uuid in :uuids and u.deletedAt is null")
 })
 public class UserEntity implements Serializable {
 
@@ -78,6 +84,9 @@ public class UserEntity implements Serializable {
     @Size(max = 30)
     private String contactNumber;
 
+    @Column(name = "DELETED_AT")
+    private ZonedDateTime deletedAt;
+
     public Integer getId() {
         return id;
     }
@@ -181,4 +190,12 @@ public class UserEntity implements Serializable {
     public void setContactNumber(String contactNumber) {
         this.contactNumber = contactNumber;
     }
+
+    public ZonedDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(ZonedDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
 }
@@ -0,0 +1,113 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+import java.time.ZonedDateTime;
+
+/**
+ * This event is published by the business services whenever an Answer is created, edited or deleted.
+ * Answers purged by a User deletion job only carry their id and the uuid of the deleted User, as their author or as the
+ * author of their question.
+ */
+public class AnswerEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Integer answerId;
+    private final String answerUuid;
+    private final String content;
+    private final Integer questionId;
+    private final String questionUuid;
+    private final String questionContent;
+    private final String questionUserUuid;
+    private final String userUuid;
+    private final ZonedDateTime date;
+
+    public AnswerEvent(final Type type, final Integer answerId, final String answerUuid, final String content,
+                       final Integer questionId, final String questionUuid, final String questionContent,
+                       final String questionUserUuid, final String userUuid, final ZonedDateTime date) {
+        this.type = type;
+        this.answerId = answerId;
+        this.answerUuid = answerUuid;
+        this.content = content;
+        this.questionId = questionId;
+        this.questionUuid = questionUuid;
+        this.questionContent = questionContent;
+        this.questionUserUuid = questionUserUuid;
+        this.userUuid = userUuid;
+        this.date = date;
+    }
+
+    /**
+     * This method creates the event from the state of the Answer
+     * @param type type of the change
+     * @param answer answer details
+     * @return the event
+     */
+    public static AnswerEvent of(final Type type, final AnswerEntity answer) {
+        QuestionEntity question = answer.getQuestion();
+        String userUuid = answer.getUser() == null ? null : answer.getUser().getUuid();
+        String questionUserUuid = question == null || question.getUserId() == null ? null : question.getUserId().getUuid();
+        return new AnswerEvent(type, answer.getId(), answer.getUuid(), answer.getAnswer(),
+                question == null ? null : question.getId(), question == null ? null : question.getUuid(),
+                question == null ? null : question.getContent(), questionUserUuid, userUuid, answer.getDate());
+    }
+
+    /**
+     * This method creates the event for an Answer purged by a User deletion job
+     * @param answerId id of the purged answer
+     * @param userUuid uuid of the author of the answer, null if it is not the deleted User
+     * @param questionUserUuid uuid of the author of the question, null if it is not the deleted User
+     * @return the event
+     */
+    public static AnswerEvent purged(final Integer answerId, final String userUuid, final String questionUserUuid) {
+        return new AnswerEvent(Type.DELETED, answerId, null, null, null, null, null, questionUserUuid, userUuid, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getAnswerId() {
+        return answerId;
+    }
+
+    public String getAnswerUuid() {
+        return answerUuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Integer getQuestionId() {
+        return questionId;
+    }
+
+    public String getQuestionUuid() {
+        return questionUuid;
+    }
+
+    public String getQuestionContent() {
+        return questionContent;
+    }
+
+    /**
+     * @return uuid of the author of the question
+     */
+    public String getQuestionUserUuid() {
+        return questionUserUuid;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+}
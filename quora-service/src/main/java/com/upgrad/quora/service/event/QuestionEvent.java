@@ -0,0 +1,90 @@
+package com.upgrad.quora.service.event;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * This event is published by the business services whenever a Question is created, edited or deleted.
+ * Questions purged by a User deletion job only carry their id and the uuid of the deleted User.
+ */
+public class QuestionEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Integer questionId;
+    private final String questionUuid;
+    private final String content;
+    private final String userUuid;
+    private final ZonedDateTime date;
+    private final Set<String> tags;
+
+    public QuestionEvent(final Type type, final Integer questionId, final String questionUuid, final String content,
+                         final String userUuid, final ZonedDateTime date, final Set<String> tags) {
+        this.type = type;
+        this.questionId = questionId;
+        this.questionUuid = questionUuid;
+        this.content = content;
+        this.userUuid = userUuid;
+        this.date = date;
+        this.tags = tags;
+    }
+
+    /**
+     * This method creates the event from the state of the Question
+     * @param type type of the change
+     * @param question question details
+     * @return the event
+     */
+    public static QuestionEvent of(final Type type, final QuestionEntity question) {
+        String userUuid = question.getUserId() == null ? null : question.getUserId().getUuid();
+        // the tags of a deleted question may not have been loaded
+        Set<String> tags = type == Type.DELETED ? null : question.getTags();
+        return new QuestionEvent(type, question.getId(), question.getUuid(), question.getContent(), userUuid, question.getDate(), tags);
+    }
+
+    /**
+     * This method creates the event for a Question purged by a User deletion job
+     * @param questionId id of the purged question
+     * @param userUuid uuid of the deleted User
+     * @return the event
+     */
+    public static QuestionEvent purged(final Integer questionId, final String userUuid) {
+        return new QuestionEvent(Type.DELETED, questionId, null, null, userUuid, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getQuestionId() {
+        return questionId;
+    }
+
+    public String getQuestionUuid() {
+        return questionUuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    /**
+     * @return tags of the question, null for a deleted question or when an edit left them unchanged
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,33 @@
+package com.upgrad.quora.service.event;
+
+/**
+ * This event is published by the business services whenever a User signs in or signs out
+ */
+public class SessionEvent {
+
+    public enum Type {
+        SIGNED_IN, SIGNED_OUT
+    }
+
+    private final Type type;
+    private final String userUuid;
+    private final String accessToken;
+
+    public SessionEvent(final Type type, final String userUuid, final String accessToken) {
+        this.type = type;
+        this.userUuid = userUuid;
+        this.accessToken = accessToken;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+}
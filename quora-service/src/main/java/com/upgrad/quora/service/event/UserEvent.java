@@ -0,0 +1,27 @@
+package com.upgrad.quora.service.event;
+
+/**
+ * This event is published by the business services whenever a User is created or deleted
+ */
+public class UserEvent {
+
+    public enum Type {
+        CREATED, DELETED
+    }
+
+    private final Type type;
+    private final String userUuid;
+
+    public UserEvent(final Type type, final String userUuid) {
+        this.type = type;
+        this.userUuid = userUuid;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+}
@@ -0,0 +1,54 @@
+package com.upgrad.quora.service.idempotency;
+
+/**
+ * The outcome of claiming an Idempotency-Key.
+ */
+public class IdempotencyClaim {
+
+    public enum State {
+        /** The caller executes the request and must complete or abandon the key. */
+        OWNER,
+        /** The request was executed before, its response is replayed. */
+        COMPLETED,
+        /** The key was used before with a different request. */
+        MISMATCH,
+        /** The first execution is still running after the caller waited for it. */
+        IN_PROGRESS
+    }
+
+    private static final IdempotencyClaim OWNER = new IdempotencyClaim(State.OWNER, null);
+    private static final IdempotencyClaim MISMATCH = new IdempotencyClaim(State.MISMATCH, null);
+    private static final IdempotencyClaim IN_PROGRESS = new IdempotencyClaim(State.IN_PROGRESS, null);
+
+    private final State state;
+    private final IdempotentResponse response;
+
+    private IdempotencyClaim(final State state, final IdempotentResponse response) {
+        this.state = state;
+        this.response = response;
+    }
+
+    static IdempotencyClaim owner() {
+        return OWNER;
+    }
+
+    static IdempotencyClaim completed(final IdempotentResponse response) {
+        return new IdempotencyClaim(State.COMPLETED, response);
+    }
+
+    static IdempotencyClaim mismatch() {
+        return MISMATCH;
+    }
+
+    static IdempotencyClaim inProgress() {
+        return IN_PROGRESS;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public IdempotentResponse getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,298 @@
+package com.upgrad.quora.service.idempotency;
+
+import com.upgrad.quora.service.dao.IdempotencyDao;
+import com.upgrad.quora.service.entity.IdempotencyRecordEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class remembers the responses of the requests sent with an Idempotency-Key so that a retried request gets the
+ * response of its first execution instead of executing again. A request arriving while the first execution of its key
+ * is running waits for that execution.
+ * The keys are kept in a bounded in-memory store for their time to live. When persistence is enabled the keys are
+ * also claimed in the database, so that a retry reaching another node is recognised as well.
+ */
+@Component
+public class IdempotencyStore {
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    @Autowired
+    private IdempotencyDao idempotencyDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${quora.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${quora.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${quora.idempotency.persistent:false}")
+    private boolean persistent;
+
+    @Value("${quora.idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${quora.idempotency.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * This method claims a key for a request. If the key was claimed before with the same request, the caller waits
+     * until the first execution completes and gets its response; if the first execution is abandoned the caller
+     * becomes the owner of the key.
+     * @param key Idempotency-Key scoped to the caller and the endpoint
+     * @param fingerprint fingerprint of the request parameters
+     * @return outcome of the claim
+     */
+    public IdempotencyClaim claim(final String key, final String fingerprint) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            Entry entry = new Entry(key, fingerprint);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                evictionQueue.add(entry);
+                evictIfFull();
+                return persistent ? claimPersisted(entry, deadline) : IdempotencyClaim.owner();
+            }
+            if (existing.isExpired(System.currentTimeMillis())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return IdempotencyClaim.mismatch();
+            }
+
+            IdempotentResponse response = await(existing, deadline);
+            if (response != null) {
+                return IdempotencyClaim.completed(response);
+            }
+            if (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()) {
+                return IdempotencyClaim.inProgress();
+            }
+            // the first execution was abandoned, this request executes instead
+        }
+    }
+
+    /**
+     * This method stores the response of the owner of a key and hands it to the requests waiting for it
+     * @param key Idempotency-Key scoped to the caller and the endpoint
+     * @param response response of the execution
+     */
+    public void complete(final String key, final IdempotentResponse response) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        if (persistent) {
+            try {
+                transactionTemplate.execute(status -> {
+                    idempotencyDao.complete(key, response, ZonedDateTime.now().plusSeconds(ttlSeconds));
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                LOG.warn("Response of idempotency key {} could not be persisted", key, e);
+            }
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.expiresAt = expiresAt;
+            entry.result.complete(response);
+        }
+    }
+
+    /**
+     * This method releases a key whose execution failed, so that a retry of the request executes again
+     * @param key Idempotency-Key scoped to the caller and the endpoint
+     */
+    public void abandon(final String key) {
+        if (persistent) {
+            try {
+                transactionTemplate.execute(status -> {
+                    idempotencyDao.release(key);
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                LOG.warn("Idempotency key {} could not be released", key, e);
+            }
+        }
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.result.complete(null);
+        }
+    }
+
+    /**
+     * This method removes the expired keys from the store and from the database
+     */
+    @Scheduled(fixedDelayString = "${quora.idempotency.purge-interval-ms:600000}",
+            initialDelayString = "${quora.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Entry> iterator = evictionQueue.iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.isExpired(now)) {
+                iterator.remove();
+                entries.remove(entry.key, entry);
+            } else if (entries.get(entry.key) != entry) {
+                iterator.remove();
+            }
+        }
+        if (persistent) {
+            Integer deleted = transactionTemplate.execute(status -> idempotencyDao.deleteExpired(ZonedDateTime.now()));
+            LOG.debug("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    /**
+     * This method claims the key in the database for an entry which this node has just claimed. A key executing on
+     * another node is polled until it completes or the deadline passes.
+     * @param entry entry of the key in this node
+     * @param deadline time until which the caller waits
+     * @return outcome of the claim
+     */
+    private IdempotencyClaim claimPersisted(final Entry entry, final long deadline) {
+        IdempotencyClaim claim;
+        try {
+            claim = pollPersisted(entry, deadline);
+        } catch (DataAccessException e) {
+            LOG.warn("Idempotency key {} could not be claimed in the database, using the local store only", entry.key, e);
+            return IdempotencyClaim.owner();
+        }
+
+        if (claim.getState() == IdempotencyClaim.State.COMPLETED) {
+            entry.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+            entry.result.complete(claim.getResponse());
+        } else if (claim.getState() != IdempotencyClaim.State.OWNER) {
+            // the requests waiting on this node claim the key again and get the same outcome
+            entries.remove(entry.key, entry);
+            entry.result.complete(null);
+        }
+        return claim;
+    }
+
+    private IdempotencyClaim pollPersisted(final Entry entry, final long deadline) {
+        while (true) {
+            ZonedDateTime now = ZonedDateTime.now();
+            Boolean claimed = transactionTemplate.execute(status ->
+                    idempotencyDao.claim(entry.key, entry.fingerprint, now, now.plusSeconds(leaseSeconds)));
+            if (Boolean.TRUE.equals(claimed)) {
+                return IdempotencyClaim.owner();
+            }
+
+            IdempotencyRecordEntity record = transactionTemplate.execute(status -> idempotencyDao.getRecord(entry.key));
+            if (record == null) {
+                continue;
+            }
+            if (record.getExpiresAt().isBefore(now)) {
+                transactionTemplate.execute(status -> {
+                    idempotencyDao.deleteExpired(entry.key, now);
+                    return null;
+                });
+                continue;
+            }
+            if (!entry.fingerprint.equals(record.getFingerprint())) {
+                return IdempotencyClaim.mismatch();
+            }
+            if (record.getStatus() != null) {
+                return IdempotencyClaim.completed(new IdempotentResponse(record.getStatus(), record.getContentType(),
+                        record.getLocation(), record.getBody()));
+            }
+            if (System.currentTimeMillis() + pollIntervalMs >= deadline) {
+                return IdempotencyClaim.inProgress();
+            }
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return IdempotencyClaim.inProgress();
+            }
+        }
+    }
+
+    private static IdempotentResponse await(final Entry entry, final long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return null;
+        }
+        try {
+            return entry.result.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * This method evicts the oldest completed keys while the store holds more keys than its maximum size. Keys still in
+     * progress are never evicted since requests may be waiting for them.
+     */
+    private void evictIfFull() {
+        int attempts = evictionQueue.size();
+        while (entries.size() > maxEntries && attempts-- > 0) {
+            Entry oldest = evictionQueue.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (entries.get(oldest.key) != oldest) {
+                continue;
+            }
+            if (oldest.result.isDone()) {
+                entries.remove(oldest.key, oldest);
+            } else {
+                evictionQueue.add(oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final CompletableFuture<IdempotentResponse> result = new CompletableFuture<>();
+        // in progress entries do not expire, their owner completes or abandons them
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(final String key, final String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.upgrad.quora.service.idempotency;
+
+/**
+ * The response of the first execution of an idempotent request, replayed to the retries of the request.
+ */
+public class IdempotentResponse {
+    private final int status;
+    private final String contentType;
+    private final String location;
+    private final byte[] body;
+
+    public IdempotentResponse(final int status, final String contentType, final String location, final byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,105 @@
+package com.upgrad.quora.service.job;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds the state and the progress of a background job purging a User and all the rows owned by the User
+ */
+public class UserDeletionJob {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String userUuid;
+    private final ZonedDateTime createdAt;
+
+    private final AtomicLong answersDeleted = new AtomicLong();
+    private final AtomicLong questionsDeleted = new AtomicLong();
+    private final AtomicLong sessionsDeleted = new AtomicLong();
+
+    private volatile Status status = Status.PENDING;
+    private volatile ZonedDateTime startedAt;
+    private volatile ZonedDateTime finishedAt;
+    private volatile String failureReason;
+
+    public UserDeletionJob(final String id, final String userUuid) {
+        this.id = id;
+        this.userUuid = userUuid;
+        this.createdAt = ZonedDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public ZonedDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public ZonedDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public long getAnswersDeleted() {
+        return answersDeleted.get();
+    }
+
+    public long getQuestionsDeleted() {
+        return questionsDeleted.get();
+    }
+
+    public long getSessionsDeleted() {
+        return sessionsDeleted.get();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void started() {
+        this.startedAt = ZonedDateTime.now();
+        this.status = Status.RUNNING;
+    }
+
+    void completed() {
+        this.finishedAt = ZonedDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(final String reason) {
+        this.failureReason = reason;
+        this.finishedAt = ZonedDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    void addAnswersDeleted(final int count) {
+        answersDeleted.addAndGet(count);
+    }
+
+    void addQuestionsDeleted(final int count) {
+        questionsDeleted.addAndGet(count);
+    }
+
+    void addSessionsDeleted(final int count) {
+        sessionsDeleted.addAndGet(count);
+    }
+}
@@ -0,0 +1,195 @@
+package com.upgrad.quora.service.job;
+
+import com.upgrad.quora.service.dao.AdminDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * This class runs the User deletion jobs in the background. Every job purges the rows owned by the User in bounded
+ * batches, committing after each batch, so that no single transaction holds the locks of a heavy User's entire history.
+ */
+@Component
+public class UserDeletionJobExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(UserDeletionJobExecutor.class);
+
+    @Autowired
+    private AdminDao adminDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${quora.admin.user-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quora.admin.user-deletion.pause-between-batches-ms:0}")
+    private long pauseBetweenBatchesMs;
+
+    @Value("${quora.admin.user-deletion.threads:1}")
+    private int threads;
+
+    @Value("${quora.admin.user-deletion.retention-hours:24}")
+    private long retentionHours;
+
+    private final Map<String, UserDeletionJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-deletion-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * This method resumes the purge of the Users which were marked as deleted but not yet purged when the
+     * application was stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingDeletions() {
+        for (UserEntity user : adminDao.getUsersPendingDeletion()) {
+            LOG.info("Resuming deletion of user {}", user.getUuid());
+            submit(newJob(user), user);
+        }
+    }
+
+    /**
+     * This method creates a deletion job for the User. If a transaction is active the job is started only after the
+     * transaction commits, so that the User is already hidden from the reads when the purge begins.
+     * @param user User to be deleted
+     * @return the created job
+     */
+    public UserDeletionJob schedule(final UserEntity user) {
+        final UserDeletionJob job = newJob(user);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    submit(job, user);
+                }
+            });
+        } else {
+            submit(job, user);
+        }
+        return job;
+    }
+
+    /**
+     * This method returns the job with the given id
+     * @param jobId id of the job
+     * @return the job or null if no such job is known
+     */
+    public UserDeletionJob getJob(final String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private UserDeletionJob newJob(final UserEntity user) {
+        evictExpiredJobs();
+        UserDeletionJob job = new UserDeletionJob(UUID.randomUUID().toString(), user.getUuid());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void submit(final UserDeletionJob job, final UserEntity user) {
+        final int userId = user.getId();
+        executor.execute(() -> run(job, userId));
+    }
+
+    private void run(final UserDeletionJob job, final int userId) {
+        job.started();
+        String userUuid = job.getUserUuid();
+        try {
+            purge(() -> adminDao.deleteAnswersByUser(userId, batchSize), id -> AnswerEvent.purged(id, userUuid, null), job::addAnswersDeleted);
+            purge(() -> adminDao.deleteAnswersOnQuestionsOfUser(userId, batchSize), id -> AnswerEvent.purged(id, null, userUuid), job::addAnswersDeleted);
+            purge(() -> adminDao.deleteQuestionsByUser(userId, batchSize), id -> QuestionEvent.purged(id, userUuid), job::addQuestionsDeleted);
+            purge(() -> adminDao.deleteUserAuthsByUser(userId, batchSize), null, job::addSessionsDeleted);
+            transactionTemplate.execute(status -> {
+                adminDao.deleteUserByUuid(job.getUserUuid());
+                return null;
+            });
+            job.completed();
+            LOG.info("Deleted user {}: {} answers, {} questions, {} sessions", job.getUserUuid(),
+                    job.getAnswersDeleted(), job.getQuestionsDeleted(), job.getSessionsDeleted());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("Interrupted");
+        } catch (RuntimeException e) {
+            LOG.error("Deletion of user {} failed", job.getUserUuid(), e);
+            job.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * This method deletes batches in separate transactions until a batch comes back empty
+     * @param batch deletes one batch and returns the ids of the deleted rows
+     * @param event creates the event published for every deleted row, null if no event is published
+     * @param progress receives the number of rows deleted by each batch
+     */
+    private void purge(final Supplier<List<Integer>> batch, final Function<Integer, Object> event,
+                       final IntConsumer progress) throws InterruptedException {
+        while (true) {
+            List<Integer> deleted = transactionTemplate.execute(status -> {
+                List<Integer> ids = batch.get();
+                if (event != null) {
+                    for (Integer id : ids) {
+                        eventPublisher.publishEvent(event.apply(id));
+                    }
+                }
+                return ids;
+            });
+            if (deleted == null || deleted.isEmpty()) {
+                return;
+            }
+            progress.accept(deleted.size());
+            if (pauseBetweenBatchesMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(pauseBetweenBatchesMs);
+            }
+        }
+    }
+
+    private void evictExpiredJobs() {
+        ZonedDateTime threshold = ZonedDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,134 @@
+package com.upgrad.quora.service.partition;
+
+import com.upgrad.quora.service.dao.PartitionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class maintains the monthly partitions of the QUESTION and ANSWER tables, which are partitioned by date. The
+ * partitions of the current month and of the next "quora.partitions.months-ahead" months are created at startup and
+ * then every "quora.partitions.maintenance-interval-ms", so that the new rows never fall into the default partition.
+ * When "quora.partitions.archive-tablespace" is set, the partitions older than "quora.partitions.archive-after-months"
+ * months are moved to that tablespace, e.g. one on cheaper storage; the queries restricted to recent dates never read
+ * them. Every change runs in a transaction of its own under a lock shared by the nodes, so a failure only skips it.
+ */
+@Component
+public class PartitionMaintenance {
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private static final List<String> TABLES = Arrays.asList("question", "answer");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern TABLESPACE = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Autowired
+    private PartitionDao partitionDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${quora.partitions.archive-after-months:12}")
+    private int archiveAfterMonths;
+
+    @Value("${quora.partitions.archive-tablespace:}")
+    private String archiveTablespace;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (!archiveTablespace.isEmpty() && !TABLESPACE.matcher(archiveTablespace).matches()) {
+            throw new IllegalStateException("quora.partitions.archive-tablespace must be a lower case tablespace name, found " + archiveTablespace);
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        maintain();
+    }
+
+    /**
+     * This method creates the missing partitions of the coming months and archives the old partitions
+     */
+    @Scheduled(fixedDelayString = "${quora.partitions.maintenance-interval-ms:86400000}",
+            initialDelayString = "${quora.partitions.maintenance-interval-ms:86400000}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (String table : TABLES) {
+            for (int month = 0; month <= monthsAhead; month++) {
+                createPartition(table, current.plusMonths(month));
+            }
+            if (!archiveTablespace.isEmpty()) {
+                archivePartitions(table, current.minusMonths(archiveAfterMonths));
+            }
+        }
+    }
+
+    private void createPartition(final String table, final YearMonth month) {
+        String partition = table + "_p" + month.format(MONTH);
+        try {
+            transactionTemplate.execute(status -> {
+                partitionDao.lockPartitions();
+                partitionDao.createPartition(table, partition, month.atDay(1), month.plusMonths(1).atDay(1));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // the default partition holds rows of that month, which must be moved to the partition by hand
+            LOG.warn("The partition {} could not be created, the rows of {} are kept in the default partition", partition, month, e);
+        }
+    }
+
+    /**
+     * This method moves the partitions of the months before the given one to the archive tablespace
+     * @param table partitioned table
+     * @param before first month which is not archived
+     */
+    private void archivePartitions(final String table, final YearMonth before) {
+        Pattern monthly = Pattern.compile(Pattern.quote(table) + "_p(\\d{6})");
+        List<Object[]> partitions;
+        try {
+            partitions = transactionTemplate.execute(status -> partitionDao.getPartitions(table));
+        } catch (RuntimeException e) {
+            LOG.warn("The partitions of {} could not be read, none is archived", table, e);
+            return;
+        }
+        for (Object[] partition : partitions) {
+            String name = (String) partition[0];
+            Matcher matcher = monthly.matcher(name);
+            if (!matcher.matches() || archiveTablespace.equals(partition[1])
+                    || !YearMonth.parse(matcher.group(1), MONTH).isBefore(before)) {
+                continue;
+            }
+            try {
+                long start = System.nanoTime();
+                transactionTemplate.execute(status -> {
+                    partitionDao.lockPartitions();
+                    partitionDao.movePartition(name, archiveTablespace);
+                    return null;
+                });
+                LOG.info("Moved the partition {} to the tablespace {} in {} ms", name, archiveTablespace, (System.nanoTime() - start) / 1000000);
+            } catch (RuntimeException e) {
+                LOG.warn("The partition {} could not be moved to the tablespace {}", name, archiveTablespace, e);
+            }
+        }
+    }
+}
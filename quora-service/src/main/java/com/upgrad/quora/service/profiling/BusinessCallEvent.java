@@ -0,0 +1,16 @@
+package com.upgrad.quora.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every call of a business service method
+ */
+@Name("com.upgrad.quora.BusinessCall")
+@Label("Business Service Call")
+@Category({"Quora", "Business"})
+@Description("Call of a business service method")
+class BusinessCallEvent extends QuoraCallEvent {
+}
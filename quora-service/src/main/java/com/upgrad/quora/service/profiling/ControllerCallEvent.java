@@ -0,0 +1,19 @@
+package com.upgrad.quora.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every call of a REST controller method
+ */
+@Name("com.upgrad.quora.ControllerCall")
+@Label("Controller Call")
+@Category({"Quora", "Controller"})
+@Description("Call of a REST endpoint")
+class ControllerCallEvent extends QuoraCallEvent {
+    @Label("Path")
+    @Description("Path pattern of the endpoint")
+    String path;
+}
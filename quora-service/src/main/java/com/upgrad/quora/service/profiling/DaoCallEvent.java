@@ -0,0 +1,16 @@
+package com.upgrad.quora.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every call of a DAO method
+ */
+@Name("com.upgrad.quora.DaoCall")
+@Label("DAO Call")
+@Category({"Quora", "DAO"})
+@Description("Call of a DAO method, i.e. one or more database queries")
+class DaoCallEvent extends QuoraCallEvent {
+}
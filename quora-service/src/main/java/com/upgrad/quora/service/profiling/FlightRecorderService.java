@@ -0,0 +1,203 @@
+package com.upgrad.quora.service.profiling;
+
+import com.upgrad.quora.service.exception.ProfilingException;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class manages the continuous Flight Recorder recording of the application. The recording keeps a bounded window
+ * of data on disk and any part of that window can be dumped to a file on demand.
+ */
+@Component
+public class FlightRecorderService {
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final String RECORDING_NAME = "quora-continuous";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    @Value("${quora.profiling.jfr.start-at-startup:false}")
+    private boolean startAtStartup;
+
+    @Value("${quora.profiling.jfr.settings:default}")
+    private String settings;
+
+    @Value("${quora.profiling.jfr.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    @Value("${quora.profiling.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${quora.profiling.jfr.dump-directory:${java.io.tmpdir}/quora-jfr}")
+    private String dumpDirectory;
+
+    @Value("${quora.profiling.jfr.controller-threshold-ms:0}")
+    private long controllerThresholdMs;
+
+    @Value("${quora.profiling.jfr.business-threshold-ms:0}")
+    private long businessThresholdMs;
+
+    @Value("${quora.profiling.jfr.dao-threshold-ms:0}")
+    private long daoThresholdMs;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void init() {
+        if (startAtStartup) {
+            try {
+                start();
+            } catch (ProfilingException e) {
+                LOG.warn("Flight Recorder recording could not be started at startup: {}", e.getErrorMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * This method starts the continuous recording if it is not running yet
+     * @return status of the recording
+     * @throws ProfilingException if the Flight Recorder is not available in this JVM
+     */
+    public synchronized RecordingStatus start() throws ProfilingException {
+        if (isRunning()) {
+            return status();
+        }
+        if (!FlightRecorder.isAvailable()) {
+            throw new ProfilingException("PRF-001", "Flight Recorder is not available in this JVM");
+        }
+
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new ProfilingException("PRF-002", "Flight Recorder settings '" + settings + "' could not be loaded");
+        }
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        newRecording.setMaxSize(maxSizeMb * 1024 * 1024);
+        newRecording.enable(ControllerCallEvent.class).withThreshold(Duration.ofMillis(controllerThresholdMs));
+        newRecording.enable(BusinessCallEvent.class).withThreshold(Duration.ofMillis(businessThresholdMs));
+        newRecording.enable(DaoCallEvent.class).withThreshold(Duration.ofMillis(daoThresholdMs));
+        newRecording.start();
+
+        recording = newRecording;
+        LOG.info("Started Flight Recorder recording {} with settings '{}'", recording.getId(), settings);
+        return status();
+    }
+
+    /**
+     * This method stops and discards the continuous recording
+     * @return status of the recording
+     * @throws ProfilingException if no recording is running
+     */
+    public synchronized RecordingStatus stop() throws ProfilingException {
+        if (!isRunning()) {
+            throw new ProfilingException("PRF-003", "No recording is in progress");
+        }
+        recording.close();
+        recording = null;
+        LOG.info("Stopped Flight Recorder recording");
+        return status();
+    }
+
+    /**
+     * This method returns the status of the continuous recording
+     * @return status of the recording
+     */
+    public synchronized RecordingStatus status() {
+        if (!isRunning()) {
+            return new RecordingStatus(false, null, null, null, 0, dumpDirectory);
+        }
+        return new RecordingStatus(true, recording.getName(), recording.getStartTime(), recording.getMaxAge(),
+                recording.getMaxSize(), dumpDirectory);
+    }
+
+    /**
+     * This method dumps the part of the continuous recording between the two instants to a file in the dump directory.
+     * The recording itself keeps running.
+     * @param from start of the window, null for the start of the recording
+     * @param to end of the window, null for now
+     * @return path and size of the dumped file
+     * @throws ProfilingException if no recording is running or the window is invalid
+     * @throws IOException if the file cannot be written
+     */
+    public RecordingDump dump(final Instant from, final Instant to) throws ProfilingException, IOException {
+        final long recordingId;
+        final Instant start;
+        synchronized (this) {
+            if (!isRunning()) {
+                throw new ProfilingException("PRF-003", "No recording is in progress");
+            }
+            recordingId = recording.getId();
+            start = recording.getStartTime();
+        }
+        Instant windowEnd = to == null ? Instant.now() : to;
+        Instant windowStart = from == null || from.isBefore(start) ? start : from;
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new ProfilingException("PRF-004", "The start of the window must be before its end");
+        }
+
+        Path directory = Paths.get(dumpDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("quora-" + FILE_TIMESTAMP.format(windowStart) + "-" + FILE_TIMESTAMP.format(windowEnd) + ".jfr");
+
+        FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+        // the clone is stopped so that the data still buffered in memory is flushed to its chunks
+        long cloneId = flightRecorder.cloneRecording(recordingId, true);
+        try {
+            Map<String, String> options = new HashMap<>();
+            options.put("startTime", windowStart.toString());
+            options.put("endTime", windowEnd.toString());
+            long streamId = flightRecorder.openStream(cloneId, options);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] block;
+                while ((block = flightRecorder.readStream(streamId)) != null) {
+                    out.write(block);
+                }
+            } finally {
+                flightRecorder.closeStream(streamId);
+            }
+        } finally {
+            flightRecorder.closeRecording(cloneId);
+        }
+
+        LOG.info("Dumped Flight Recorder window {} - {} to {}", windowStart, windowEnd, file);
+        return new RecordingDump(file.toAbsolutePath().toString(), Files.size(file), windowStart, windowEnd);
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrad.quora.service.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * This aspect emits a Flight Recorder event around every controller, business service and DAO call. When no recording
+ * has the events enabled, the cost is a single check per call.
+ */
+@Aspect
+@Component
+public class ProfilingAspect {
+    // value of HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, the service layer does not depend on spring-webmvc
+    private static final String BEST_MATCHING_PATTERN_ATTRIBUTE = "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+    @Around("execution(public * com.upgrad.quora.api.controller..*(..))")
+    public Object controllerCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+        ControllerCallEvent event = new ControllerCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object pattern = attributes.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            event.path = pattern == null ? null : pattern.toString();
+        }
+        return record(event, joinPoint);
+    }
+
+    @Around("execution(public * com.upgrad.quora.service.business..*(..))")
+    public Object businessCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+        BusinessCallEvent event = new BusinessCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        return record(event, joinPoint);
+    }
+
+    @Around("execution(public * com.upgrad.quora.service.dao..*(..))")
+    public Object daoCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+        DaoCallEvent event = new DaoCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        return record(event, joinPoint);
+    }
+
+    private static Object record(final QuoraCallEvent event, final ProceedingJoinPoint joinPoint) throws Throwable {
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            event.exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.upgrad.quora.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * This is the base class of the Flight Recorder events emitted around the calls of the application. The duration and
+ * the thread of an event let the CPU, allocation and lock samples of the same thread be attributed to the call.
+ */
+@Category("Quora")
+@StackTrace(false)
+abstract class QuoraCallEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,36 @@
+package com.upgrad.quora.service.profiling;
+
+import java.time.Instant;
+
+/**
+ * This class describes a window of the continuous recording dumped to a file
+ */
+public class RecordingDump {
+    private final String path;
+    private final long size;
+    private final Instant from;
+    private final Instant to;
+
+    public RecordingDump(final String path, final long size, final Instant from, final Instant to) {
+        this.path = path;
+        this.size = size;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,50 @@
+package com.upgrad.quora.service.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * This class holds the status of the continuous Flight Recorder recording
+ */
+public class RecordingStatus {
+    private final boolean running;
+    private final String name;
+    private final Instant startTime;
+    private final Duration maxAge;
+    private final long maxSize;
+    private final String dumpDirectory;
+
+    public RecordingStatus(final boolean running, final String name, final Instant startTime, final Duration maxAge,
+                           final long maxSize, final String dumpDirectory) {
+        this.running = running;
+        this.name = name;
+        this.startTime = startTime;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public String getDumpDirectory() {
+        return dumpDirectory;
+    }
+}
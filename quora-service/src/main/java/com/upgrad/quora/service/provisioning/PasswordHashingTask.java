@@ -0,0 +1,48 @@
+package com.upgrad.quora.service.provisioning;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import com.upgrad.quora.service.entity.UserEntity;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This task hashes the passwords of a chunk of imported rows. The chunk is split in halves until it is small enough
+ * to be hashed sequentially, so that the hashing is spread over all the workers of the fork/join pool.
+ */
+class PasswordHashingTask extends RecursiveAction {
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private final PasswordCryptographyProvider cryptographyProvider;
+    private final List<UserImportRecord> records;
+    private final int from;
+    private final int to;
+
+    PasswordHashingTask(final PasswordCryptographyProvider cryptographyProvider, final List<UserImportRecord> records) {
+        this(cryptographyProvider, records, 0, records.size());
+    }
+
+    private PasswordHashingTask(final PasswordCryptographyProvider cryptographyProvider, final List<UserImportRecord> records,
+                                final int from, final int to) {
+        this.cryptographyProvider = cryptographyProvider;
+        this.records = records;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                UserEntity user = records.get(i).getUser();
+                String[] encryptedText = cryptographyProvider.encrypt(user.getPassword());
+                user.setSalt(encryptedText[0]);
+                user.setPassword(encryptedText[1]);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new PasswordHashingTask(cryptographyProvider, records, from, middle),
+                new PasswordHashingTask(cryptographyProvider, records, middle, to));
+    }
+}
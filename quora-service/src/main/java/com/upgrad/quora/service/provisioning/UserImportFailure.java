@@ -0,0 +1,34 @@
+package com.upgrad.quora.service.provisioning;
+
+/**
+ * This class describes a row of a bulk import which was not imported
+ */
+public class UserImportFailure {
+    private final long row;
+    private final String userName;
+    private final String code;
+    private final String message;
+
+    public UserImportFailure(final long row, final String userName, final String code, final String message) {
+        this.row = row;
+        this.userName = userName;
+        this.code = code;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
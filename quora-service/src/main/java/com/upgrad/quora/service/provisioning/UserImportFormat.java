@@ -0,0 +1,39 @@
+package com.upgrad.quora.service.provisioning;
+
+/**
+ * This enum lists the formats in which Users can be imported in bulk
+ */
+public enum UserImportFormat {
+    /** comma separated values with a header row naming the columns */
+    CSV("text/csv"),
+    /** one JSON object per line */
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    UserImportFormat(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * This method returns the format matching the content type of the request
+     * @param contentType content type of the request, may carry parameters such as the charset
+     * @return the matching format or null if the content type is not supported
+     */
+    public static UserImportFormat fromContentType(final String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim();
+        for (UserImportFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
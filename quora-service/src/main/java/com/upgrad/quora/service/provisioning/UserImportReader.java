@@ -0,0 +1,191 @@
+package com.upgrad.quora.service.provisioning;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.entity.UserEntity;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * This class reads the rows of a bulk import one at a time, so that an import is never held in memory as a whole.
+ * The fields carry the same names as in the signup request.
+ */
+public abstract class UserImportReader implements Closeable {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    protected final BufferedReader reader;
+    protected long line;
+
+    protected UserImportReader(final InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method opens a reader for the given format
+     * @param inputStream body of the import request
+     * @param format format of the body
+     * @return reader of the rows
+     */
+    public static UserImportReader open(final InputStream inputStream, final UserImportFormat format) {
+        return format == UserImportFormat.CSV ? new CsvReader(inputStream) : new NdjsonReader(inputStream);
+    }
+
+    /**
+     * This method reads the next row, skipping blank lines
+     * @return the next row or null at the end of the input
+     * @throws IOException
+     */
+    public UserImportRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.trim().isEmpty());
+        return parse(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    protected abstract UserImportRecord parse(String text) throws IOException;
+
+    protected UserImportRecord toRecord(final Function<String, String> field) {
+        UserEntity user = new UserEntity();
+        user.setUuid(UUID.randomUUID().toString());
+        user.setFirstName(field.apply("first_name"));
+        user.setLastName(field.apply("last_name"));
+        user.setUserName(field.apply("user_name"));
+        user.setEmail(field.apply("email_address"));
+        user.setPassword(field.apply("password"));
+        user.setCountry(field.apply("country"));
+        user.setAboutMe(field.apply("aboutMe"));
+        user.setDob(field.apply("dob"));
+        user.setContactNumber(field.apply("contact_number"));
+        user.setRole("nonadmin");
+        return new UserImportRecord(line, user);
+    }
+
+    protected UserImportRecord malformed(final String message) {
+        UserImportRecord record = new UserImportRecord(line, new UserEntity());
+        record.reject("IMP-002", message);
+        return record;
+    }
+
+    /**
+     * Comma separated values with a header row, fields may be quoted with double quotes
+     */
+    private static class CsvReader extends UserImportReader {
+        private Map<String, Integer> columns;
+
+        CsvReader(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public UserImportRecord next() throws IOException {
+            if (columns == null) {
+                String header = reader.readLine();
+                if (header == null) {
+                    return null;
+                }
+                line++;
+                List<String> names = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+                columns = new HashMap<>();
+                for (int i = 0; names != null && i < names.size(); i++) {
+                    columns.put(names.get(i).trim(), i);
+                }
+            }
+            return super.next();
+        }
+
+        @Override
+        protected UserImportRecord parse(final String text) {
+            final List<String> values = split(text);
+            if (values == null) {
+                return malformed("Unterminated quoted field");
+            }
+            return toRecord(name -> {
+                Integer index = columns.get(name);
+                if (index == null || index >= values.size()) {
+                    return null;
+                }
+                String value = values.get(index).trim();
+                return value.isEmpty() ? null : value;
+            });
+        }
+
+        private static List<String> split(final String text) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private static class NdjsonReader extends UserImportReader {
+
+        NdjsonReader(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        protected UserImportRecord parse(final String text) {
+            final JsonNode node;
+            try {
+                node = OBJECT_MAPPER.readTree(text);
+            } catch (IOException e) {
+                return malformed("Row is not valid JSON");
+            }
+            if (node == null || !node.isObject()) {
+                return malformed("Row is not a JSON object");
+            }
+            return toRecord(name -> {
+                JsonNode value = node.get(name);
+                return value == null || value.isNull() ? null : value.asText();
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.upgrad.quora.service.provisioning;
+
+import com.upgrad.quora.service.entity.UserEntity;
+
+/**
+ * This class holds one row of a bulk import. The password of the User is the raw password until the row is hashed.
+ */
+public class UserImportRecord {
+    private final long row;
+    private final UserEntity user;
+    private String errorCode;
+    private String errorMessage;
+
+    UserImportRecord(final long row, final UserEntity user) {
+        this.row = row;
+        this.user = user;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public boolean isRejected() {
+        return errorCode != null;
+    }
+
+    void reject(final String code, final String message) {
+        this.errorCode = code;
+        this.errorMessage = message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.upgrad.quora.service.provisioning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the outcome of a bulk import
+ */
+public class UserImportResult {
+    private long received;
+    private long imported;
+    private final List<UserImportFailure> failures = new ArrayList<>();
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public List<UserImportFailure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    void addReceived(final int count) {
+        received += count;
+    }
+
+    void addImported(final int count) {
+        imported += count;
+    }
+
+    void addFailure(final UserImportRecord record) {
+        failures.add(new UserImportFailure(record.getRow(), record.getUser().getUserName(),
+                record.getErrorCode(), record.getErrorMessage()));
+    }
+}
@@ -0,0 +1,214 @@
+package com.upgrad.quora.service.provisioning;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import com.upgrad.quora.service.dao.UserImportDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class imports Users in bulk. The input is streamed in chunks and every chunk is validated with one set based
+ * query, hashed in parallel on a fork/join pool and inserted with one JDBC batch in its own transaction. A row which
+ * cannot be imported is reported as a failure without aborting the rest of the import.
+ */
+@Component
+public class UserImporter {
+    private static final Logger LOG = LoggerFactory.getLogger(UserImporter.class);
+
+    @Autowired
+    private UserImportDao userImportDao;
+
+    @Autowired
+    private PasswordCryptographyProvider cryptographyProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${quora.admin.user-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${quora.admin.user-import.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    private ForkJoinPool hashingPool;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors();
+        hashingPool = new ForkJoinPool(parallelism);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * This method imports the Users read from the input
+     * @param inputStream body of the import request
+     * @param format format of the body
+     * @return number of rows received and imported and the rows which failed
+     * @throws IOException if the input cannot be read
+     */
+    public UserImportResult importUsers(final InputStream inputStream, final UserImportFormat format) throws IOException {
+        UserImportResult result = new UserImportResult();
+        try (UserImportReader reader = UserImportReader.open(inputStream, format)) {
+            List<UserImportRecord> chunk = new ArrayList<>(chunkSize);
+            UserImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, result);
+            }
+        }
+        LOG.info("Imported {} of {} users", result.getImported(), result.getReceived());
+        return result;
+    }
+
+    private void importChunk(final List<UserImportRecord> chunk, final UserImportResult result) {
+        result.addReceived(chunk.size());
+
+        List<UserImportRecord> accepted = validate(chunk);
+        if (!accepted.isEmpty()) {
+            hashingPool.invoke(new PasswordHashingTask(cryptographyProvider, accepted));
+            result.addImported(insert(accepted));
+        }
+
+        for (UserImportRecord record : chunk) {
+            if (record.isRejected()) {
+                result.addFailure(record);
+            }
+        }
+    }
+
+    /**
+     * This method rejects the rows with missing or oversized fields and the rows whose username or email is taken,
+     * either in the database or by an earlier row of the same chunk
+     * @param chunk rows of the chunk
+     * @return rows which can be inserted
+     */
+    private List<UserImportRecord> validate(final List<UserImportRecord> chunk) {
+        Set<String> userNames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UserImportRecord record : chunk) {
+            if (!record.isRejected()) {
+                checkFields(record);
+            }
+            if (!record.isRejected()) {
+                userNames.add(record.getUser().getUserName());
+                emails.add(record.getUser().getEmail());
+            }
+        }
+
+        Set<String> takenUserNames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        userImportDao.findTaken(userNames, emails, takenUserNames, takenEmails);
+
+        List<UserImportRecord> accepted = new ArrayList<>(chunk.size());
+        for (UserImportRecord record : chunk) {
+            if (record.isRejected()) {
+                continue;
+            }
+            UserEntity user = record.getUser();
+            if (!takenUserNames.add(user.getUserName())) {
+                record.reject("SGR-001", "Try any other Username, this Username has already been taken");
+            } else if (!takenEmails.add(user.getEmail())) {
+                record.reject("SGR-002", "This user has already been registered, try with any other emailId");
+            } else {
+                accepted.add(record);
+            }
+        }
+        return accepted;
+    }
+
+    private static void checkFields(final UserImportRecord record) {
+        UserEntity user = record.getUser();
+        if (user.getFirstName() == null || user.getLastName() == null || user.getUserName() == null
+                || user.getEmail() == null || user.getPassword() == null) {
+            record.reject("IMP-001", "first_name, last_name, user_name, email_address and password are mandatory");
+        } else if (user.getFirstName().length() > 30 || user.getLastName().length() > 30 || user.getUserName().length() > 30
+                || user.getEmail().length() > 50 || length(user.getCountry()) > 30 || length(user.getAboutMe()) > 50
+                || length(user.getDob()) > 30 || length(user.getContactNumber()) > 30) {
+            record.reject("IMP-003", "One or more fields exceed their maximum length");
+        }
+    }
+
+    private static int length(final String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * This method inserts the rows with one batch. If the batch fails, e.g. because a User with the same username
+     * signed up in the meantime, the rows are inserted one by one to find the failing ones.
+     * @param accepted rows with the hashed passwords
+     * @return number of inserted rows
+     */
+    private int insert(final List<UserImportRecord> accepted) {
+        final List<UserEntity> users = new ArrayList<>(accepted.size());
+        for (UserImportRecord record : accepted) {
+            users.add(record.getUser());
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                userImportDao.insertUsers(users);
+                publishCreated(users);
+                return null;
+            });
+            return users.size();
+        } catch (DataAccessException e) {
+            LOG.warn("Batch insert of {} users failed, retrying row by row", users.size(), e);
+        }
+
+        int inserted = 0;
+        for (UserImportRecord record : accepted) {
+            final UserEntity user = record.getUser();
+            try {
+                transactionTemplate.execute(status -> {
+                    userImportDao.insertUser(user);
+                    eventPublisher.publishEvent(new UserEvent(UserEvent.Type.CREATED, user.getUuid()));
+                    return null;
+                });
+                inserted++;
+            } catch (DataAccessException e) {
+                record.reject("IMP-004", "User could not be inserted, the username or email may have been taken concurrently");
+            }
+        }
+        return inserted;
+    }
+
+    private void publishCreated(final List<UserEntity> users) {
+        for (UserEntity user : users) {
+            eventPublisher.publishEvent(new UserEvent(UserEvent.Type.CREATED, user.getUuid()));
+        }
+    }
+}
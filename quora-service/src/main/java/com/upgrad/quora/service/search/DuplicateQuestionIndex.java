@@ -0,0 +1,210 @@
+package com.upgrad.quora.service.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class keeps an in-memory MinHash index of the content of the questions to find the near duplicates of a new
+ * question. The normalized content is split into overlapping shingles of "quora.duplicates.shingle-size" characters
+ * and summarized by a signature of bands x rows minimum hashes, whose share of equal values estimates the Jaccard
+ * similarity of the shingles of two questions. Locality-sensitive hashing buckets the questions by each band of their
+ * signature, so only the questions sharing a whole band with the new one are compared: with 16 bands of 4 rows, pairs
+ * above a similarity of about 0.5 are found with high probability and dissimilar pairs are rarely compared.
+ */
+@Component
+public class DuplicateQuestionIndex extends QuestionIndex<DuplicateQuestionIndex.Signatures> {
+    private static final Comparator<SimilarQuestion> MOST_SIMILAR = Comparator.comparingDouble(SimilarQuestion::getSimilarity).reversed();
+
+    @Value("${quora.duplicates.bands:16}")
+    private int bands;
+
+    @Value("${quora.duplicates.rows:4}")
+    private int rows;
+
+    @Value("${quora.duplicates.shingle-size:5}")
+    private int shingleSize;
+
+    @Value("${quora.duplicates.threshold:0.5}")
+    private double threshold;
+
+    @Value("${quora.duplicates.max-results:5}")
+    private int maxResults;
+
+    private long[] seeds;
+
+    @PostConstruct
+    public void init() {
+        // the seeds are fixed so that the signatures do not depend on the node or the start
+        Random random = new Random(0x5eed);
+        seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * This method returns the indexed questions whose estimated similarity to the content is at least
+     * "quora.duplicates.threshold", most similar first
+     * @param content content of the question
+     * @param excludedId id of a question not to return, e.g. the question itself, or null
+     * @return up to "quora.duplicates.max-results" similar questions
+     */
+    public List<SimilarQuestion> findSimilar(final String content, final Integer excludedId) {
+        int[] signature = signature(content);
+        if (signature == null) {
+            return Collections.emptyList();
+        }
+        return read(index -> {
+            Set<Integer> candidates = new HashSet<>();
+            for (int band = 0; band < bands; band++) {
+                int[] bucket = index.buckets.get(bandKey(signature, band));
+                if (bucket != null) {
+                    for (int id : bucket) {
+                        candidates.add(id);
+                    }
+                }
+            }
+            if (excludedId != null) {
+                candidates.remove(excludedId);
+            }
+
+            List<SimilarQuestion> similar = new ArrayList<>();
+            for (int id : candidates) {
+                double similarity = similarity(signature, index.signatures.get(id));
+                if (similarity >= threshold) {
+                    IndexedQuestion question = index.get(id);
+                    similar.add(new SimilarQuestion(question.getUuid(), question.getContent(), similarity));
+                }
+            }
+            similar.sort(MOST_SIMILAR);
+            return similar.size() > maxResults ? new ArrayList<>(similar.subList(0, maxResults)) : similar;
+        });
+    }
+
+    @Override
+    protected Signatures newState() {
+        return new Signatures();
+    }
+
+    /**
+     * This method computes the MinHash signature of the content
+     * @param content content
+     * @return signature, null if the content has no letter or digit
+     */
+    private int[] signature(final String content) {
+        String text = normalize(content);
+        if (text.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - shingleSize + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = hash(text, start, Math.min(text.length(), start + shingleSize));
+            for (int i = 0; i < seeds.length; i++) {
+                int value = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(final int[] signature, final int band) {
+        int hash = 1;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = 31 * hash + signature[i];
+        }
+        return ((long) band << 32) | (hash & 0xffffffffL);
+    }
+
+    private static double similarity(final int[] a, final int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long hash(final String text, final int start, final int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(final long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int[] concat(final int[] bucket, final int[] ids) {
+        int[] merged = Arrays.copyOf(bucket, bucket.length + ids.length);
+        System.arraycopy(ids, 0, merged, bucket.length, ids.length);
+        return merged;
+    }
+
+    private static int[] without(final int[] bucket, final int id) {
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i] == id) {
+                if (bucket.length == 1) {
+                    return null;
+                }
+                int[] removed = new int[bucket.length - 1];
+                System.arraycopy(bucket, 0, removed, 0, i);
+                System.arraycopy(bucket, i + 1, removed, i, bucket.length - i - 1);
+                return removed;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * This class holds the signatures of the questions and the buckets of question ids by band
+     */
+    final class Signatures extends QuestionIndex.State {
+        private final Map<Integer, int[]> signatures = new HashMap<>();
+        private final Map<Long, int[]> buckets = new HashMap<>();
+
+        @Override
+        protected void index(final IndexedQuestion question) {
+            int[] signature = signature(question.getContent());
+            if (signature == null) {
+                return;
+            }
+            signatures.put(question.getId(), signature);
+            for (int band = 0; band < bands; band++) {
+                buckets.merge(bandKey(signature, band), new int[]{question.getId()}, DuplicateQuestionIndex::concat);
+            }
+        }
+
+        @Override
+        protected void unindex(final IndexedQuestion question) {
+            int[] signature = signatures.remove(question.getId());
+            if (signature == null) {
+                return;
+            }
+            for (int band = 0; band < bands; band++) {
+                buckets.computeIfPresent(bandKey(signature, band), (key, bucket) -> without(bucket, question.getId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.upgrad.quora.service.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class turns text into hashed feature vectors. The words of the normalized text, except the most common English
+ * ones, and the pairs of consecutive words are hashed to one of the dimensions of the vector with a sign taken from
+ * the hash, so that the collisions cancel out on average instead of adding up.
+ */
+final class FeatureHasher {
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from", "has", "have",
+            "how", "i", "if", "in", "is", "it", "my", "of", "on", "or", "should", "so", "that", "the", "there", "this",
+            "to", "was", "we", "what", "when", "where", "which", "who", "why", "will", "with", "you", "your"));
+
+    private final int dimensions;
+
+    /**
+     * @param dimensions dimensions of the vectors
+     */
+    FeatureHasher(final int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * This method returns the hashed features of the text, one per occurrence of a term. A feature is the dimension
+     * shifted left by one, with the sign in the lowest bit.
+     * @param text text
+     * @return features
+     */
+    int[] features(final String text) {
+        String normalized = QuestionIndex.normalize(text);
+        if (normalized.isEmpty()) {
+            return new int[0];
+        }
+        String[] words = normalized.split(" ");
+        int[] features = new int[words.length * 2];
+        int count = 0;
+        String previous = null;
+        for (String word : words) {
+            if (STOP_WORDS.contains(word)) {
+                previous = null;
+                continue;
+            }
+            features[count++] = feature(word);
+            if (previous != null) {
+                features[count++] = feature(previous + ' ' + word);
+            }
+            previous = word;
+        }
+        return Arrays.copyOf(features, count);
+    }
+
+    /**
+     * This method adds the weighted features to the term counts
+     * @param counts term counts by dimension
+     * @param features features
+     * @param weight weight of every occurrence
+     */
+    void accumulate(final float[] counts, final int[] features, final float weight) {
+        for (int feature : features) {
+            counts[feature >>> 1] += (feature & 1) == 0 ? weight : -weight;
+        }
+    }
+
+    /**
+     * @return a vector of zero term counts
+     */
+    float[] newCounts() {
+        return new float[dimensions];
+    }
+
+    /**
+     * This method scales the term counts to a unit vector, with the logarithm of the counts so that a term repeated
+     * many times does not outweigh all the others
+     * @param counts term counts, which are overwritten
+     * @return unit vector, null if all the counts are zero
+     */
+    static float[] toUnitVector(final float[] counts) {
+        double norm = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (float) (Math.signum(counts[i]) * Math.log1p(Math.abs(counts[i])));
+            norm += counts[i] * counts[i];
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] *= scale;
+        }
+        return counts;
+    }
+
+    private int feature(final String term) {
+        int hash = term.hashCode() * 0x9e3779b9;
+        hash ^= hash >>> 16;
+        return (Math.floorMod(hash >>> 1, dimensions) << 1) | (hash & 1);
+    }
+}
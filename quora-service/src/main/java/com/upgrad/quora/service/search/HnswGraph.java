@@ -0,0 +1,377 @@
+package com.upgrad.quora.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is a hierarchical navigable small world graph for the approximate nearest neighbour search of unit
+ * vectors by cosine distance. Every node is linked on its levels to up to m of its nearest nodes (2m on level 0), chosen
+ * with the diversity heuristic of the original paper, and a search descends greedily from the sparse top level to
+ * level 0 where it explores the ef closest candidates.
+ * Nodes are linked concurrently: every node guards its own links and the entry point has a lock of its own. Removed
+ * nodes are only marked, they keep routing searches but are never returned.
+ */
+final class HnswGraph {
+    private static final Comparator<Scored> CLOSEST_FIRST = Comparator.comparingDouble(scored -> scored.distance);
+    private static final Comparator<Scored> FARTHEST_FIRST = CLOSEST_FIRST.reversed();
+    private static final ThreadLocal<Visited> VISITED = ThreadLocal.withInitial(Visited::new);
+
+    private final int m;
+    private final int efConstruction;
+    private final double levelFactor;
+
+    private final Object entryLock = new Object();
+    private Node entryPoint;
+
+    private Node[] nodes;
+    private int size;
+    private int removed;
+
+    /**
+     * @param m links of a node on its upper levels, twice as many on level 0
+     * @param efConstruction candidates explored when a node is linked
+     * @param capacity expected number of nodes
+     */
+    HnswGraph(final int m, final int efConstruction, final int capacity) {
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1 / Math.log(m);
+        this.nodes = new Node[Math.max(16, capacity)];
+    }
+
+    /**
+     * This method creates a node without linking it. It is not thread-safe.
+     * @param externalId id of the vector for the caller
+     * @param vector unit vector
+     * @return the node
+     */
+    Node allocate(final int externalId, final float[] vector) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int level = (int) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * levelFactor);
+        Node node = new Node(size, externalId, vector, level);
+        nodes[size++] = node;
+        return node;
+    }
+
+    /**
+     * This method links an allocated node into the graph. Nodes allocated beforehand may be linked concurrently.
+     * @param node node
+     */
+    void link(final Node node) {
+        Node entry;
+        synchronized (entryLock) {
+            entry = entryPoint;
+            if (entry == null) {
+                entryPoint = node;
+                return;
+            }
+        }
+
+        Scored current = new Scored(entry, distance(node.vector, entry.vector));
+        for (int level = entry.level; level > node.level; level--) {
+            current = greedy(node.vector, current, level);
+        }
+        for (int level = Math.min(node.level, entry.level); level >= 0; level--) {
+            List<Scored> candidates = searchLevel(node.vector, current, efConstruction, level);
+            List<Scored> selected = select(node.vector, candidates, maxLinks(level));
+            int[] links = new int[selected.size()];
+            for (int i = 0; i < links.length; i++) {
+                links[i] = selected.get(i).node.index;
+            }
+            node.setLinks(level, links);
+            for (Scored neighbour : selected) {
+                connect(neighbour.node, node, level);
+            }
+            current = candidates.get(0);
+        }
+
+        if (node.level > entry.level) {
+            synchronized (entryLock) {
+                if (node.level > entryPoint.level) {
+                    entryPoint = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method marks the node as removed
+     * @param node node
+     */
+    void remove(final Node node) {
+        if (!node.removed) {
+            node.removed = true;
+            removed++;
+        }
+    }
+
+    /**
+     * @return share of the nodes which are marked removed
+     */
+    double removedRatio() {
+        return size == 0 ? 0 : (double) removed / size;
+    }
+
+    /**
+     * This method returns the approximately nearest nodes to the vector which are not removed
+     * @param vector unit vector
+     * @param k number of nodes
+     * @param ef candidates explored on level 0, at least k
+     * @return up to k nodes with their distance, closest first
+     */
+    List<Scored> search(final float[] vector, final int k, final int ef) {
+        Node entry;
+        synchronized (entryLock) {
+            entry = entryPoint;
+        }
+        if (entry == null) {
+            return new ArrayList<>();
+        }
+        Scored current = new Scored(entry, distance(vector, entry.vector));
+        for (int level = entry.level; level > 0; level--) {
+            current = greedy(vector, current, level);
+        }
+        List<Scored> found = new ArrayList<>(k);
+        for (Scored candidate : searchLevel(vector, current, Math.max(ef, k), 0)) {
+            if (!candidate.node.removed) {
+                found.add(candidate);
+                if (found.size() == k) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private Scored greedy(final float[] vector, final Scored start, final int level) {
+        Scored current = start;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int index : current.node.getLinks(level)) {
+                Node neighbour = nodes[index];
+                double distance = distance(vector, neighbour.vector);
+                if (distance < current.distance) {
+                    current = new Scored(neighbour, distance);
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * This method explores a level from the entry and returns the ef closest nodes found, closest first
+     */
+    private List<Scored> searchLevel(final float[] vector, final Scored entry, final int ef, final int level) {
+        Visited visited = VISITED.get().reset(size);
+        visited.add(entry.node.index);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Scored> results = new PriorityQueue<>(FARTHEST_FIRST);
+        candidates.add(entry);
+        results.add(entry);
+        while (!candidates.isEmpty()) {
+            Scored candidate = candidates.poll();
+            if (results.size() >= ef && candidate.distance > results.peek().distance) {
+                break;
+            }
+            for (int index : candidate.node.getLinks(level)) {
+                if (!visited.add(index)) {
+                    continue;
+                }
+                Node neighbour = nodes[index];
+                double distance = distance(vector, neighbour.vector);
+                if (results.size() < ef || distance < results.peek().distance) {
+                    Scored scored = new Scored(neighbour, distance);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        List<Scored> closest = new ArrayList<>(results);
+        closest.sort(CLOSEST_FIRST);
+        return closest;
+    }
+
+    /**
+     * This method keeps the candidates, closest first, which are closer to the vector than to any candidate already
+     * kept, so that the links point in different directions, and fills the remaining links with the closest others
+     */
+    private List<Scored> select(final float[] vector, final List<Scored> candidates, final int max) {
+        List<Scored> selected = new ArrayList<>(max);
+        List<Scored> pruned = new ArrayList<>();
+        for (Scored candidate : candidates) {
+            if (selected.size() == max) {
+                break;
+            }
+            boolean diverse = true;
+            for (Scored kept : selected) {
+                if (distance(candidate.node.vector, kept.node.vector) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void connect(final Node from, final Node to, final int level) {
+        synchronized (from) {
+            int[] links = from.links[level];
+            for (int index : links) {
+                if (index == to.index) {
+                    return;
+                }
+            }
+            int max = maxLinks(level);
+            if (links.length < max) {
+                int[] added = Arrays.copyOf(links, links.length + 1);
+                added[links.length] = to.index;
+                from.links[level] = added;
+                return;
+            }
+            List<Scored> candidates = new ArrayList<>(links.length + 1);
+            candidates.add(new Scored(to, distance(from.vector, to.vector)));
+            for (int index : links) {
+                candidates.add(new Scored(nodes[index], distance(from.vector, nodes[index].vector)));
+            }
+            candidates.sort(CLOSEST_FIRST);
+            List<Scored> selected = select(from.vector, candidates, max);
+            int[] kept = new int[selected.size()];
+            for (int i = 0; i < kept.length; i++) {
+                kept[i] = selected.get(i).node.index;
+            }
+            from.links[level] = kept;
+        }
+    }
+
+    private int maxLinks(final int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private static double distance(final float[] a, final float[] b) {
+        // independent sums let the products be computed in parallel
+        float dot0 = 0;
+        float dot1 = 0;
+        float dot2 = 0;
+        float dot3 = 0;
+        int i = 0;
+        for (; i + 3 < a.length; i += 4) {
+            dot0 += a[i] * b[i];
+            dot1 += a[i + 1] * b[i + 1];
+            dot2 += a[i + 2] * b[i + 2];
+            dot3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            dot0 += a[i] * b[i];
+        }
+        return 1 - (dot0 + dot1 + dot2 + dot3);
+    }
+
+    /**
+     * This class is the set of the nodes visited by a search of the calling thread. A node is visited when its mark
+     * equals the mark of the current search, so that the set is cleared by a new mark instead of a new array.
+     */
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int mark;
+
+        private Visited reset(final int size) {
+            if (marks.length < size) {
+                marks = new int[Math.max(size, marks.length * 2)];
+                mark = 0;
+            }
+            if (++mark == 0) {
+                Arrays.fill(marks, 0);
+                mark = 1;
+            }
+            return this;
+        }
+
+        private boolean add(final int index) {
+            if (index >= marks.length) {
+                marks = Arrays.copyOf(marks, Math.max(index + 1, marks.length * 2));
+            }
+            if (marks[index] == mark) {
+                return false;
+            }
+            marks[index] = mark;
+            return true;
+        }
+    }
+
+    /**
+     * This class is a vector of the graph with its links on every level
+     */
+    static final class Node {
+        private final int index;
+        private final int externalId;
+        private final float[] vector;
+        private final int level;
+        private final int[][] links;
+        private volatile boolean removed;
+
+        private Node(final int index, final int externalId, final float[] vector, final int level) {
+            this.index = index;
+            this.externalId = externalId;
+            this.vector = vector;
+            this.level = level;
+            this.links = new int[level + 1][];
+            Arrays.fill(links, new int[0]);
+        }
+
+        int getExternalId() {
+            return externalId;
+        }
+
+        float[] getVector() {
+            return vector;
+        }
+
+        private synchronized int[] getLinks(final int level) {
+            return links[level];
+        }
+
+        private synchronized void setLinks(final int level, final int[] levelLinks) {
+            links[level] = levelLinks;
+        }
+    }
+
+    /**
+     * This class is a node with its distance to the searched vector
+     */
+    static final class Scored {
+        private final Node node;
+        private final double distance;
+
+        private Scored(final Node node, final double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+
+        Node getNode() {
+            return node;
+        }
+
+        double getDistance() {
+            return distance;
+        }
+    }
+}
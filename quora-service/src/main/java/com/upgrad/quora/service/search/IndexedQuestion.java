@@ -0,0 +1,34 @@
+package com.upgrad.quora.service.search;
+
+/**
+ * This class holds what the in-memory indexes keep of a question
+ */
+final class IndexedQuestion {
+    private final int id;
+    private final String uuid;
+    private final String content;
+    private final String userUuid;
+
+    IndexedQuestion(final int id, final String uuid, final String content, final String userUuid) {
+        this.id = id;
+        this.uuid = uuid;
+        this.content = content;
+        this.userUuid = userUuid;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getUuid() {
+        return uuid;
+    }
+
+    String getContent() {
+        return content;
+    }
+
+    String getUserUuid() {
+        return userUuid;
+    }
+}
@@ -0,0 +1,293 @@
+package com.upgrad.quora.service.search;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This class is a compressed prefix tree (radix tree) of keys which map to int ids. Chains of nodes with a single child
+ * are merged into one node labelled with the whole chain, and the children and ids of a node are held in plain arrays.
+ * Every node keeps the highest ids found below it, so that the top ids for a prefix are read from the node the prefix
+ * ends in without visiting the subtree.
+ * The tree is not thread-safe.
+ */
+final class PrefixTrie {
+    private static final int[] NO_IDS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topK;
+    private final Node root = new Node("");
+
+    /**
+     * @param topK number of ids kept for every prefix
+     */
+    PrefixTrie(final int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * This method maps the key to the id
+     * @param key key
+     * @param id id
+     */
+    void add(final String key, final int id) {
+        Node[] path = new Node[key.length() + 1];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                path[depth++] = node;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                split.top = child.top;
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            path[depth++] = node;
+            i += common;
+        }
+        node.ids = insert(node.ids, id);
+        for (int d = depth - 1; d >= 0; d--) {
+            path[d].top = offer(path[d].top, id);
+        }
+    }
+
+    /**
+     * This method removes the mapping of the key to the id
+     * @param key key
+     * @param id id
+     */
+    void remove(final String key, final int id) {
+        Node[] path = new Node[key.length() + 1];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            node = node.children[index];
+            if (!key.startsWith(node.label, i)) {
+                return;
+            }
+            path[depth++] = node;
+            i += node.label.length();
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position < 0) {
+            return;
+        }
+        node.ids = delete(node.ids, position);
+
+        for (int d = depth - 1; d > 0; d--) {
+            Node current = path[d];
+            Node parent = path[d - 1];
+            if (current.ids.length == 0 && current.children.length == 0) {
+                parent.removeChild(current);
+                continue;
+            }
+            if (current.ids.length == 0 && current.children.length == 1) {
+                Node child = current.children[0];
+                child.label = current.label + child.label;
+                parent.children[parent.childIndex(child.label.charAt(0))] = child;
+                continue;
+            }
+            current.top = collectTop(current);
+        }
+        root.top = collectTop(root);
+    }
+
+    /**
+     * This method returns the highest ids mapped from the keys which begin with the prefix
+     * @param prefix prefix of the keys
+     * @return up to topK ids, highest first; the array must not be modified
+     */
+    int[] top(final String prefix) {
+        Node node = find(prefix);
+        return node == null ? NO_IDS : node.top;
+    }
+
+    /**
+     * This method returns all the ids mapped from the keys which begin with the prefix. Unlike top it visits the whole
+     * subtree of the prefix.
+     * @param prefix prefix of the keys
+     * @return distinct ids, highest first
+     */
+    int[] all(final String prefix) {
+        Node node = find(prefix);
+        if (node == null) {
+            return NO_IDS;
+        }
+        IntStream.Builder builder = IntStream.builder();
+        collect(node, builder);
+        int[] ids = builder.build().distinct().sorted().toArray();
+        for (int low = 0, high = ids.length - 1; low < high; low++, high--) {
+            int id = ids[low];
+            ids[low] = ids[high];
+            ids[high] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * This method returns the node the prefix ends in, or within the label of, or null when no key begins with it
+     */
+    private Node find(final String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            int common = commonPrefix(node.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return node;
+            }
+            if (common < node.label.length()) {
+                return null;
+            }
+            i += common;
+        }
+        return node;
+    }
+
+    private static void collect(final Node node, final IntStream.Builder builder) {
+        for (int id : node.ids) {
+            builder.add(id);
+        }
+        for (Node child : node.children) {
+            collect(child, builder);
+        }
+    }
+
+    private int[] collectTop(final Node node) {
+        int[] top = NO_IDS;
+        for (int i = node.ids.length - 1; i >= 0 && top.length < topK; i--) {
+            top = offer(top, node.ids[i]);
+        }
+        for (Node child : node.children) {
+            for (int id : child.top) {
+                top = offer(top, id);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * This method adds the id to the descending top ids if it is not there yet and is among the topK highest
+     */
+    private int[] offer(final int[] top, final int id) {
+        int position = 0;
+        while (position < top.length && top[position] > id) {
+            position++;
+        }
+        if (position == topK || position < top.length && top[position] == id) {
+            return top;
+        }
+        int length = Math.min(top.length + 1, topK);
+        int[] offered = new int[length];
+        System.arraycopy(top, 0, offered, 0, position);
+        offered[position] = id;
+        System.arraycopy(top, position, offered, position + 1, length - position - 1);
+        return offered;
+    }
+
+    private static int[] insert(final int[] ids, final int id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        int[] inserted = new int[ids.length + 1];
+        System.arraycopy(ids, 0, inserted, 0, position);
+        inserted[position] = id;
+        System.arraycopy(ids, position, inserted, position + 1, ids.length - position);
+        return inserted;
+    }
+
+    private static int[] delete(final int[] ids, final int position) {
+        if (ids.length == 1) {
+            return NO_IDS;
+        }
+        int[] deleted = new int[ids.length - 1];
+        System.arraycopy(ids, 0, deleted, 0, position);
+        System.arraycopy(ids, position + 1, deleted, position, ids.length - position - 1);
+        return deleted;
+    }
+
+    private static int commonPrefix(final String label, final String key, final int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int[] ids = NO_IDS;
+        private int[] top = NO_IDS;
+
+        private Node(final String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return index of the child whose label begins with the character, or (-(insertion point) - 1)
+         */
+        private int childIndex(final char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label.charAt(0);
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void insertChild(final int index, final Node child) {
+            Node[] inserted = new Node[children.length + 1];
+            System.arraycopy(children, 0, inserted, 0, index);
+            inserted[index] = child;
+            System.arraycopy(children, index, inserted, index + 1, children.length - index);
+            children = inserted;
+        }
+
+        private void removeChild(final Node child) {
+            int index = childIndex(child.label.charAt(0));
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            Node[] removed = new Node[children.length - 1];
+            System.arraycopy(children, 0, removed, 0, index);
+            System.arraycopy(children, index + 1, removed, index, children.length - index - 1);
+            children = removed;
+        }
+    }
+}
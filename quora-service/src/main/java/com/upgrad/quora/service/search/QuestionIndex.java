@@ -0,0 +1,282 @@
+package com.upgrad.quora.service.search;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class is the base of the in-memory indexes of the questions. An index is built from the database when the
+ * application context is refreshed and is then updated from the events published by the business services once their
+ * transaction commits. The changes committed while the index is rebuilt are applied to the new index before it
+ * replaces the current one, which keeps serving meanwhile. The questions of a deleted User leave the index at once.
+ * The class is public so that its listener methods are inherited without the bridge methods which hide them from the
+ * event listener detection.
+ * @param <S> the index itself, which is only accessed under the lock of this class
+ */
+public abstract class QuestionIndex<S extends QuestionIndex.State> {
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionIndex.class);
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private S state;
+
+    private List<Consumer<S>> pending;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void initIndex() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        state = newState();
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getQuestionId() == null) {
+            return;
+        }
+        if (event.getType() == QuestionEvent.Type.DELETED) {
+            update(current -> current.remove(event.getQuestionId()));
+        } else {
+            update(current -> current.add(new IndexedQuestion(event.getQuestionId(), event.getQuestionUuid(), event.getContent(), event.getUserUuid())));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED && event.getUserUuid() != null) {
+            update(current -> current.removeUser(event.getUserUuid()));
+        }
+    }
+
+    /**
+     * This method replaces the index with one built from all the questions in the database
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        S rebuilt = newState();
+        try {
+            long start = System.nanoTime();
+            List<QuestionEntity> entities = inReadOnlyTransaction(questionDao::getAllQuestionSuggestions);
+            List<IndexedQuestion> questions = new ArrayList<>(entities.size());
+            for (QuestionEntity question : entities) {
+                UserEntity user = question.getUserId();
+                questions.add(new IndexedQuestion(question.getId(), question.getUuid(), question.getContent(), user == null ? null : user.getUuid()));
+            }
+            load(rebuilt, questions);
+            LOG.info("Built the {} of {} questions in {} ms", getClass().getSimpleName(), questions.size(), (System.nanoTime() - start) / 1000000);
+        } catch (RuntimeException e) {
+            LOG.warn("The {} could not be built, serving the incremental index", getClass().getSimpleName(), e);
+            rebuilt = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilt != null) {
+                for (Consumer<S> change : pending) {
+                    change.accept(rebuilt);
+                }
+                state = rebuilt;
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method reads the index under the read lock
+     * @param reader reads the index
+     * @return what the reader returned
+     */
+    protected <R> R read(final Function<S, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a new empty index
+     */
+    protected abstract S newState();
+
+    /**
+     * This method fills a new index with all the questions of the database. The index is not shared yet, so it may
+     * be filled from several threads.
+     * @param index new index
+     * @param questions questions of the database
+     */
+    protected void load(final S index, final List<IndexedQuestion> questions) {
+        for (IndexedQuestion question : questions) {
+            index.add(question);
+        }
+    }
+
+    /**
+     * This method runs the reader in a read-only transaction
+     * @param reader reads the database
+     * @return what the reader returned
+     */
+    protected <R> R inReadOnlyTransaction(final Supplier<R> reader) {
+        return transactionTemplate.execute(status -> reader.get());
+    }
+
+    /**
+     * This method applies a change to the index under the write lock, and to the index being rebuilt if any
+     * @param change change
+     */
+    protected void update(final Consumer<S> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method lower cases the text, strips its accents and replaces every run of other characters than letters
+     * and digits by a single space
+     * @param text text
+     * @return normalized text
+     */
+    static String normalize(final String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * This class is an index of the questions by id, to which the subclasses add their own structures
+     */
+    abstract static class State {
+        private final Map<Integer, IndexedQuestion> questions = new HashMap<>();
+
+        /**
+         * @param id id of the question
+         * @return the question, null if it is not indexed
+         */
+        IndexedQuestion get(final int id) {
+            return questions.get(id);
+        }
+
+        /**
+         * This method indexes the question, in place of its previous version if it is already indexed
+         * @param question question
+         */
+        final void add(final IndexedQuestion question) {
+            IndexedQuestion existing = questions.get(question.getId());
+            IndexedQuestion added = question;
+            if (existing != null && question.getUserUuid() == null) {
+                added = new IndexedQuestion(question.getId(), question.getUuid(), question.getContent(), existing.getUserUuid());
+            }
+            remove(question.getId());
+            questions.put(added.getId(), added);
+            index(added);
+        }
+
+        /**
+         * This method removes the question from the index
+         * @param id id of the question
+         */
+        final void remove(final int id) {
+            IndexedQuestion question = questions.remove(id);
+            if (question != null) {
+                unindex(question);
+            }
+        }
+
+        /**
+         * This method removes the questions of the User from the index
+         * @param userUuid uuid of the User
+         */
+        final void removeUser(final String userUuid) {
+            List<Integer> ids = new ArrayList<>();
+            for (IndexedQuestion question : questions.values()) {
+                if (userUuid.equals(question.getUserUuid())) {
+                    ids.add(question.getId());
+                }
+            }
+            for (int id : ids) {
+                remove(id);
+            }
+        }
+
+        /**
+         * This method adds the question to the structures of the index
+         * @param question question
+         */
+        protected abstract void index(IndexedQuestion question);
+
+        /**
+         * This method removes the question from the structures of the index
+         * @param question question as it was indexed
+         */
+        protected abstract void unindex(IndexedQuestion question);
+    }
+}
@@ -0,0 +1,120 @@
+package com.upgrad.quora.service.search;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class keeps an in-memory prefix index of the content of the questions for the typeahead suggestions. The
+ * content is normalized to lower case letters and digits separated by single spaces, and is indexed from its
+ * beginning and from the beginning of each of its first words, up to "quora.suggest.max-key-length" characters.
+ * The newest questions are suggested first.
+ */
+@Component
+public class QuestionSuggestIndex extends QuestionIndex<QuestionSuggestIndex.Suggestions> {
+
+    @Value("${quora.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${quora.suggest.indexed-words:10}")
+    private int indexedWords;
+
+    @Value("${quora.suggest.max-key-length:48}")
+    private int maxKeyLength;
+
+    /**
+     * This method returns the newest questions whose content, or one of its indexed words, begins with the prefix.
+     * The prefix is normalized like the content. A prefix longer than "quora.suggest.max-key-length" is looked up by its
+     * cut key and every question under that key is checked against the whole prefix, newest first.
+     * @param prefix prefix typed so far
+     * @param limit maximum number of questions, capped at "quora.suggest.max-results"
+     * @return questions carrying their UUID and content, newest first
+     */
+    public List<QuestionEntity> suggest(final String prefix, final int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        boolean truncated = normalized.length() > maxKeyLength;
+        String key = truncated ? normalized.substring(0, maxKeyLength) : normalized;
+        int count = Math.min(limit, maxResults);
+
+        return read(index -> {
+            List<QuestionEntity> suggestions = new ArrayList<>(count);
+            // the top ids of a cut key may all fail the check of the whole prefix, so all the ids of the key are walked
+            int[] ids = truncated ? index.trie.all(key) : index.trie.top(key);
+            for (int id : ids) {
+                IndexedQuestion indexed = index.get(id);
+                // a prefix longer than the indexed keys is checked against the whole content
+                if (truncated && !matches(normalize(indexed.getContent()), normalized)) {
+                    continue;
+                }
+                QuestionEntity question = new QuestionEntity();
+                question.setUuid(indexed.getUuid());
+                question.setContent(indexed.getContent());
+                suggestions.add(question);
+                if (suggestions.size() == count) {
+                    break;
+                }
+            }
+            return suggestions;
+        });
+    }
+
+    @Override
+    protected Suggestions newState() {
+        return new Suggestions();
+    }
+
+    /**
+     * This method returns the keys the content is indexed under: the content and each of its words up to the end of
+     * the content, cut to the maximum length of the keys
+     */
+    private Set<String> keys(final String content) {
+        String normalized = normalize(content);
+        Set<String> keys = new LinkedHashSet<>();
+        int words = 0;
+        int start = 0;
+        while (start < normalized.length() && words < indexedWords) {
+            keys.add(normalized.substring(start, Math.min(normalized.length(), start + maxKeyLength)));
+            words++;
+            int space = normalized.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    private static boolean matches(final String content, final String prefix) {
+        return content.startsWith(prefix) || content.contains(" " + prefix);
+    }
+
+    /**
+     * This class is the prefix tree of the keys of the questions
+     */
+    final class Suggestions extends QuestionIndex.State {
+        private final PrefixTrie trie = new PrefixTrie(maxResults);
+
+        @Override
+        protected void index(final IndexedQuestion question) {
+            for (String key : keys(question.getContent())) {
+                trie.add(key, question.getId());
+            }
+        }
+
+        @Override
+        protected void unindex(final IndexedQuestion question) {
+            for (String key : keys(question.getContent())) {
+                trie.remove(key, question.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.upgrad.quora.service.search;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * This class keeps an in-memory approximate nearest neighbour index of the questions to find the questions related to
+ * a question. Every question is a hashed feature vector of the terms of its content, weighted by
+ * "quora.related.question-weight", and of the terms of its answers, and the vectors are linked in a hierarchical
+ * navigable small world graph searched by cosine similarity.
+ * The graph is built in parallel on "quora.related.build-threads" threads. A question whose content or answers change
+ * is linked again as a new node and its previous node is marked removed; once the removed nodes exceed
+ * "quora.related.compaction-ratio" of the graph, the index is rebuilt.
+ */
+@Component
+public class RelatedQuestionIndex extends QuestionIndex<RelatedQuestionIndex.Related> {
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Value("${quora.related.dimensions:128}")
+    private int dimensions;
+
+    @Value("${quora.related.m:16}")
+    private int m;
+
+    @Value("${quora.related.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${quora.related.ef-search:64}")
+    private int efSearch;
+
+    @Value("${quora.related.question-weight:2.0}")
+    private float questionWeight;
+
+    @Value("${quora.related.max-results:10}")
+    private int maxResults;
+
+    @Value("${quora.related.build-threads:0}")
+    private int buildThreads;
+
+    @Value("${quora.related.compaction-ratio:0.25}")
+    private double compactionRatio;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswerEvent(final AnswerEvent event) {
+        if (event.getAnswerId() == null) {
+            return;
+        }
+        if (event.getType() == AnswerEvent.Type.DELETED) {
+            update(current -> current.removeAnswer(event.getAnswerId()));
+        } else if (event.getQuestionId() != null) {
+            update(current -> current.putAnswer(event.getAnswerId(), event.getQuestionId(), event.getContent()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionDeleted(final QuestionEvent event) {
+        // the answers of a deleted question are deleted by the database, without events
+        if (event.getType() == QuestionEvent.Type.DELETED && event.getQuestionId() != null) {
+            update(current -> current.removeAnswersOf(event.getQuestionId()));
+        }
+    }
+
+    /**
+     * This method rebuilds the index once too many of its nodes are marked removed
+     */
+    @Scheduled(fixedDelayString = "${quora.related.compaction-interval-ms:300000}",
+            initialDelayString = "${quora.related.compaction-interval-ms:300000}")
+    public void compact() {
+        if (read(index -> index.graph.removedRatio()) > compactionRatio) {
+            rebuild();
+        }
+    }
+
+    /**
+     * This method returns the questions whose content and answers are the most similar to those of the question
+     * @param questionId id of the question
+     * @param limit maximum number of questions, capped at "quora.related.max-results"
+     * @return related questions, most similar first
+     */
+    public List<SimilarQuestion> findRelated(final int questionId, final int limit) {
+        int count = Math.min(limit, maxResults);
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        return read(index -> {
+            HnswGraph.Node node = index.nodes.get(questionId);
+            if (node == null) {
+                return Collections.<SimilarQuestion>emptyList();
+            }
+            List<SimilarQuestion> related = new ArrayList<>(count);
+            for (HnswGraph.Scored scored : index.graph.search(node.getVector(), count + 1, efSearch)) {
+                IndexedQuestion question = index.get(scored.getNode().getExternalId());
+                if (scored.getNode() != node && question != null && related.size() < count) {
+                    related.add(new SimilarQuestion(question.getUuid(), question.getContent(), 1 - scored.getDistance()));
+                }
+            }
+            return related;
+        });
+    }
+
+    @Override
+    protected Related newState() {
+        return new Related(0);
+    }
+
+    @Override
+    protected void load(final Related index, final List<IndexedQuestion> questions) {
+        List<AnswerEntity> answers = inReadOnlyTransaction(answerDao::getAllAnswerTexts);
+        index.bulkLoad(questions, answers);
+    }
+
+    /**
+     * This class is the graph of the question vectors with the features of the answers of every question
+     */
+    final class Related extends QuestionIndex.State {
+        private final FeatureHasher hasher = new FeatureHasher(dimensions);
+        private final HnswGraph graph;
+        private final Map<Integer, HnswGraph.Node> nodes = new HashMap<>();
+        private final Map<Integer, AnswerFeatures> answers = new HashMap<>();
+        private final Map<Integer, int[]> answersByQuestion = new HashMap<>();
+        private boolean bulk;
+
+        private Related(final int capacity) {
+            graph = new HnswGraph(m, efConstruction, capacity);
+        }
+
+        @Override
+        protected void index(final IndexedQuestion question) {
+            if (bulk) {
+                return;
+            }
+            float[] vector = vector(question);
+            if (vector != null) {
+                HnswGraph.Node node = graph.allocate(question.getId(), vector);
+                graph.link(node);
+                nodes.put(question.getId(), node);
+            }
+        }
+
+        @Override
+        protected void unindex(final IndexedQuestion question) {
+            HnswGraph.Node node = nodes.remove(question.getId());
+            if (node != null) {
+                graph.remove(node);
+            }
+        }
+
+        private void putAnswer(final int answerId, final int questionId, final String text) {
+            AnswerFeatures previous = answers.put(answerId, new AnswerFeatures(questionId, hasher.features(text)));
+            if (previous == null) {
+                int[] ids = answersByQuestion.getOrDefault(questionId, new int[0]);
+                int[] added = Arrays.copyOf(ids, ids.length + 1);
+                added[ids.length] = answerId;
+                answersByQuestion.put(questionId, added);
+            }
+            reindex(questionId);
+        }
+
+        private void removeAnswer(final int answerId) {
+            AnswerFeatures removed = answers.remove(answerId);
+            if (removed == null) {
+                return;
+            }
+            int[] ids = answersByQuestion.get(removed.questionId);
+            if (ids != null) {
+                int[] kept = Arrays.stream(ids).filter(id -> id != answerId).toArray();
+                if (kept.length == 0) {
+                    answersByQuestion.remove(removed.questionId);
+                } else {
+                    answersByQuestion.put(removed.questionId, kept);
+                }
+            }
+            reindex(removed.questionId);
+        }
+
+        private void removeAnswersOf(final int questionId) {
+            int[] ids = answersByQuestion.remove(questionId);
+            if (ids != null) {
+                for (int id : ids) {
+                    answers.remove(id);
+                }
+            }
+        }
+
+        private void reindex(final int questionId) {
+            IndexedQuestion question = get(questionId);
+            if (question != null) {
+                unindex(question);
+                index(question);
+            }
+        }
+
+        private float[] vector(final IndexedQuestion question) {
+            float[] counts = hasher.newCounts();
+            hasher.accumulate(counts, hasher.features(question.getContent()), questionWeight);
+            int[] ids = answersByQuestion.get(question.getId());
+            if (ids != null) {
+                for (int id : ids) {
+                    hasher.accumulate(counts, answers.get(id).features, 1);
+                }
+            }
+            return FeatureHasher.toUnitVector(counts);
+        }
+
+        /**
+         * This method fills the new index: the features and vectors are computed and the nodes linked in parallel
+         */
+        private void bulkLoad(final List<IndexedQuestion> questions, final List<AnswerEntity> answerEntities) {
+            bulk = true;
+            for (IndexedQuestion question : questions) {
+                add(question);
+            }
+            bulk = false;
+
+            ForkJoinPool pool = buildThreads > 0 ? new ForkJoinPool(buildThreads) : ForkJoinPool.commonPool();
+            try {
+                AnswerFeatures[] features = new AnswerFeatures[answerEntities.size()];
+                pool.submit(() -> IntStream.range(0, features.length).parallel().forEach(i -> {
+                    AnswerEntity answer = answerEntities.get(i);
+                    features[i] = new AnswerFeatures(answer.getQuestion().getId(), hasher.features(answer.getAnswer()));
+                })).join();
+                Map<Integer, List<Integer>> byQuestion = new HashMap<>();
+                for (int i = 0; i < features.length; i++) {
+                    int answerId = answerEntities.get(i).getId();
+                    answers.put(answerId, features[i]);
+                    byQuestion.computeIfAbsent(features[i].questionId, id -> new ArrayList<>()).add(answerId);
+                }
+                for (Map.Entry<Integer, List<Integer>> entry : byQuestion.entrySet()) {
+                    answersByQuestion.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+                }
+
+                float[][] vectors = new float[questions.size()][];
+                pool.submit(() -> IntStream.range(0, vectors.length).parallel().forEach(i -> vectors[i] = vector(questions.get(i)))).join();
+                List<HnswGraph.Node> allocated = new ArrayList<>(questions.size());
+                for (int i = 0; i < vectors.length; i++) {
+                    if (vectors[i] != null) {
+                        HnswGraph.Node node = graph.allocate(questions.get(i).getId(), vectors[i]);
+                        nodes.put(node.getExternalId(), node);
+                        allocated.add(node);
+                    }
+                }
+                if (!allocated.isEmpty()) {
+                    // the first node becomes the entry point before the others are linked concurrently
+                    graph.link(allocated.get(0));
+                    pool.submit(() -> allocated.subList(1, allocated.size()).parallelStream().forEach(graph::link)).join();
+                }
+            } finally {
+                if (pool != ForkJoinPool.commonPool()) {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static final class AnswerFeatures {
+        private final int questionId;
+        private final int[] features;
+
+        private AnswerFeatures(final int questionId, final int[] features) {
+            this.questionId = questionId;
+            this.features = features;
+        }
+    }
+}
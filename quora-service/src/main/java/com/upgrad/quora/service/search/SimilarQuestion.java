@@ -0,0 +1,31 @@
+package com.upgrad.quora.service.search;
+
+/**
+ * This class holds a question found similar to another one, with the estimated similarity of the two
+ */
+public final class SimilarQuestion {
+    private final String uuid;
+    private final String content;
+    private final double similarity;
+
+    public SimilarQuestion(final String uuid, final String content, final double similarity) {
+        this.uuid = uuid;
+        this.content = content;
+        this.similarity = similarity;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return similarity between 0 and 1, 1 for questions with the same content
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+}
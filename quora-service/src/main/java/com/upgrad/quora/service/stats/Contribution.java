@@ -0,0 +1,30 @@
+package com.upgrad.quora.service.stats;
+
+/**
+ * This enum lists the contributions of the Users for which the top contributors are ranked
+ */
+public enum Contribution {
+    QUESTIONS("askers", "getQuestionUserUuids"), ANSWERS("answerers", "getAnswerUserUuids");
+
+    private final String sketchName;
+    private final String userUuidsQuery;
+
+    Contribution(final String sketchName, final String userUuidsQuery) {
+        this.sketchName = sketchName;
+        this.userUuidsQuery = userUuidsQuery;
+    }
+
+    /**
+     * @return name under which the sketch of the contribution is persisted
+     */
+    public String getSketchName() {
+        return sketchName;
+    }
+
+    /**
+     * @return named query which selects the uuid of the author of every contribution, once per contribution
+     */
+    public String getUserUuidsQuery() {
+        return userUuidsQuery;
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.quora.service.stats;
+
+import java.util.List;
+
+/**
+ * This class holds the top contributors of a contribution with the error bound of their counts
+ */
+public final class ContributorRanking {
+    private final List<RankedContributor> contributors;
+    private final long maxOvercount;
+
+    public ContributorRanking(final List<RankedContributor> contributors, final long maxOvercount) {
+        this.contributors = contributors;
+        this.maxOvercount = maxOvercount;
+    }
+
+    /**
+     * @return top contributors, most contributing first
+     */
+    public List<RankedContributor> getContributors() {
+        return contributors;
+    }
+
+    /**
+     * @return amount by which a count exceeds the exact number of contributions at most, with the probability
+     * configured by "quora.contributors.delta"
+     */
+    public long getMaxOvercount() {
+        return maxOvercount;
+    }
+}
@@ -0,0 +1,283 @@
+package com.upgrad.quora.service.stats;
+
+import com.upgrad.quora.service.dao.ContributorSketchDao;
+import com.upgrad.quora.service.entity.ContributorSketchEntity;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class ranks the Users who posted the most questions and the most answers. Every question and answer committed is
+ * counted in a count-min sketch per contribution, whose size depends on "quora.contributors.epsilon" and
+ * "quora.contributors.delta" and not on the number of Users, and the Users with the highest estimates are kept as
+ * candidates for the rankings. The counts are periodically added to the persisted sketches under a row lock, so that
+ * the rankings survive restarts and count the contributions received by every node. A sketch which was never persisted
+ * is seeded once from a scan of the existing questions or answers by the first node to start, which claims its row; the
+ * nodes starting meanwhile wait for the seed and start from it. Deletions are not counted down.
+ */
+@Component
+public class ContributorRankings {
+    private static final Logger LOG = LoggerFactory.getLogger(ContributorRankings.class);
+
+    @Autowired
+    private ContributorSketchDao contributorSketchDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.contributors.epsilon:0.0001}")
+    private double epsilon;
+
+    @Value("${quora.contributors.delta:0.01}")
+    private double delta;
+
+    @Value("${quora.contributors.candidates:100}")
+    private int candidates;
+
+    @Value("${quora.contributors.max-results:10}")
+    private int maxResults;
+
+    private final Map<Contribution, HeavyHitters> rankings = new EnumMap<>(Contribution.class);
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        for (Contribution contribution : Contribution.values()) {
+            rankings.put(contribution, new HeavyHitters(new CountMinSketch(epsilon, delta), candidates));
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        Map<Contribution, long[]> bases = new EnumMap<>(Contribution.class);
+        Map<Contribution, long[]> included = new EnumMap<>(Contribution.class);
+        Map<Contribution, List<String>> persistedCandidates = new EnumMap<>(Contribution.class);
+        try {
+            transactionTemplate.execute(status -> {
+                // the sketches are locked in the same order as when they are persisted
+                for (Contribution contribution : Contribution.values()) {
+                    CountMinSketch sketch = rankings.get(contribution).getSketch();
+                    boolean claimed = contributorSketchDao.claimSketch(contribution.getSketchName(), sketch.getDepth(), sketch.getWidth(),
+                            CountMinSketch.encode(new long[sketch.getDepth() * sketch.getWidth()]), ZonedDateTime.now());
+                    ContributorSketchEntity persisted = contributorSketchDao.getSketchForUpdate(contribution.getSketchName());
+                    if (claimed || !fits(persisted, sketch)) {
+                        // the events received before the scan are counted by the scan, those received during it may be counted twice
+                        included.put(contribution, sketch.added());
+                        persistedCandidates.put(contribution, seed(contribution, persisted));
+                    } else {
+                        // the counts of the events received before the startup completed are kept on top of the persisted ones
+                        persistedCandidates.put(contribution, existing(candidates(persisted)));
+                    }
+                    bases.put(contribution, decode(persisted));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("The persisted contributor sketches could not be read, the top contributors start empty", e);
+            return;
+        }
+        for (Contribution contribution : Contribution.values()) {
+            HeavyHitters ranking = rankings.get(contribution);
+            ranking.getSketch().rebase(bases.get(contribution), included.get(contribution));
+            ranking.reconsider(persistedCandidates.get(contribution));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getType() == QuestionEvent.Type.CREATED && event.getUserUuid() != null) {
+            rankings.get(Contribution.QUESTIONS).add(event.getUserUuid());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswerEvent(final AnswerEvent event) {
+        if (event.getType() == AnswerEvent.Type.CREATED && event.getUserUuid() != null) {
+            rankings.get(Contribution.ANSWERS).add(event.getUserUuid());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED && event.getUserUuid() != null) {
+            for (HeavyHitters ranking : rankings.values()) {
+                ranking.remove(event.getUserUuid());
+            }
+        }
+    }
+
+    /**
+     * This method adds the counts received since the last persistence to the persisted sketches, which the other nodes
+     * may have added their counts to meanwhile, and continues from the merged sketches
+     */
+    @Scheduled(fixedDelayString = "${quora.contributors.persist-interval-ms:300000}",
+            initialDelayString = "${quora.contributors.persist-interval-ms:300000}")
+    public void persist() {
+        Map<Contribution, long[]> included = new EnumMap<>(Contribution.class);
+        Map<Contribution, long[]> merged = new EnumMap<>(Contribution.class);
+        Map<Contribution, List<String>> persistedCandidates = new EnumMap<>(Contribution.class);
+        try {
+            transactionTemplate.execute(status -> {
+                // the sketches are always locked in the same order, so that two nodes persisting at once do not deadlock
+                for (Contribution contribution : Contribution.values()) {
+                    CountMinSketch sketch = rankings.get(contribution).getSketch();
+                    ContributorSketchEntity persisted = contributorSketchDao.getSketchForUpdate(contribution.getSketchName());
+                    long[] counts = sketch.added();
+                    long[] cells = persisted != null && fits(persisted, sketch) ? decode(persisted) : new long[counts.length];
+                    for (int cell = 0; cell < cells.length; cell++) {
+                        cells[cell] += counts[cell];
+                    }
+
+                    Set<String> keys = new LinkedHashSet<>(rankings.get(contribution).keys());
+                    if (persisted != null) {
+                        keys.addAll(candidates(persisted));
+                    }
+                    List<String> ranked = existing(keys);
+                    ranked.sort(Comparator.comparingLong((String key) -> sketch.estimate(key, cells)).reversed());
+                    if (ranked.size() > candidates) {
+                        ranked = new ArrayList<>(ranked.subList(0, candidates));
+                    }
+
+                    if (persisted == null) {
+                        persisted = new ContributorSketchEntity();
+                        persisted.setName(contribution.getSketchName());
+                    }
+                    persisted.setDepth(sketch.getDepth());
+                    persisted.setWidth(sketch.getWidth());
+                    persisted.setCells(CountMinSketch.encode(cells));
+                    persisted.setCandidates(String.join("\n", ranked));
+                    persisted.setUpdatedAt(ZonedDateTime.now());
+                    contributorSketchDao.saveSketch(persisted);
+
+                    included.put(contribution, counts);
+                    merged.put(contribution, cells);
+                    persistedCandidates.put(contribution, ranked);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("The contributor sketches could not be persisted, their counts are kept for the next attempt", e);
+            return;
+        }
+        for (Contribution contribution : Contribution.values()) {
+            HeavyHitters ranking = rankings.get(contribution);
+            ranking.getSketch().rebase(merged.get(contribution), included.get(contribution));
+            ranking.reconsider(persistedCandidates.get(contribution));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        persist();
+    }
+
+    /**
+     * This method returns the Users who contributed the most
+     * @param contribution contribution
+     * @param limit maximum number of Users, capped at "quora.contributors.max-results"
+     * @return top contributors with the error bound of their counts
+     */
+    public ContributorRanking getRanking(final Contribution contribution, final int limit) {
+        HeavyHitters ranking = rankings.get(contribution);
+        List<RankedContributor> contributors = new ArrayList<>();
+        for (Map.Entry<String, Long> candidate : ranking.top(Math.max(0, Math.min(limit, maxResults)))) {
+            contributors.add(new RankedContributor(candidate.getKey(), candidate.getValue()));
+        }
+        return new ContributorRanking(Collections.unmodifiableList(contributors), maxOvercount(ranking.getSketch()));
+    }
+
+    /**
+     * @param contribution contribution
+     * @param userUuid uuid of the User
+     * @return estimated number of contributions of the User
+     */
+    public long estimate(final Contribution contribution, final String userUuid) {
+        return rankings.get(contribution).getSketch().estimate(userUuid);
+    }
+
+    /**
+     * This method counts the existing contributions into the locked persisted sketch, replacing its cells
+     * @return the candidates of the seeded sketch
+     */
+    private List<String> seed(final Contribution contribution, final ContributorSketchEntity persisted) {
+        long start = System.nanoTime();
+        CountMinSketch sketch = new CountMinSketch(epsilon, delta);
+        HeavyHitters seeded = new HeavyHitters(sketch, candidates);
+        long[] scanned = new long[1];
+        contributorSketchDao.scanUserUuids(contribution.getUserUuidsQuery(), userUuid -> {
+            seeded.add(userUuid);
+            scanned[0]++;
+        });
+        long[] cells = sketch.cells();
+        List<String> ranked = existing(new LinkedHashSet<>(seeded.keys()));
+        ranked.sort(Comparator.comparingLong((String key) -> sketch.estimate(key, cells)).reversed());
+
+        persisted.setDepth(sketch.getDepth());
+        persisted.setWidth(sketch.getWidth());
+        persisted.setCells(CountMinSketch.encode(cells));
+        persisted.setCandidates(String.join("\n", ranked));
+        persisted.setUpdatedAt(ZonedDateTime.now());
+        contributorSketchDao.saveSketch(persisted);
+        LOG.info("Seeded the sketch {} with {} contributions in {} ms", contribution.getSketchName(), scanned[0],
+                (System.nanoTime() - start) / 1000000);
+        return ranked;
+    }
+
+    private long maxOvercount(final CountMinSketch sketch) {
+        return (long) Math.ceil(epsilon * sketch.total());
+    }
+
+    private List<String> existing(final Set<String> userUuids) {
+        return userUuids.isEmpty() ? new ArrayList<>() : new ArrayList<>(contributorSketchDao.getExistingUserUuids(userUuids));
+    }
+
+    private static boolean fits(final ContributorSketchEntity persisted, final CountMinSketch sketch) {
+        if (persisted.getDepth() == sketch.getDepth() && persisted.getWidth() == sketch.getWidth()) {
+            return true;
+        }
+        LOG.warn("The persisted sketch {} is {}x{} instead of {}x{}, it is replaced", persisted.getName(), persisted.getDepth(),
+                persisted.getWidth(), sketch.getDepth(), sketch.getWidth());
+        return false;
+    }
+
+    private static long[] decode(final ContributorSketchEntity persisted) {
+        return CountMinSketch.decode(persisted.getCells(), persisted.getDepth() * persisted.getWidth());
+    }
+
+    private static Set<String> candidates(final ContributorSketchEntity persisted) {
+        Set<String> keys = new HashSet<>();
+        for (String key : Arrays.asList(persisted.getCandidates().split("\n"))) {
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,32 @@
+package com.upgrad.quora.service.stats;
+
+/**
+ * This class holds the number of questions and answers posted by a User
+ */
+public class ContributorStatistics {
+    private final String userUuid;
+    private final long questions;
+    private final long answers;
+
+    public ContributorStatistics(final String userUuid, final long questions, final long answers) {
+        this.userUuid = userUuid;
+        this.questions = questions;
+        this.answers = answers;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public long getQuestions() {
+        return questions;
+    }
+
+    public long getAnswers() {
+        return answers;
+    }
+
+    public long getTotal() {
+        return questions + answers;
+    }
+}
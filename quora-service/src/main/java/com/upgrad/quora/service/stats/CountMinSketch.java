@@ -0,0 +1,204 @@
+package com.upgrad.quora.service.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is a count-min sketch: it estimates how many times every key was counted in a fixed amount of memory. An
+ * estimate is never below the exact count, and exceeds it by more than epsilon times the total of all the counts with
+ * a probability below delta.
+ * The cells are the sum of a base, which is the sketch last persisted, and of the counts added since then, so that
+ * the sketches of several nodes are merged by adding the counts of every node to the persisted one. The counts are
+ * added without locks.
+ */
+final class CountMinSketch {
+    private final int depth;
+    private final int width;
+
+    private volatile long[] base;
+    private final AtomicLongArray added;
+
+    /**
+     * @param epsilon overcount of an estimate as a share of the total of the counts, e.g. 0.0001
+     * @param delta probability that an estimate exceeds that overcount, e.g. 0.01
+     */
+    CountMinSketch(final double epsilon, final double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon and delta must be between 0 and 1, found " + epsilon + " and " + delta);
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.base = new long[depth * width];
+        this.added = new AtomicLongArray(depth * width);
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * This method counts the key
+     * @param key key
+     * @param count number of occurrences
+     * @return the estimate of the key after the count
+     */
+    long add(final String key, final long count) {
+        long estimate = Long.MAX_VALUE;
+        long hash = hash(key);
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(hash, row);
+            estimate = Math.min(estimate, base[cell] + added.addAndGet(cell, count));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key key
+     * @return the estimate of the key, never below its exact count
+     */
+    long estimate(final String key) {
+        long[] current = base;
+        long estimate = Long.MAX_VALUE;
+        long hash = hash(key);
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(hash, row);
+            estimate = Math.min(estimate, current[cell] + added.get(cell));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key key
+     * @param cells cells of a sketch of the same dimensions, e.g. one about to be persisted
+     * @return the estimate of the key in those cells
+     */
+    long estimate(final String key, final long[] cells) {
+        long estimate = Long.MAX_VALUE;
+        long hash = hash(key);
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[cell(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the total of the counts in the sketch, of which epsilon is the likely overcount of an estimate
+     */
+    long total() {
+        long[] current = base;
+        long total = 0;
+        for (int cell = 0; cell < width; cell++) {
+            total += current[cell] + added.get(cell);
+        }
+        return total;
+    }
+
+    /**
+     * @return the counts added since the base was last replaced, cell by cell
+     */
+    long[] added() {
+        long[] counts = new long[added.length()];
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] = added.get(cell);
+        }
+        return counts;
+    }
+
+    /**
+     * This method replaces the base with a persisted sketch which includes the given added counts. The counts added
+     * meanwhile are kept; an estimate read during the replacement may miss the persisted counts of other nodes.
+     * @param persisted cells of the persisted sketch
+     * @param included counts returned by {@link #added()} which the persisted sketch includes, null if none
+     */
+    void rebase(final long[] persisted, final long[] included) {
+        if (persisted.length != added.length()) {
+            throw new IllegalArgumentException("The persisted sketch has " + persisted.length + " cells instead of " + added.length());
+        }
+        if (included != null) {
+            for (int cell = 0; cell < included.length; cell++) {
+                if (included[cell] != 0) {
+                    added.addAndGet(cell, -included[cell]);
+                }
+            }
+        }
+        base = persisted.clone();
+    }
+
+    /**
+     * @return the cells of the base with the counts added since
+     */
+    long[] cells() {
+        long[] current = base;
+        long[] cells = new long[current.length];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = current[cell] + added.get(cell);
+        }
+        return cells;
+    }
+
+    /**
+     * This method compresses the cells of a sketch for persistence
+     * @param cells cells
+     * @return compressed cells
+     */
+    static byte[] encode(final long[] cells) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            for (long cell : cells) {
+                out.writeLong(cell);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This method reads the cells compressed by {@link #encode(long[])}
+     * @param encoded compressed cells
+     * @param length number of cells
+     * @return cells
+     */
+    static long[] decode(final byte[] encoded, final int length) {
+        long[] cells = new long[length];
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(encoded)))) {
+            for (int cell = 0; cell < length; cell++) {
+                cells[cell] = in.readLong();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return cells;
+    }
+
+    private int cell(final long hash, final int row) {
+        // the hashes of the rows are derived from the two halves of one hash
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & Integer.MAX_VALUE) % width;
+    }
+
+    private static long hash(final String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,104 @@
+package com.upgrad.quora.service.stats;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class finds the most counted keys of a stream: every key is counted in a count-min sketch and the keys with
+ * the highest estimates are kept as candidates, so that the ranking never needs the exact count of every key.
+ */
+final class HeavyHitters {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    /**
+     * @param sketch sketch of the counts
+     * @param capacity number of candidates kept, above the length of the rankings to keep them stable
+     */
+    HeavyHitters(final CountMinSketch sketch, final int capacity) {
+        this.sketch = sketch;
+        this.capacity = capacity;
+    }
+
+    CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * This method counts an occurrence of the key
+     * @param key key
+     */
+    void add(final String key) {
+        offer(key, sketch.add(key, 1));
+    }
+
+    /**
+     * This method drops the key from the candidates; its counts stay in the sketch
+     * @param key key
+     */
+    synchronized void remove(final String key) {
+        candidates.remove(key);
+    }
+
+    /**
+     * This method estimates the keys again after the sketch was rebased and keeps the highest among them and the
+     * current candidates
+     * @param keys keys which may be candidates, e.g. the persisted ones
+     */
+    void reconsider(final Collection<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        synchronized (this) {
+            all.addAll(candidates.keySet());
+            candidates.clear();
+        }
+        for (String key : all) {
+            offer(key, sketch.estimate(key));
+        }
+    }
+
+    /**
+     * @return the keys of the candidates
+     */
+    synchronized List<String> keys() {
+        return new ArrayList<>(candidates.keySet());
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param limit maximum number of keys
+     * @return the candidates with their estimate, highest first
+     */
+    synchronized List<Map.Entry<String, Long>> top(final int limit) {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(candidate.getKey(), candidate.getValue()));
+        }
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    private synchronized void offer(final String key, final long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            return;
+        }
+        Map.Entry<String, Long> lowest = null;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            if (lowest == null || candidate.getValue() < lowest.getValue()) {
+                lowest = candidate;
+            }
+        }
+        if (estimate > lowest.getValue()) {
+            candidates.remove(lowest.getKey());
+            candidates.put(key, estimate);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.upgrad.quora.service.stats;
+
+import com.upgrad.quora.service.dao.StatisticsDao;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.SessionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class maintains the application statistics in memory. The counters are updated from the events published by
+ * the business services once their transaction commits and are periodically reconciled against the database, so that
+ * reading the statistics never queries the database. The top contributors are estimated by {@link ContributorRankings},
+ * so the reconciliation never counts the contributions of every User.
+ */
+@Component
+public class QuoraStatistics {
+    private static final Logger LOG = LoggerFactory.getLogger(QuoraStatistics.class);
+
+    private static final Comparator<ContributorStatistics> BY_TOTAL = Comparator.comparingLong(ContributorStatistics::getTotal);
+
+    @Autowired
+    private StatisticsDao statisticsDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ContributorRankings contributorRankings;
+
+    @Value("${quora.admin.stats.top-contributors:10}")
+    private int topContributors;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong activeSessions = new AtomicLong();
+    private final AtomicLong questions = new AtomicLong();
+    private final AtomicLong answers = new AtomicLong();
+
+    private volatile ZonedDateTime reconciledAt;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.CREATED) {
+            users.incrementAndGet();
+        } else {
+            users.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionEvent(final SessionEvent event) {
+        if (event.getType() == SessionEvent.Type.SIGNED_IN) {
+            activeSessions.incrementAndGet();
+        } else {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getType() == QuestionEvent.Type.CREATED) {
+            questions.incrementAndGet();
+        } else if (event.getType() == QuestionEvent.Type.DELETED) {
+            questions.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswerEvent(final AnswerEvent event) {
+        if (event.getType() == AnswerEvent.Type.CREATED) {
+            answers.incrementAndGet();
+        } else if (event.getType() == AnswerEvent.Type.DELETED) {
+            answers.decrementAndGet();
+        }
+    }
+
+    /**
+     * This method replaces the counters with the values counted in the database. It corrects the drift caused by
+     * sessions expiring and by rows deleted through database cascades, which publish no events.
+     */
+    @Scheduled(fixedDelayString = "${quora.admin.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${quora.admin.stats.initial-delay-ms:0}")
+    public void reconcile() {
+        try {
+            transactionTemplate.execute(status -> {
+                users.set(statisticsDao.countUsers());
+                activeSessions.set(statisticsDao.countActiveSessions(ZonedDateTime.now()));
+                questions.set(statisticsDao.countQuestions());
+                answers.set(statisticsDao.countAnswers());
+                return null;
+            });
+            reconciledAt = ZonedDateTime.now();
+        } catch (RuntimeException e) {
+            LOG.warn("Reconciliation of the statistics failed, serving the incremental counters", e);
+        }
+    }
+
+    /**
+     * This method returns the current statistics without touching the database
+     * @return statistics snapshot
+     */
+    public StatisticsSnapshot snapshot() {
+        Set<String> contributors = new HashSet<>();
+        for (Contribution contribution : Contribution.values()) {
+            for (RankedContributor contributor : contributorRankings.getRanking(contribution, topContributors).getContributors()) {
+                contributors.add(contributor.getUserUuid());
+            }
+        }
+        PriorityQueue<ContributorStatistics> top = new PriorityQueue<>(topContributors + 1, BY_TOTAL);
+        for (String userUuid : contributors) {
+            top.offer(new ContributorStatistics(userUuid, contributorRankings.estimate(Contribution.QUESTIONS, userUuid),
+                    contributorRankings.estimate(Contribution.ANSWERS, userUuid)));
+            if (top.size() > topContributors) {
+                top.poll();
+            }
+        }
+        List<ContributorStatistics> topList = new ArrayList<>(top);
+        topList.sort(BY_TOTAL.reversed());
+
+        return new StatisticsSnapshot(users.get(), activeSessions.get(), questions.get(), answers.get(),
+                reconciledAt, Collections.unmodifiableList(topList));
+    }
+}
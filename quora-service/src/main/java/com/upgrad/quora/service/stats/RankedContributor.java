@@ -0,0 +1,26 @@
+package com.upgrad.quora.service.stats;
+
+/**
+ * This class holds a top contributor with the estimated number of its contributions
+ */
+public final class RankedContributor {
+    private final String userUuid;
+    private final long count;
+
+    public RankedContributor(final String userUuid, final long count) {
+        this.userUuid = userUuid;
+        this.count = count;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    /**
+     * @return estimated number of contributions, never below the exact number and above it by at most the
+     * overcount of the ranking with a high probability
+     */
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.upgrad.quora.service.stats;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * This class is a point in time copy of the application statistics
+ */
+public class StatisticsSnapshot {
+    private final long users;
+    private final long activeSessions;
+    private final long questions;
+    private final long answers;
+    private final ZonedDateTime reconciledAt;
+    private final List<ContributorStatistics> topContributors;
+
+    public StatisticsSnapshot(final long users, final long activeSessions, final long questions, final long answers,
+                              final ZonedDateTime reconciledAt, final List<ContributorStatistics> topContributors) {
+        this.users = users;
+        this.activeSessions = activeSessions;
+        this.questions = questions;
+        this.answers = answers;
+        this.reconciledAt = reconciledAt;
+        this.topContributors = topContributors;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getActiveSessions() {
+        return activeSessions;
+    }
+
+    public long getQuestions() {
+        return questions;
+    }
+
+    public long getAnswers() {
+        return answers;
+    }
+
+    public ZonedDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public List<ContributorStatistics> getTopContributors() {
+        return topContributors;
+    }
+}
@@ -0,0 +1,575 @@
+package com.upgrad.quora.service.tags;
+
+import java.util.Arrays;
+
+/**
+ * This class is an immutable compressed set of non-negative ints, laid out like a roaring bitmap: the ints are grouped
+ * by their high 16 bits into containers of at most 65536 values, and every container is either a sorted array of its
+ * low 16 bits, while it holds at most 4096 of them, or a bitmap of 1024 words once it holds more. A set of millions of
+ * question ids thus takes about one bit per question when it is dense and two bytes per question when it is sparse,
+ * and the intersection of two sets walks their containers instead of every id.
+ * A change returns a new set which shares the containers it did not touch with the previous one, so the sets are read
+ * without locks while they are updated.
+ */
+final class CompressedBitmap {
+    static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Container[0]);
+
+    // an array container takes 2 bytes per value and a bitmap container 8 KB, they break even at 4096 values
+    private static final int MAX_ARRAY_SIZE = 4096;
+    private static final int WORDS = 1024;
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private CompressedBitmap(final char[] keys, final Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    /**
+     * This method builds a set from ints in any order
+     * @param ids ints, not modified
+     * @param length number of ints of the array which are in the set
+     * @return the set
+     */
+    static CompressedBitmap of(final int[] ids, final int length) {
+        int[] sorted = Arrays.copyOf(ids, length);
+        Arrays.sort(sorted);
+        if (length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("The ids must not be negative, found " + sorted[0]);
+        }
+        char[] keys = new char[length == 0 ? 0 : (sorted[length - 1] >>> 16) + 1];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+        int start = 0;
+        while (start < length) {
+            char key = (char) (sorted[start] >>> 16);
+            int end = start;
+            char[] values = new char[Math.min(length - start, 1 << 16)];
+            int size = 0;
+            while (end < length && (sorted[end] >>> 16) == key) {
+                if (size == 0 || values[size - 1] != (char) sorted[end]) {
+                    values[size++] = (char) sorted[end];
+                }
+                end++;
+            }
+            keys[count] = key;
+            containers[count++] = size > MAX_ARRAY_SIZE ? BitmapContainer.of(values, size) : new ArrayContainer(Arrays.copyOf(values, size));
+            start = end;
+        }
+        return new CompressedBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+    }
+
+    boolean contains(final int id) {
+        int index = Arrays.binarySearch(keys, (char) (id >>> 16));
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    /**
+     * @param id non-negative int
+     * @return the set with the int, this set if it holds it already
+     */
+    CompressedBitmap with(final int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("The ids must not be negative, found " + id);
+        }
+        char key = (char) (id >>> 16);
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            Container container = containers[index].add((char) id);
+            return container == containers[index] ? this : replace(index, container);
+        }
+        int insertion = -index - 1;
+        char[] newKeys = new char[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertion);
+        System.arraycopy(containers, 0, newContainers, 0, insertion);
+        newKeys[insertion] = key;
+        newContainers[insertion] = new ArrayContainer(new char[]{(char) id});
+        System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+        System.arraycopy(containers, insertion, newContainers, insertion + 1, containers.length - insertion);
+        return new CompressedBitmap(newKeys, newContainers);
+    }
+
+    /**
+     * @param id int
+     * @return the set without the int, this set if it does not hold it
+     */
+    CompressedBitmap without(final int id) {
+        int index = Arrays.binarySearch(keys, (char) (id >>> 16));
+        if (index < 0) {
+            return this;
+        }
+        Container container = containers[index].remove((char) id);
+        return container == containers[index] ? this : replace(index, container);
+    }
+
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (Container container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return the highest int of the set, -1 if the set is empty
+     */
+    int last() {
+        int[] last = new int[1];
+        return descending(Integer.MAX_VALUE, last) == 0 ? -1 : last[0];
+    }
+
+    /**
+     * This method returns the ints of the set in one block of 65536 ints, sharing its container with the set
+     * @param block high 16 bits of the ints
+     * @return the ints of the set in the block
+     */
+    CompressedBitmap block(final int block) {
+        int index = Arrays.binarySearch(keys, (char) block);
+        return index < 0 ? EMPTY : new CompressedBitmap(new char[]{keys[index]}, new Container[]{containers[index]});
+    }
+
+    /**
+     * @return approximate number of bytes taken by the containers
+     */
+    long sizeInBytes() {
+        long size = keys.length * 2L;
+        for (Container container : containers) {
+            size += container.sizeInBytes();
+        }
+        return size;
+    }
+
+    CompressedBitmap and(final CompressedBitmap other) {
+        int length = Math.min(keys.length, other.keys.length);
+        char[] newKeys = new char[length];
+        Container[] newContainers = new Container[length];
+        int count = 0;
+        for (int i = 0, j = 0; i < keys.length && j < other.keys.length; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container != null) {
+                    newKeys[count] = keys[i];
+                    newContainers[count++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return trimmed(newKeys, newContainers, count);
+    }
+
+    CompressedBitmap or(final CompressedBitmap other) {
+        char[] newKeys = new char[keys.length + other.keys.length];
+        Container[] newContainers = new Container[newKeys.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                newKeys[count] = keys[i];
+                newContainers[count++] = containers[i++];
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                newKeys[count] = other.keys[j];
+                newContainers[count++] = other.containers[j++];
+            } else {
+                newKeys[count] = keys[i];
+                newContainers[count++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        return trimmed(newKeys, newContainers, count);
+    }
+
+    CompressedBitmap andNot(final CompressedBitmap other) {
+        char[] newKeys = new char[keys.length];
+        Container[] newContainers = new Container[keys.length];
+        int count = 0;
+        for (int i = 0, j = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container container = j < other.keys.length && other.keys[j] == keys[i] ? containers[i].andNot(other.containers[j]) : containers[i];
+            if (container != null) {
+                newKeys[count] = keys[i];
+                newContainers[count++] = container;
+            }
+        }
+        return trimmed(newKeys, newContainers, count);
+    }
+
+    /**
+     * This method reads the highest ints of the set below a bound, so that a listing ordered by descending id is read
+     * one page at a time from where the previous page ended
+     * @param before exclusive upper bound
+     * @param into array filled with the ints, highest first
+     * @return number of ints read, below the length of the array when the set holds no more below the bound
+     */
+    int descending(final int before, final int[] into) {
+        if (before <= 0) {
+            return 0;
+        }
+        int last = before - 1;
+        int index = Arrays.binarySearch(keys, (char) (last >>> 16));
+        int count = 0;
+        if (index >= 0) {
+            count = containers[index].descending(keys[index] << 16, (last & 0xFFFF) + 1, into, count);
+            index--;
+        } else {
+            index = -index - 2;
+        }
+        for (; index >= 0 && count < into.length; index--) {
+            count = containers[index].descending(keys[index] << 16, 1 << 16, into, count);
+        }
+        return count;
+    }
+
+    private CompressedBitmap replace(final int index, final Container container) {
+        if (container == null) {
+            char[] newKeys = new char[keys.length - 1];
+            Container[] newContainers = new Container[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(containers, 0, newContainers, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+            return new CompressedBitmap(newKeys, newContainers);
+        }
+        Container[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new CompressedBitmap(keys, newContainers);
+    }
+
+    private static CompressedBitmap trimmed(final char[] keys, final Container[] containers, final int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        return count == keys.length ? new CompressedBitmap(keys, containers)
+                : new CompressedBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+    }
+
+    /**
+     * This class holds the low 16 bits of the ints of a container. The operations return null instead of an empty
+     * container, and this container when they change nothing.
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract long sizeInBytes();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        /**
+         * @param high high 16 bits of the ints, shifted
+         * @param before exclusive upper bound of the low 16 bits
+         * @param into array filled with the ints, highest first
+         * @param count number of ints already in the array
+         * @return number of ints in the array
+         */
+        abstract int descending(int high, int before, int[] into, int count);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        private ArrayContainer(final char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + values.length * 2L;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container add(final char value) {
+            int index = Arrays.binarySearch(values, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (values.length == MAX_ARRAY_SIZE) {
+                return BitmapContainer.of(values, values.length).add(value);
+            }
+            int insertion = -index - 1;
+            char[] newValues = new char[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, insertion);
+            newValues[insertion] = value;
+            System.arraycopy(values, insertion, newValues, insertion + 1, values.length - insertion);
+            return new ArrayContainer(newValues);
+        }
+
+        @Override
+        Container remove(final char value) {
+            int index = Arrays.binarySearch(values, value);
+            if (index < 0) {
+                return this;
+            }
+            if (values.length == 1) {
+                return null;
+            }
+            char[] newValues = new char[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+            return new ArrayContainer(newValues);
+        }
+
+        @Override
+        Container and(final Container other) {
+            char[] result = new char[values.length];
+            int size = 0;
+            if (other instanceof BitmapContainer) {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        result[size++] = value;
+                    }
+                }
+            } else {
+                char[] others = ((ArrayContainer) other).values;
+                for (int i = 0, j = 0; i < values.length && j < others.length; ) {
+                    if (values[i] < others[j]) {
+                        i++;
+                    } else if (values[i] > others[j]) {
+                        j++;
+                    } else {
+                        result[size++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return size == 0 ? null : size == values.length ? this : new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        Container or(final Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            char[] others = ((ArrayContainer) other).values;
+            char[] result = new char[values.length + others.length];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < values.length && j < others.length) {
+                if (values[i] < others[j]) {
+                    result[size++] = values[i++];
+                } else if (values[i] > others[j]) {
+                    result[size++] = others[j++];
+                } else {
+                    result[size++] = values[i++];
+                    j++;
+                }
+            }
+            while (i < values.length) {
+                result[size++] = values[i++];
+            }
+            while (j < others.length) {
+                result[size++] = others[j++];
+            }
+            return size > MAX_ARRAY_SIZE ? BitmapContainer.of(result, size) : new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        Container andNot(final Container other) {
+            char[] result = new char[values.length];
+            int size = 0;
+            for (char value : values) {
+                if (!other.contains(value)) {
+                    result[size++] = value;
+                }
+            }
+            return size == 0 ? null : size == values.length ? this : new ArrayContainer(Arrays.copyOf(result, size));
+        }
+
+        @Override
+        int descending(final int high, final int before, final int[] into, final int count) {
+            int index = Arrays.binarySearch(values, (char) Math.min(before, 0xFFFF));
+            // the bound is exclusive, a value equal to it is skipped unless the bound is past the last value
+            index = index >= 0 ? (before > 0xFFFF ? index : index - 1) : -index - 2;
+            int filled = count;
+            for (; index >= 0 && filled < into.length; index--) {
+                into[filled++] = high | values[index];
+            }
+            return filled;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        private BitmapContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        private static BitmapContainer of(final char[] values, final int size) {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, size);
+        }
+
+        /**
+         * @return the container holding the bits, an array container when there are few of them
+         */
+        private static Container of(final long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > MAX_ARRAY_SIZE) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int word = 0; word < WORDS; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    values[size++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + WORDS * 8L;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(final char value) {
+            if (contains(value)) {
+                return this;
+            }
+            long[] newWords = words.clone();
+            newWords[value >>> 6] |= 1L << value;
+            return new BitmapContainer(newWords, cardinality + 1);
+        }
+
+        @Override
+        Container remove(final char value) {
+            if (!contains(value)) {
+                return this;
+            }
+            long[] newWords = words.clone();
+            newWords[value >>> 6] &= ~(1L << value);
+            return cardinality - 1 > MAX_ARRAY_SIZE ? new BitmapContainer(newWords, cardinality - 1) : of(newWords);
+        }
+
+        @Override
+        Container and(final Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] others = ((BitmapContainer) other).words;
+            long[] newWords = new long[WORDS];
+            for (int word = 0; word < WORDS; word++) {
+                newWords[word] = words[word] & others[word];
+            }
+            return of(newWords);
+        }
+
+        @Override
+        Container or(final Container other) {
+            long[] newWords = words.clone();
+            int newCardinality = cardinality;
+            if (other instanceof ArrayContainer) {
+                for (char value : ((ArrayContainer) other).values) {
+                    long bit = 1L << value;
+                    if ((newWords[value >>> 6] & bit) == 0) {
+                        newWords[value >>> 6] |= bit;
+                        newCardinality++;
+                    }
+                }
+            } else {
+                long[] others = ((BitmapContainer) other).words;
+                newCardinality = 0;
+                for (int word = 0; word < WORDS; word++) {
+                    newWords[word] |= others[word];
+                    newCardinality += Long.bitCount(newWords[word]);
+                }
+            }
+            return newCardinality == cardinality ? this : new BitmapContainer(newWords, newCardinality);
+        }
+
+        @Override
+        Container andNot(final Container other) {
+            long[] newWords = words.clone();
+            if (other instanceof ArrayContainer) {
+                for (char value : ((ArrayContainer) other).values) {
+                    newWords[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                long[] others = ((BitmapContainer) other).words;
+                for (int word = 0; word < WORDS; word++) {
+                    newWords[word] &= ~others[word];
+                }
+            }
+            return of(newWords);
+        }
+
+        @Override
+        int descending(final int high, final int before, final int[] into, final int count) {
+            if (before == 0) {
+                return count;
+            }
+            int filled = count;
+            int word = (before - 1) >>> 6;
+            // the bits of the first word from the bound up are masked off
+            long bits = words[word] & (-1L >>> (63 - ((before - 1) & 63)));
+            while (filled < into.length) {
+                while (bits != 0 && filled < into.length) {
+                    int bit = 63 - Long.numberOfLeadingZeros(bits);
+                    into[filled++] = high | (word << 6) + bit;
+                    bits &= ~(1L << bit);
+                }
+                if (--word < 0) {
+                    break;
+                }
+                bits = words[word];
+            }
+            return filled;
+        }
+    }
+}
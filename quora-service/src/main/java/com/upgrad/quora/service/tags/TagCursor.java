@@ -0,0 +1,61 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * This class is the position of the last question of a page of tagged questions, handed to the client as an opaque
+ * string. The questions are listed by descending id, so the next page holds the questions with a lower id.
+ */
+public final class TagCursor {
+    private final int id;
+
+    private TagCursor(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * @param id id of the last question of a page
+     * @return the position after the question
+     */
+    public static TagCursor after(final int id) {
+        return new TagCursor(id);
+    }
+
+    /**
+     * This method parses a cursor returned with a previous page
+     * @param cursor the cursor, null or blank for the first page
+     * @return the position, null for the first page
+     * @throws InvalidCursorException if the cursor was not returned with a page
+     */
+    public static TagCursor parse(final String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!value.startsWith("q:")) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new TagCursor(Integer.parseInt(value.substring(2)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("CUR-001", "The cursor is invalid, use the next_cursor of the previous page");
+        }
+    }
+
+    /**
+     * @return the cursor as handed to the client
+     */
+    public String format() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("q:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return id of the last question read, the exclusive upper bound of the ids of the next page
+     */
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,75 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.exception.InvalidTagException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is a combination of tags which the questions must carry. The filter is a comma separated list of terms
+ * which must all hold; a term is a list of tags separated by "|" of which the question carries at least one, and a
+ * term beginning with "!" holds when the question carries none of its tags. For example "java|kotlin,spring,!legacy"
+ * selects the questions tagged spring and either java or kotlin, but not legacy.
+ */
+public final class TagFilter {
+    private static final int MAX_TAGS = 20;
+
+    private final List<List<String>> required;
+    private final List<List<String>> excluded;
+
+    private TagFilter(final List<List<String>> required, final List<List<String>> excluded) {
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    /**
+     * This method parses a tag filter
+     * @param expression filter as entered
+     * @return the filter
+     * @throws InvalidTagException if the filter is empty, malformed, has more than 20 tags or an invalid tag
+     */
+    public static TagFilter parse(final String expression) throws InvalidTagException {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw invalid(expression);
+        }
+        List<List<String>> required = new ArrayList<>();
+        List<List<String>> excluded = new ArrayList<>();
+        int tags = 0;
+        for (String term : expression.split(",", -1)) {
+            String trimmed = term.trim();
+            boolean negated = trimmed.startsWith("!");
+            List<String> alternatives = new ArrayList<>();
+            for (String tag : (negated ? trimmed.substring(1) : trimmed).split("\\|", -1)) {
+                if (tag.trim().isEmpty()) {
+                    throw invalid(expression);
+                }
+                alternatives.add(Tags.normalize(tag));
+                tags++;
+            }
+            (negated ? excluded : required).add(Collections.unmodifiableList(alternatives));
+        }
+        if (tags > MAX_TAGS) {
+            throw new InvalidTagException("TAG-003", "A tag filter has at most " + MAX_TAGS + " tags, found " + tags);
+        }
+        return new TagFilter(Collections.unmodifiableList(required), Collections.unmodifiableList(excluded));
+    }
+
+    /**
+     * @return the terms which must hold, each holding when the question carries one of its tags
+     */
+    public List<List<String>> getRequired() {
+        return required;
+    }
+
+    /**
+     * @return the terms which must not hold, each holding when the question carries one of its tags
+     */
+    public List<List<String>> getExcluded() {
+        return excluded;
+    }
+
+    private static InvalidTagException invalid(final String expression) {
+        return new InvalidTagException("TAG-003", "The tag filter '" + expression + "' is invalid, use tags separated by , for all of them, | for any of them and prefixed by ! for none of them");
+    }
+}
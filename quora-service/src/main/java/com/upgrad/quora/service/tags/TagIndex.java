@@ -0,0 +1,288 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * This class keeps, for every tag, the compressed set of the ids of the questions carrying it, with the set of all the
+ * questions and the set of the questions of every User, so that the questions matching a tag filter are found by
+ * combining sets in memory instead of joining the tags in the database. The sets are built from the database when the
+ * application context is refreshed and are then updated from the events published by the business services once their
+ * transaction commits; the changes committed while they are built are applied to the new sets before they replace the
+ * current ones. The sets are immutable, so a filter is evaluated without locks while they are updated.
+ */
+@Component
+public class TagIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(TagIndex.class);
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile Bitmaps bitmaps = new Bitmaps();
+
+    private List<Consumer<Bitmaps>> pending;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getQuestionId() == null) {
+            return;
+        }
+        int id = event.getQuestionId();
+        if (event.getType() == QuestionEvent.Type.CREATED) {
+            update(current -> current.add(id, event.getUserUuid(), event.getTags()));
+        } else if (event.getType() == QuestionEvent.Type.UPDATED && event.getTags() != null) {
+            update(current -> current.retag(id, event.getTags()));
+        } else if (event.getType() == QuestionEvent.Type.DELETED) {
+            update(current -> current.remove(id, event.getUserUuid()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED && event.getUserUuid() != null) {
+            update(current -> current.removeUser(event.getUserUuid()));
+        }
+    }
+
+    /**
+     * This method replaces the sets with ones built from all the questions in the database
+     */
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+
+        Bitmaps rebuilt;
+        try {
+            long start = System.nanoTime();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            rebuilt = transactionTemplate.execute(status -> load(questionDao.getAllQuestionOwners(), questionDao.getAllQuestionTags()));
+            LOG.info("Built the tag index of {} questions and {} tags in {} ms, {} KB", rebuilt.all.cardinality(), rebuilt.tags.size(),
+                    (System.nanoTime() - start) / 1000000, rebuilt.sizeInBytes() / 1024);
+        } catch (RuntimeException e) {
+            LOG.warn("The tag index could not be built, serving the incremental index", e);
+            rebuilt = null;
+        }
+
+        synchronized (this) {
+            if (rebuilt != null) {
+                for (Consumer<Bitmaps> change : pending) {
+                    change.accept(rebuilt);
+                }
+                bitmaps = rebuilt;
+            }
+            pending = null;
+        }
+    }
+
+    /**
+     * This method returns the ids of the newest questions matching the filter. The filter is evaluated one block of
+     * 65536 ids at a time from the newest, so that a page of popular tags is filled without combining their whole
+     * sets; in a block, the terms which must hold are intersected from the one matching the fewest questions, and the
+     * questions matching a term which must not hold are then removed.
+     * @param filter tag filter
+     * @param before exclusive upper bound of the ids, the id of the last question of the previous page
+     * @param limit maximum number of ids
+     * @return ids of the matching questions, highest first
+     */
+    public int[] find(final TagFilter filter, final int before, final int limit) {
+        Bitmaps current = bitmaps;
+        int[] ids = new int[Math.max(0, limit)];
+        int count = 0;
+        int last = Math.min(before - 1, current.all.last());
+        for (int block = last >>> 16; last >= 0 && block >= 0 && count < ids.length; block--) {
+            int[] found = new int[ids.length - count];
+            int read = current.match(filter, block).descending(before, found);
+            System.arraycopy(found, 0, ids, count, read);
+            count += read;
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    private synchronized void update(final Consumer<Bitmaps> change) {
+        change.accept(bitmaps);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private static Bitmaps load(final List<Object[]> owners, final List<Object[]> tags) {
+        IntList all = new IntList();
+        Map<String, IntList> byOwner = new HashMap<>();
+        for (Object[] row : owners) {
+            int id = (Integer) row[0];
+            all.add(id);
+            byOwner.computeIfAbsent((String) row[1], key -> new IntList()).add(id);
+        }
+        Map<String, IntList> byTag = new HashMap<>();
+        for (Object[] row : tags) {
+            byTag.computeIfAbsent((String) row[1], key -> new IntList()).add((Integer) row[0]);
+        }
+
+        Bitmaps loaded = new Bitmaps();
+        loaded.all = all.toBitmap();
+        for (Map.Entry<String, IntList> owner : byOwner.entrySet()) {
+            loaded.owners.put(owner.getKey(), owner.getValue().toBitmap());
+        }
+        for (Map.Entry<String, IntList> tag : byTag.entrySet()) {
+            loaded.tags.put(tag.getKey(), tag.getValue().toBitmap());
+        }
+        return loaded;
+    }
+
+    /**
+     * This class holds the sets of the index. The sets are replaced under the lock of the index and read without it.
+     */
+    private static final class Bitmaps {
+        private volatile CompressedBitmap all = CompressedBitmap.EMPTY;
+        private final Map<String, CompressedBitmap> tags = new ConcurrentHashMap<>();
+        private final Map<String, CompressedBitmap> owners = new ConcurrentHashMap<>();
+
+        private CompressedBitmap match(final TagFilter filter, final int block) {
+            List<CompressedBitmap> required = new ArrayList<>(filter.getRequired().size());
+            for (List<String> term : filter.getRequired()) {
+                required.add(union(term, block));
+            }
+            required.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+
+            CompressedBitmap matching = required.isEmpty() ? all.block(block) : required.get(0);
+            for (int i = 1; i < required.size() && !matching.isEmpty(); i++) {
+                matching = matching.and(required.get(i));
+            }
+            for (List<String> term : filter.getExcluded()) {
+                if (matching.isEmpty()) {
+                    break;
+                }
+                matching = matching.andNot(union(term, block));
+            }
+            return matching;
+        }
+
+        private CompressedBitmap union(final List<String> term, final int block) {
+            CompressedBitmap union = CompressedBitmap.EMPTY;
+            for (String tag : term) {
+                CompressedBitmap tagged = tags.get(tag);
+                if (tagged != null) {
+                    CompressedBitmap inBlock = tagged.block(block);
+                    union = union.isEmpty() ? inBlock : union.or(inBlock);
+                }
+            }
+            return union;
+        }
+
+        private void add(final int id, final String userUuid, final Collection<String> questionTags) {
+            all = all.with(id);
+            if (userUuid != null) {
+                owners.merge(userUuid, CompressedBitmap.EMPTY.with(id), (owned, added) -> owned.with(id));
+            }
+            if (questionTags != null) {
+                for (String tag : questionTags) {
+                    tags.merge(tag, CompressedBitmap.EMPTY.with(id), (tagged, added) -> tagged.with(id));
+                }
+            }
+        }
+
+        private void retag(final int id, final Collection<String> questionTags) {
+            for (Map.Entry<String, CompressedBitmap> tag : tags.entrySet()) {
+                if (!questionTags.contains(tag.getKey()) && tag.getValue().contains(id)) {
+                    replace(tags, tag.getKey(), tag.getValue().without(id));
+                }
+            }
+            for (String tag : questionTags) {
+                tags.merge(tag, CompressedBitmap.EMPTY.with(id), (tagged, added) -> tagged.with(id));
+            }
+        }
+
+        private void remove(final int id, final String userUuid) {
+            all = all.without(id);
+            for (Map.Entry<String, CompressedBitmap> tag : tags.entrySet()) {
+                if (tag.getValue().contains(id)) {
+                    replace(tags, tag.getKey(), tag.getValue().without(id));
+                }
+            }
+            // a question purged with its User has no owner, the User left the index when it was deleted
+            CompressedBitmap owned = userUuid == null ? null : owners.get(userUuid);
+            if (owned != null) {
+                replace(owners, userUuid, owned.without(id));
+            }
+        }
+
+        private void removeUser(final String userUuid) {
+            CompressedBitmap owned = owners.remove(userUuid);
+            if (owned == null) {
+                return;
+            }
+            all = all.andNot(owned);
+            for (Map.Entry<String, CompressedBitmap> tag : tags.entrySet()) {
+                replace(tags, tag.getKey(), tag.getValue().andNot(owned));
+            }
+        }
+
+        private long sizeInBytes() {
+            long size = all.sizeInBytes();
+            for (CompressedBitmap tagged : tags.values()) {
+                size += tagged.sizeInBytes();
+            }
+            for (CompressedBitmap owned : owners.values()) {
+                size += owned.sizeInBytes();
+            }
+            return size;
+        }
+
+        private static void replace(final Map<String, CompressedBitmap> bitmaps, final String key, final CompressedBitmap bitmap) {
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            } else {
+                bitmaps.put(key, bitmap);
+            }
+        }
+    }
+
+    /**
+     * This class is a growable array of ints, collecting the ids of a set while the index is built
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private CompressedBitmap toBitmap() {
+            return CompressedBitmap.of(values, size);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+import java.util.List;
+
+/**
+ * This class holds a page of the questions matching a tag filter with the cursor of the next page
+ */
+public final class TaggedQuestionPage {
+    private final List<QuestionEntity> questions;
+    private final String nextCursor;
+
+    public TaggedQuestionPage(final List<QuestionEntity> questions, final String nextCursor) {
+        this.questions = questions;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return questions of the page with their tags, newest first
+     */
+    public List<QuestionEntity> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * @return cursor of the next page, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.exception.InvalidTagException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * This class validates the tags of the questions. A tag is made of 1 to 30 lower case letters, digits and the
+ * characters "+#.-", and does not begin with "-", so that "java", "c++" or "spring-boot" are tags while the characters
+ * of the tag filters are not.
+ */
+public final class Tags {
+    private static final Pattern TAG = Pattern.compile("[a-z0-9+#.][a-z0-9+#.-]{0,29}");
+
+    private Tags() {
+    }
+
+    /**
+     * This method returns a tag in the form in which it is stored
+     * @param tag tag as entered
+     * @return the tag trimmed and in lower case
+     * @throws InvalidTagException if the tag is not made of the allowed characters
+     */
+    public static String normalize(final String tag) throws InvalidTagException {
+        String normalized = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+        if (!TAG.matcher(normalized).matches()) {
+            throw new InvalidTagException("TAG-001", "The tag '" + tag + "' is invalid, a tag is made of up to 30 letters, digits and the characters +#.-");
+        }
+        return normalized;
+    }
+
+    /**
+     * This method returns the tags of a question in the form in which they are stored
+     * @param tags tags as entered, null for none
+     * @param max maximum number of distinct tags
+     * @return the distinct tags in the order they were entered
+     * @throws InvalidTagException if a tag is invalid or there are too many of them
+     */
+    public static Set<String> normalize(final Collection<String> tags, final int max) throws InvalidTagException {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                normalized.add(normalize(tag));
+            }
+        }
+        if (normalized.size() > max) {
+            throw new InvalidTagException("TAG-002", "A question has at most " + max + " tags, found " + normalized.size());
+        }
+        return normalized;
+    }
+}
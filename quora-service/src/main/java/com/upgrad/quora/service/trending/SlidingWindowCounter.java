@@ -0,0 +1,83 @@
+package com.upgrad.quora.service.trending;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class counts events over a sliding window of time buckets held in a ring. Every slot of the ring packs the
+ * number of its bucket with the count of that bucket in one long, so that a slot is moved to a new bucket and
+ * incremented with a single compare-and-set, without locks. A slot whose bucket has left the window is ignored by the
+ * sums and reused by the next bucket falling on it.
+ */
+final class SlidingWindowCounter {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    /**
+     * @param buckets number of buckets of the window
+     */
+    SlidingWindowCounter(final int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * This method counts an event in the bucket, unless the slot of the bucket already holds a later one
+     * @param bucket number of the time bucket of the event, counted from the epoch
+     */
+    void increment(final long bucket) {
+        int slot = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(slot);
+            long slotBucket = current >>> COUNT_BITS;
+            long updated;
+            if (slotBucket == bucket) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    return;
+                }
+                updated = current + 1;
+            } else if (slotBucket < bucket) {
+                updated = (bucket << COUNT_BITS) | 1;
+            } else {
+                return;
+            }
+            if (slots.compareAndSet(slot, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method uncounts an event of the bucket, unless the slot of the bucket has moved to a later one or is empty
+     * @param bucket number of the time bucket of the event, counted from the epoch
+     */
+    void decrement(final long bucket) {
+        int slot = (int) (bucket % slots.length());
+        while (true) {
+            long current = slots.get(slot);
+            if (current >>> COUNT_BITS != bucket || (current & COUNT_MASK) == 0) {
+                return;
+            }
+            if (slots.compareAndSet(slot, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param bucket number of the current time bucket
+     * @return number of events in the window ending with the bucket
+     */
+    long sum(final long bucket) {
+        long oldest = bucket - slots.length();
+        long sum = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long current = slots.get(i);
+            long slotBucket = current >>> COUNT_BITS;
+            if (slotBucket > oldest && slotBucket <= bucket) {
+                sum += current & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.quora.service.trending;
+
+/**
+ * This class holds a trending question with the number of answers it received in the window
+ */
+public final class TrendingQuestion {
+    private final String uuid;
+    private final String content;
+    private final long answers;
+
+    public TrendingQuestion(final String uuid, final String content, final long answers) {
+        this.uuid = uuid;
+        this.content = content;
+        this.answers = answers;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return number of answers posted in the window, as of the last refresh of the trending questions
+     */
+    public long getAnswers() {
+        return answers;
+    }
+}
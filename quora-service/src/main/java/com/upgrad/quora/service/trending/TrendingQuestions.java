@@ -0,0 +1,291 @@
+package com.upgrad.quora.service.trending;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.event.AnswerEvent;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps the questions which received the most answers in the last hour and in the last day. The answers to
+ * every question are counted in a lock-free ring of time buckets per window as they are committed, and the top
+ * questions of every window are recomputed periodically into a snapshot, which the reads return without touching the
+ * database. The questions without an answer in the longest window are evicted at every refresh, and the least
+ * answered ones beyond "quora.trending.max-tracked". The answers of the last day are counted again at startup.
+ * The question and the time of every answer counted in the longest window are kept until the answer leaves it, so that
+ * a deleted answer, including one purged with its author, is uncounted from the bucket it was counted in.
+ */
+@Component
+public class TrendingQuestions {
+    private static final Logger LOG = LoggerFactory.getLogger(TrendingQuestions.class);
+
+    private static final TrendingWindow LONGEST = TrendingWindow.DAY;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.trending.hour-buckets:60}")
+    private int hourBuckets;
+
+    @Value("${quora.trending.day-buckets:96}")
+    private int dayBuckets;
+
+    @Value("${quora.trending.max-results:10}")
+    private int maxResults;
+
+    @Value("${quora.trending.max-tracked:10000}")
+    private int maxTracked;
+
+    private final Map<Integer, Tracked> tracked = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Counted> counted = new ConcurrentHashMap<>();
+
+    private volatile Map<TrendingWindow, List<Ranked>> snapshot = new EnumMap<>(TrendingWindow.class);
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            List<AnswerEntity> answers = transactionTemplate.execute(status ->
+                    answerDao.getRecentAnswerActivity(ZonedDateTime.now().minus(LONGEST.getLength())));
+            for (AnswerEntity answer : answers) {
+                QuestionEntity question = answer.getQuestion();
+                record(answer.getId(), question.getId(), question.getUuid(), question.getContent(), question.getUserId().getUuid(),
+                        answer.getDate().toInstant().toEpochMilli());
+            }
+            refresh();
+            LOG.info("Counted {} answers of the last {} for the trending questions in {} ms", answers.size(), LONGEST.getLength(),
+                    (System.nanoTime() - start) / 1000000);
+        } catch (RuntimeException e) {
+            LOG.warn("The answers of the last {} could not be counted, the trending questions start empty", LONGEST.getLength(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswerEvent(final AnswerEvent event) {
+        if (event.getType() == AnswerEvent.Type.CREATED && event.getQuestionId() != null) {
+            long time = event.getDate() == null ? System.currentTimeMillis() : event.getDate().toInstant().toEpochMilli();
+            record(event.getAnswerId(), event.getQuestionId(), event.getQuestionUuid(), event.getQuestionContent(),
+                    event.getQuestionUserUuid(), time);
+        } else if (event.getType() == AnswerEvent.Type.DELETED && event.getAnswerId() != null) {
+            // purged answers carry only their id, the question and the time are the ones the answer was counted with
+            Counted answer = counted.remove(event.getAnswerId());
+            if (answer != null) {
+                for (TrendingWindow window : TrendingWindow.values()) {
+                    answer.question.counters.get(window).decrement(bucket(window, answer.time));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionEvent(final QuestionEvent event) {
+        if (event.getQuestionId() == null) {
+            return;
+        }
+        if (event.getType() == QuestionEvent.Type.DELETED) {
+            tracked.remove(event.getQuestionId());
+        } else if (event.getType() == QuestionEvent.Type.UPDATED) {
+            Tracked question = tracked.get(event.getQuestionId());
+            if (question != null) {
+                question.content = event.getContent();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserEvent(final UserEvent event) {
+        if (event.getType() == UserEvent.Type.DELETED && event.getUserUuid() != null) {
+            for (Map.Entry<Integer, Tracked> question : tracked.entrySet()) {
+                if (event.getUserUuid().equals(question.getValue().userUuid)) {
+                    tracked.remove(question.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * This method recomputes the top questions of every window and evicts the questions without recent answers
+     */
+    @Scheduled(fixedDelayString = "${quora.trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        long oldestBucket = bucket(LONGEST, now) - buckets(LONGEST);
+        counted.values().removeIf(answer -> bucket(LONGEST, answer.time) <= oldestBucket);
+        Map<TrendingWindow, PriorityQueue<Ranked>> tops = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            tops.put(window, new PriorityQueue<>(Ranked.LEAST_ANSWERED_FIRST));
+        }
+        for (Map.Entry<Integer, Tracked> entry : tracked.entrySet()) {
+            Tracked question = entry.getValue();
+            if (question.sum(LONGEST, now) == 0) {
+                // an answer counted meanwhile is lost with the question, which had none for a whole window
+                tracked.remove(entry.getKey(), question);
+                continue;
+            }
+            for (TrendingWindow window : TrendingWindow.values()) {
+                long answers = question.sum(window, now);
+                if (answers > 0) {
+                    offer(tops.get(window), new Ranked(entry.getKey(), question, answers), maxResults);
+                }
+            }
+        }
+
+        int excess = tracked.size() - maxTracked;
+        if (excess > 0) {
+            PriorityQueue<Ranked> leastAnswered = new PriorityQueue<>(Ranked.LEAST_ANSWERED_FIRST.reversed());
+            for (Map.Entry<Integer, Tracked> entry : tracked.entrySet()) {
+                Ranked question = new Ranked(entry.getKey(), entry.getValue(), entry.getValue().sum(LONGEST, now));
+                if (leastAnswered.size() < excess) {
+                    leastAnswered.add(question);
+                } else if (Ranked.LEAST_ANSWERED_FIRST.compare(question, leastAnswered.peek()) < 0) {
+                    leastAnswered.poll();
+                    leastAnswered.add(question);
+                }
+            }
+            for (Ranked evicted : leastAnswered) {
+                tracked.remove(evicted.id, evicted.question);
+            }
+        }
+
+        Map<TrendingWindow, List<Ranked>> refreshed = new EnumMap<>(TrendingWindow.class);
+        for (Map.Entry<TrendingWindow, PriorityQueue<Ranked>> top : tops.entrySet()) {
+            List<Ranked> ranked = new ArrayList<>(top.getValue());
+            ranked.sort(Ranked.LEAST_ANSWERED_FIRST.reversed());
+            refreshed.put(top.getKey(), ranked);
+        }
+        snapshot = refreshed;
+    }
+
+    /**
+     * This method returns the questions which received the most answers in the window, as of the last refresh
+     * @param window window
+     * @param limit maximum number of questions, at least one and capped at "quora.trending.max-results"
+     * @return trending questions, most answered first
+     */
+    public List<TrendingQuestion> getTrending(final TrendingWindow window, final int limit) {
+        int size = Math.max(1, Math.min(limit, maxResults));
+        List<Ranked> ranked = snapshot.getOrDefault(window, Collections.emptyList());
+        List<TrendingQuestion> trending = new ArrayList<>(Math.min(size, ranked.size()));
+        for (Ranked question : ranked) {
+            if (trending.size() >= size) {
+                break;
+            }
+            // a question deleted or evicted since the refresh is no longer tracked
+            if (tracked.get(question.id) == question.question) {
+                trending.add(new TrendingQuestion(question.question.uuid, question.question.content, question.answers));
+            }
+        }
+        return trending;
+    }
+
+    private void record(final Integer answerId, final int questionId, final String uuid, final String content,
+                        final String userUuid, final long time) {
+        Tracked question = tracked.computeIfAbsent(questionId, id -> new Tracked(uuid, content, userUuid));
+        for (TrendingWindow window : TrendingWindow.values()) {
+            question.counters.get(window).increment(bucket(window, time));
+        }
+        if (answerId != null) {
+            counted.put(answerId, new Counted(question, time));
+        }
+    }
+
+    private static void offer(final PriorityQueue<Ranked> top, final Ranked question, final int size) {
+        if (top.size() < size) {
+            top.add(question);
+        } else if (Ranked.LEAST_ANSWERED_FIRST.compare(question, top.peek()) > 0) {
+            top.poll();
+            top.add(question);
+        }
+    }
+
+    private int buckets(final TrendingWindow window) {
+        return window == TrendingWindow.HOUR ? hourBuckets : dayBuckets;
+    }
+
+    private long bucket(final TrendingWindow window, final long time) {
+        return time / (window.getLength().toMillis() / buckets(window));
+    }
+
+    /**
+     * This class is a question with the counters of its answers in every window
+     */
+    private final class Tracked {
+        private final String uuid;
+        private volatile String content;
+        private final String userUuid;
+        private final Map<TrendingWindow, SlidingWindowCounter> counters = new EnumMap<>(TrendingWindow.class);
+
+        private Tracked(final String uuid, final String content, final String userUuid) {
+            this.uuid = uuid;
+            this.content = content;
+            this.userUuid = userUuid;
+            for (TrendingWindow window : TrendingWindow.values()) {
+                counters.put(window, new SlidingWindowCounter(buckets(window)));
+            }
+        }
+
+        private long sum(final TrendingWindow window, final long time) {
+            return counters.get(window).sum(bucket(window, time));
+        }
+    }
+
+    /**
+     * This class is the question and the time an answer was counted with
+     */
+    private static final class Counted {
+        private final Tracked question;
+        private final long time;
+
+        private Counted(final Tracked question, final long time) {
+            this.question = question;
+            this.time = time;
+        }
+    }
+
+    /**
+     * This class is a question with its number of answers in a window as of a refresh
+     */
+    private static final class Ranked {
+        // questions with as many answers rank by age, the newest last
+        private static final Comparator<Ranked> LEAST_ANSWERED_FIRST = Comparator.<Ranked>comparingLong(ranked -> ranked.answers)
+                .thenComparingInt(ranked -> ranked.id);
+
+        private final int id;
+        private final Tracked question;
+        private final long answers;
+
+        private Ranked(final int id, final Tracked question, final long answers) {
+            this.id = id;
+            this.question = question;
+            this.answers = answers;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.upgrad.quora.service.trending;
+
+import com.upgrad.quora.service.exception.InvalidTrendingWindowException;
+
+import java.time.Duration;
+
+/**
+ * This enum lists the windows over which the answers to the questions are counted for the trending questions
+ */
+public enum TrendingWindow {
+    HOUR(Duration.ofHours(1)), DAY(Duration.ofDays(1));
+
+    private final Duration length;
+
+    TrendingWindow(final Duration length) {
+        this.length = length;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    /**
+     * This method returns the window by its name
+     * @param name "hour" or "day", in any case
+     * @return the window
+     * @throws InvalidTrendingWindowException if there is no window by that name
+     */
+    public static TrendingWindow parse(final String name) throws InvalidTrendingWindowException {
+        for (TrendingWindow window : values()) {
+            if (window.name().equalsIgnoreCase(name == null ? "" : name.trim())) {
+                return window;
+            }
+        }
+        throw new InvalidTrendingWindowException("TRD-001", "The window '" + name + "' does not exist, the windows are hour, day");
+    }
+}
@@ -0,0 +1,260 @@
+package com.upgrad.quora.service.warmup;
+
+import com.upgrad.quora.service.bulkhead.BulkheadRoutingDataSource;
+import com.upgrad.quora.service.cache.CacheNames;
+import com.upgrad.quora.service.cache.CacheRegistry;
+import com.upgrad.quora.service.cache.LocalCache;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class prepares the service layer of a starting node for its first requests: it opens the connections of the
+ * pools, runs every select named query once so that Hibernate, the JDBC driver and the database have prepared them,
+ * and fills the caches with the keys which were cached when the node, or another one, last stopped.
+ * The hot keys of the caches are written to "quora.warmup.hot-keys-file" when the node stops.
+ */
+@Component
+public class WarmupService {
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupService.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BulkheadRoutingDataSource dataSource;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Value("${quora.warmup.hot-keys-file:}")
+    private String hotKeysFile;
+
+    @Value("${quora.warmup.hot-key-caches:questions,profiles,question-responses,answer-responses,profile-responses}")
+    private String[] hotKeyCaches;
+
+    @Value("${quora.warmup.max-hot-keys:1000}")
+    private int maxHotKeys;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * This method opens connections of every connection pool
+     * @param perPool connections to open in each pool
+     * @return number of connections opened
+     * @throws SQLException if a connection cannot be opened
+     */
+    public int openConnections(final int perPool) throws SQLException {
+        return dataSource.preOpen(perPool);
+    }
+
+    /**
+     * This method runs every select named query of the entities once, with placeholder parameters and in a
+     * transaction which is rolled back. The update and delete queries are not run.
+     * @return number of queries run
+     */
+    public int executeNamedQueries() {
+        int executed = 0;
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : namedQueries(entity.getJavaType())) {
+                if (!namedQuery.query().trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.execute(status -> {
+                        status.setRollbackOnly();
+                        return execute(namedQuery.name());
+                    });
+                    executed++;
+                } catch (RuntimeException e) {
+                    LOG.debug("Named query {} could not be warmed up: {}", namedQuery.name(), e.getMessage());
+                }
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * This method loads the hot keys of the question and profile caches into them
+     * @return number of keys loaded
+     */
+    public int prefillCaches() {
+        int loaded = 0;
+        for (String uuid : getHotKeys(CacheNames.QUESTIONS)) {
+            if (questionDao.getQuestionById(uuid) != null) {
+                loaded++;
+            }
+        }
+        for (String uuid : getHotKeys(CacheNames.PROFILES)) {
+            if (userDao.getUserById(uuid) != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * This method returns the keys of the named cache which were cached when the hot keys were last written
+     * @param cacheName name of the cache
+     * @return keys of the cache
+     */
+    public List<String> getHotKeys(final String cacheName) {
+        List<String> keys = readHotKeys().get(cacheName);
+        return keys == null ? Collections.<String>emptyList() : keys;
+    }
+
+    /**
+     * This method writes the keys currently cached in the hot key caches to the hot keys file
+     */
+    @PreDestroy
+    public void saveHotKeys() {
+        if (hotKeysFile.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(hotKeysFile);
+        int saved = 0;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (String cacheName : hotKeyCaches) {
+                    LocalCache<Object, Object> cache = cacheRegistry.getCache(cacheName.trim());
+                    if (cache == null) {
+                        continue;
+                    }
+                    int written = 0;
+                    for (Object key : cache.keys()) {
+                        if (written++ == maxHotKeys) {
+                            break;
+                        }
+                        writer.write(cache.getName() + "\t" + URLEncoder.encode(key.toString(), "UTF-8"));
+                        writer.newLine();
+                        saved++;
+                    }
+                }
+            }
+            LOG.info("Saved {} hot cache keys to {}", saved, file);
+        } catch (IOException e) {
+            LOG.warn("Hot cache keys could not be saved to {}", file, e);
+        }
+    }
+
+    private Map<String, List<String>> readHotKeys() {
+        Map<String, List<String>> keys = new HashMap<>();
+        if (hotKeysFile.isEmpty() || !Files.isReadable(Paths.get(hotKeysFile))) {
+            return keys;
+        }
+        try {
+            for (String line : Files.readAllLines(Paths.get(hotKeysFile), StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    keys.computeIfAbsent(line.substring(0, tab), name -> new ArrayList<>()).add(decode(line.substring(tab + 1)));
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Hot cache keys could not be read from {}", hotKeysFile, e);
+        }
+        return keys;
+    }
+
+    private Object execute(final String name) {
+        Query query = entityManager.createNamedQuery(name);
+        for (Parameter<?> parameter : query.getParameters()) {
+            query.setParameter(parameter.getName(), placeholder(parameter.getParameterType()));
+        }
+        return query.setMaxResults(1).getResultList();
+    }
+
+    private static Object placeholder(final Class<?> type) {
+        if (type == null) {
+            return null;
+        }
+        if (type == String.class) {
+            return "";
+        }
+        if (type == Integer.class || type == int.class) {
+            return 0;
+        }
+        if (type == Long.class || type == long.class) {
+            return 0L;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return false;
+        }
+        if (type == ZonedDateTime.class) {
+            return ZonedDateTime.now();
+        }
+        return null;
+    }
+
+    private static List<NamedQuery> namedQueries(final Class<?> entityClass) {
+        List<NamedQuery> namedQueries = new ArrayList<>();
+        NamedQueries container = entityClass.getAnnotation(NamedQueries.class);
+        if (container != null) {
+            Collections.addAll(namedQueries, container.value());
+        }
+        NamedQuery single = entityClass.getAnnotation(NamedQuery.class);
+        if (single != null) {
+            namedQueries.add(single);
+        }
+        return namedQueries;
+    }
+
+    private static String decode(final String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
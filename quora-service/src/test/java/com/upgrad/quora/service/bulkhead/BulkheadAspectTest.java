@@ -0,0 +1,124 @@
+package com.upgrad.quora.service.bulkhead;
+
+import com.upgrad.quora.service.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * This class checks that the methods annotated with {@link Bulkhead} run inside their bulkhead, through a proxy
+ * advised by the aspect, and that a call finding its bulkhead saturated is rejected with BHD-001. The write bulkhead
+ * admits one call and no waiting one.
+ */
+public class BulkheadAspectTest {
+    private BulkheadRegistry bulkheadRegistry;
+    private Service service;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        bulkheadRegistry = new BulkheadRegistry();
+        set(bulkheadRegistry, "environment", new MockEnvironment()
+                .withProperty("quora.bulkhead.write.max-concurrent", "1")
+                .withProperty("quora.bulkhead.write.max-waiting", "0")
+                .withProperty("quora.bulkhead.write.max-wait-ms", "10"));
+        set(bulkheadRegistry, "meterRegistry", new SimpleMeterRegistry());
+        bulkheadRegistry.init();
+
+        BulkheadAspect aspect = new BulkheadAspect();
+        set(aspect, "bulkheadRegistry", bulkheadRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Service());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        service = proxyFactory.getProxy();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    //This test case passes when an annotated method runs inside the bulkhead of its annotation, which it leaves when it returns.
+    @Test
+    public void runsInsideBulkhead() {
+        assertEquals(BulkheadNames.READ, service.read());
+        assertEquals(BulkheadNames.WRITE, service.write(null, null));
+        assertNull(BulkheadContext.current());
+        assertEquals(0, bulkheadRegistry.get(BulkheadNames.WRITE).getActive());
+    }
+
+    //This test case passes when a call made from inside a bulkhead stays in it instead of entering the bulkhead of its own annotation.
+    @Test
+    public void nestedCallStaysInOuterBulkhead() {
+        assertEquals(BulkheadNames.READ, service.readThenWrite(service));
+        assertEquals(0, bulkheadRegistry.get(BulkheadNames.WRITE).getActive());
+    }
+
+    //This test case passes when a call to a saturated bulkhead is rejected with BHD-001 and a call to another bulkhead is still served.
+    @Test
+    public void rejectsWhenFull() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> holder = executor.submit(() -> service.write(entered, release));
+        entered.await(5, TimeUnit.SECONDS);
+        try {
+            service.write(null, null);
+            fail("The call entered a saturated bulkhead");
+        } catch (BulkheadFullException e) {
+            assertEquals("BHD-001", e.getCode());
+        }
+        assertEquals(BulkheadNames.READ, service.read());
+        release.countDown();
+        assertEquals(BulkheadNames.WRITE, holder.get(5, TimeUnit.SECONDS));
+        assertEquals(BulkheadNames.WRITE, service.write(null, null));
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * This class returns the bulkhead its methods run in
+     */
+    public static class Service {
+        @Bulkhead(BulkheadNames.READ)
+        public String read() {
+            return BulkheadContext.current();
+        }
+
+        @Bulkhead(BulkheadNames.WRITE)
+        public String write(final CountDownLatch entered, final CountDownLatch release) {
+            if (entered != null) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return BulkheadContext.current();
+        }
+
+        @Bulkhead(BulkheadNames.READ)
+        public String readThenWrite(final Service proxy) {
+            return proxy.write(null, null);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.upgrad.quora.service.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class checks that the routing DataSource takes the connections from the pool of the bulkhead of the current
+ * thread, and from the default pool outside of any bulkhead. The pools record that they were asked for a connection
+ * instead of opening one.
+ */
+public class BulkheadRoutingDataSourceTest {
+    private static final String DEFAULT_POOL = "default";
+
+    private String routedTo;
+    private BulkheadRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        Map<String, HikariDataSource> pools = new HashMap<>();
+        for (String name : BulkheadNames.ALL) {
+            pools.put(name, pool(name));
+        }
+        dataSource = new BulkheadRoutingDataSource(pool(DEFAULT_POOL), pools);
+    }
+
+    @After
+    public void tearDown() {
+        BulkheadContext.exit();
+        dataSource.close();
+    }
+
+    //This test case passes when every bulkhead takes its connections from its own pool.
+    @Test
+    public void routesBulkheadToItsPool() throws SQLException {
+        for (String name : BulkheadNames.ALL) {
+            BulkheadContext.enter(name);
+            try {
+                dataSource.getConnection();
+                assertEquals(name, routedTo);
+            } finally {
+                BulkheadContext.exit();
+            }
+        }
+    }
+
+    //This test case passes when a thread outside of any bulkhead, or in a bulkhead without a pool, takes its connections from the default pool.
+    @Test
+    public void routesOtherThreadsToDefaultPool() throws SQLException {
+        dataSource.getConnection();
+        assertEquals(DEFAULT_POOL, routedTo);
+        routedTo = null;
+        BulkheadContext.enter("unknown");
+        dataSource.getConnection();
+        assertEquals(DEFAULT_POOL, routedTo);
+    }
+
+    private HikariDataSource pool(final String name) {
+        return new HikariDataSource() {
+            @Override
+            public Connection getConnection() {
+                routedTo = name;
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.upgrad.quora.service.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class checks that an invalidation is published to the other nodes and applied to the caches of this node only
+ * once the transaction commits, and that the notifications of the other nodes are applied.
+ */
+public class CacheInvalidationBusTest {
+    private CacheRegistry cacheRegistry;
+    private LocalCache<String, String> cache;
+    private final List<List<Object>> notifications = new ArrayList<>();
+    private CacheInvalidationBus bus;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        cacheRegistry = new CacheRegistry();
+        set(cacheRegistry, "environment", new MockEnvironment());
+        cache = cacheRegistry.register("questions");
+        cache.get("key1", key -> "value1");
+        cache.get("key2", key -> "value2");
+
+        bus = new CacheInvalidationBus();
+        set(bus, "cacheRegistry", cacheRegistry);
+        set(bus, "jdbcTemplate", new JdbcTemplate() {
+            @Override
+            public <T> T query(final String sql, final ResultSetExtractor<T> extractor, final Object... args) {
+                List<Object> notification = new ArrayList<>(Arrays.asList(args));
+                notification.add(0, sql);
+                notifications.add(notification);
+                return null;
+            }
+        });
+        set(bus, "enabled", true);
+        set(bus, "channel", "quora_cache_invalidation");
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    //This test case passes when an invalidation inside a transaction is notified at once but applied to this node after the commit only.
+    @Test
+    public void invalidateAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidate("questions", "key1");
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("select pg_notify(?, ?)", "quora_cache_invalidation",
+                CacheInvalidationBus.NODE_ID + "|questions|Kkey1")), notifications);
+        assertEquals("value1", cache.getIfPresent("key1"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertNull(cache.getIfPresent("key1"));
+        assertEquals("value2", cache.getIfPresent("key2"));
+    }
+
+    //This test case passes when an invalidation inside a transaction which rolls back leaves the caches of this node alone.
+    @Test
+    public void invalidateNotAppliedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidateAll("questions");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals("value1", cache.getIfPresent("key1"));
+    }
+
+    //This test case passes when an invalidation outside a transaction is applied at once.
+    @Test
+    public void invalidateWithoutTransaction() {
+        bus.invalidateAll("questions");
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when the notifications of another node are applied and those of this node, already applied, are ignored.
+    @Test
+    public void applyNotificationsOfOtherNodes() {
+        bus.apply(CacheInvalidationBus.NODE_ID + "|questions|Kkey1");
+        assertEquals("value1", cache.getIfPresent("key1"));
+
+        bus.apply("other-node|questions|Kkey1");
+        assertNull(cache.getIfPresent("key1"));
+        assertEquals("value2", cache.getIfPresent("key2"));
+
+        bus.apply("other-node|questions|A");
+        assertEquals(0, cache.size());
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,129 @@
+package com.upgrad.quora.service.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * This class checks the listener against the database of the application, like the controller tests: the
+ * notifications of another node invalidate the caches of this one, and the caches are flushed when the listening
+ * connection is lost and bypassed until it is re-established.
+ */
+public class CacheInvalidationListenerTest {
+    private static final String URL = "jdbc:postgresql://localhost:5432/quora";
+    private static final String USERNAME = "postgres";
+    private static final String PASSWORD = "password";
+    private static final String APPLICATION_NAME = "cache-invalidation-listener-test";
+    private static final String CHANNEL = "quora_cache_invalidation_test";
+
+    private CacheRegistry cacheRegistry;
+    private LocalCache<String, String> cache;
+    private CacheInvalidationListener listener;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        cacheRegistry = new CacheRegistry();
+        set(cacheRegistry, "environment", new MockEnvironment());
+        cache = cacheRegistry.register("questions");
+
+        CacheInvalidationBus bus = new CacheInvalidationBus();
+        set(bus, "cacheRegistry", cacheRegistry);
+        set(bus, "enabled", true);
+        set(bus, "channel", CHANNEL);
+
+        listener = new CacheInvalidationListener();
+        set(listener, "cacheInvalidationBus", bus);
+        set(listener, "cacheRegistry", cacheRegistry);
+        set(listener, "url", URL + "?ApplicationName=" + APPLICATION_NAME);
+        set(listener, "username", USERNAME);
+        set(listener, "password", PASSWORD);
+        set(listener, "pollIntervalMs", 50);
+        set(listener, "maxReconnectDelayMs", 200L);
+    }
+
+    @After
+    public void tearDown() {
+        listener.shutdown();
+    }
+
+    //This test case passes when the caches are bypassed until the listener connects, and a key notified by another node is then invalidated.
+    @Test
+    public void appliesNotificationsOfOtherNodes() throws Exception {
+        listener.init();
+        awaitCoherent();
+        cache.get("key1", key -> "value1");
+        cache.get("key2", key -> "value2");
+
+        notify("other-node|questions|Kkey1");
+        await(() -> cache.getIfPresent("key1") == null);
+        cache.putIfUnchanged("key3", "value3", cache.getGeneration());
+        await(() -> "value3".equals(cache.getIfPresent("key3")));
+        assertEquals("value2", cache.getIfPresent("key2"));
+    }
+
+    //This test case passes when the caches are flushed after the listening connection is terminated, since the notifications sent meanwhile are lost.
+    @Test
+    public void flushesOnReconnect() throws Exception {
+        listener.init();
+        awaitCoherent();
+        cache.get("key1", key -> "value1");
+
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+             PreparedStatement statement = connection.prepareStatement(
+                     "select pg_terminate_backend(pid) from pg_stat_activity where application_name = ?")) {
+            statement.setString(1, APPLICATION_NAME);
+            statement.executeQuery().close();
+        }
+        await(() -> cache.getIfPresent("key1") == null);
+        awaitCoherent();
+        assertNull(cache.getIfPresent("key1"));
+    }
+
+    //Waits until a value put in the cache is kept, which it is not while the caches are bypassed
+    private void awaitCoherent() throws InterruptedException {
+        await(() -> {
+            cache.putIfUnchanged("probe", "probe", cache.getGeneration());
+            boolean coherent = cache.getIfPresent("probe") != null;
+            cache.invalidate("probe");
+            return coherent;
+        });
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("The condition was not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void notify(final String payload) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.executeQuery().close();
+        }
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
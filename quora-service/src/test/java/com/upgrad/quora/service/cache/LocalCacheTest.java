@@ -0,0 +1,113 @@
+package com.upgrad.quora.service.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class checks that a cache never keeps a value loaded while it was invalidated, and that the caches flushed
+ * while the invalidations of the other nodes cannot be received are bypassed until they are flushed again.
+ */
+public class LocalCacheTest {
+    private CacheRegistry cacheRegistry;
+    private LocalCache<String, String> cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        cacheRegistry = new CacheRegistry();
+        set(cacheRegistry, "environment", new MockEnvironment()
+                .withProperty("quora.cache.small.max-size", "2")
+                .withProperty("quora.cache.expired.ttl-seconds", "0"));
+        cache = cacheRegistry.register("questions");
+        loads = new AtomicInteger();
+    }
+
+    //This test case passes when a loaded value is served from the cache until its key is invalidated.
+    @Test
+    public void getLoadsOnceUntilInvalidated() {
+        assertEquals("value1", cache.get("key", this::load));
+        assertEquals("value1", cache.get("key", this::load));
+        cache.invalidate("key");
+        assertEquals("value2", cache.get("key", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    //This test case passes when a value loaded while its key was invalidated is returned but not kept.
+    @Test
+    public void getDropsValueLoadedDuringInvalidation() {
+        assertEquals("stale", cache.get("key", key -> {
+            cache.invalidate(key);
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    //This test case passes when a value loaded by the caller is cached only if the cache was not invalidated since the generation was read.
+    @Test
+    public void putIfUnchangedChecksGeneration() {
+        long generation = cache.getGeneration();
+        cache.invalidate("other");
+        cache.putIfUnchanged("key", "stale", generation);
+        assertNull(cache.getIfPresent("key"));
+
+        cache.putIfUnchanged("key", "fresh", cache.getGeneration());
+        assertEquals("fresh", cache.getIfPresent("key"));
+    }
+
+    //This test case passes when the caches are emptied and bypassed while incoherent, and used again once flushed as coherent.
+    @Test
+    public void flushAllBypassesUntilCoherent() {
+        cache.get("key", this::load);
+        cacheRegistry.flushAll(false);
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("value2", cache.get("key", this::load));
+        assertEquals("value3", cache.get("key", this::load));
+        cache.putIfUnchanged("key", "put", cache.getGeneration());
+        assertNull(cache.getIfPresent("key"));
+
+        cacheRegistry.flushAll(true);
+        assertEquals("value4", cache.get("key", this::load));
+        assertEquals("value4", cache.get("key", this::load));
+    }
+
+    //This test case passes when the invalidation of a whole cache removes every key.
+    @Test
+    public void invalidateAllRemovesEveryKey() {
+        cache.get("key1", this::load);
+        cache.get("key2", this::load);
+        cacheRegistry.invalidateAll("questions");
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when an expired value is loaded again and a full cache evicts a key to take a new one.
+    @Test
+    public void expiresAndEvicts() {
+        LocalCache<String, String> expired = cacheRegistry.register("expired");
+        expired.get("key", this::load);
+        assertNull(expired.getIfPresent("key"));
+
+        LocalCache<String, String> small = cacheRegistry.register("small");
+        small.get("key1", this::load);
+        small.get("key2", this::load);
+        small.get("key3", this::load);
+        assertEquals(2, small.size());
+        assertEquals("value4", small.getIfPresent("key3"));
+    }
+
+    private String load(final String key) {
+        return "value" + loads.incrementAndGet();
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
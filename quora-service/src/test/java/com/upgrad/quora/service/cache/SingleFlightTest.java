@@ -0,0 +1,170 @@
+package com.upgrad.quora.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * This class checks that concurrent calls of the same key share the call of the first one, with its result or its
+ * exception, that a caller waiting too long runs its own call, and that callers in a read-write transaction never
+ * wait. The first call of every test blocks in its loader until the test releases it.
+ */
+public class SingleFlightTest {
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+    private CountDownLatch leaderStarted;
+    private CountDownLatch leaderReleased;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        singleFlight = new SingleFlight();
+        set(singleFlight, "environment", new MockEnvironment().withProperty("quora.single-flight.slow.timeout-ms", "50"));
+        set(singleFlight, "meterRegistry", new SimpleMeterRegistry());
+        singleFlight.init();
+        executor = Executors.newCachedThreadPool();
+        leaderStarted = new CountDownLatch(1);
+        leaderReleased = new CountDownLatch(1);
+        loads = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        leaderReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    //This test case passes when a call arriving while the first call of the key is in flight gets its result without loading.
+    @Test
+    public void coalescesConcurrentCalls() throws Exception {
+        Object value = new Object();
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("question", "uuid", blockingLoader(() -> value)));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Thread[] follower = new Thread[1];
+        Future<Object> coalesced = executor.submit(() -> {
+            follower[0] = Thread.currentThread();
+            return singleFlight.execute("question", "uuid", countingLoader(Object::new));
+        });
+        awaitWaiting(follower);
+        leaderReleased.countDown();
+
+        assertSame(value, leader.get(5, TimeUnit.SECONDS));
+        assertSame(value, coalesced.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    //This test case passes when a call which waited longer than the timeout of its group runs its own load.
+    @Test
+    public void loadsAfterTimeout() throws Exception {
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("slow", "uuid", blockingLoader(() -> "leader")));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        assertEquals("follower", singleFlight.execute("slow", "uuid", countingLoader(() -> "follower")));
+        leaderReleased.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    //This test case passes when the exception of the first call is thrown to the calls which waited for it, which do not load.
+    @Test
+    public void sharesException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("query failed");
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("question", "uuid", blockingLoader(() -> {
+            throw failure;
+        })));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Thread[] follower = new Thread[1];
+        Future<Object> coalesced = executor.submit(() -> {
+            follower[0] = Thread.currentThread();
+            return singleFlight.execute("question", "uuid", countingLoader(Object::new));
+        });
+        awaitWaiting(follower);
+        leaderReleased.countDown();
+
+        assertSame(failure, cause(leader));
+        assertSame(failure, cause(coalesced));
+        assertEquals(1, loads.get());
+    }
+
+    //This test case passes when a call inside a read-write transaction loads at once although the key is in flight.
+    @Test
+    public void bypassesReadWriteTransaction() throws Exception {
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("question", "uuid", blockingLoader(() -> "leader")));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try {
+            assertEquals("own", singleFlight.execute("question", "uuid", countingLoader(() -> "own")));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        leaderReleased.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    private <V> Supplier<V> blockingLoader(final Supplier<V> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            try {
+                leaderReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.get();
+        };
+    }
+
+    private <V> Supplier<V> countingLoader(final Supplier<V> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    //Waits until the thread is parked on the call in flight, the default timeout of the groups being one second
+    private static void awaitWaiting(final Thread[] thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread[0] == null || thread[0].getState() != Thread.State.TIMED_WAITING) {
+            if (System.nanoTime() > deadline) {
+                fail("The call did not wait for the call in flight");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static Throwable cause(final Future<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The call did not fail");
+        return null;
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,178 @@
+package com.upgrad.quora.service.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class checks the top ids read from the prefix tree while nodes are split by additions and removed or merged
+ * with their only child by removals, against a map of the keys to their ids.
+ */
+public class PrefixTrieTest {
+    private static final int[] NONE = new int[0];
+
+    //This test case passes when the top ids of a prefix are the highest ids of the keys below it, each id once, capped at topK.
+    @Test
+    public void topIsHighestIdsBelowPrefix() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("car", 1);
+        trie.add("cart", 2);
+        trie.add("care", 3);
+        trie.add("cat", 3);
+        trie.add("dog", 4);
+
+        assertArrayEquals(new int[]{3, 2}, trie.top("ca"));
+        assertArrayEquals(new int[]{3, 2}, trie.top("car"));
+        assertArrayEquals(new int[]{2}, trie.top("cart"));
+        assertArrayEquals(new int[]{4, 3}, trie.top(""));
+        assertArrayEquals(NONE, trie.top("carts"));
+        assertArrayEquals(NONE, trie.top("cb"));
+    }
+
+    //This test case passes when all returns every id below the prefix past topK, each id once, highest first.
+    @Test
+    public void allIsEveryIdBelowPrefix() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("car", 1);
+        trie.add("cart", 2);
+        trie.add("care", 3);
+        trie.add("cat", 3);
+        trie.add("car", 5);
+
+        assertArrayEquals(new int[]{5, 3, 2, 1}, trie.all("ca"));
+        assertArrayEquals(new int[]{5, 3, 2, 1}, trie.all("car"));
+        assertArrayEquals(new int[]{3}, trie.all("cat"));
+        assertArrayEquals(NONE, trie.all("carts"));
+    }
+
+    //This test case passes when a node left without ids and children is removed, and one left without ids and with a single child is merged with it.
+    @Test
+    public void removeDropsAndMergesNodes() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("car", 1);
+        trie.add("cart", 2);
+        trie.add("care", 3);
+
+        trie.remove("car", 1);
+        assertArrayEquals(new int[]{3, 2}, trie.top("car"));
+        assertArrayEquals(new int[]{3, 2}, trie.all("car"));
+
+        // "t" is dropped, then "car" has no ids and the single child "e" and is merged into "care"
+        trie.remove("cart", 2);
+        assertArrayEquals(NONE, trie.top("cart"));
+        assertArrayEquals(new int[]{3}, trie.top("c"));
+        assertArrayEquals(new int[]{3}, trie.top("car"));
+        assertArrayEquals(new int[]{3}, trie.top("care"));
+
+        // the merged node is split again by a key ending inside its label
+        trie.add("cart", 4);
+        trie.add("ca", 5);
+        assertArrayEquals(new int[]{5, 4}, trie.top("c"));
+        assertArrayEquals(new int[]{4, 3}, trie.top("car"));
+        assertArrayEquals(new int[]{3}, trie.top("care"));
+
+        trie.remove("care", 3);
+        trie.remove("cart", 4);
+        trie.remove("ca", 5);
+        assertArrayEquals(NONE, trie.top(""));
+        assertArrayEquals(NONE, trie.all(""));
+    }
+
+    //This test case passes when removing an id which is not mapped, or a key which ends inside the label of a node, leaves the tree unchanged.
+    @Test
+    public void removeMissingUnchanged() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("care", 3);
+        trie.add("cart", 2);
+
+        trie.remove("care", 9);
+        trie.remove("ca", 3);
+        trie.remove("cars", 3);
+        trie.remove("dog", 3);
+
+        assertArrayEquals(new int[]{3, 2}, trie.top("ca"));
+        assertArrayEquals(new int[]{3}, trie.top("care"));
+    }
+
+    //This test case passes when the removal of a top id brings back the next highest id of the prefix, which was not among the topK.
+    @Test
+    public void removeRefillsTop() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("a", 1);
+        trie.add("ab", 2);
+        trie.add("ac", 3);
+        assertArrayEquals(new int[]{3, 2}, trie.top("a"));
+
+        trie.remove("ac", 3);
+        assertArrayEquals(new int[]{2, 1}, trie.top("a"));
+        assertArrayEquals(new int[]{2, 1}, trie.top(""));
+    }
+
+    //This test case passes when the top and all ids of every prefix match those of the map of keys after random additions and removals.
+    @Test
+    public void randomAddAndRemoveMatchesMap() {
+        Random random = new Random(42);
+        PrefixTrie trie = new PrefixTrie(3);
+        Map<String, Set<Integer>> keys = new HashMap<>();
+        List<String[]> mappings = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            if (mappings.isEmpty() || random.nextInt(3) > 0) {
+                String key = randomKey(random);
+                int id = random.nextInt(50);
+                trie.add(key, id);
+                if (keys.computeIfAbsent(key, k -> new TreeSet<>()).add(id)) {
+                    mappings.add(new String[]{key, Integer.toString(id)});
+                }
+            } else {
+                String[] mapping = mappings.remove(random.nextInt(mappings.size()));
+                int id = Integer.parseInt(mapping[1]);
+                trie.remove(mapping[0], id);
+                keys.get(mapping[0]).remove(id);
+            }
+            if (step % 50 == 0) {
+                for (int length = 0; length <= 3; length++) {
+                    for (int prefix = 0; prefix < 1 << (2 * length); prefix++) {
+                        String key = key(prefix, length);
+                        int[] all = expected(keys, key);
+                        assertArrayEquals(key, all, trie.all(key));
+                        assertArrayEquals(key, Arrays.copyOf(all, Math.min(3, all.length)), trie.top(key));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String randomKey(final Random random) {
+        return key(random.nextInt(1 << 10), 1 + random.nextInt(5));
+    }
+
+    /**
+     * This method spells the number in the letters a to d, so that the keys share many prefixes
+     */
+    private static String key(final int number, final int length) {
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append((char) ('a' + (number >> (2 * i) & 3)));
+        }
+        return key.toString();
+    }
+
+    private static int[] expected(final Map<String, Set<Integer>> keys, final String prefix) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (Map.Entry<String, Set<Integer>> entry : keys.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                ids.addAll(entry.getValue());
+            }
+        }
+        return ids.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+    }
+}
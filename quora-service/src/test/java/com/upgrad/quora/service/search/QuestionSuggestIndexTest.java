@@ -0,0 +1,109 @@
+package com.upgrad.quora.service.search;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class checks the suggestions of the prefix index built by {@link QuestionSuggestIndex#rebuild()} from questions
+ * held in memory, with keys cut at 8 characters and 2 results per prefix. The older question differs from the newer
+ * ones only after the 8th character.
+ */
+public class QuestionSuggestIndexTest {
+    private QuestionSuggestIndex index;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        List<QuestionEntity> questions = new ArrayList<>();
+        questions.add(question(1, "Question one"));
+        questions.add(question(2, "Question two"));
+        questions.add(question(3, "Question two again"));
+        questions.add(question(4, "Question two more"));
+
+        index = new QuestionSuggestIndex();
+        set(index, "maxResults", 2);
+        set(index, "indexedWords", 10);
+        set(index, "maxKeyLength", 8);
+        set(index, "questionDao", new QuestionDao() {
+            @Override
+            public List<QuestionEntity> getAllQuestionSuggestions() {
+                return questions;
+            }
+        });
+        set(index, "transactionManager", new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(final TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(final TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(final TransactionStatus status) {
+            }
+        });
+        index.initIndex();
+        index.rebuild();
+    }
+
+    //This test case passes when a prefix within the length of the keys returns the newest questions under it, up to the maximum number of results.
+    @Test
+    public void suggestShortPrefix() {
+        assertEquals(Arrays.asList("uuid4", "uuid3"), uuids(index.suggest("quest", 10)));
+        assertEquals(Arrays.asList("uuid4", "uuid3"), uuids(index.suggest("two", 10)));
+    }
+
+    //This test case passes when a prefix longer than the keys returns a matching question which is not among the top results of the cut key.
+    @Test
+    public void suggestPrefixLongerThanKeys() {
+        assertEquals(Arrays.asList("uuid1"), uuids(index.suggest("Question one", 10)));
+        assertEquals(Arrays.asList("uuid4", "uuid3"), uuids(index.suggest("Question two", 10)));
+        assertEquals(Arrays.asList("uuid3"), uuids(index.suggest("Question two ag", 10)));
+        assertEquals(Collections.emptyList(), uuids(index.suggest("Question three", 10)));
+    }
+
+    private static QuestionEntity question(final int id, final String content) {
+        QuestionEntity question = new QuestionEntity();
+        question.setId(id);
+        question.setUuid("uuid" + id);
+        question.setContent(content);
+        return question;
+    }
+
+    private static List<String> uuids(final List<QuestionEntity> questions) {
+        return questions.stream().map(QuestionEntity::getUuid).collect(Collectors.toList());
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Class<?> type = target.getClass();
+        while (true) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+                if (type == null) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
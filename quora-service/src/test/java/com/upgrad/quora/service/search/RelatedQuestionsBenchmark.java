@@ -0,0 +1,127 @@
+package com.upgrad.quora.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class compares the approximate nearest neighbour search of the related questions index with an exact search
+ * over the same vectors: the recall of the k related questions, the latency of both searches and the time to build
+ * the graph in parallel. The questions are drawn from topics with vocabularies of their own and a shared one, so many
+ * of them are equally far from a query; a question counts as found when it is not farther than the k-th nearest one.
+ * It is not a test; run it with
+ * <pre>
+ * mvn -pl quora-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.upgrad.quora.service.search.RelatedQuestionsBenchmark -Dexec.args="100000 1000 10 64"
+ * </pre>
+ * where the arguments are the number of questions, the number of measured queries, k and the ef of the search.
+ */
+public class RelatedQuestionsBenchmark {
+    private static final int DIMENSIONS = 128;
+    private static final int M = 16;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final int TOPICS = 200;
+    private static final int TOPIC_WORDS = 40;
+    private static final int SHARED_WORDS = 2000;
+
+    public static void main(final String[] args) {
+        int questions = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int ef = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+        Random random = new Random(42);
+        FeatureHasher hasher = new FeatureHasher(DIMENSIONS);
+        float[][] vectors = new float[questions][];
+        for (int i = 0; i < questions; i++) {
+            float[] counts = hasher.newCounts();
+            hasher.accumulate(counts, hasher.features(text(random)), 1);
+            vectors[i] = FeatureHasher.toUnitVector(counts);
+        }
+
+        HnswGraph graph = new HnswGraph(M, EF_CONSTRUCTION, questions);
+        List<HnswGraph.Node> nodes = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            nodes.add(graph.allocate(i, vectors[i]));
+        }
+        long start = System.nanoTime();
+        graph.link(nodes.get(0));
+        ForkJoinPool.commonPool().submit(() -> nodes.subList(1, nodes.size()).parallelStream().forEach(graph::link)).join();
+        System.out.printf("built a graph of %d questions on %d threads in %d ms%n", questions,
+                ForkJoinPool.commonPool().getParallelism(), (System.nanoTime() - start) / 1000000);
+
+        int[] queryIds = random.ints(queries, 0, questions).toArray();
+        for (int i = 0; i < Math.min(queries, 200); i++) {
+            graph.search(vectors[queryIds[i]], k, ef);
+        }
+
+        long approximateNanos = 0;
+        long exactNanos = 0;
+        long[] approximateLatencies = new long[queries];
+        double recall = 0;
+        for (int i = 0; i < queries; i++) {
+            float[] query = vectors[queryIds[i]];
+            long approximateStart = System.nanoTime();
+            List<HnswGraph.Scored> approximate = graph.search(query, k, ef);
+            approximateLatencies[i] = System.nanoTime() - approximateStart;
+            approximateNanos += approximateLatencies[i];
+
+            long exactStart = System.nanoTime();
+            double kthSimilarity = exact(vectors, query, k);
+            exactNanos += System.nanoTime() - exactStart;
+
+            int found = 0;
+            for (HnswGraph.Scored scored : approximate) {
+                if (1 - scored.getDistance() >= kthSimilarity - 1e-6) {
+                    found++;
+                }
+            }
+            recall += (double) found / k;
+        }
+        Arrays.sort(approximateLatencies);
+        System.out.printf("recall@%d with ef %d: %.4f%n", k, ef, recall / queries);
+        System.out.printf("approximate search: mean %.1f us, p99 %.1f us%n", approximateNanos / 1e3 / queries,
+                approximateLatencies[Math.max(0, (int) (queries * 0.99) - 1)] / 1e3);
+        System.out.printf("exact search: mean %.1f us%n", exactNanos / 1e3 / queries);
+    }
+
+    /**
+     * This method returns the k-th highest cosine similarity of the vectors to the query
+     */
+    private static double exact(final float[][] vectors, final float[] query, final int k) {
+        double[] bestSimilarity = new double[k];
+        Arrays.fill(bestSimilarity, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < vectors.length; i++) {
+            double dot = 0;
+            for (int d = 0; d < query.length; d++) {
+                dot += query[d] * vectors[i][d];
+            }
+            if (dot > bestSimilarity[k - 1]) {
+                int position = k - 1;
+                while (position > 0 && bestSimilarity[position - 1] < dot) {
+                    bestSimilarity[position] = bestSimilarity[position - 1];
+                    position--;
+                }
+                bestSimilarity[position] = dot;
+            }
+        }
+        return bestSimilarity[k - 1];
+    }
+
+    private static String text(final Random random) {
+        int topic = random.nextInt(TOPICS);
+        StringBuilder text = new StringBuilder();
+        int words = 8 + random.nextInt(30);
+        for (int i = 0; i < words; i++) {
+            if (random.nextInt(3) == 0) {
+                text.append("shared").append(random.nextInt(SHARED_WORDS));
+            } else {
+                text.append("topic").append(topic).append('x').append(random.nextInt(TOPIC_WORDS));
+            }
+            text.append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,172 @@
+package com.upgrad.quora.service.tags;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class compares the compressed sets with sets of boxed ints, across the 4096 values at which a container turns
+ * from an array into a bitmap and across the blocks of 65536 ids.
+ */
+public class CompressedBitmapTest {
+    private static final int BLOCK = 1 << 16;
+
+    //This test case passes when a container holds the same ints as the expected set while it grows past 4096 values into a bitmap and shrinks back.
+    @Test
+    public void withAndWithoutAcrossArraySizeLimit() {
+        CompressedBitmap bitmap = CompressedBitmap.EMPTY;
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int value = 0; value <= 4100; value++) {
+            bitmap = bitmap.with(BLOCK + value * 7);
+            expected.add(BLOCK + value * 7);
+            if (value >= 4094) {
+                assertEquals(expected, toSet(bitmap));
+            }
+        }
+        for (int value = 4100; value >= 4090; value--) {
+            bitmap = bitmap.without(BLOCK + value * 7);
+            expected.remove(BLOCK + value * 7);
+            assertEquals(expected, toSet(bitmap));
+        }
+        assertFalse(bitmap.contains(BLOCK + 4090 * 7));
+        assertTrue(bitmap.contains(BLOCK + 4089 * 7));
+    }
+
+    //This test case passes when adding an int already held and removing one which is not return the same set.
+    @Test
+    public void withAndWithoutUnchanged() {
+        CompressedBitmap bitmap = CompressedBitmap.of(new int[]{3, BLOCK + 5}, 2);
+        assertSame(bitmap, bitmap.with(3));
+        assertSame(bitmap, bitmap.without(4));
+        assertSame(bitmap, bitmap.without(2 * BLOCK + 3));
+        assertTrue(bitmap.without(3).without(BLOCK + 5).isEmpty());
+    }
+
+    //This test case passes when a set built at once holds the same ints as one built an int at a time, from sparse to dense blocks.
+    @Test
+    public void ofMatchesWith() {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 4095, 4096, 4097, 20000, 200000}) {
+            int[] ids = randomIds(random, size, 4 * BLOCK);
+            CompressedBitmap built = CompressedBitmap.of(ids, ids.length);
+            CompressedBitmap added = CompressedBitmap.EMPTY;
+            for (int id : ids) {
+                added = added.with(id);
+            }
+            TreeSet<Integer> expected = toTreeSet(ids);
+            assertEquals(expected, toSet(built));
+            assertEquals(expected, toSet(added));
+            assertEquals(expected.size(), built.cardinality());
+            assertEquals(expected.isEmpty() ? -1 : expected.last().intValue(), built.last());
+        }
+    }
+
+    //This test case passes when the intersection, union and difference of sets of every density match those of the expected sets.
+    @Test
+    public void andOrAndNot() {
+        Random random = new Random(7);
+        int[] sizes = {0, 10, 4096, 12300, 60000, 150000};
+        for (int left : sizes) {
+            for (int right : sizes) {
+                int[] leftIds = randomIds(random, left, 3 * BLOCK);
+                int[] rightIds = randomIds(random, right, 3 * BLOCK);
+                CompressedBitmap leftBitmap = CompressedBitmap.of(leftIds, leftIds.length);
+                CompressedBitmap rightBitmap = CompressedBitmap.of(rightIds, rightIds.length);
+
+                TreeSet<Integer> and = toTreeSet(leftIds);
+                and.retainAll(toTreeSet(rightIds));
+                TreeSet<Integer> or = toTreeSet(leftIds);
+                or.addAll(toTreeSet(rightIds));
+                TreeSet<Integer> andNot = toTreeSet(leftIds);
+                andNot.removeAll(toTreeSet(rightIds));
+
+                assertEquals(and, toSet(leftBitmap.and(rightBitmap)));
+                assertEquals(or, toSet(leftBitmap.or(rightBitmap)));
+                assertEquals(andNot, toSet(leftBitmap.andNot(rightBitmap)));
+                assertEquals(and.isEmpty(), leftBitmap.and(rightBitmap).isEmpty());
+            }
+        }
+    }
+
+    //This test case passes when a set read in small pages from below a bound returns the same ints as the expected set, highest first, across the blocks.
+    @Test
+    public void descendingInPages() {
+        Random random = new Random(11);
+        int[] ids = randomIds(random, 9000, 3 * BLOCK);
+        ids = Arrays.copyOf(ids, ids.length + 3);
+        ids[ids.length - 3] = BLOCK - 1;
+        ids[ids.length - 2] = BLOCK;
+        ids[ids.length - 1] = 5 * BLOCK;
+        CompressedBitmap bitmap = CompressedBitmap.of(ids, ids.length);
+        TreeSet<Integer> expected = toTreeSet(ids);
+
+        for (int before : new int[]{Integer.MAX_VALUE, 5 * BLOCK, BLOCK + 1, BLOCK, 2 * BLOCK + 123, 1, 0}) {
+            List<Integer> read = new ArrayList<>();
+            int[] page = new int[97];
+            int bound = before;
+            int count;
+            do {
+                count = bitmap.descending(bound, page);
+                for (int i = 0; i < count; i++) {
+                    read.add(page[i]);
+                }
+                if (count > 0) {
+                    bound = page[count - 1];
+                }
+            } while (count == page.length);
+            assertEquals(new ArrayList<>(expected.headSet(before, false).descendingSet()), read);
+        }
+    }
+
+    //This test case passes when the ints of one block are returned without the ints of the other blocks.
+    @Test
+    public void block() {
+        int[] ids = {1, BLOCK - 1, BLOCK, 2 * BLOCK + 9};
+        CompressedBitmap bitmap = CompressedBitmap.of(ids, ids.length);
+        assertEquals(toTreeSet(new int[]{1, BLOCK - 1}), toSet(bitmap.block(0)));
+        assertEquals(toTreeSet(new int[]{BLOCK}), toSet(bitmap.block(1)));
+        assertTrue(bitmap.block(3).isEmpty());
+    }
+
+    //This test case passes when a negative int is refused.
+    @Test(expected = IllegalArgumentException.class)
+    public void withNegative() {
+        CompressedBitmap.EMPTY.with(-1);
+    }
+
+    private static int[] randomIds(final Random random, final int size, final int bound) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = random.nextInt(bound);
+        }
+        return ids;
+    }
+
+    private static TreeSet<Integer> toTreeSet(final int[] ids) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    private static TreeSet<Integer> toSet(final CompressedBitmap bitmap) {
+        int[] ids = new int[(int) bitmap.cardinality()];
+        assertEquals(ids.length, bitmap.descending(Integer.MAX_VALUE, ids));
+        TreeSet<Integer> set = toTreeSet(ids);
+        assertEquals(ids.length, set.size());
+        for (int id : ids) {
+            assertTrue(bitmap.contains(id));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,223 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class compares the evaluation of tag filters by the tag index with a scan of the tags of every question, newest
+ * first, until a page is filled: the latency of the first page of a filter, and the memory of the sets which the index
+ * logs once built. The index is built by {@link TagIndex#rebuild()} from rows generated in memory instead of the
+ * database. The tags of the questions follow a Zipf distribution, so a few tags are carried by a large share of the
+ * questions and most of them by very few, and the filters combine popular and rare tags with and, or and not.
+ * It is not a test; run it with
+ * <pre>
+ * mvn -pl quora-service test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.upgrad.quora.service.tags.TagFilterBenchmark -Dexec.args="2000000 10000 2000 20"
+ * </pre>
+ * where the arguments are the number of questions, the number of tags, the number of measured filters and the page size.
+ */
+public class TagFilterBenchmark {
+    private static final int MAX_TAGS_PER_QUESTION = 5;
+
+    public static void main(final String[] args) throws Exception {
+        int questions = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int tagCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int filters = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int pageSize = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        Random random = new Random(42);
+        double[] cumulative = zipf(tagCount);
+        int[][] questionTags = new int[questions][];
+        List<Object[]> ownerRows = new ArrayList<>(questions);
+        List<Object[]> tagRows = new ArrayList<>(questions * 3);
+        for (int id = 0; id < questions; id++) {
+            Set<Integer> tags = new HashSet<>();
+            int count = 1 + random.nextInt(MAX_TAGS_PER_QUESTION);
+            while (tags.size() < count) {
+                tags.add(sample(cumulative, random));
+            }
+            questionTags[id] = tags.stream().mapToInt(Integer::intValue).toArray();
+            ownerRows.add(new Object[]{id, "user" + random.nextInt(questions / 10 + 1)});
+            for (int tag : tags) {
+                tagRows.add(new Object[]{id, "tag" + tag});
+            }
+        }
+
+        TagIndex index = index(ownerRows, tagRows);
+        long start = System.nanoTime();
+        index.rebuild();
+        System.out.printf("built the index of %d questions and %d tags in %d ms, the tagged ids take %d KB as int arrays%n",
+                questions, tagCount, (System.nanoTime() - start) / 1000000, 4L * tagRows.size() / 1024);
+        ownerRows = null;
+        tagRows = null;
+
+        List<TagFilter> measured = new ArrayList<>();
+        for (int i = 0; i < filters; i++) {
+            measured.add(TagFilter.parse(expression(random, cumulative)));
+        }
+        for (TagFilter filter : measured.subList(0, Math.min(20, filters))) {
+            index.find(filter, Integer.MAX_VALUE, pageSize);
+            scan(questionTags, filter, pageSize);
+        }
+
+        long[] bitmapLatencies = new long[filters];
+        long[] scanLatencies = new long[filters];
+        int mismatches = 0;
+        long matched = 0;
+        for (int i = 0; i < filters; i++) {
+            TagFilter filter = measured.get(i);
+            long bitmapStart = System.nanoTime();
+            int[] found = index.find(filter, Integer.MAX_VALUE, pageSize);
+            bitmapLatencies[i] = System.nanoTime() - bitmapStart;
+
+            long scanStart = System.nanoTime();
+            int[] scanned = scan(questionTags, filter, pageSize);
+            scanLatencies[i] = System.nanoTime() - scanStart;
+
+            matched += found.length;
+            if (!Arrays.equals(found, scanned)) {
+                mismatches++;
+            }
+        }
+        Arrays.sort(bitmapLatencies);
+        Arrays.sort(scanLatencies);
+        System.out.printf("%d filters, %.1f questions per page, %d pages differing from the scan%n", filters,
+                (double) matched / filters, mismatches);
+        System.out.printf("tag index: median %.1f us, p99 %.1f us%n", bitmapLatencies[filters / 2] / 1e3,
+                bitmapLatencies[Math.max(0, (int) (filters * 0.99) - 1)] / 1e3);
+        System.out.printf("scan of the tags: median %.1f us, p99 %.1f us%n", scanLatencies[filters / 2] / 1e3,
+                scanLatencies[Math.max(0, (int) (filters * 0.99) - 1)] / 1e3);
+    }
+
+    /**
+     * This method returns a tag index reading the given rows, in transactions which do nothing
+     */
+    private static TagIndex index(final List<Object[]> ownerRows, final List<Object[]> tagRows) throws ReflectiveOperationException {
+        TagIndex index = new TagIndex();
+        set(index, "questionDao", new QuestionDao() {
+            @Override
+            public List<Object[]> getAllQuestionOwners() {
+                return ownerRows;
+            }
+
+            @Override
+            public List<Object[]> getAllQuestionTags() {
+                return tagRows;
+            }
+        });
+        set(index, "transactionManager", new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(final TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(final TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(final TransactionStatus status) {
+            }
+        });
+        return index;
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * This method reads the tags of the questions from the newest one until the page is filled
+     */
+    private static int[] scan(final int[][] questionTags, final TagFilter filter, final int limit) {
+        int[][] required = indexes(filter.getRequired());
+        int[][] excluded = indexes(filter.getExcluded());
+        int[] ids = new int[limit];
+        int count = 0;
+        for (int id = questionTags.length - 1; id >= 0 && count < limit; id--) {
+            boolean matches = true;
+            for (int i = 0; i < required.length && matches; i++) {
+                matches = carriesAny(questionTags[id], required[i]);
+            }
+            for (int i = 0; i < excluded.length && matches; i++) {
+                matches = !carriesAny(questionTags[id], excluded[i]);
+            }
+            if (matches) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static boolean carriesAny(final int[] tags, final int[] term) {
+        for (int tag : tags) {
+            for (int wanted : term) {
+                if (tag == wanted) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int[][] indexes(final List<List<String>> terms) {
+        int[][] indexes = new int[terms.size()][];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = terms.get(i).stream().mapToInt(TagFilterBenchmark::index).toArray();
+        }
+        return indexes;
+    }
+
+    /**
+     * This method draws a filter of one or two required terms, one of them a popular tag or an alternative of two,
+     * and possibly an excluded tag
+     */
+    private static String expression(final Random random, final double[] cumulative) {
+        StringBuilder expression = new StringBuilder("tag").append(random.nextInt(20));
+        if (random.nextBoolean()) {
+            expression.append("|tag").append(sample(cumulative, random));
+        }
+        if (random.nextBoolean()) {
+            expression.append(",tag").append(sample(cumulative, random));
+        }
+        if (random.nextBoolean()) {
+            expression.append(",!tag").append(random.nextInt(50));
+        }
+        return expression.toString();
+    }
+
+    private static int index(final String tag) {
+        return Integer.parseInt(tag.substring("tag".length()));
+    }
+
+    private static double[] zipf(final int tags) {
+        double[] cumulative = new double[tags];
+        double total = 0;
+        for (int rank = 0; rank < tags; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < tags; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int sample(final double[] cumulative, final Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.upgrad.quora.service.tags;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.event.QuestionEvent;
+import com.upgrad.quora.service.event.UserEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class checks the tag filters evaluated by the tag index and the updates of the index by the events. The index
+ * is built by {@link TagIndex#rebuild()} from rows held in memory instead of the database, with questions spread over
+ * three blocks of 65536 ids: every third question is tagged java, every fifth spring, and the questions of user2 are
+ * the ones with an id divisible by seven.
+ */
+public class TagIndexTest {
+    private static final int BLOCK = 1 << 16;
+    private static final int STEP = 1000;
+    private static final int QUESTIONS = 3 * BLOCK / STEP;
+
+    private TagIndex index;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        List<Object[]> ownerRows = new ArrayList<>();
+        List<Object[]> tagRows = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            int id = i * STEP;
+            ownerRows.add(new Object[]{id, owner(i)});
+            if (i % 3 == 0) {
+                tagRows.add(new Object[]{id, "java"});
+            }
+            if (i % 5 == 0) {
+                tagRows.add(new Object[]{id, "spring"});
+            }
+        }
+        index = new TagIndex();
+        set(index, "questionDao", new QuestionDao() {
+            @Override
+            public List<Object[]> getAllQuestionOwners() {
+                return ownerRows;
+            }
+
+            @Override
+            public List<Object[]> getAllQuestionTags() {
+                return tagRows;
+            }
+        });
+        set(index, "transactionManager", new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(final TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(final TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(final TransactionStatus status) {
+            }
+        });
+        index.rebuild();
+    }
+
+    //This test case passes when the pages read after the cursor of the previous page add up to every matching question, newest first, across the blocks.
+    @Test
+    public void findInPages() throws Exception {
+        TagFilter filter = TagFilter.parse("java|spring");
+        List<Integer> read = new ArrayList<>();
+        int before = Integer.MAX_VALUE;
+        int[] page;
+        do {
+            page = index.find(filter, before, 7);
+            for (int id : page) {
+                read.add(id);
+            }
+            if (page.length > 0) {
+                before = TagCursor.parse(TagCursor.after(page[page.length - 1]).format()).getId();
+            }
+        } while (page.length == 7);
+        assertEquals(expected(i -> i % 3 == 0 || i % 5 == 0), read);
+    }
+
+    //This test case passes when a filter of required and excluded terms returns the questions carrying the former and none of the latter.
+    @Test
+    public void findRequiredAndExcluded() throws Exception {
+        assertEquals(expected(i -> i % 3 == 0 && i % 5 != 0), find("java,!spring"));
+        assertEquals(expected(i -> i % 3 == 0 && i % 5 == 0), find("java,spring"));
+    }
+
+    //This test case passes when a filter of excluded terms only returns every question carrying none of them.
+    @Test
+    public void findExcludedOnly() throws Exception {
+        assertEquals(expected(i -> i % 3 != 0), find("!java"));
+        assertEquals(expected(i -> i % 3 != 0 && i % 5 != 0), find("!java,!spring"));
+        assertEquals(expected(i -> true), find("!kotlin"));
+    }
+
+    //This test case passes when a question edited with other tags is found by its new tags only.
+    @Test
+    public void retagOnQuestionEdited() throws Exception {
+        index.onQuestionEvent(new QuestionEvent(QuestionEvent.Type.UPDATED, 3 * STEP, "uuid", "content", owner(3), null,
+                new HashSet<>(Arrays.asList("spring", "kotlin"))));
+        assertEquals(expected(i -> i % 3 == 0 && i != 3), find("java"));
+        assertEquals(expected(i -> i % 5 == 0 || i == 3), find("spring"));
+        assertEquals(Arrays.asList(3 * STEP), find("kotlin"));
+    }
+
+    //This test case passes when a deleted question is no longer found, including by a filter of excluded terms only.
+    @Test
+    public void removeOnQuestionDeleted() throws Exception {
+        index.onQuestionEvent(new QuestionEvent(QuestionEvent.Type.DELETED, 15 * STEP, "uuid", null, owner(15), null, null));
+        index.onQuestionEvent(new QuestionEvent(QuestionEvent.Type.DELETED, 16 * STEP, "uuid", null, owner(16), null, null));
+        assertEquals(expected(i -> i % 3 == 0 && i != 15), find("java"));
+        assertEquals(expected(i -> i % 3 != 0 && i != 16), find("!java"));
+    }
+
+    //This test case passes when the questions of a deleted user are no longer found by any filter.
+    @Test
+    public void removeUserOnUserDeleted() throws Exception {
+        index.onUserEvent(new UserEvent(UserEvent.Type.DELETED, "user2"));
+        assertEquals(expected(i -> i % 3 == 0 && i % 7 != 0), find("java"));
+        assertEquals(expected(i -> i % 3 != 0 && i % 7 != 0), find("!java"));
+    }
+
+    //This test case passes when a question created after the index was built is found by its tags.
+    @Test
+    public void addOnQuestionCreated() throws Exception {
+        int id = 3 * BLOCK + 1;
+        index.onQuestionEvent(new QuestionEvent(QuestionEvent.Type.CREATED, id, "uuid", "content", "user1", null,
+                new HashSet<>(Arrays.asList("java"))));
+        assertEquals(Integer.valueOf(id), find("java").get(0));
+        assertArrayEquals(new int[]{id}, index.find(TagFilter.parse("java"), Integer.MAX_VALUE, 1));
+    }
+
+    private List<Integer> find(final String expression) throws Exception {
+        int[] found = index.find(TagFilter.parse(expression), Integer.MAX_VALUE, QUESTIONS + 1);
+        List<Integer> ids = new ArrayList<>();
+        for (int id : found) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static List<Integer> expected(final IntPredicate matches) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = QUESTIONS - 1; i >= 0; i--) {
+            if (matches.test(i)) {
+                ids.add(i * STEP);
+            }
+        }
+        return ids;
+    }
+
+    private static String owner(final int question) {
+        return question % 7 == 0 ? "user2" : "user1";
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}